@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package org.jlinda.core.utils;
+
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.gpf.Tile;
+import org.jblas.ComplexDoubleMatrix;
+import org.jblas.DoubleMatrix;
+
+import java.util.Arrays;
+
+/**
+ * Coherence estimation on primitive arrays.
+ * <p>
+ * The reference and secondary samples of a tile are loaded into an interleaved interferogram (re, im) and an
+ * interleaved power array (|secondary|^2, |reference|^2), the same pair SarUtils.coherence3 takes as input and
+ * norms. Reference phases are subtracted from the interferogram in place, and the window sums are computed with
+ * running sums over the azimuth columns and then along range. No per-pixel objects are created, and the buffers
+ * are reused when the kernel is loaded again with a tile of the same or a smaller size.
+ * <p>
+ * A kernel is not thread safe; use one per tile computation.
+ */
+public final class CoherenceKernel {
+
+    private final int winAz;
+    private final int winRg;
+
+    private int rows;
+    private int cols;
+    private double[] ifg = new double[0];
+    private double[] power = new double[0];
+
+    // azimuth column sums of the current output row
+    private double[] colIfgRe = new double[0];
+    private double[] colIfgIm = new double[0];
+    private double[] colPowSlv = new double[0];
+    private double[] colPowMst = new double[0];
+    private int[] colCntSlv = new int[0];
+    private int[] colCntMst = new int[0];
+
+    /**
+     * @param winAz coherence window size in azimuth (rows)
+     * @param winRg coherence window size in range (columns)
+     */
+    public CoherenceKernel(final int winAz, final int winRg) {
+        if (winAz < 1 || winRg < 1) {
+            throw new IllegalArgumentException("coherence window must be at least 1x1");
+        }
+        this.winAz = winAz;
+        this.winRg = winRg;
+    }
+
+    /**
+     * Load the samples of a reference and a secondary tile covering the same rectangle.
+     */
+    public void load(final Tile mstTileReal, final Tile mstTileImag, final Tile slvTileReal, final Tile slvTileImag) {
+
+        allocate(mstTileReal.getHeight(), mstTileReal.getWidth());
+
+        final ProductData mstReal = mstTileReal.getRawSamples();
+        final ProductData mstImag = mstTileImag.getRawSamples();
+        final ProductData slvReal = slvTileReal.getRawSamples();
+        final ProductData slvImag = slvTileImag.getRawSamples();
+
+        final int n = rows * cols;
+        for (int i = 0; i < n; i++) {
+            multiply(i, mstReal.getElemDoubleAt(i), mstImag.getElemDoubleAt(i),
+                    slvReal.getElemDoubleAt(i), slvImag.getElemDoubleAt(i));
+        }
+    }
+
+    /**
+     * Load interleaved (re, im) reference and secondary samples stored row by row.
+     */
+    public void load(final double[] mst, final double[] slv, final int rows, final int cols) {
+        if (mst.length < 2 * rows * cols || slv.length < 2 * rows * cols) {
+            throw new IllegalArgumentException("sample arrays are smaller than " + rows + 'x' + cols);
+        }
+        allocate(rows, cols);
+
+        final int n = rows * cols;
+        for (int i = 0; i < n; i++) {
+            multiply(i, mst[2 * i], mst[2 * i + 1], slv[2 * i], slv[2 * i + 1]);
+        }
+    }
+
+    private void allocate(final int rows, final int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        final int n = rows * cols;
+        if (ifg.length < 2 * n) {
+            ifg = new double[2 * n];
+            power = new double[2 * n];
+        }
+        if (colIfgRe.length < cols) {
+            colIfgRe = new double[cols];
+            colIfgIm = new double[cols];
+            colPowSlv = new double[cols];
+            colPowMst = new double[cols];
+            colCntSlv = new int[cols];
+            colCntMst = new int[cols];
+        }
+    }
+
+    private void multiply(final int i, final double mRe, final double mIm, final double sRe, final double sIm) {
+        // m * conj(s)
+        ifg[2 * i] = mRe * sRe + mIm * sIm;
+        ifg[2 * i + 1] = mIm * sRe - mRe * sIm;
+        power[2 * i] = sRe * sRe + sIm * sIm;
+        power[2 * i + 1] = mRe * mRe + mIm * mIm;
+    }
+
+    /**
+     * Subtract a reference phase from the interferogram, which equals multiplying the secondary by exp(i*phase).
+     *
+     * @param phase phase in radians with the size of the loaded tile, e.g. the flat earth phase
+     */
+    public void subtractPhase(final DoubleMatrix phase) {
+        checkSize(phase.rows, phase.columns);
+        final double[] data = phase.data;
+        for (int r = 0; r < rows; r++) {
+            final int stride = r * cols;
+            for (int c = 0; c < cols; c++) {
+                rotate(stride + c, data[c * rows + r]);
+            }
+        }
+    }
+
+    /**
+     * Subtract a reference phase from the interferogram, which equals multiplying the secondary by exp(i*phase).
+     *
+     * @param phase phase in radians as [row][column] with the size of the loaded tile, e.g. the topographic phase
+     */
+    public void subtractPhase(final double[][] phase) {
+        checkSize(phase.length, phase.length == 0 ? 0 : phase[0].length);
+        for (int r = 0; r < rows; r++) {
+            final double[] line = phase[r];
+            final int stride = r * cols;
+            for (int c = 0; c < cols; c++) {
+                rotate(stride + c, line[c]);
+            }
+        }
+    }
+
+    private void checkSize(final int phaseRows, final int phaseCols) {
+        if (phaseRows != rows || phaseCols != cols) {
+            throw new IllegalArgumentException("phase is " + phaseRows + 'x' + phaseCols +
+                    " but the loaded tile is " + rows + 'x' + cols);
+        }
+    }
+
+    private void rotate(final int i, final double phase) {
+        final double cos = Math.cos(phase);
+        final double sin = Math.sin(phase);
+        final double re = ifg[2 * i];
+        final double im = ifg[2 * i + 1];
+        ifg[2 * i] = re * cos + im * sin;
+        ifg[2 * i + 1] = im * cos - re * sin;
+    }
+
+    /**
+     * @return a copy of the interferogram as the input of the SarUtils coherence estimators
+     */
+    public ComplexDoubleMatrix getInterferogram() {
+        return toMatrix(ifg);
+    }
+
+    /**
+     * @return a copy of the powers (|secondary|^2, |reference|^2) as the norms of the SarUtils coherence estimators
+     */
+    public ComplexDoubleMatrix getNorms() {
+        return toMatrix(power);
+    }
+
+    private ComplexDoubleMatrix toMatrix(final double[] interleaved) {
+        final ComplexDoubleMatrix matrix = new ComplexDoubleMatrix(rows, cols);
+        final double[] data = matrix.data;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                final int src = 2 * (r * cols + c);
+                final int dst = 2 * (c * rows + r);
+                data[dst] = interleaved[src];
+                data[dst + 1] = interleaved[src + 1];
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Estimate the coherence of the loaded tile.
+     *
+     * @return coherence of (rows - winAz + 1) x (columns - winRg + 1) pixels, where pixel (r, c) is the estimate of
+     * the window starting at row r and column c, as returned by SarUtils.coherence3
+     */
+    public DoubleMatrix coherence() {
+
+        final int resRows = rows - winAz + 1;
+        final int resCols = cols - winRg + 1;
+        if (resRows < 1 || resCols < 1) {
+            throw new IllegalArgumentException("tile of " + rows + 'x' + cols +
+                    " is smaller than the coherence window " + winAz + 'x' + winRg);
+        }
+        final double[] result = new double[resRows * resCols];
+
+        Arrays.fill(colIfgRe, 0, cols, 0.0);
+        Arrays.fill(colIfgIm, 0, cols, 0.0);
+        Arrays.fill(colPowSlv, 0, cols, 0.0);
+        Arrays.fill(colPowMst, 0, cols, 0.0);
+        Arrays.fill(colCntSlv, 0, cols, 0);
+        Arrays.fill(colCntMst, 0, cols, 0);
+        for (int r = 0; r < winAz - 1; r++) {
+            addRow(r, 1);
+        }
+
+        for (int r = 0; r < resRows; r++) {
+            addRow(r + winAz - 1, 1);
+
+            double sumIfgRe = 0, sumIfgIm = 0, sumPowSlv = 0, sumPowMst = 0;
+            int cntSlv = 0, cntMst = 0;
+            for (int c = 0; c < winRg - 1; c++) {
+                sumIfgRe += colIfgRe[c];
+                sumIfgIm += colIfgIm[c];
+                sumPowSlv += colPowSlv[c];
+                sumPowMst += colPowMst[c];
+                cntSlv += colCntSlv[c];
+                cntMst += colCntMst[c];
+            }
+
+            for (int c = 0; c < resCols; c++) {
+                final int in = c + winRg - 1;
+                sumIfgRe += colIfgRe[in];
+                sumIfgIm += colIfgIm[in];
+                sumPowSlv += colPowSlv[in];
+                sumPowMst += colPowMst[in];
+                cntSlv += colCntSlv[in];
+                cntMst += colCntMst[in];
+
+                // the counts keep windows of zeros at zero coherence despite round-off in the running sums
+                final double product = sumPowSlv * sumPowMst;
+                if (cntSlv > 0 && cntMst > 0 && product > 0.0) {
+                    result[c * resRows + r] = Math.sqrt(sumIfgRe * sumIfgRe + sumIfgIm * sumIfgIm) / Math.sqrt(product);
+                }
+
+                sumIfgRe -= colIfgRe[c];
+                sumIfgIm -= colIfgIm[c];
+                sumPowSlv -= colPowSlv[c];
+                sumPowMst -= colPowMst[c];
+                cntSlv -= colCntSlv[c];
+                cntMst -= colCntMst[c];
+            }
+
+            addRow(r, -1);
+        }
+
+        return new DoubleMatrix(resRows, resCols, result);
+    }
+
+    private void addRow(final int r, final int sign) {
+        final int offset = 2 * r * cols;
+        for (int c = 0; c < cols; c++) {
+            final int i = offset + 2 * c;
+            final double powSlv = power[i];
+            final double powMst = power[i + 1];
+            colIfgRe[c] += sign * ifg[i];
+            colIfgIm[c] += sign * ifg[i + 1];
+            colPowSlv[c] += sign * powSlv;
+            colPowMst[c] += sign * powMst;
+            if (powSlv > 0.0) {
+                colCntSlv[c] += sign;
+            }
+            if (powMst > 0.0) {
+                colCntMst[c] += sign;
+            }
+        }
+    }
+}
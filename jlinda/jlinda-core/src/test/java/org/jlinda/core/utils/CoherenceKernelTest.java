@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package org.jlinda.core.utils;
+
+import org.jblas.ComplexDouble;
+import org.jblas.ComplexDoubleMatrix;
+import org.jblas.DoubleMatrix;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class CoherenceKernelTest {
+
+    private static final double DELTA = 1e-10;
+    // the summed area tables of coherence3 lose a few digits to cancellation
+    private static final double DELTA_SAT = 1e-8;
+
+    private static final int rows = 40;
+    private static final int cols = 57;
+
+    @Test
+    public void testCoherenceMatchesCoherence3() {
+        compare(5, 3, false, false, true);
+        compare(10, 10, false, false, true);
+        compare(1, 1, false, false, true);
+        compare(5, 3, true, false, true);
+    }
+
+    @Test
+    public void testCoherenceWithReferencePhase() {
+        compare(5, 3, true, false, false);
+        compare(2, 7, true, false, false);
+    }
+
+    @Test
+    public void testCoherenceWithZeroBorder() {
+        // windows without signal have zero coherence
+        compare(5, 3, true, true, false);
+    }
+
+    @Test
+    public void testInterferogramAndNorms() {
+        final double[] mst = new double[2 * rows * cols];
+        final double[] slv = new double[2 * rows * cols];
+        final DoubleMatrix phase = new DoubleMatrix(rows, cols);
+        createPair(mst, slv, phase, false);
+
+        final ComplexDoubleMatrix dataMaster = toMatrix(mst);
+        final ComplexDoubleMatrix dataSlave = toMatrix(slv);
+        prepare(dataMaster, dataSlave, phase);
+
+        final CoherenceKernel kernel = new CoherenceKernel(5, 3);
+        kernel.load(mst, slv, rows, cols);
+        kernel.subtractPhase(phase);
+
+        final ComplexDoubleMatrix ifg = kernel.getInterferogram();
+        final ComplexDoubleMatrix norms = kernel.getNorms();
+        for (int i = 0; i < rows * cols; i++) {
+            assertEquals(dataMaster.get(i).real(), ifg.get(i).real(), DELTA);
+            assertEquals(dataMaster.get(i).imag(), ifg.get(i).imag(), DELTA);
+            assertEquals(dataSlave.get(i).real(), norms.get(i).real(), DELTA);
+            assertEquals(dataSlave.get(i).imag(), norms.get(i).imag(), DELTA);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWindowLargerThanTile() {
+        final CoherenceKernel kernel = new CoherenceKernel(rows + 1, 3);
+        kernel.load(new double[2 * rows * cols], new double[2 * rows * cols], rows, cols);
+        kernel.coherence();
+    }
+
+    private static void compare(final int winAz, final int winRg, final boolean withPhase, final boolean zeroBorder,
+                                final boolean withCoherence3) {
+        final double[] mst = new double[2 * rows * cols];
+        final double[] slv = new double[2 * rows * cols];
+        final DoubleMatrix phase = new DoubleMatrix(rows, cols);
+        createPair(mst, slv, phase, zeroBorder);
+
+        final ComplexDoubleMatrix dataMaster = toMatrix(mst);
+        final ComplexDoubleMatrix dataSlave = toMatrix(slv);
+        prepare(dataMaster, dataSlave, withPhase ? phase : null);
+        final DoubleMatrix expected = withCoherence3 ?
+                SarUtils.coherence3(dataMaster, dataSlave, winAz, winRg) :
+                windowSums(dataMaster, dataSlave, winAz, winRg);
+
+        final CoherenceKernel kernel = new CoherenceKernel(winAz, winRg);
+        kernel.load(mst, slv, rows, cols);
+        if (withPhase) {
+            kernel.subtractPhase(phase);
+        }
+        final DoubleMatrix actual = kernel.coherence();
+
+        assertEquals(expected.rows, actual.rows);
+        assertEquals(expected.columns, actual.columns);
+        for (int r = 0; r < expected.rows; r++) {
+            for (int c = 0; c < expected.columns; c++) {
+                assertEquals("pixel " + r + ',' + c, expected.get(r, c), actual.get(r, c),
+                        withCoherence3 ? DELTA_SAT : DELTA);
+            }
+        }
+    }
+
+    // direct summation over every window
+    private static DoubleMatrix windowSums(final ComplexDoubleMatrix input, final ComplexDoubleMatrix norms,
+                                           final int winAz, final int winRg) {
+        final DoubleMatrix result = new DoubleMatrix(rows - winAz + 1, cols - winRg + 1);
+        for (int r = 0; r < result.rows; r++) {
+            for (int c = 0; c < result.columns; c++) {
+                double re = 0, im = 0, pSlv = 0, pMst = 0;
+                for (int i = r; i < r + winAz; i++) {
+                    for (int j = c; j < c + winRg; j++) {
+                        final int idx = input.index(i, j);
+                        re += input.get(idx).real();
+                        im += input.get(idx).imag();
+                        pSlv += norms.get(idx).real();
+                        pMst += norms.get(idx).imag();
+                    }
+                }
+                final double product = pSlv * pMst;
+                result.put(r, c, product > 0.0 ? Math.sqrt(re * re + im * im) / Math.sqrt(product) : 0.0);
+            }
+        }
+        return result;
+    }
+
+    // partially coherent pair with a linear fringe pattern
+    private static void createPair(final double[] mst, final double[] slv, final DoubleMatrix phase,
+                                   final boolean zeroBorder) {
+        final Random random = new Random(7);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                final int i = r * cols + c;
+                final double fringe = 0.3 * c + 0.1 * r;
+                phase.put(r, c, fringe);
+                if (zeroBorder && (r < 8 || c > cols - 12)) {
+                    continue;
+                }
+                final double mRe = 100 * random.nextGaussian(), mIm = 100 * random.nextGaussian();
+                mst[2 * i] = mRe;
+                mst[2 * i + 1] = mIm;
+                slv[2 * i] = 0.8 * (mRe * Math.cos(fringe) - mIm * Math.sin(fringe)) + 20 * random.nextGaussian();
+                slv[2 * i + 1] = 0.8 * (mRe * Math.sin(fringe) + mIm * Math.cos(fringe)) + 20 * random.nextGaussian();
+            }
+        }
+    }
+
+    private static ComplexDoubleMatrix toMatrix(final double[] interleaved) {
+        final ComplexDoubleMatrix matrix = new ComplexDoubleMatrix(rows, cols);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                final int i = r * cols + c;
+                matrix.put(r, c, new ComplexDouble(interleaved[2 * i], interleaved[2 * i + 1]));
+            }
+        }
+        return matrix;
+    }
+
+    // the per-pixel preparation the operators used before the kernel
+    private static void prepare(final ComplexDoubleMatrix dataMaster, final ComplexDoubleMatrix dataSlave,
+                                final DoubleMatrix phase) {
+        if (phase != null) {
+            for (int i = 0; i < dataSlave.length; i++) {
+                dataSlave.put(i, dataSlave.get(i).mul(new ComplexDouble(Math.cos(phase.get(i)), Math.sin(phase.get(i)))));
+            }
+        }
+        for (int i = 0; i < dataMaster.length; i++) {
+            final double tmp = norm(dataMaster.get(i));
+            dataMaster.put(i, dataMaster.get(i).mul(dataSlave.get(i).conj()));
+            dataSlave.put(i, new ComplexDouble(norm(dataSlave.get(i)), tmp));
+        }
+    }
+
+    private static double norm(final ComplexDouble number) {
+        return number.real() * number.real() + number.imag() * number.imag();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark.jmh;
+
+import org.jblas.ComplexDouble;
+import org.jblas.ComplexDoubleMatrix;
+import org.jblas.DoubleMatrix;
+import org.jblas.MatrixFunctions;
+import org.jlinda.core.utils.CoherenceKernel;
+import org.jlinda.core.utils.SarUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coherence estimation over one tile of a synthetic interferometric pair,
+ * comparing the per-pixel ComplexDouble preparation with summed area tables that CoherenceOp used
+ * with the primitive CoherenceKernel it uses now.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoherenceBenchmark {
+
+    private static final int tileSize = 512;
+
+    @Param({"10x3", "20x5"})
+    public String window;
+
+    private int winAz;
+    private int winRg;
+    private ComplexDoubleMatrix master;
+    private ComplexDoubleMatrix slave;
+    private DoubleMatrix flatEarthPhase;
+    private double[] masterSamples;
+    private double[] slaveSamples;
+    private CoherenceKernel kernel;
+
+    private ComplexDoubleMatrix dataMaster;
+    private ComplexDoubleMatrix dataSlave;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final String[] size = window.split("x");
+        winRg = Integer.parseInt(size[0]);
+        winAz = Integer.parseInt(size[1]);
+
+        final int rows = tileSize + winAz - 1;
+        final int cols = tileSize + winRg - 1;
+        master = new ComplexDoubleMatrix(rows, cols);
+        slave = new ComplexDoubleMatrix(rows, cols);
+        flatEarthPhase = new DoubleMatrix(rows, cols);
+        masterSamples = new double[2 * rows * cols];
+        slaveSamples = new double[2 * rows * cols];
+        kernel = new CoherenceKernel(winAz, winRg);
+
+        // partially coherent pair with a linear fringe pattern
+        final Random random = new Random(42);
+        for (int r = 0; r < rows; ++r) {
+            for (int c = 0; c < cols; ++c) {
+                final double phase = 0.05 * c + 0.02 * r;
+                final double mRe = random.nextGaussian(), mIm = random.nextGaussian();
+                final double nRe = random.nextGaussian(), nIm = random.nextGaussian();
+                master.put(r, c, new ComplexDouble(mRe, mIm));
+                final double sRe = mRe * Math.cos(phase) - mIm * Math.sin(phase);
+                final double sIm = mRe * Math.sin(phase) + mIm * Math.cos(phase);
+                slave.put(r, c, new ComplexDouble(0.7 * sRe + 0.3 * nRe, 0.7 * sIm + 0.3 * nIm));
+                flatEarthPhase.put(r, c, phase);
+
+                final int i = 2 * (r * cols + c);
+                masterSamples[i] = mRe;
+                masterSamples[i + 1] = mIm;
+                slaveSamples[i] = 0.7 * sRe + 0.3 * nRe;
+                slaveSamples[i + 1] = 0.7 * sIm + 0.3 * nIm;
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        dataMaster = master.dup();
+        dataSlave = slave.dup();
+    }
+
+    private static double norm(final ComplexDouble number) {
+        return number.real() * number.real() + number.imag() * number.imag();
+    }
+
+    private void prepare() {
+        for (int i = 0; i < dataMaster.length; i++) {
+            double tmp = norm(dataMaster.get(i));
+            dataMaster.put(i, dataMaster.get(i).mul(dataSlave.get(i).conj()));
+            dataSlave.put(i, new ComplexDouble(norm(dataSlave.get(i)), tmp));
+        }
+    }
+
+    @Benchmark
+    public DoubleMatrix coherence() {
+        prepare();
+        return SarUtils.coherence3(dataMaster, dataSlave, winAz, winRg);
+    }
+
+    @Benchmark
+    public DoubleMatrix coherenceFlatEarth() {
+        dataSlave.muli(new ComplexDoubleMatrix(
+                MatrixFunctions.cos(flatEarthPhase), MatrixFunctions.sin(flatEarthPhase)));
+        prepare();
+        return SarUtils.coherence3(dataMaster, dataSlave, winAz, winRg);
+    }
+
+    @Benchmark
+    public DoubleMatrix coherenceKernel() {
+        kernel.load(masterSamples, slaveSamples, master.rows, master.columns);
+        return kernel.coherence();
+    }
+
+    @Benchmark
+    public DoubleMatrix coherenceKernelFlatEarth() {
+        kernel.load(masterSamples, slaveSamples, master.rows, master.columns);
+        kernel.subtractPhase(flatEarthPhase);
+        return kernel.coherence();
+    }
+
+    @Benchmark
+    public DoubleMatrix coherenceLocalPhaseRamp() {
+        prepare();
+        return SarUtils.coherence_LPR(dataMaster, dataSlave, winAz, winRg);
+    }
+}
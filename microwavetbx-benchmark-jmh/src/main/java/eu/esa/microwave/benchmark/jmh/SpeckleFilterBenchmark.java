@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark.jmh;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.sar.gpf.filtering.SpeckleFilterOp;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.engine_utilities.datamodel.Unit;
+import org.esa.snap.engine_utilities.util.TestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Speckle filters applied to one tile of a synthetic single-look amplitude image.
+ * A new operator is created for every invocation so that no result comes from the tile cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpeckleFilterBenchmark {
+
+    private static final int width = 512;
+    private static final int height = 512;
+
+    @Param({"Boxcar", "Median", "Frost", "Gamma Map", "Lee", "Lee Sigma"})
+    public String filter;
+
+    @Param({"5", "11"})
+    public int filterSize;
+
+    private Product sourceProduct;
+    private Band targetBand;
+    private final float[] pixels = new float[width * height];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sourceProduct = TestUtils.createProduct("GRD", width, height);
+        final Band band = sourceProduct.addBand("Amplitude_VV", ProductData.TYPE_FLOAT32);
+        band.setUnit(Unit.AMPLITUDE);
+
+        // fully developed speckle: exponentially distributed intensity over a few homogeneous areas
+        final Random random = new Random(42);
+        final float[] values = new float[width * height];
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                final double mean = 100.0 * (1 + ((x / 64) + (y / 64)) % 4);
+                final double intensity = -mean * Math.log(1.0 - random.nextDouble());
+                values[y * width + x] = (float) Math.sqrt(intensity);
+            }
+        }
+        band.setData(ProductData.createInstance(values));
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        final SpeckleFilterOp op = new SpeckleFilterOp();
+        op.setSourceProduct(sourceProduct);
+        op.SetFilter(filter);
+        op.setParameter("filterSizeX", filterSize);
+        op.setParameter("filterSizeY", filterSize);
+        op.setParameter("windowSize", filterSize + "x" + filterSize);
+        targetBand = op.getTargetProduct().getBandAt(0);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() {
+        targetBand.getProduct().dispose();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sourceProduct.dispose();
+    }
+
+    @Benchmark
+    public float[] filterTile() throws IOException {
+        targetBand.readPixels(0, 0, width, height, pixels, ProgressMonitor.NULL);
+        return pixels;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark.jmh;
+
+import eu.esa.sar.commons.OrbitStateVectors;
+import eu.esa.sar.commons.SARGeocoding;
+import eu.esa.sar.commons.ZeroDopplerSolver;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.engine_utilities.datamodel.OrbitStateVector;
+import org.esa.snap.engine_utilities.datamodel.PosVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zero-Doppler time search and orbit interpolation as used by terrain correction and geocoding.
+ * The orbit is a synthetic circular orbit so no product or orbit file is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZeroDopplerBenchmark {
+
+    private static final int numPoints = 1024;
+    private static final int numVectors = 17;
+    private static final double vectorInterval = 10.0;        // seconds
+    private static final double orbitRadius = 7071000.0;       // metres
+    private static final double earthRadius = 6371000.0;       // metres
+    private static final double inclination = Math.toRadians(98.2);
+    private static final double angularVelocity = Math.sqrt(3.986004418e14 / (orbitRadius * orbitRadius * orbitRadius));
+    private static final double firstVectorMJD = 8891.5;
+    private static final double wavelength = 0.05546576;
+
+    @Param({"10000", "50000"})
+    public int numLines;
+
+    private OrbitStateVector[] stateVectors;
+    private double firstLineUTC;
+    private double lineTimeInterval;
+    private PosVector[] sensorPosition;
+    private PosVector[] sensorVelocity;
+    private PosVector[] earthPoints;
+    private PosVector[] rowPoints;
+    private ZeroDopplerSolver solver;
+    private double[] pointTimes;
+
+    private OrbitStateVectors orbit;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stateVectors = new OrbitStateVector[numVectors];
+        for (int i = 0; i < numVectors; ++i) {
+            final double t = i * vectorInterval;
+            final double[] pos = position(t);
+            final double[] vel = velocity(t);
+            stateVectors[i] = new OrbitStateVector(new ProductData.UTC(firstVectorMJD + t / 86400.0),
+                    pos[0], pos[1], pos[2], vel[0], vel[1], vel[2]);
+        }
+
+        // the image covers the middle of the orbit arc
+        final double firstLineSeconds = 4 * vectorInterval;
+        final double lastLineSeconds = (numVectors - 5) * vectorInterval;
+        firstLineUTC = firstVectorMJD + firstLineSeconds / 86400.0;
+        lineTimeInterval = (lastLineSeconds - firstLineSeconds) / (numLines - 1) / 86400.0;
+
+        final OrbitStateVectors lineOrbit = new OrbitStateVectors(stateVectors, firstLineUTC, lineTimeInterval, numLines);
+        sensorPosition = lineOrbit.sensorPosition;
+        sensorVelocity = lineOrbit.sensorVelocity;
+
+        // ground points 300 km cross track of the sub-satellite point at random azimuth times
+        final Random random = new Random(42);
+        final double[] normal = {0.0, -Math.sin(inclination), Math.cos(inclination)};
+        earthPoints = new PosVector[numPoints];
+        pointTimes = new double[numPoints];
+        for (int i = 0; i < numPoints; ++i) {
+            final double t = firstLineSeconds + random.nextDouble() * (lastLineSeconds - firstLineSeconds);
+            final double[] pos = position(t);
+            final double[] p = new double[3];
+            double len = 0;
+            for (int k = 0; k < 3; ++k) {
+                p[k] = pos[k] / orbitRadius * earthRadius + 300000.0 * normal[k];
+                len += p[k] * p[k];
+            }
+            len = Math.sqrt(len);
+            earthPoints[i] = new PosVector(p[0] / len * earthRadius, p[1] / len * earthRadius, p[2] / len * earthRadius);
+            pointTimes[i] = firstVectorMJD + t / 86400.0;
+        }
+
+        // a DEM row: neighbouring points drifting slowly in azimuth and across the swath
+        rowPoints = new PosVector[numPoints];
+        final double rowTime = (firstLineSeconds + lastLineSeconds) / 2;
+        for (int i = 0; i < numPoints; ++i) {
+            final double[] pos = position(rowTime + i * 0.002);
+            final double crossTrack = 250000.0 + i * 200.0;
+            final double[] p = new double[3];
+            double len = 0;
+            for (int k = 0; k < 3; ++k) {
+                p[k] = pos[k] / orbitRadius * earthRadius + crossTrack * normal[k];
+                len += p[k] * p[k];
+            }
+            len = Math.sqrt(len);
+            rowPoints[i] = new PosVector(p[0] / len * earthRadius, p[1] / len * earthRadius, p[2] / len * earthRadius);
+        }
+
+        solver = new ZeroDopplerSolver(firstLineUTC, lineTimeInterval, wavelength, lineOrbit);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        // OrbitStateVectors memoizes interpolated times, start every invocation with an empty memo
+        orbit = new OrbitStateVectors(stateVectors);
+    }
+
+    private static double[] position(final double t) {
+        final double wt = angularVelocity * t;
+        return new double[]{orbitRadius * Math.cos(wt),
+                orbitRadius * Math.sin(wt) * Math.cos(inclination),
+                orbitRadius * Math.sin(wt) * Math.sin(inclination)};
+    }
+
+    private static double[] velocity(final double t) {
+        final double wt = angularVelocity * t;
+        final double v = orbitRadius * angularVelocity;
+        return new double[]{-v * Math.sin(wt),
+                v * Math.cos(wt) * Math.cos(inclination),
+                v * Math.cos(wt) * Math.sin(inclination)};
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(numPoints)
+    public void zeroDopplerTimeBinarySearch(final Blackhole bh) {
+        for (PosVector earthPoint : earthPoints) {
+            bh.consume(SARGeocoding.getEarthPointZeroDopplerTime(firstLineUTC, lineTimeInterval, wavelength,
+                    earthPoint, sensorPosition, sensorVelocity));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(numPoints)
+    public void zeroDopplerTimeRowBinarySearch(final Blackhole bh) {
+        for (PosVector earthPoint : rowPoints) {
+            bh.consume(SARGeocoding.getEarthPointZeroDopplerTime(firstLineUTC, lineTimeInterval, wavelength,
+                    earthPoint, sensorPosition, sensorVelocity));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(numPoints)
+    public void zeroDopplerTimeSolver(final Blackhole bh) {
+        for (PosVector earthPoint : earthPoints) {
+            bh.consume(solver.getZeroDopplerTime(earthPoint));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(numPoints)
+    public void zeroDopplerTimeRowSolverCursor(final Blackhole bh) {
+        final ZeroDopplerSolver.Cursor cursor = solver.newCursor();
+        for (PosVector earthPoint : rowPoints) {
+            bh.consume(cursor.getZeroDopplerTime(earthPoint));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(numPoints)
+    public void zeroDopplerTimeNewton(final Blackhole bh) {
+        for (PosVector earthPoint : earthPoints) {
+            bh.consume(SARGeocoding.getEarthPointZeroDopplerTimeNewton(lineTimeInterval, wavelength,
+                    earthPoint, orbit));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(numPoints)
+    public void orbitInterpolation(final Blackhole bh) {
+        for (double time : pointTimes) {
+            bh.consume(orbit.getPositionVelocity(time));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.calibration.gpf.calibrators;
+
+import eu.esa.sar.commons.Sentinel1Utils;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.engine_utilities.datamodel.Unit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sentinel-1 calibration LUT lookup and bilinear interpolation for every pixel of a tile.
+ * Lives in the calibrators package to build CalibrationInfo from synthetic calibration vectors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Sentinel1CalibrationBenchmark {
+
+    private static final String bandName = "Sigma0_VV";
+    private static final int imageWidth = 25000;
+    private static final int imageHeight = 16000;
+    private static final int pixelSpacing = 40;
+    private static final int lineSpacing = 1000;
+    private static final double firstLineTime = 8891.5;
+    private static final double lineTimeInterval = 1.0e-3 / 86400.0;
+
+    private static final int tileX0 = 12000;
+    private static final int tileY0 = 7500;
+    private static final int tileSize = 256;
+
+    private final Sentinel1Calibrator calibrator = new Sentinel1Calibrator();
+    private final double[] values = new double[tileSize * tileSize];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final int numPixels = imageWidth / pixelSpacing + 2;
+        final int[] pixels = new int[numPixels];
+        for (int i = 0; i < numPixels; ++i) {
+            pixels[i] = i * pixelSpacing;
+        }
+
+        final int count = imageHeight / lineSpacing + 2;
+        final Sentinel1Utils.CalibrationVector[] vectors = new Sentinel1Utils.CalibrationVector[count];
+        for (int v = 0; v < count; ++v) {
+            final float[] sigma = new float[numPixels];
+            final float[] beta = new float[numPixels];
+            final float[] gamma = new float[numPixels];
+            final float[] dn = new float[numPixels];
+            for (int i = 0; i < numPixels; ++i) {
+                sigma[i] = 600f - 0.004f * pixels[i] + v;
+                beta[i] = 474f;
+                gamma[i] = 550f - 0.006f * pixels[i] + v;
+                dn[i] = 474f;
+            }
+            final int line = v * lineSpacing;
+            vectors[v] = new Sentinel1Utils.CalibrationVector(
+                    new ProductData.UTC(firstLineTime + line * lineTimeInterval), line, pixels, sigma, beta, gamma, dn);
+        }
+
+        final double lastLineTime = firstLineTime + (imageHeight - 1) * lineTimeInterval;
+        calibrator.targetBandToCalInfo.put(bandName, new Sentinel1Calibrator.CalibrationInfo(
+                "", "VV", firstLineTime, lastLineTime, imageHeight, count, vectors));
+
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = 50 + (i % 97);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(tileSize * tileSize)
+    public double calibrateTile() {
+        double sum = 0;
+        int i = 0;
+        for (int y = tileY0; y < tileY0 + tileSize; ++y) {
+            for (int x = tileX0; x < tileX0 + tileSize; ++x) {
+                sum += calibrator.applyCalibration(values[i++], x, y, 0, 0, 0, 0,
+                        bandName, "VV", Unit.UnitType.AMPLITUDE, null);
+            }
+        }
+        return sum;
+    }
+}
@@ -52,6 +52,7 @@ public class BaseBenchmarks {
     protected final static File grdFile = new File(TestData.inputSAR +"S1/AWS/S1A_IW_GRDH_1SDV_20180719T002854_20180719T002919_022856_027A78_042A/manifest.safe");
     protected final static File grdZipFile = new File(TestData.inputSAR +"S1/GRD/S1A_IW_GRDH_1SDV_20240508T062559_20240508T062624_053776_0688DB_1A13.SAFE.zip");
     protected final static File slcFile = new File(TestData.inputSAR +"S1/SLC/S1A_IW_SLC__1SDV_20240504T180410_20240504T180437_053725_0686E4_637E.SAFE.zip");
+    protected final static File slcSafeFile = new File(TestData.inputSAR +"S1/SLC/S1A_IW_SLC__1SDV_20240504T180410_20240504T180437_053725_0686E4_637E.SAFE/manifest.safe");
     protected final static File qpFile = new File(TestData.inputSAR +"RS2/RS2_OK2084_PK24911_DK25857_FQ14_20080802_225909_HH_VV_HV_VH_SLC/product.xml");
 
     protected final static File slcInSAR1 = new File(TestData.inputSAR +"S1/ETAD/IW/InSAR/S1B_IW_SLC__1SDV_20200815T173048_20200815T173116_022937_02B897_F7CF.SAFE.zip");
@@ -21,6 +21,8 @@ import org.esa.snap.core.util.SystemUtils;
 import org.esa.snap.core.util.io.FileUtils;
 import org.json.simple.JSONObject;
 
+import javax.media.jai.JAI;
+import javax.media.jai.TileScheduler;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -28,14 +30,32 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a benchmark at an increasing number of tile computation threads and records wall time, CPU time,
+ * peak heap and I/O for each. Results are compared against a stored baseline and the run fails when it is
+ * slower than the baseline by more than the tolerance. Tests without a baseline entry are added to it.
+ * <p>
+ * System properties:
+ * <ul>
+ * <li>snap.benchmark.enabled - run the benchmarks, default false</li>
+ * <li>snap.benchmark.threads - comma separated thread counts, default 1, 2, 4 ... available processors</li>
+ * <li>snap.benchmark.baseline - baseline file, default benchmark/baseline.json in the application data dir</li>
+ * <li>snap.benchmark.tolerance - allowed relative slow down, default 0.2</li>
+ * <li>snap.benchmark.updateBaseline - replace the baseline with the results of this run</li>
+ * </ul>
+ */
 @SuppressWarnings("unchecked")
 public abstract class Benchmark {
 
-    private final static boolean DISABLE_BENCHMARKS = true;
+    private final static boolean DISABLE_BENCHMARKS = !Boolean.getBoolean("snap.benchmark.enabled");
     private final static String REFERENCE_NAME = "";
     private final static int iterations = 2;
     private final static boolean deleteTempOutputFiles = true;
+    private final static double tolerance = Double.parseDouble(System.getProperty("snap.benchmark.tolerance", "0.2"));
+    private final static boolean updateBaseline = Boolean.getBoolean("snap.benchmark.updateBaseline");
 
     private final String groupName;
     private final String testName;
@@ -57,55 +77,121 @@ public abstract class Benchmark {
         return new File("/tmp/benchmark_results_"+DATE_SUFFIX+reference+".json");
     }
 
+    public static File getBaselineFile() {
+        final String path = System.getProperty("snap.benchmark.baseline");
+        if (path != null && !path.isEmpty()) {
+            return new File(path);
+        }
+        return new File(SystemUtils.getApplicationDataDir(), "benchmark" + File.separator + "baseline.json");
+    }
+
+    /**
+     * @return the thread counts to run with, 1, 2, 4 ... up to and including the number of processors by default
+     */
+    static int[] getThreadCounts() {
+        final String threads = System.getProperty("snap.benchmark.threads");
+        if (threads != null && !threads.trim().isEmpty()) {
+            final String[] values = threads.split(",");
+            final int[] counts = new int[values.length];
+            for (int i = 0; i < values.length; ++i) {
+                counts[i] = Integer.parseInt(values[i].trim());
+            }
+            return counts;
+        }
+        final int maxThreads = Runtime.getRuntime().availableProcessors();
+        final List<Integer> counts = new ArrayList<>();
+        for (int n = 1; n < maxThreads; n *= 2) {
+            counts.add(n);
+        }
+        counts.add(maxThreads);
+        return counts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
     public void run() throws Exception {
         if(DISABLE_BENCHMARKS) {
             System.out.println("Benchmark " + groupName + " disabled");
             return;
         }
 
-        try {
-            SystemUtils.LOG.info("Initial cold start run");
-            StopWatch coldStartTimer = new StopWatch();
-            outputFolder = createTempFolder(testName);
-            this.execute();
-            coldStartTimer.stop();
+        final TileScheduler tileScheduler = JAI.getDefaultInstance().getTileScheduler();
+        final int defaultParallelism = tileScheduler.getParallelism();
+        final BenchmarkBaseline baseline = new BenchmarkBaseline(getBaselineFile());
+        final List<String> regressions = new ArrayList<>();
+        final JSONObject threadResults = new JSONObject();
+        RunMetrics singleThread = null;
 
-            SystemUtils.LOG.info("Cold start time " + coldStartTimer.getTimeDiffString());
-            SystemUtils.freeAllMemory();
-            if (deleteTempOutputFiles)
-                FileUtils.deleteTree(outputFolder);
-            long totalTime = 0L;
-
-            long minTime = Long.MAX_VALUE;
-            long maxTime = Long.MIN_VALUE;
-            for (int i = 1; i <= iterations; ++i) {
-                SystemUtils.LOG.info("Run " + i + " of " + iterations + " started");
-                StopWatch timer = new StopWatch();
-                outputFolder = createTempFolder(testName + i);
-                this.execute();
-                timer.stop();
-
-                long currentRunTime = timer.getTimeDiff(); // Store the current run time
-                totalTime += currentRunTime;
-                minTime = Math.min(minTime, currentRunTime);
-                maxTime = Math.max(maxTime, currentRunTime);
-
-                SystemUtils.LOG.info("Run " + i + " of " + iterations + " end time " + timer.getTimeDiffString());
-
-                SystemUtils.freeAllMemory();
-                FileUtils.deleteTree(outputFolder);
+        try {
+            for (int numThreads : getThreadCounts()) {
+                tileScheduler.setParallelism(numThreads);
+                SystemUtils.LOG.info(testName + " with " + numThreads + " threads");
+
+                final RunMetrics metrics = runIterations();
+                if (singleThread == null && numThreads == 1) {
+                    singleThread = metrics;
+                }
+
+                final JSONObject result = metrics.toJSON();
+                if (singleThread != null) {
+                    final double speedup = (double) singleThread.wallTime / Math.max(1, metrics.wallTime);
+                    result.put("speedup", Math.round(speedup * 100) / 100.0);
+                    result.put("efficiency", Math.round(speedup / numThreads * 100) / 100.0);
+                }
+                threadResults.put(BenchmarkBaseline.threadsKey(numThreads), result);
+                SystemUtils.LOG.warning(testName + " threads " + numThreads + " average time " +
+                        StopWatch.getTimeString(metrics.wallTime) + " " + result);
+
+                final String regression = baseline.check(groupName, testName, numThreads, metrics, tolerance);
+                if (regression != null) {
+                    SystemUtils.LOG.severe("Regression: " + regression);
+                    regressions.add(regression);
+                }
+                if (updateBaseline || baseline.get(groupName, testName, numThreads) == null) {
+                    baseline.update(groupName, testName, numThreads, metrics);
+                }
             }
 
-            String coldStartTime = StopWatch.getTimeString(coldStartTimer.getTimeDiff());
-            String avgTime = StopWatch.getTimeString(totalTime / (long) iterations);
-            SystemUtils.LOG.warning(testName + " average time " + avgTime);
-
-            writeJSONResults(minTime, maxTime, avgTime, coldStartTime);
+            writeJSONResults(threadResults);
+            baseline.save();
         } catch (Exception e) {
             SystemUtils.LOG.severe("Benchmark " + testName + " failed: " + e.getMessage());
             writeJSONFailedResults(e.getMessage());
             throw e;
+        } finally {
+            tileScheduler.setParallelism(defaultParallelism);
+        }
+
+        if (!regressions.isEmpty() && !updateBaseline) {
+            throw new AssertionError("Benchmark " + testName + " regressed:\n" + String.join("\n", regressions));
+        }
+    }
+
+    private RunMetrics runIterations() throws Exception {
+        SystemUtils.LOG.info("Initial cold start run");
+        RunMetrics.Probe coldStartProbe = RunMetrics.start();
+        outputFolder = createTempFolder(testName);
+        this.execute();
+        final RunMetrics coldStart = coldStartProbe.stop();
+
+        SystemUtils.LOG.info("Cold start time " + StopWatch.getTimeString(coldStart.wallTime));
+        SystemUtils.freeAllMemory();
+        if (deleteTempOutputFiles)
+            FileUtils.deleteTree(outputFolder);
+
+        final List<RunMetrics> runs = new ArrayList<>();
+        for (int i = 1; i <= iterations; ++i) {
+            SystemUtils.LOG.info("Run " + i + " of " + iterations + " started");
+            outputFolder = createTempFolder(testName + i);
+            final RunMetrics.Probe probe = RunMetrics.start();
+            this.execute();
+            final RunMetrics run = probe.stop();
+            runs.add(run);
+
+            SystemUtils.LOG.info("Run " + i + " of " + iterations + " end time " + StopWatch.getTimeString(run.wallTime));
+
+            SystemUtils.freeAllMemory();
+            FileUtils.deleteTree(outputFolder);
         }
+        return RunMetrics.average(runs);
     }
 
     private void writeJSONFailedResults(final String errorMsg) throws Exception {
@@ -120,7 +206,7 @@ public abstract class Benchmark {
         JSON.write(json, resultsFile);
     }
 
-    private void writeJSONResults(final long minTime, long maxTime, String avgTime, String coldStartTime) throws Exception {
+    private void writeJSONResults(final JSONObject threadResults) throws Exception {
         final JSONObject json = readJSON(resultsFile);
         final JSONObject group = (JSONObject) json.getOrDefault(groupName, new JSONObject());
         json.put(groupName, group);
@@ -129,16 +215,13 @@ public abstract class Benchmark {
         if(results.containsKey("error")) {
             results.remove("error");
         }
-        if(results.containsKey("avgTime")) {
-            results.put("prevAvgTime", results.get("avgTime"));
+        if(results.containsKey("threads")) {
+            results.put("prevThreads", results.get("threads"));
         }
 
         results.put("date", LocalDate.now().toString());
         results.put("iterations", iterations);
-        results.put("coldStart", coldStartTime);
-        results.put("minTime", StopWatch.getTimeString(minTime));
-        results.put("maxTime", StopWatch.getTimeString(maxTime));
-        results.put("avgTime", avgTime);
+        results.put("threads", threadResults);
         group.put(testName, results);
 
         JSON.write(json, resultsFile);
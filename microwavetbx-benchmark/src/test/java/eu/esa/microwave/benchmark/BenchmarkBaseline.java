@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark;
+
+import eu.esa.sar.cloud.json.JSON;
+import org.json.simple.JSONObject;
+
+import java.io.File;
+
+/**
+ * Stored reference results that benchmark runs are compared against.
+ * The file holds group -> test -> threads_N -> metrics, as written by {@link #update}.
+ */
+@SuppressWarnings("unchecked")
+final class BenchmarkBaseline {
+
+    private final File file;
+    private final JSONObject json;
+
+    BenchmarkBaseline(final File file) throws Exception {
+        this.file = file;
+        this.json = file.exists() ? (JSONObject) JSON.loadJSON(file) : new JSONObject();
+    }
+
+    static String threadsKey(final int numThreads) {
+        return "threads_" + numThreads;
+    }
+
+    /**
+     * @return the baseline metrics or null if the test has not been recorded for this number of threads
+     */
+    JSONObject get(final String groupName, final String testName, final int numThreads) {
+        final JSONObject group = (JSONObject) json.get(groupName);
+        if (group == null) {
+            return null;
+        }
+        final JSONObject test = (JSONObject) group.get(testName);
+        if (test == null) {
+            return null;
+        }
+        return (JSONObject) test.get(threadsKey(numThreads));
+    }
+
+    /**
+     * Compares a run with the baseline.
+     *
+     * @param tolerance allowed relative slow down, e.g. 0.2 for 20%
+     * @return a description of the regression or null if the run is within tolerance or has no baseline
+     */
+    String check(final String groupName, final String testName, final int numThreads,
+                 final RunMetrics metrics, final double tolerance) {
+        final JSONObject baseline = get(groupName, testName, numThreads);
+        if (baseline == null || !baseline.containsKey("wallTime")) {
+            return null;
+        }
+        final long baselineTime = JSON.getLong(baseline.get("wallTime"));
+        final long limit = Math.round(baselineTime * (1.0 + tolerance));
+        if (metrics.wallTime > limit) {
+            return String.format("%s/%s with %d threads took %d ms, baseline %d ms (+%.0f%%, tolerance %.0f%%)",
+                    groupName, testName, numThreads, metrics.wallTime, baselineTime,
+                    100.0 * (metrics.wallTime - baselineTime) / baselineTime, 100.0 * tolerance);
+        }
+        return null;
+    }
+
+    void update(final String groupName, final String testName, final int numThreads, final RunMetrics metrics) {
+        final JSONObject group = (JSONObject) json.getOrDefault(groupName, new JSONObject());
+        json.put(groupName, group);
+        final JSONObject test = (JSONObject) group.getOrDefault(testName, new JSONObject());
+        group.put(testName, test);
+        test.put(threadsKey(numThreads), metrics.toJSON());
+    }
+
+    void save() throws Exception {
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new Exception("Unable to create " + parent);
+        }
+        JSON.write(json, file);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class BenchmarkBaselineTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testCheckAgainstBaseline() throws Exception {
+        final File file = new File(tempFolder.getRoot(), "baseline.json");
+        final BenchmarkBaseline baseline = new BenchmarkBaseline(file);
+        assertNull(baseline.get("SAR", "testGRD_multilook", 1));
+        assertNull(baseline.check("SAR", "testGRD_multilook", 1, metrics(5000), 0.2));
+
+        baseline.update("SAR", "testGRD_multilook", 1, metrics(1000));
+        baseline.save();
+        assertTrue(file.exists());
+
+        final BenchmarkBaseline stored = new BenchmarkBaseline(file);
+        assertNotNull(stored.get("SAR", "testGRD_multilook", 1));
+        assertNull(stored.get("SAR", "testGRD_multilook", 2));
+
+        assertNull(stored.check("SAR", "testGRD_multilook", 1, metrics(1100), 0.2));
+        assertNull(stored.check("SAR", "testGRD_multilook", 1, metrics(1200), 0.2));
+        assertNotNull(stored.check("SAR", "testGRD_multilook", 1, metrics(1201), 0.2));
+        assertNull(stored.check("SAR", "testGRD_multilook", 2, metrics(9999), 0.2));
+    }
+
+    @Test
+    public void testAverage() {
+        final RunMetrics avg = RunMetrics.average(Arrays.asList(
+                new RunMetrics(100, 300, 10, 1000, 50),
+                new RunMetrics(200, 500, 30, 3000, 150)));
+        assertEquals(150, avg.wallTime);
+        assertEquals(400, avg.cpuTime);
+        assertEquals(30, avg.peakHeap);
+        assertEquals(2000, avg.bytesRead);
+        assertEquals(100, avg.bytesWritten);
+        assertEquals(400.0 / 150.0, avg.getCpuUtilisation(), 1e-9);
+    }
+
+    private static RunMetrics metrics(final long wallTime) {
+        return new RunMetrics(wallTime, -1, 0, -1, -1);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark;
+
+import org.json.simple.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Resources used by one benchmark run: wall time, process CPU time, peak heap and bytes read and written.
+ * CPU time needs a HotSpot compatible JVM and I/O counters are taken from /proc/self/io,
+ * values that are not available on a platform are -1.
+ */
+@SuppressWarnings("unchecked")
+final class RunMetrics {
+
+    private static final File procIO = new File("/proc/self/io");
+
+    final long wallTime;      // ms
+    final long cpuTime;       // ms
+    final long peakHeap;      // bytes
+    final long bytesRead;
+    final long bytesWritten;
+
+    RunMetrics(final long wallTime, final long cpuTime, final long peakHeap, final long bytesRead, final long bytesWritten) {
+        this.wallTime = wallTime;
+        this.cpuTime = cpuTime;
+        this.peakHeap = peakHeap;
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+    }
+
+    /**
+     * Resets the heap peak and samples the counters at the start of a run.
+     */
+    static Probe start() {
+        return new Probe();
+    }
+
+    /**
+     * @return average CPU cores busy during the run or -1 if the CPU time is not known
+     */
+    double getCpuUtilisation() {
+        if (cpuTime < 0 || wallTime <= 0) {
+            return -1;
+        }
+        return (double) cpuTime / wallTime;
+    }
+
+    /**
+     * Averages the runs and keeps the largest heap peak.
+     */
+    static RunMetrics average(final List<RunMetrics> runs) {
+        long wall = 0, cpu = 0, read = 0, written = 0, heap = 0;
+        for (RunMetrics run : runs) {
+            wall += run.wallTime;
+            cpu += run.cpuTime;
+            read += run.bytesRead;
+            written += run.bytesWritten;
+            heap = Math.max(heap, run.peakHeap);
+        }
+        final int n = runs.size();
+        final RunMetrics first = runs.get(0);
+        return new RunMetrics(wall / n,
+                first.cpuTime < 0 ? -1 : cpu / n,
+                heap,
+                first.bytesRead < 0 ? -1 : read / n,
+                first.bytesWritten < 0 ? -1 : written / n);
+    }
+
+    JSONObject toJSON() {
+        final JSONObject json = new JSONObject();
+        json.put("wallTime", wallTime);
+        json.put("cpuTime", cpuTime);
+        json.put("cpuUtilisation", Math.round(getCpuUtilisation() * 100) / 100.0);
+        json.put("peakHeapMB", peakHeap / 1024 / 1024);
+        json.put("bytesRead", bytesRead);
+        json.put("bytesWritten", bytesWritten);
+        return json;
+    }
+
+    static final class Probe {
+        private final long startNanos;
+        private final long startCpu;
+        private final long[] startIO;
+
+        private Probe() {
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                    pool.resetPeakUsage();
+                }
+            }
+            startIO = readProcIO();
+            startCpu = getProcessCpuTime();
+            startNanos = System.nanoTime();
+        }
+
+        RunMetrics stop() {
+            final long wall = (System.nanoTime() - startNanos) / 1_000_000;
+            final long cpu = getProcessCpuTime();
+            final long[] io = readProcIO();
+
+            // the sum of the pool peaks is an upper bound as the pools need not peak at the same time
+            long heap = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                    heap += pool.getPeakUsage().getUsed();
+                }
+            }
+
+            return new RunMetrics(wall,
+                    cpu < 0 || startCpu < 0 ? -1 : (cpu - startCpu) / 1_000_000,
+                    heap,
+                    io == null || startIO == null ? -1 : io[0] - startIO[0],
+                    io == null || startIO == null ? -1 : io[1] - startIO[1]);
+        }
+    }
+
+    private static long getProcessCpuTime() {
+        final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    /**
+     * @return characters read and written by the process so far or null if not available
+     */
+    private static long[] readProcIO() {
+        if (!procIO.exists()) {
+            return null;
+        }
+        try {
+            final long[] io = new long[]{-1, -1};
+            for (String line : Files.readAllLines(procIO.toPath())) {
+                if (line.startsWith("rchar:")) {
+                    io[0] = Long.parseLong(line.substring(6).trim());
+                } else if (line.startsWith("wchar:")) {
+                    io[1] = Long.parseLong(line.substring(6).trim());
+                }
+            }
+            return io[0] < 0 || io[1] < 0 ? null : io;
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        }
+    }
+}
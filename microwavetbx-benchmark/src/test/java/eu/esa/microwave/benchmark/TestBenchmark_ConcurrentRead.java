@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.microwave.benchmark;
+
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.junit.Test;
+
+import javax.media.jai.JAI;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads the tiles of all bands of an unzipped SLC with an increasing number of threads
+ * to show how the reader scales without a global lock.
+ */
+public class TestBenchmark_ConcurrentRead extends BaseBenchmarks {
+
+    private final static int tileSize = 512;
+
+    public TestBenchmark_ConcurrentRead() {
+        super("ConcurrentRead");
+    }
+
+    @Test
+    public void testSLC_concurrent_read() throws Exception {
+        setName(new Throwable().getStackTrace()[0].getMethodName());
+        concurrentRead(slcSafeFile);
+    }
+
+    private void concurrentRead(final File srcFile) throws Exception {
+        Benchmark b = new Benchmark(groupName, testName) {
+            @Override
+            protected void execute() throws Exception {
+                // Benchmark sweeps the tile scheduler parallelism, read with as many threads
+                final int numThreads = JAI.getDefaultInstance().getTileScheduler().getParallelism();
+                final Product srcProduct = read(srcFile);
+                readAllTiles(srcProduct, numThreads);
+                srcProduct.dispose();
+            }
+        };
+        b.run();
+    }
+
+    private static void readAllTiles(final Product product, final int numThreads) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (Band band : product.getBands()) {
+                final int width = band.getRasterWidth();
+                final int height = band.getRasterHeight();
+                for (int y = 0; y < height; y += tileSize) {
+                    for (int x = 0; x < width; x += tileSize) {
+                        final int x0 = x, y0 = y;
+                        final int w = Math.min(tileSize, width - x0);
+                        final int h = Math.min(tileSize, height - y0);
+                        futures.add(executor.submit(() -> {
+                            final ProductData data = band.createCompatibleRasterData(w, h);
+                            band.readRasterData(x0, y0, w, h, data);
+                            return null;
+                        }));
+                    }
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -16,9 +16,9 @@
 package org.csa.rstb.classification.gpf;
 
 import com.bc.ceres.core.ProgressMonitor;
-import org.csa.rstb.classification.gpf.classifiers.HAlphaWishart;
 import org.csa.rstb.classification.gpf.classifiers.HAlphaWishartC2;
 import org.csa.rstb.classification.gpf.classifiers.PolClassifierBase;
+import org.csa.rstb.classification.gpf.classifiers.WishartClusters;
 import org.csa.rstb.polarimetric.gpf.support.DualPolProcessor;
 import org.csa.rstb.polarimetric.gpf.support.QuadPolProcessor;
 import eu.esa.sar.commons.polsar.PolBandUtils;
@@ -77,6 +77,7 @@ public final class SupervisedWishartClassificationOp extends Operator implements
     private PolBandUtils.MATRIX sourceProductType;
 
     private PolClassifierBase.ClusterInfo[] clusterCenters = null;
+    private WishartClusters wishartClusters = null;
     private String[] classNames = null;
     private int[] clusterToClassMap = null;
     private int numClasses = 0;
@@ -224,6 +225,7 @@ public final class SupervisedWishartClassificationOp extends Operator implements
             clusterCenters[c] = new PolClassifierBase.ClusterInfo();
             clusterCenters[c].setClusterCenter(c, Tr, Ti, 0);
         }
+        wishartClusters = new WishartClusters(clusterCenters);
         classNames = classNameList.toArray(new String[0]);
     }
 
@@ -323,6 +325,7 @@ public final class SupervisedWishartClassificationOp extends Operator implements
 
                     final double[][] Tr = new double[3][3];
                     final double[][] Ti = new double[3][3];
+                    final double[] t = new double[WishartClusters.PACKED_SIZE];
 
                     for (int y = y0; y < maxY; ++y) {
                         trgIndex.calculateStride(y);
@@ -331,9 +334,10 @@ public final class SupervisedWishartClassificationOp extends Operator implements
                             getMeanCoherencyMatrix(x, y, halfWindowSize, halfWindowSize, sourceImageWidth,
                                     sourceImageHeight, sourceProductType, srcIndex, dataBuffers, Tr, Ti);
 
+                            WishartClusters.pack(Tr, Ti, t, 0);
                             targetData.setElemIntAt(
                                     trgIndex.getIndex(x),
-                                    clusterToClassMap[HAlphaWishart.findZoneIndex(Tr, Ti, clusterCenters) - 1] - 1);
+                                    clusterToClassMap[wishartClusters.findZoneIndex(t, 0) - 1] - 1);
                         }
                     }
                 }
@@ -19,6 +19,7 @@ import org.csa.rstb.classification.gpf.PolarimetricClassificationOp;
 import org.csa.rstb.polarimetric.gpf.support.HaAlphaDescriptor;
 import org.csa.rstb.polarimetric.gpf.support.QuadPolProcessor;
 import org.csa.rstb.polarimetric.gpf.decompositions.hAAlpha;
+import eu.esa.sar.commons.TileStatisticsPass;
 import eu.esa.sar.commons.polsar.PolBandUtils;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.ProductData;
@@ -26,13 +27,13 @@ import org.esa.snap.core.dataop.downloadable.StatusProgressMonitor;
 import org.esa.snap.core.gpf.OperatorException;
 import org.esa.snap.core.gpf.Tile;
 import org.esa.snap.core.util.SystemUtils;
-import org.esa.snap.core.util.ThreadExecutor;
-import org.esa.snap.core.util.ThreadRunnable;
 import org.esa.snap.engine_utilities.gpf.OperatorUtils;
 import org.esa.snap.engine_utilities.gpf.TileIndex;
 
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -41,11 +42,17 @@ import java.util.Map;
 public class HAlphaWishart extends PolClassifierBase implements PolClassifier, QuadPolProcessor {
 
     private static final String UNSUPERVISED_WISHART_CLASS = "H_alpha_wishart_class";
+    private static final int DEFAULT_MAX_SAMPLES = 1000000;
+    // at most as many samples as a single float array could hold
+    private static final int MAX_SAMPLE_COUNT = (Integer.MAX_VALUE - 8) / WishartClusters.PACKED_SIZE;
+    private static final int SAMPLES_PER_CHUNK = 4096;
 
     private ClusterInfo[][] clusterCenters = null;
+    private WishartClusters[] wishartClusters = null;
     private boolean[] clusterCentersComputed = null;
     private final int maxIterations;
     private final boolean useLeeHAlphaPlaneDefinition;
+    private final int sampleStep;
 
     public HAlphaWishart(final PolBandUtils.MATRIX srcProductType,
                          final int srcWidth, final int srcHeight, final int winSize,
@@ -56,6 +63,18 @@ public class HAlphaWishart extends PolClassifierBase implements PolClassifier, Q
 
         useLeeHAlphaPlaneDefinition = Boolean.getBoolean(SystemUtils.getApplicationContextId() +
                 ".useLeeHAlphaPlaneDefinition");
+
+        // the cluster centres are iterated on a regular grid of at most maxSamples pixels, 0 for all pixels
+        int maxSamples = Integer.getInteger(SystemUtils.getApplicationContextId() +
+                ".wishartMaxSamples", DEFAULT_MAX_SAMPLES);
+        if (maxSamples <= 0 || maxSamples > MAX_SAMPLE_COUNT) {
+            maxSamples = MAX_SAMPLE_COUNT;
+        }
+        sampleStep = Math.max(1, (int) Math.ceil(Math.sqrt((double) srcWidth * srcHeight / maxSamples)));
+        if (sampleStep > 1) {
+            SystemUtils.LOG.info("H-Alpha Wishart cluster centres estimated with a sample step of " +
+                    sampleStep + " pixels");
+        }
     }
 
     /**
@@ -115,8 +134,10 @@ public class HAlphaWishart extends PolClassifierBase implements PolClassifier, Q
 
         final Double noDataValue = srcBandList.srcBands[0].getNoDataValue();
 
+        final WishartClusters clusters = wishartClusters[targetBandIndex];
         final double[][] Tr = new double[3][3];
         final double[][] Ti = new double[3][3];
+        final double[] t = new double[WishartClusters.PACKED_SIZE];
 
         for (int y = y0; y < maxY; ++y) {
             trgIndex.calculateStride(y);
@@ -130,7 +151,8 @@ public class HAlphaWishart extends PolClassifierBase implements PolClassifier, Q
                             sourceProductType, srcIndex, dataBuffers, Tr, Ti);
 
                     srcIndex.calculateStride(y);
-                    targetData.setElemIntAt(index, findZoneIndex(Tr, Ti, clusterCenters[targetBandIndex]));
+                    WishartClusters.pack(Tr, Ti, t, 0);
+                    targetData.setElemIntAt(index, clusters.findZoneIndex(t, 0));
                 }
             }
         }
@@ -155,110 +177,57 @@ public class HAlphaWishart extends PolClassifierBase implements PolClassifier, Q
             clusterCentersComputed = new boolean[numTargetBands];
             Arrays.fill(clusterCentersComputed, false);
             clusterCenters = new ClusterInfo[numTargetBands][9];
+            wishartClusters = new WishartClusters[numTargetBands];
         }
 
         final Dimension tileSize = new Dimension(256, 256);
         final Rectangle[] tileRectangles = OperatorUtils.getAllTileRectangles(op.getSourceProduct(), tileSize, 0);
 
-        computeInitialClusterCenters(targetBandIndex, srcBandList, tileRectangles, op);
+        final T3Samples samples = computeInitialClusterCenters(targetBandIndex, srcBandList, tileRectangles, op);
 
-        computeFinalClusterCenters(targetBandIndex, srcBandList, tileRectangles, op);
+        computeFinalClusterCenters(targetBandIndex, samples, op);
 
+        wishartClusters[targetBandIndex] = new WishartClusters(clusterCenters[targetBandIndex]);
         clusterCentersComputed[targetBandIndex] = true;
     }
 
     /**
-     * Compute initial cluster centers for all 9 zones using H-Alpha
+     * Compute initial cluster centers for all 9 zones using H-Alpha. The T3 matrices of the pixels used for the
+     * K-mean clustering are sampled in the same pass.
      *
      * @param srcBandList    the input bands
      * @param op             the operator
      * @param tileRectangles Array of rectangles for all source tiles of the image
+     * @return the sampled T3 matrices
      */
-    private void computeInitialClusterCenters(final int targetBandIndex,
-                                              final PolBandUtils.PolSourceBand srcBandList,
-                                              final Rectangle[] tileRectangles, final PolarimetricClassificationOp op) {
+    private T3Samples computeInitialClusterCenters(final int targetBandIndex,
+                                                   final PolBandUtils.PolSourceBand srcBandList,
+                                                   final Rectangle[] tileRectangles,
+                                                   final PolarimetricClassificationOp op) {
 
         final StatusProgressMonitor status = new StatusProgressMonitor(StatusProgressMonitor.TYPE.SUBTASK);
         status.beginTask("Computing Initial Cluster Centres... ", tileRectangles.length);
 
-        final double[][][] sumRe = new double[9][3][3];
-        final double[][][] sumIm = new double[9][3][3];
-        final int[] counter = new int[9];
         final Double noDataValue = srcBandList.srcBands[0].getNoDataValue();
-
-        final ThreadExecutor executor = new ThreadExecutor();
+        T3Samples samples = null;
 
         try {
-            for (final Rectangle rectangle : tileRectangles) {
-                op.checkIfCancelled();
-
-                final ThreadRunnable worker = new ThreadRunnable() {
-
-                    final Tile[] sourceTiles = new Tile[srcBandList.srcBands.length];
-                    final ProductData[] dataBuffers = new ProductData[srcBandList.srcBands.length];
-
-                    @Override
-                    public void process() {
-                        final int x0 = rectangle.x;
-                        final int y0 = rectangle.y;
-                        final int w = rectangle.width;
-                        final int h = rectangle.height;
-                        final int xMax = x0 + w;
-                        final int yMax = y0 + h;
-                        //System.out.println("x0 = " + x0 + ", y0 = " + y0 + ", w = " + w + ", h = " + h);
-
-                        final Rectangle sourceRectangle = getSourceRectangle(x0, y0, w, h);
-                        for (int i = 0; i < sourceTiles.length; ++i) {
-                            sourceTiles[i] = op.getSourceTile(srcBandList.srcBands[i], sourceRectangle);
-                            dataBuffers[i] = sourceTiles[i].getDataBuffer();
-                        }
-                        final TileIndex srcIndex = new TileIndex(sourceTiles[0]);
-
-                        final double[][] Tr = new double[3][3];
-                        final double[][] Ti = new double[3][3];
-                        final double[][][] localSumRe = new double[9][3][3];
-                        final double[][][] localSumIm = new double[9][3][3];
-                        final int[] localCounter = new int[9];
-
-                        for (int y = y0; y < yMax; ++y) {
-                            srcIndex.calculateStride(y);
-                            for (int x = x0; x < xMax; ++x) {
-                                if (noDataValue.equals(dataBuffers[0].getElemDoubleAt(srcIndex.getIndex(x))))
-                                    continue;
-
-                                getMeanCoherencyMatrix(x, y, halfWindowSizeX, halfWindowSizeY, srcWidth, srcHeight,
-                                        sourceProductType, srcIndex, dataBuffers, Tr, Ti);
-
-                                srcIndex.calculateStride(y);
-                                final hAAlpha.HAAlpha data = hAAlpha.computeHAAlpha(Tr, Ti);
-                                if (!Double.isNaN(data.entropy) && !Double.isNaN(data.anisotropy) && !Double.isNaN(data.alpha)) {
-                                    final int zoneIndex = HaAlphaDescriptor.getZoneIndex(data.entropy, data.alpha,
-                                            useLeeHAlphaPlaneDefinition);
-                                    localCounter[zoneIndex - 1]++;
-                                    computeSummationOfT3(zoneIndex, Tr, Ti, localSumRe, localSumIm);
-                                }
-                            }
-                        }
-
-                        synchronized (counter) {
-                            for (int z = 0; z < 9; ++z) {
-                                counter[z] += localCounter[z];
-                                for (int i = 0; i < 3; ++i) {
-                                    for (int j = 0; j < 3; ++j) {
-                                        sumRe[z][i][j] += localSumRe[z][i][j];
-                                        sumIm[z][i][j] += localSumIm[z][i][j];
-                                    }
-                                }
-                            }
-                        }
-                    }
-                };
-                executor.execute(worker);
-
-                status.worked(1);
-            }
+            final TileStatisticsPass<Tile[]> pass = new TileStatisticsPass<>(tileRectangles, rectangle -> {
+                final Rectangle sourceRectangle = getSourceRectangle(rectangle.x, rectangle.y,
+                        rectangle.width, rectangle.height);
+                final Tile[] sourceTiles = new Tile[srcBandList.srcBands.length];
+                for (int i = 0; i < sourceTiles.length; ++i) {
+                    sourceTiles[i] = op.getSourceTile(srcBandList.srcBands[i], sourceRectangle);
+                }
+                return sourceTiles;
+            });
+            final TileStatisticsPass.Result<ZoneSums> zoneSums = pass.add(() -> new ZoneSums(noDataValue));
+            final TileStatisticsPass.Result<T3Samples> t3Samples = pass.add(() -> new T3Samples(noDataValue));
+            pass.setCancellationCheck(op::checkIfCancelled).setProgressMonitor(status).run();
 
-            executor.complete();
+            final double[][][] sumRe = zoneSums.get().sumRe;
+            final double[][][] sumIm = zoneSums.get().sumIm;
+            final int[] counter = zoneSums.get().counter;
 
             final double[][][] centerRe = new double[9][3][3];
             final double[][][] centerIm = new double[9][3][3];
@@ -274,130 +243,79 @@ public class HAlphaWishart extends PolClassifierBase implements PolClassifier, Q
                     clusterCenters[targetBandIndex][z].setClusterCenter(z + 1, centerRe[z], centerIm[z], counter[z]);
                 }
             }
+            samples = t3Samples.get();
         } catch (Throwable e) {
             OperatorUtils.catchOperatorException(op.getId() + " computeInitialClusterCenters ", e);
         } finally {
             status.done();
         }
+        return samples;
     }
 
     /**
-     * Compute final cluster centers for all 9 zones using K-mean clustering method
+     * Compute final cluster centers for all 9 zones using K-mean clustering method on the sampled pixels
      *
-     * @param srcBandList    the input bands
-     * @param op             the operator
-     * @param tileRectangles Array of rectangles for all source tiles of the image
+     * @param samples the sampled T3 matrices
+     * @param op      the operator
      */
-    private void computeFinalClusterCenters(final int targetBandIndex,
-                                            final PolBandUtils.PolSourceBand srcBandList,
-                                            final Rectangle[] tileRectangles,
+    private void computeFinalClusterCenters(final int targetBandIndex, final T3Samples samples,
                                             final PolarimetricClassificationOp op) {
 
         boolean endIteration = false;
-        final Double noDataValue = srcBandList.srcBands[0].getNoDataValue();
 
         final StatusProgressMonitor status = new StatusProgressMonitor(StatusProgressMonitor.TYPE.SUBTASK);
-        status.beginTask("Computing Final Cluster Centres... ", tileRectangles.length * maxIterations);
+        status.beginTask("Computing Final Cluster Centres... ", maxIterations);
 
         try {
+            final double[][] Tr = new double[3][3];
+            final double[][] Ti = new double[3][3];
+
             for (int it = 0; (it < maxIterations && !endIteration); ++it) {
                 //System.out.println("Iteration: " + it);
+                op.checkIfCancelled();
 
-                final double[][][] sumRe = new double[9][3][3];
-                final double[][][] sumIm = new double[9][3][3];
+                final WishartClusters clusters = new WishartClusters(clusterCenters[targetBandIndex]);
+                final double[][] sum = new double[9][WishartClusters.PACKED_SIZE];
                 final int[] counter = new int[9];
-
-                final ThreadExecutor executor = new ThreadExecutor();
-
-                for (final Rectangle rectangle : tileRectangles) {
-
-                    final ThreadRunnable worker = new ThreadRunnable() {
-
-                        final Tile[] sourceTiles = new Tile[srcBandList.srcBands.length];
-                        final ProductData[] dataBuffers = new ProductData[srcBandList.srcBands.length];
-
-                        @Override
-                        public void process() {
-                            op.checkIfCancelled();
-
-                            final int x0 = rectangle.x;
-                            final int y0 = rectangle.y;
-                            final int w = rectangle.width;
-                            final int h = rectangle.height;
-                            final int xMax = x0 + w;
-                            final int yMax = y0 + h;
-
-                            final Rectangle sourceRectangle = getSourceRectangle(x0, y0, w, h);
-                            for (int i = 0; i < sourceTiles.length; ++i) {
-                                sourceTiles[i] = op.getSourceTile(srcBandList.srcBands[i], sourceRectangle);
-                                dataBuffers[i] = sourceTiles[i].getDataBuffer();
-                            }
-                            final TileIndex srcIndex = new TileIndex(sourceTiles[0]);
-
-                            final double[][] Tr = new double[3][3];
-                            final double[][] Ti = new double[3][3];
-                            final double[][][] localSumRe = new double[9][3][3];
-                            final double[][][] localSumIm = new double[9][3][3];
-                            final int[] localCounter = new int[9];
-
-                            for (int y = y0; y < yMax; ++y) {
-                                srcIndex.calculateStride(y);
-                                for (int x = x0; x < xMax; ++x) {
-                                    if (noDataValue.equals(dataBuffers[0].getElemDoubleAt(srcIndex.getIndex(x))))
-                                        continue;
-
-                                    getMeanCoherencyMatrix(x, y, halfWindowSizeX, halfWindowSizeY, srcWidth, srcHeight,
-                                            sourceProductType, srcIndex, dataBuffers, Tr, Ti);
-
-                                    srcIndex.calculateStride(y);
-                                    final int zoneIdx = findZoneIndex(Tr, Ti, clusterCenters[targetBandIndex]);
-                                    localCounter[zoneIdx - 1]++;
-                                    computeSummationOfT3(zoneIdx, Tr, Ti, localSumRe, localSumIm);
-                                }
-                            }
-
-                            synchronized (counter) {
-                                for (int z = 0; z < 9; ++z) {
-                                    counter[z] += localCounter[z];
-                                    for (int i = 0; i < 3; ++i) {
-                                        for (int j = 0; j < 3; ++j) {
-                                            sumRe[z][i][j] += localSumRe[z][i][j];
-                                            sumIm[z][i][j] += localSumIm[z][i][j];
-                                        }
-                                    }
-                                }
-                            }
+                for (T3Samples.Chunk chunk : samples.chunks) {
+                    final float[] t = chunk.data;
+                    final int n = chunk.size * WishartClusters.PACKED_SIZE;
+                    for (int k = 0; k < n; k += WishartClusters.PACKED_SIZE) {
+                        final int zoneIdx = clusters.findZoneIndex(t, k);
+                        if (zoneIdx < 1) {
+                            continue;
                         }
-                    };
-                    executor.execute(worker);
-
-                    status.worked(1);
+                        counter[zoneIdx - 1]++;
+                        final double[] zoneSum = sum[zoneIdx - 1];
+                        for (int e = 0; e < WishartClusters.PACKED_SIZE; ++e) {
+                            zoneSum[e] += t[k + e];
+                        }
+                    }
                 }
 
-                executor.complete();
-
-                final double[][][] centerRe = new double[9][3][3];
-                final double[][][] centerIm = new double[9][3][3];
                 double diff = 0.0;
                 for (int z = 0; z < 9; ++z) {
                     if (counter[z] > 0) {
+                        for (int e = 0; e < WishartClusters.PACKED_SIZE; ++e) {
+                            sum[z][e] /= counter[z];
+                        }
+                        WishartClusters.unpack(sum[z], 0, Tr, Ti);
                         for (int i = 0; i < 3; ++i) {
                             for (int j = 0; j < 3; ++j) {
-                                centerRe[z][i][j] = sumRe[z][i][j] / counter[z];
-                                centerIm[z][i][j] = sumIm[z][i][j] / counter[z];
-                                diff += (clusterCenters[targetBandIndex][z].centerRe[i][j] - centerRe[z][i][j]) *
-                                        (clusterCenters[targetBandIndex][z].centerRe[i][j] - centerRe[z][i][j]) +
-                                        (clusterCenters[targetBandIndex][z].centerIm[i][j] - centerIm[z][i][j]) *
-                                        (clusterCenters[targetBandIndex][z].centerIm[i][j] - centerIm[z][i][j]);
+                                diff += (clusterCenters[targetBandIndex][z].centerRe[i][j] - Tr[i][j]) *
+                                        (clusterCenters[targetBandIndex][z].centerRe[i][j] - Tr[i][j]) +
+                                        (clusterCenters[targetBandIndex][z].centerIm[i][j] - Ti[i][j]) *
+                                        (clusterCenters[targetBandIndex][z].centerIm[i][j] - Ti[i][j]);
                             }
                         }
-                        clusterCenters[targetBandIndex][z].setClusterCenter(z + 1, centerRe[z], centerIm[z], counter[z]);
+                        clusterCenters[targetBandIndex][z].setClusterCenter(z + 1, Tr, Ti, counter[z]);
                     }
                 }
 
                 if (diff == 0) {
                     endIteration = true;
                 }
+                status.worked(1);
             }
 
         } catch (Throwable e) {
@@ -407,6 +325,135 @@ public class HAlphaWishart extends PolClassifierBase implements PolClassifier, Q
         }
     }
 
+    /**
+     * Pixel count and T3 matrix sums per H-Alpha zone of the tiles processed by one worker.
+     */
+    private final class ZoneSums implements TileStatisticsPass.Accumulator<Tile[], ZoneSums> {
+
+        final double[][][] sumRe = new double[9][3][3];
+        final double[][][] sumIm = new double[9][3][3];
+        final int[] counter = new int[9];
+
+        private final Double noDataValue;
+        private final double[][] Tr = new double[3][3];
+        private final double[][] Ti = new double[3][3];
+
+        ZoneSums(final Double noDataValue) {
+            this.noDataValue = noDataValue;
+        }
+
+        @Override
+        public void accumulate(final Rectangle rectangle, final Tile[] sourceTiles) {
+            final int x0 = rectangle.x;
+            final int y0 = rectangle.y;
+            final int xMax = x0 + rectangle.width;
+            final int yMax = y0 + rectangle.height;
+
+            final ProductData[] dataBuffers = getDataBuffers(sourceTiles);
+            final TileIndex srcIndex = new TileIndex(sourceTiles[0]);
+
+            for (int y = y0; y < yMax; ++y) {
+                srcIndex.calculateStride(y);
+                for (int x = x0; x < xMax; ++x) {
+                    if (noDataValue.equals(dataBuffers[0].getElemDoubleAt(srcIndex.getIndex(x))))
+                        continue;
+
+                    getMeanCoherencyMatrix(x, y, halfWindowSizeX, halfWindowSizeY, srcWidth, srcHeight,
+                            sourceProductType, srcIndex, dataBuffers, Tr, Ti);
+
+                    srcIndex.calculateStride(y);
+                    final hAAlpha.HAAlpha data = hAAlpha.computeHAAlpha(Tr, Ti);
+                    if (!Double.isNaN(data.entropy) && !Double.isNaN(data.anisotropy) && !Double.isNaN(data.alpha)) {
+                        final int zoneIndex = HaAlphaDescriptor.getZoneIndex(data.entropy, data.alpha,
+                                useLeeHAlphaPlaneDefinition);
+                        counter[zoneIndex - 1]++;
+                        computeSummationOfT3(zoneIndex, Tr, Ti, sumRe, sumIm);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void merge(final ZoneSums other) {
+            for (int z = 0; z < 9; ++z) {
+                counter[z] += other.counter[z];
+                for (int i = 0; i < 3; ++i) {
+                    for (int j = 0; j < 3; ++j) {
+                        sumRe[z][i][j] += other.sumRe[z][i][j];
+                        sumIm[z][i][j] += other.sumIm[z][i][j];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Packed T3 matrices of the valid pixels on the sampling grid of the tiles processed by one worker.
+     * The samples are kept in fixed size chunks so merging the workers does not copy them.
+     */
+    private final class T3Samples implements TileStatisticsPass.Accumulator<Tile[], T3Samples> {
+
+        final List<Chunk> chunks = new ArrayList<>();
+        private Chunk current = null;
+
+        private final Double noDataValue;
+        private final double[][] Tr = new double[3][3];
+        private final double[][] Ti = new double[3][3];
+
+        T3Samples(final Double noDataValue) {
+            this.noDataValue = noDataValue;
+        }
+
+        @Override
+        public void accumulate(final Rectangle rectangle, final Tile[] sourceTiles) {
+            final int xMax = rectangle.x + rectangle.width;
+            final int yMax = rectangle.y + rectangle.height;
+            // first grid pixels inside the tile
+            final int xs = (rectangle.x + sampleStep - 1) / sampleStep * sampleStep;
+            final int ys = (rectangle.y + sampleStep - 1) / sampleStep * sampleStep;
+
+            final ProductData[] dataBuffers = getDataBuffers(sourceTiles);
+            final TileIndex srcIndex = new TileIndex(sourceTiles[0]);
+
+            for (int y = ys; y < yMax; y += sampleStep) {
+                srcIndex.calculateStride(y);
+                for (int x = xs; x < xMax; x += sampleStep) {
+                    if (noDataValue.equals(dataBuffers[0].getElemDoubleAt(srcIndex.getIndex(x))))
+                        continue;
+
+                    getMeanCoherencyMatrix(x, y, halfWindowSizeX, halfWindowSizeY, srcWidth, srcHeight,
+                            sourceProductType, srcIndex, dataBuffers, Tr, Ti);
+
+                    srcIndex.calculateStride(y);
+                    if (current == null || current.size == SAMPLES_PER_CHUNK) {
+                        current = new Chunk();
+                        chunks.add(current);
+                    }
+                    WishartClusters.pack(Tr, Ti, current.data, current.size * WishartClusters.PACKED_SIZE);
+                    ++current.size;
+                }
+            }
+        }
+
+        @Override
+        public void merge(final T3Samples other) {
+            chunks.addAll(other.chunks);
+        }
+
+        private final class Chunk {
+            final float[] data = new float[SAMPLES_PER_CHUNK * WishartClusters.PACKED_SIZE];
+            int size = 0;
+        }
+    }
+
+    private static ProductData[] getDataBuffers(final Tile[] sourceTiles) {
+        final ProductData[] dataBuffers = new ProductData[sourceTiles.length];
+        for (int i = 0; i < sourceTiles.length; ++i) {
+            dataBuffers[i] = sourceTiles[i].getDataBuffer();
+        }
+        return dataBuffers;
+    }
+
     /**
      * Find the nearest cluster for a given T3 matrix using Wishart distance
      *
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package org.csa.rstb.classification.gpf.classifiers;
+
+/**
+ * Nearest cluster search by Wishart distance for 3x3 Hermitian matrices packed into vectors of
+ * {@value #PACKED_SIZE} elements: T11, T22, T33, Re T12, Im T12, Re T13, Im T13, Re T23, Im T23.
+ * <p>
+ * The inverse and the log determinant of each cluster centre are folded into a weight vector once, so the
+ * distance of a pixel to a cluster, tr(inv(Vm) T) + ln|Vm|, is a dot product of {@value #PACKED_SIZE} terms.
+ */
+public final class WishartClusters {
+
+    public static final int PACKED_SIZE = 9;
+
+    private final int[] zoneIndices;
+    private final double[] weights;
+    private final double[] logDets;
+
+    /**
+     * @param clusterCenters The cluster centers, null for empty clusters
+     */
+    public WishartClusters(final PolClassifierBase.ClusterInfo[] clusterCenters) {
+        int numClusters = 0;
+        for (PolClassifierBase.ClusterInfo cluster : clusterCenters) {
+            if (cluster != null) {
+                ++numClusters;
+            }
+        }
+
+        zoneIndices = new int[numClusters];
+        weights = new double[numClusters * PACKED_SIZE];
+        logDets = new double[numClusters];
+
+        int c = 0;
+        for (int z = 0; z < clusterCenters.length; ++z) {
+            final PolClassifierBase.ClusterInfo cluster = clusterCenters[z];
+            if (cluster == null) {
+                continue;
+            }
+            final double[][] iRe = cluster.invCenterRe;
+            final double[][] iIm = cluster.invCenterIm;
+            final int k = c * PACKED_SIZE;
+            weights[k] = iRe[0][0];
+            weights[k + 1] = iRe[1][1];
+            weights[k + 2] = iRe[2][2];
+            weights[k + 3] = 2 * iRe[0][1];
+            weights[k + 4] = 2 * iIm[0][1];
+            weights[k + 5] = 2 * iRe[0][2];
+            weights[k + 6] = 2 * iIm[0][2];
+            weights[k + 7] = 2 * iRe[1][2];
+            weights[k + 8] = 2 * iIm[1][2];
+            logDets[c] = cluster.logDet;
+            zoneIndices[c] = z + 1;
+            ++c;
+        }
+    }
+
+    /**
+     * Pack a T3 matrix.
+     *
+     * @param Tr     Real part of the T3 matrix
+     * @param Ti     Imaginary part of the T3 matrix
+     * @param t      The packed matrices
+     * @param offset Position of the packed matrix in t
+     */
+    public static void pack(final double[][] Tr, final double[][] Ti, final double[] t, final int offset) {
+        t[offset] = Tr[0][0];
+        t[offset + 1] = Tr[1][1];
+        t[offset + 2] = Tr[2][2];
+        t[offset + 3] = Tr[0][1];
+        t[offset + 4] = Ti[0][1];
+        t[offset + 5] = Tr[0][2];
+        t[offset + 6] = Ti[0][2];
+        t[offset + 7] = Tr[1][2];
+        t[offset + 8] = Ti[1][2];
+    }
+
+    public static void pack(final double[][] Tr, final double[][] Ti, final float[] t, final int offset) {
+        t[offset] = (float) Tr[0][0];
+        t[offset + 1] = (float) Tr[1][1];
+        t[offset + 2] = (float) Tr[2][2];
+        t[offset + 3] = (float) Tr[0][1];
+        t[offset + 4] = (float) Ti[0][1];
+        t[offset + 5] = (float) Tr[0][2];
+        t[offset + 6] = (float) Ti[0][2];
+        t[offset + 7] = (float) Tr[1][2];
+        t[offset + 8] = (float) Ti[1][2];
+    }
+
+    /**
+     * Expand a packed T3 matrix, filling in the lower triangle from the Hermitian symmetry.
+     */
+    public static void unpack(final double[] t, final int offset, final double[][] Tr, final double[][] Ti) {
+        Tr[0][0] = t[offset];
+        Tr[1][1] = t[offset + 1];
+        Tr[2][2] = t[offset + 2];
+        Ti[0][0] = Ti[1][1] = Ti[2][2] = 0.0;
+        Tr[0][1] = Tr[1][0] = t[offset + 3];
+        Ti[0][1] = t[offset + 4];
+        Ti[1][0] = -t[offset + 4];
+        Tr[0][2] = Tr[2][0] = t[offset + 5];
+        Ti[0][2] = t[offset + 6];
+        Ti[2][0] = -t[offset + 6];
+        Tr[1][2] = Tr[2][1] = t[offset + 7];
+        Ti[1][2] = t[offset + 8];
+        Ti[2][1] = -t[offset + 8];
+    }
+
+    /**
+     * Find the nearest cluster for a packed T3 matrix.
+     *
+     * @return The 1 based zone index of the nearest cluster, -1 if there are no clusters
+     */
+    public int findZoneIndex(final double[] t, final int offset) {
+        double minDistance = Double.MAX_VALUE;
+        int nearest = -1;
+        for (int c = 0, k = 0; c < logDets.length; ++c, k += PACKED_SIZE) {
+            final double d = logDets[c] +
+                    weights[k] * t[offset] + weights[k + 1] * t[offset + 1] + weights[k + 2] * t[offset + 2] +
+                    weights[k + 3] * t[offset + 3] + weights[k + 4] * t[offset + 4] +
+                    weights[k + 5] * t[offset + 5] + weights[k + 6] * t[offset + 6] +
+                    weights[k + 7] * t[offset + 7] + weights[k + 8] * t[offset + 8];
+            if (d < minDistance) {
+                minDistance = d;
+                nearest = c;
+            }
+        }
+        return nearest < 0 ? -1 : zoneIndices[nearest];
+    }
+
+    public int findZoneIndex(final float[] t, final int offset) {
+        double minDistance = Double.MAX_VALUE;
+        int nearest = -1;
+        for (int c = 0, k = 0; c < logDets.length; ++c, k += PACKED_SIZE) {
+            final double d = logDets[c] +
+                    weights[k] * t[offset] + weights[k + 1] * t[offset + 1] + weights[k + 2] * t[offset + 2] +
+                    weights[k + 3] * t[offset + 3] + weights[k + 4] * t[offset + 4] +
+                    weights[k + 5] * t[offset + 5] + weights[k + 6] * t[offset + 6] +
+                    weights[k + 7] * t[offset + 7] + weights[k + 8] * t[offset + 8];
+            if (d < minDistance) {
+                minDistance = d;
+                nearest = c;
+            }
+        }
+        return nearest < 0 ? -1 : zoneIndices[nearest];
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package org.csa.rstb.classification.gpf.classifiers;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class WishartClustersTest {
+
+    private final Random random = new Random(11);
+
+    @Test
+    public void testNearestClusterMatchesNestedMatrices() {
+        final PolClassifierBase.ClusterInfo[] centers = new PolClassifierBase.ClusterInfo[9];
+        final double[][] Tr = new double[3][3];
+        final double[][] Ti = new double[3][3];
+        for (int z = 0; z < centers.length; ++z) {
+            // leave a cluster empty
+            if (z == 4) {
+                continue;
+            }
+            randomT3(Tr, Ti);
+            centers[z] = new PolClassifierBase.ClusterInfo();
+            centers[z].setClusterCenter(z + 1, Tr, Ti, 1);
+        }
+
+        final WishartClusters clusters = new WishartClusters(centers);
+        final double[] t = new double[WishartClusters.PACKED_SIZE];
+        final float[] tf = new float[2 * WishartClusters.PACKED_SIZE];
+        for (int i = 0; i < 1000; ++i) {
+            randomT3(Tr, Ti);
+            final int expected = HAlphaWishart.findZoneIndex(Tr, Ti, centers);
+
+            WishartClusters.pack(Tr, Ti, t, 0);
+            assertEquals(expected, clusters.findZoneIndex(t, 0));
+
+            WishartClusters.pack(Tr, Ti, tf, WishartClusters.PACKED_SIZE);
+            assertEquals(expected, clusters.findZoneIndex(tf, WishartClusters.PACKED_SIZE));
+        }
+    }
+
+    @Test
+    public void testPackRoundTrip() {
+        final double[][] Tr = new double[3][3];
+        final double[][] Ti = new double[3][3];
+        randomT3(Tr, Ti);
+
+        final double[] t = new double[WishartClusters.PACKED_SIZE + 1];
+        WishartClusters.pack(Tr, Ti, t, 1);
+
+        final double[][] Ur = new double[3][3];
+        final double[][] Ui = new double[3][3];
+        WishartClusters.unpack(t, 1, Ur, Ui);
+        for (int i = 0; i < 3; ++i) {
+            for (int j = 0; j < 3; ++j) {
+                assertEquals(Tr[i][j], Ur[i][j], 0.0);
+                assertEquals(Ti[i][j], Ui[i][j], 0.0);
+            }
+        }
+    }
+
+    /**
+     * Random positive definite Hermitian matrix T = A A^H.
+     */
+    private void randomT3(final double[][] Tr, final double[][] Ti) {
+        final double[][] ar = new double[3][3];
+        final double[][] ai = new double[3][3];
+        for (int i = 0; i < 3; ++i) {
+            for (int j = 0; j < 3; ++j) {
+                ar[i][j] = random.nextGaussian();
+                ai[i][j] = random.nextGaussian();
+            }
+        }
+        for (int i = 0; i < 3; ++i) {
+            for (int j = 0; j < 3; ++j) {
+                double re = 0, im = 0;
+                for (int k = 0; k < 3; ++k) {
+                    re += ar[i][k] * ar[j][k] + ai[i][k] * ai[j][k];
+                    im += ai[i][k] * ar[j][k] - ar[i][k] * ai[j][k];
+                }
+                Tr[i][j] = re;
+                Ti[i][j] = i == j ? 0.0 : im;
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons;
+
+/**
+ * Hit/miss and memory statistics of a cache, taken at one point in time.
+ */
+public final class CacheStatistics {
+
+    public final String name;
+    public final long numEntries;
+    public final long hitCount;
+    public final long missCount;
+    public final long evictionCount;
+    public final long currentBytes;
+    public final long maxBytes;
+
+    /**
+     * @param name          the cache name used in toString()
+     * @param numEntries    the number of entries held
+     * @param hitCount      the number of requests served from the cache
+     * @param missCount     the number of requests that loaded or computed an entry
+     * @param evictionCount the number of entries removed to stay within the memory cap
+     * @param currentBytes  the memory held by the entries, 0 if not tracked
+     * @param maxBytes      the memory cap, 0 if the cache is not bounded by memory
+     */
+    public CacheStatistics(final String name, final long numEntries, final long hitCount, final long missCount,
+                           final long evictionCount, final long currentBytes, final long maxBytes) {
+        this.name = name;
+        this.numEntries = numEntries;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.currentBytes = currentBytes;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the fraction of requests served from the cache, 1 if there were no requests
+     */
+    public double hitRate() {
+        final long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return name + "{entries=" + numEntries + ", hits=" + hitCount + ", misses=" + missCount +
+                ", evictions=" + evictionCount + ", currentBytes=" + currentBytes + ", maxBytes=" + maxBytes + '}';
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons;
+
+import org.esa.snap.core.dataop.dem.ElevationModel;
+import org.esa.snap.core.datamodel.GeoPos;
+import org.esa.snap.core.datamodel.PixelPos;
+import org.esa.snap.runtime.Config;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process wide elevation models shared by the geometric operators.
+ * <p>
+ * Operators in one graph that use the same DEM and resampling method get the same ElevationModel instance,
+ * so the DEM files are read and held once. The instance is reference counted and disposed when the last
+ * operator releases it. A model is created outside of the cache lock, so loading one DEM only holds up the
+ * operators waiting for that DEM.
+ * <p>
+ * Elevations on the native DEM grid are kept in tiles keyed by (DEM, resampling method, tile index) in a
+ * byte-bounded LRU store. The store is split into lock stripes; a tile is loaded while holding the lock of its
+ * stripe, so concurrent requests for one tile compute it once while other stripes stay available.
+ */
+public final class ElevationModelCache {
+
+    private static final String PREF_CACHE_SIZE = "s1tbx.dem.tileCacheSizeMB";
+
+    public static final int TILE_SIZE = 128;
+    private static final int NUM_STRIPES = 16;
+
+    private static final long maxBytes = Config.instance().preferences().getLong(PREF_CACHE_SIZE,
+            Runtime.getRuntime().maxMemory() / 16 / (1024 * 1024)) * 1024 * 1024;
+
+    private static final Map<String, SharedModel> models = new HashMap<>();
+    private static final Stripe[] stripes = new Stripe[NUM_STRIPES];
+
+    private static final AtomicLong modelHits = new AtomicLong();
+    private static final AtomicLong modelMisses = new AtomicLong();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+    private static final AtomicLong currentBytes = new AtomicLong();
+
+    static {
+        for (int i = 0; i < NUM_STRIPES; ++i) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    private ElevationModelCache() {
+    }
+
+    /**
+     * Creates the elevation model when no operator holds one for the key.
+     */
+    public interface Factory {
+        ElevationModel create() throws Exception;
+    }
+
+    /**
+     * Get the shared elevation model for a DEM. Each call must be matched by one {@link Handle#release()}.
+     *
+     * @param demName          the DEM name or, for external DEMs, a key including the file path and its options
+     * @param resamplingMethod the DEM resampling method
+     * @param factory          creates the model if it is not shared yet
+     * @return a handle on the shared model
+     * @throws Exception from the factory
+     */
+    public static Handle acquire(final String demName, final String resamplingMethod, final Factory factory)
+            throws Exception {
+        final String key = demName + '|' + resamplingMethod;
+        SharedModel model;
+        final boolean create;
+        synchronized (models) {
+            model = models.get(key);
+            create = model == null;
+            if (create) {
+                modelMisses.incrementAndGet();
+                model = new SharedModel(key);
+                models.put(key, model);
+            } else {
+                modelHits.incrementAndGet();
+            }
+            model.refCount++;
+        }
+
+        // the model is created outside of the lock, only operators asking for the same key wait for it
+        if (create) {
+            model.create(factory);
+        }
+        try {
+            model.awaitCreated();
+        } catch (Exception e) {
+            releaseModel(model);
+            throw e;
+        }
+        return new Handle(model);
+    }
+
+    /**
+     * @return hit/miss and memory statistics of the DEM grid tiles shared by all operators
+     */
+    public static CacheStatistics getStats() {
+        long numTiles = 0;
+        for (Stripe stripe : stripes) {
+            numTiles += stripe.size();
+        }
+        return new CacheStatistics("ElevationModelCache", numTiles, hits.get(), misses.get(), evictions.get(),
+                currentBytes.get(), maxBytes);
+    }
+
+    /**
+     * @return how often operators shared an elevation model; models are not bounded by memory
+     */
+    public static CacheStatistics getModelStats() {
+        final int numModels;
+        synchronized (models) {
+            numModels = models.size();
+        }
+        return new CacheStatistics("ElevationModels", numModels, modelHits.get(), modelMisses.get(), 0, 0, 0);
+    }
+
+    private static void releaseModel(final SharedModel model) {
+        synchronized (models) {
+            if (--model.refCount > 0) {
+                return;
+            }
+            models.remove(model.key, model);
+        }
+        for (Stripe stripe : stripes) {
+            stripe.removeAll(model);
+        }
+        if (model.dem != null) {
+            model.dem.dispose();
+        }
+    }
+
+    /**
+     * A reference on a shared elevation model.
+     */
+    public static final class Handle {
+
+        private final SharedModel model;
+        private boolean released = false;
+
+        private Handle(final SharedModel model) {
+            this.model = model;
+        }
+
+        public ElevationModel getElevationModel() {
+            return model.dem;
+        }
+
+        /**
+         * Elevation at a node of the DEM grid, the same as dem.getElevation(dem.getGeoPos(new PixelPos(x, y))).
+         *
+         * @param pixelX the DEM column index
+         * @param pixelY the DEM row index
+         * @return the elevation or the DEM no data value
+         * @throws Exception from the elevation model
+         */
+        public double getElevation(final int pixelX, final int pixelY) throws Exception {
+            final int tileX = Math.floorDiv(pixelX, TILE_SIZE);
+            final int tileY = Math.floorDiv(pixelY, TILE_SIZE);
+            final double[] tile = getTile(model, tileX, tileY);
+            final double elevation = tile[(pixelY - tileY * TILE_SIZE) * TILE_SIZE + pixelX - tileX * TILE_SIZE];
+            if (Double.isNaN(elevation)) {
+                // the node failed when the tile was loaded, let the model report it
+                return model.dem.getElevation(model.dem.getGeoPos(new PixelPos(pixelX, pixelY)));
+            }
+            return elevation;
+        }
+
+        /**
+         * Release the model. It is disposed when no other operator holds it.
+         */
+        public synchronized void release() {
+            if (!released) {
+                released = true;
+                releaseModel(model);
+            }
+        }
+    }
+
+    private static double[] getTile(final SharedModel model, final int tileX, final int tileY) {
+        final TileKey key = new TileKey(model, tileX, tileY);
+        final Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % NUM_STRIPES];
+        synchronized (stripe) {
+            double[] tile = stripe.tiles.get(key);
+            if (tile != null) {
+                hits.incrementAndGet();
+                return tile;
+            }
+            misses.incrementAndGet();
+            tile = computeTile(model.dem, tileX, tileY);
+            stripe.put(key, tile);
+            return tile;
+        }
+    }
+
+    private static double[] computeTile(final ElevationModel dem, final int tileX, final int tileY) {
+        final double[] tile = new double[TILE_SIZE * TILE_SIZE];
+        final PixelPos pix = new PixelPos();
+        final int x0 = tileX * TILE_SIZE;
+        final int y0 = tileY * TILE_SIZE;
+        int i = 0;
+        for (int y = y0; y < y0 + TILE_SIZE; ++y) {
+            for (int x = x0; x < x0 + TILE_SIZE; ++x) {
+                pix.setLocation(x, y);
+                try {
+                    final GeoPos gp = dem.getGeoPos(pix);
+                    tile[i] = dem.getElevation(gp);
+                } catch (Exception e) {
+                    // nodes outside of the DEM may fail, they are evaluated again when asked for
+                    tile[i] = Double.NaN;
+                }
+                ++i;
+            }
+        }
+        return tile;
+    }
+
+    private static final class SharedModel {
+        private final String key;
+        private final CountDownLatch created = new CountDownLatch(1);
+        private volatile ElevationModel dem = null;
+        private volatile Exception failure = null;
+        private int refCount = 0; // guarded by models
+
+        SharedModel(final String key) {
+            this.key = key;
+        }
+
+        void create(final Factory factory) {
+            try {
+                dem = factory.create();
+            } catch (Exception e) {
+                failure = e;
+            } finally {
+                if (dem == null) {
+                    // a failed model is not shared, the next operator asking for the key tries again
+                    synchronized (models) {
+                        models.remove(key, this);
+                    }
+                }
+                created.countDown();
+            }
+        }
+
+        void awaitCreated() throws Exception {
+            created.await();
+            if (dem == null) {
+                throw failure != null ? failure : new IllegalStateException("Unable to create elevation model " + key);
+            }
+        }
+    }
+
+    private static final class TileKey {
+        private final SharedModel model;
+        private final int tileX, tileY;
+
+        TileKey(final SharedModel model, final int tileX, final int tileY) {
+            this.model = model;
+            this.tileX = tileX;
+            this.tileY = tileY;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof TileKey))
+                return false;
+            final TileKey other = (TileKey) obj;
+            return model == other.model && tileX == other.tileX && tileY == other.tileY;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = model.key.hashCode();
+            hash = 31 * hash + tileX;
+            hash = 31 * hash + tileY;
+            return hash;
+        }
+    }
+
+    private static final class Stripe {
+        private static final long tileBytes = (long) TILE_SIZE * TILE_SIZE * Double.BYTES;
+        private static final long maxTiles = Math.max(1, maxBytes / NUM_STRIPES / tileBytes);
+
+        private final LinkedHashMap<TileKey, double[]> tiles = new LinkedHashMap<>(16, 0.75f, true);
+
+        // callers hold the stripe lock
+        void put(final TileKey key, final double[] tile) {
+            tiles.put(key, tile);
+            currentBytes.addAndGet(tileBytes);
+            final Iterator<TileKey> it = tiles.keySet().iterator();
+            while (tiles.size() > maxTiles && it.hasNext()) {
+                it.next();
+                it.remove();
+                currentBytes.addAndGet(-tileBytes);
+                evictions.incrementAndGet();
+            }
+        }
+
+        synchronized int size() {
+            return tiles.size();
+        }
+
+        synchronized void removeAll(final SharedModel model) {
+            final Iterator<TileKey> it = tiles.keySet().iterator();
+            while (it.hasNext()) {
+                if (it.next().model == model) {
+                    it.remove();
+                    currentBytes.addAndGet(-tileBytes);
+                }
+            }
+        }
+    }
+}
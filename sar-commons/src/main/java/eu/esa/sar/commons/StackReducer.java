@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons;
+
+import org.esa.snap.core.datamodel.ProductData;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Per pixel statistics over the images of a stack, computed in a single pass.
+ * <p>
+ * The images of a tile are added one after the other and all requested statistics are accumulated together with
+ * weighted Welford updates, so no image has to be read twice and no per pixel objects are created. Samples equal
+ * to the no-data value or NaN are skipped; pixels without any valid sample have no result.
+ * <p>
+ * A reducer is not thread safe; use one per tile computation.
+ */
+public final class StackReducer {
+
+    public enum Statistic {
+        MEAN,
+        MIN,
+        MAX,
+        /** population standard deviation */
+        STDDEV,
+        /** standard deviation of the squared samples divided by their mean */
+        COEF_VAR
+    }
+
+    private final int numPixels;
+    private final boolean needMinMax;
+    private final boolean needSquares;
+
+    private final double[] weightSum;
+    private final double[] mean;
+    private final double[] m2;
+    private final double[] min;
+    private final double[] max;
+    // Welford accumulators of the squared samples
+    private final double[] meanSq;
+    private final double[] m2Sq;
+
+    /**
+     * @param numPixels  number of pixels of a tile
+     * @param statistics statistics to compute
+     */
+    public StackReducer(final int numPixels, final Set<Statistic> statistics) {
+        this.numPixels = numPixels;
+        this.needMinMax = statistics.contains(Statistic.MIN) || statistics.contains(Statistic.MAX);
+        this.needSquares = statistics.contains(Statistic.COEF_VAR);
+
+        weightSum = new double[numPixels];
+        mean = new double[numPixels];
+        m2 = new double[numPixels];
+        min = needMinMax ? new double[numPixels] : null;
+        max = needMinMax ? new double[numPixels] : null;
+        meanSq = needSquares ? new double[numPixels] : null;
+        m2Sq = needSquares ? new double[numPixels] : null;
+        reset();
+    }
+
+    public StackReducer(final int numPixels, final Statistic statistic) {
+        this(numPixels, EnumSet.of(statistic));
+    }
+
+    public int getNumPixels() {
+        return numPixels;
+    }
+
+    /**
+     * Clear the accumulators to start a new tile of the same size.
+     */
+    public void reset() {
+        Arrays.fill(weightSum, 0.0);
+        Arrays.fill(mean, 0.0);
+        Arrays.fill(m2, 0.0);
+        if (needMinMax) {
+            Arrays.fill(min, Double.POSITIVE_INFINITY);
+            Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        }
+        if (needSquares) {
+            Arrays.fill(meanSq, 0.0);
+            Arrays.fill(m2Sq, 0.0);
+        }
+    }
+
+    /**
+     * Add an image of the stack.
+     *
+     * @param data        samples of the tile, row by row
+     * @param noDataValue samples with this value are skipped
+     */
+    public void add(final ProductData data, final double noDataValue) {
+        final Object elems = data.getElems();
+        if (elems instanceof float[] && data.getNumElems() >= numPixels) {
+            final float[] samples = (float[]) elems;
+            for (int i = 0; i < numPixels; ++i) {
+                addSample(i, samples[i], noDataValue);
+            }
+        } else {
+            for (int i = 0; i < numPixels; ++i) {
+                addSample(i, data.getElemDoubleAt(i), noDataValue);
+            }
+        }
+    }
+
+    private void addSample(final int i, final double value, final double noDataValue) {
+        if (value != noDataValue) {
+            add(i, value, 1.0);
+        }
+    }
+
+    /**
+     * Add one sample of a pixel.
+     *
+     * @param i      pixel index
+     * @param value  sample value, NaN is skipped
+     * @param weight sample weight, samples with a weight of zero or less are skipped
+     */
+    public void add(final int i, final double value, final double weight) {
+        if (Double.isNaN(value) || !(weight > 0.0)) {
+            return;
+        }
+
+        final double w = weightSum[i] + weight;
+        weightSum[i] = w;
+
+        final double delta = value - mean[i];
+        mean[i] += delta * weight / w;
+        m2[i] += weight * delta * (value - mean[i]);
+
+        if (needMinMax) {
+            if (value < min[i]) {
+                min[i] = value;
+            }
+            if (value > max[i]) {
+                max[i] = value;
+            }
+        }
+
+        if (needSquares) {
+            final double sq = value * value;
+            final double deltaSq = sq - meanSq[i];
+            meanSq[i] += deltaSq * weight / w;
+            m2Sq[i] += weight * deltaSq * (sq - meanSq[i]);
+        }
+    }
+
+    /**
+     * @param i pixel index
+     * @return true if at least one valid sample was added for the pixel
+     */
+    public boolean isValid(final int i) {
+        return weightSum[i] > 0.0;
+    }
+
+    /**
+     * @param statistic   one of the statistics given to the constructor
+     * @param i           pixel index
+     * @param noDataValue value returned for pixels without valid samples
+     * @return the statistic of the pixel
+     */
+    public double getValue(final Statistic statistic, final int i, final double noDataValue) {
+        final double w = weightSum[i];
+        if (!(w > 0.0)) {
+            return noDataValue;
+        }
+        switch (statistic) {
+            case MEAN:
+                return mean[i];
+            case MIN:
+                return min[i];
+            case MAX:
+                return max[i];
+            case STDDEV:
+                return Math.sqrt(Math.max(0.0, m2[i] / w));
+            case COEF_VAR:
+                return meanSq[i] == 0.0 ? noDataValue : Math.sqrt(Math.max(0.0, m2Sq[i] / w)) / meanSq[i];
+            default:
+                throw new IllegalArgumentException("unknown statistic " + statistic);
+        }
+    }
+}
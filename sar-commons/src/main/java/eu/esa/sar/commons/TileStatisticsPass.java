@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons;
+
+import com.bc.ceres.core.ProgressMonitor;
+import org.esa.snap.core.util.ThreadExecutor;
+import org.esa.snap.core.util.ThreadRunnable;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * A parallel pass over the tiles of an image computing global statistics.
+ * <p>
+ * Each tile is read once by the {@link TileReader} and handed to every added {@link Accumulator}, so several
+ * statistics over the same source (mean, covariance, min, histogram, ...) are computed in a single traversal.
+ * Every worker thread owns its own instance of each accumulator, so tiles are accumulated without locking; the
+ * partial results of the workers are combined by a pairwise tree reduction once all tiles have been processed.
+ * <p>
+ * A pass can only be run once.
+ *
+ * @param <T> the data read for a tile
+ */
+public final class TileStatisticsPass<T> {
+
+    /**
+     * Reads the source data of a tile, shared by all accumulators of the pass.
+     */
+    public interface TileReader<T> {
+        T read(Rectangle rectangle) throws Exception;
+    }
+
+    /**
+     * Partial statistics of the tiles processed by one worker.
+     */
+    public interface Accumulator<T, A extends Accumulator<T, A>> {
+
+        /**
+         * Add the data of a tile.
+         */
+        void accumulate(Rectangle rectangle, T data) throws Exception;
+
+        /**
+         * Add the partial statistics of another worker.
+         */
+        void merge(A other);
+    }
+
+    /**
+     * Holds the merged accumulator of a statistic once the pass has run.
+     */
+    public static final class Result<A> {
+        private A value;
+
+        public A get() {
+            if (value == null) {
+                throw new IllegalStateException("statistics pass has not been run");
+            }
+            return value;
+        }
+    }
+
+    private final Rectangle[] tileRectangles;
+    private final TileReader<T> reader;
+    private final List<Statistic<T, ?>> statistics = new ArrayList<>();
+
+    private Runnable cancellationCheck = null;
+    private ProgressMonitor pm = ProgressMonitor.NULL;
+    private boolean hasRun = false;
+
+    /**
+     * @param tileRectangles the tiles to process
+     * @param reader         reads the data of a tile
+     */
+    public TileStatisticsPass(final Rectangle[] tileRectangles, final TileReader<T> reader) {
+        this.tileRectangles = tileRectangles;
+        this.reader = reader;
+    }
+
+    /**
+     * Add a statistic to compute in the pass.
+     *
+     * @param factory creates an empty accumulator, called once per worker
+     * @return the result, available after the pass has run
+     */
+    public <A extends Accumulator<T, A>> Result<A> add(final Supplier<A> factory) {
+        final Statistic<T, A> statistic = new Statistic<>(factory);
+        statistics.add(statistic);
+        return statistic.result;
+    }
+
+    /**
+     * @param cancellationCheck called before each tile, throws to stop the pass
+     */
+    public TileStatisticsPass<T> setCancellationCheck(final Runnable cancellationCheck) {
+        this.cancellationCheck = cancellationCheck;
+        return this;
+    }
+
+    /**
+     * @param pm progress monitor, worked by one per tile; the task is begun and done by the caller
+     */
+    public TileStatisticsPass<T> setProgressMonitor(final ProgressMonitor pm) {
+        this.pm = pm;
+        return this;
+    }
+
+    /**
+     * Process all tiles and merge the statistics. On failure or cancellation the remaining tiles are skipped and
+     * the first exception is thrown.
+     */
+    public synchronized void run() throws Exception {
+        if (hasRun) {
+            throw new IllegalStateException("statistics pass has already been run");
+        }
+        hasRun = true;
+
+        final int numWorkers = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                tileRectangles.length));
+        final AtomicInteger nextTile = new AtomicInteger(0);
+        final AtomicReference<Throwable> failure = new AtomicReference<>(null);
+
+        final List<Worker> workers = new ArrayList<>(numWorkers);
+        final ThreadExecutor executor = new ThreadExecutor();
+        for (int w = 0; w < numWorkers; ++w) {
+            final Worker worker = new Worker(nextTile, failure);
+            workers.add(worker);
+            executor.execute(worker);
+        }
+        executor.complete();
+
+        final Throwable e = failure.get();
+        if (e instanceof Exception) {
+            throw (Exception) e;
+        } else if (e instanceof Error) {
+            throw (Error) e;
+        } else if (e != null) {
+            throw new Exception(e);
+        }
+
+        for (int s = 0; s < statistics.size(); ++s) {
+            final List<Accumulator<T, ?>> partials = new ArrayList<>(numWorkers);
+            for (Worker worker : workers) {
+                partials.add(worker.accumulators.get(s));
+            }
+            statistics.get(s).reduce(partials);
+        }
+    }
+
+    private void worked() {
+        synchronized (pm) {
+            pm.worked(1);
+        }
+    }
+
+    private final class Worker extends ThreadRunnable {
+
+        private final AtomicInteger nextTile;
+        private final AtomicReference<Throwable> failure;
+        private final List<Accumulator<T, ?>> accumulators = new ArrayList<>(statistics.size());
+
+        Worker(final AtomicInteger nextTile, final AtomicReference<Throwable> failure) {
+            this.nextTile = nextTile;
+            this.failure = failure;
+            for (Statistic<T, ?> statistic : statistics) {
+                accumulators.add(statistic.factory.get());
+            }
+        }
+
+        @Override
+        public void process() {
+            int i;
+            while (failure.get() == null && (i = nextTile.getAndIncrement()) < tileRectangles.length) {
+                try {
+                    if (cancellationCheck != null) {
+                        cancellationCheck.run();
+                    }
+                    final Rectangle rectangle = tileRectangles[i];
+                    final T data = reader.read(rectangle);
+                    for (Accumulator<T, ?> accumulator : accumulators) {
+                        accumulator.accumulate(rectangle, data);
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                    return;
+                }
+                worked();
+            }
+        }
+    }
+
+    private static final class Statistic<T, A extends Accumulator<T, A>> {
+
+        private final Supplier<A> factory;
+        private final Result<A> result = new Result<>();
+
+        Statistic(final Supplier<A> factory) {
+            this.factory = factory;
+        }
+
+        @SuppressWarnings("unchecked")
+        void reduce(final List<Accumulator<T, ?>> partials) {
+            final int n = partials.size();
+            for (int step = 1; step < n; step *= 2) {
+                for (int i = 0; i + step < n; i += 2 * step) {
+                    ((A) partials.get(i)).merge((A) partials.get(i + step));
+                }
+            }
+            result.value = (A) partials.get(0);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons;
+
+import org.esa.snap.engine_utilities.datamodel.PosVector;
+
+/**
+ * Zero Doppler time of earth points from the sensor positions and velocities interpolated for every range line.
+ * <p>
+ * The result is the same as {@link SARGeocoding#getEarthPointZeroDopplerTime}: the two lines between which
+ * the Doppler frequency changes sign are found and the time is interpolated linearly between them.
+ * Instead of bisecting over all lines, the bracket is found with secant (finite difference Newton) steps over
+ * the line index, falling back to bisection. A {@link Cursor} starts from the bracket of the previous point so
+ * that neighbouring DEM points need only a few Doppler evaluations.
+ * <p>
+ * The solver is immutable and may be shared between threads. Cursors must not be shared.
+ */
+public final class ZeroDopplerSolver {
+
+    private static final int maxSecantSteps = 4;
+
+    private final double firstLineUTC;
+    private final double lineTimeInterval;
+    private final double wavelength;
+    private final int numLines;
+
+    // sensor state per range line, kept as flat arrays for locality
+    private final double[] posX, posY, posZ;
+    private final double[] velX, velY, velZ;
+
+    public ZeroDopplerSolver(final double firstLineUTC, final double lineTimeInterval, final double wavelength,
+                             final OrbitStateVectors orbit) {
+        this(firstLineUTC, lineTimeInterval, wavelength, orbit.sensorPosition, orbit.sensorVelocity);
+    }
+
+    public ZeroDopplerSolver(final double firstLineUTC, final double lineTimeInterval, final double wavelength,
+                             final PosVector[] sensorPosition, final PosVector[] sensorVelocity) {
+        this.firstLineUTC = firstLineUTC;
+        this.lineTimeInterval = lineTimeInterval;
+        this.wavelength = wavelength;
+        this.numLines = sensorPosition.length;
+
+        posX = new double[numLines];
+        posY = new double[numLines];
+        posZ = new double[numLines];
+        velX = new double[numLines];
+        velY = new double[numLines];
+        velZ = new double[numLines];
+        for (int i = 0; i < numLines; ++i) {
+            posX[i] = sensorPosition[i].x;
+            posY[i] = sensorPosition[i].y;
+            posZ[i] = sensorPosition[i].z;
+            velX[i] = sensorVelocity[i].x;
+            velY[i] = sensorVelocity[i].y;
+            velZ[i] = sensorVelocity[i].z;
+        }
+    }
+
+    /**
+     * @return a search state for a sequence of neighbouring points, e.g. the pixels of a tile
+     */
+    public Cursor newCursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Compute zero Doppler time for given earth point without a previous solution.
+     *
+     * @param earthPoint The earth point in xyz coordinate.
+     * @return The zero Doppler time in days if it is found, NonValidZeroDopplerTime otherwise.
+     */
+    public double getZeroDopplerTime(final PosVector earthPoint) {
+        return solve(earthPoint.x, earthPoint.y, earthPoint.z, null);
+    }
+
+    /**
+     * Compute zero Doppler times for a row of earth points.
+     *
+     * @param x     The earth point x coordinates.
+     * @param y     The earth point y coordinates.
+     * @param z     The earth point z coordinates.
+     * @param n     The number of points.
+     * @param times The zero Doppler times in days or NonValidZeroDopplerTime.
+     */
+    public void getZeroDopplerTimes(final double[] x, final double[] y, final double[] z, final int n,
+                                    final double[] times) {
+        final Cursor cursor = new Cursor();
+        for (int i = 0; i < n; ++i) {
+            times[i] = solve(x[i], y[i], z[i], cursor);
+        }
+    }
+
+    /**
+     * Warm start state. The line bracket of the last solved point is the first guess for the next one.
+     */
+    public final class Cursor {
+        private int lastLine = -1;
+
+        private Cursor() {
+        }
+
+        /**
+         * Compute zero Doppler time for given earth point starting from the previous solution.
+         *
+         * @param earthPoint The earth point in xyz coordinate.
+         * @return The zero Doppler time in days if it is found, NonValidZeroDopplerTime otherwise.
+         */
+        public double getZeroDopplerTime(final PosVector earthPoint) {
+            return solve(earthPoint.x, earthPoint.y, earthPoint.z, this);
+        }
+
+        public void reset() {
+            lastLine = -1;
+        }
+    }
+
+    private double solve(final double x, final double y, final double z, final Cursor cursor) {
+
+        final int last = numLines - 1;
+        final double firstFreq = dopplerFrequency(0, x, y, z);
+        final double lastFreq = dopplerFrequency(last, x, y, z);
+
+        if (Math.abs(firstFreq) < 1.0) {
+            return firstLineUTC;
+        } else if (Math.abs(lastFreq) < 1.0) {
+            return firstLineUTC + last * lineTimeInterval;
+        } else if (firstFreq * lastFreq > 0.0) {
+            return SARGeocoding.NonValidZeroDopplerTime;
+        }
+
+        // bracket [lo, hi] with f(lo) on the side of the first line and f(hi) on the other side or zero.
+        // As in the bisection of SARGeocoding, the end lines keep the scaled Doppler frequency and inner
+        // lines use the unscaled Doppler term so that the interpolated result is identical.
+        int lo = 0, hi = last;
+        double fLo = firstFreq, fHi = lastFreq;
+
+        int c;
+        if (cursor != null && cursor.lastLine >= 0) {
+            c = cursor.lastLine;
+        } else {
+            c = (int) (last * firstFreq / (firstFreq - lastFreq));
+        }
+
+        int step = 0;
+        while (hi - lo > 1) {
+            c = Math.max(lo, Math.min(c, hi - 1));
+
+            final double fc = c == lo ? fLo : dopplerTerm(c, x, y, z);
+            final double fc1 = c + 1 == hi ? fHi : dopplerTerm(c + 1, x, y, z);
+
+            if (fc * firstFreq > 0.0) {
+                lo = c;
+                fLo = fc;
+            } else {
+                hi = c;
+                fHi = fc;
+            }
+            if (c + 1 < hi) {
+                if (fc1 * firstFreq > 0.0) {
+                    lo = c + 1;
+                    fLo = fc1;
+                } else {
+                    hi = c + 1;
+                    fHi = fc1;
+                }
+            }
+
+            // next guess from the local slope, bisect if it does not land inside the bracket
+            final double est = c - fc / (fc1 - fc);
+            if (++step <= maxSecantSteps && est > lo && est < hi) {
+                c = (int) est;
+            } else {
+                c = (lo + hi) >>> 1;
+            }
+        }
+
+        if (cursor != null) {
+            cursor.lastLine = lo;
+        }
+
+        final double y0 = lo - fLo * (hi - lo) / (fHi - fLo);
+        return firstLineUTC + y0 * lineTimeInterval;
+    }
+
+    private double dopplerTerm(final int i, final double x, final double y, final double z) {
+        if (i == 0 || i == numLines - 1) {
+            return dopplerFrequency(i, x, y, z);
+        }
+        return velX[i] * (x - posX[i]) + velY[i] * (y - posY[i]) + velZ[i] * (z - posZ[i]);
+    }
+
+    private double dopplerFrequency(final int i, final double x, final double y, final double z) {
+        final double xDiff = x - posX[i];
+        final double yDiff = y - posY[i];
+        final double zDiff = z - posZ[i];
+        final double distance = Math.sqrt(xDiff * xDiff + yDiff * yDiff + zDiff * zDiff);
+
+        return 2.0 * (velX[i] * xDiff + velY[i] * yDiff + velZ[i] * zDiff) / (distance * wavelength);
+    }
+}
@@ -34,7 +34,9 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
 
 /**
  * Reader for ImageIO File
@@ -55,7 +57,17 @@ public class ImageIOFile {
     private ImageInputStream stream;
     private ImageReader reader;
 
+    // optional pool of independent readers over the same file for lock-free concurrent reads
+    private File sourceFile = null;
+    private ReaderFactory readerFactory = null;
+    private final Deque<PooledReader> readerPool = new ConcurrentLinkedDeque<>();
+    private volatile boolean closed = false;
+
+    // optional direct reader bypassing ImageIO for uncompressed stripped TIFFs
+    private TiffStripReader stripReader = null;
+
     private static final boolean useFileCache = Config.instance().preferences().getBoolean("s1tbx.readers.useFileCache", false);
+    private static final boolean useConcurrentReads = Config.instance().preferences().getBoolean("s1tbx.readers.useConcurrentReads", true);
 
     public ImageIOFile(final File inputFile, final ImageReader iioReader,
                        final File productInputFile) throws IOException {
@@ -148,6 +160,68 @@ public class ImageIOFile {
         return reader;
     }
 
+    /**
+     * Enables concurrent reads by allowing each reading thread to open its own stream and reader on the file.
+     * Only applicable when the image is an uncompressed file on disk.
+     *
+     * @param file    the image file on disk
+     * @param factory creates a reader for a newly opened stream
+     */
+    public void enableConcurrentReads(final File file, final ReaderFactory factory) {
+        if (useConcurrentReads && file != null && file.isFile()) {
+            this.sourceFile = file;
+            this.readerFactory = factory;
+        }
+    }
+
+    public boolean isConcurrentReadEnabled() {
+        return sourceFile != null;
+    }
+
+    /**
+     * Sets a direct strip reader to be used instead of ImageIO when the layout of the file allows it
+     */
+    public void setStripReader(final TiffStripReader stripReader) {
+        this.stripReader = stripReader;
+    }
+
+    public TiffStripReader getStripReader() {
+        return stripReader;
+    }
+
+    /**
+     * Takes a reader from the pool or opens a new one. The reader is exclusively owned by the caller
+     * until it is returned with releaseReader.
+     */
+    public PooledReader acquireReader() throws IOException {
+        if (sourceFile == null) {
+            throw new IOException("concurrent reads not enabled for " + name);
+        }
+        if (closed) {
+            throw new IOException(name + " is closed");
+        }
+        final PooledReader pooled = readerPool.pollFirst();
+        if (pooled != null) {
+            return pooled;
+        }
+        final ImageInputStream iis = ImageIO.createImageInputStream(sourceFile);
+        if (iis == null)
+            throw new IOException("Unable to open " + sourceFile);
+        return new PooledReader(iis, readerFactory.create(iis));
+    }
+
+    public void releaseReader(final PooledReader pooled) {
+        if (closed) {
+            pooled.dispose();
+            return;
+        }
+        readerPool.offerFirst(pooled);
+        // close() may have drained the pool between the check and the offer
+        if (closed && readerPool.remove(pooled)) {
+            pooled.dispose();
+        }
+    }
+
     private static int bufferImageTypeToProductType(int biType) {
         switch (biType) {
             case BufferedImage.TYPE_CUSTOM:
@@ -199,6 +273,13 @@ public class ImageIOFile {
     }
 
     public void close() throws IOException {
+        closed = true;
+        PooledReader pooled;
+        while ((pooled = readerPool.pollFirst()) != null) {
+            pooled.dispose();
+        }
+        if (stripReader != null)
+            stripReader.close();
         if (stream != null)
             stream.close();
         if (reader != null)
@@ -309,6 +390,29 @@ public class ImageIOFile {
         }
     }
 
+    public interface ReaderFactory {
+        ImageReader create(final ImageInputStream stream) throws IOException;
+    }
+
+    public static class PooledReader {
+        public final ImageInputStream stream;
+        public final ImageReader reader;
+
+        private PooledReader(final ImageInputStream stream, final ImageReader reader) {
+            this.stream = stream;
+            this.reader = reader;
+        }
+
+        private void dispose() {
+            reader.dispose();
+            try {
+                stream.close();
+            } catch (IOException e) {
+                SystemUtils.LOG.warning("Unable to close stream: " + e.getMessage());
+            }
+        }
+    }
+
     public static class BandInfo {
         public final int imageID;
         public final int bandSampleOffset;
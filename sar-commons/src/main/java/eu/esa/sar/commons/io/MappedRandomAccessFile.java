@@ -0,0 +1,441 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons.io;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read-only, memory-mapped counterpart of {@link EnhancedRandomAccessFile}.
+ * <p>
+ * The file is mapped lazily in windows so that files larger than 2 GB can be read. Bulk reads of primitives go
+ * through typed buffer views in the configured byte order instead of assembling values byte by byte.
+ * <p>
+ * The sequential DataInput methods use a file pointer owned by this instance and are not thread-safe.
+ * The positional read methods taking a file offset do not touch the file pointer and may be called
+ * by several threads at once.
+ */
+public final class MappedRandomAccessFile implements DataInput, Closeable {
+
+    /**
+     * The default size of a mapped window, in bytes.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 28;
+
+    // each window maps this many extra bytes so that a primitive starting in a window can always be read from it
+    private static final int WINDOW_OVERLAP = Long.BYTES;
+
+    private final File file;
+    private final FileChannel channel;
+    private final long length;
+    private final int windowSize;
+    private final AtomicReferenceArray<MappedByteBuffer> windows;
+
+    private long filePosition = 0;
+    private ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
+
+    /**
+     * Constructor, default window size.
+     *
+     * @param file file to map
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedRandomAccessFile(final File file) throws IOException {
+        this(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param file       file to map
+     * @param windowSize size in bytes of each mapped region
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedRandomAccessFile(final File file, final int windowSize) throws IOException {
+        if (windowSize <= WINDOW_OVERLAP || windowSize > Integer.MAX_VALUE - WINDOW_OVERLAP) {
+            throw new IllegalArgumentException("invalid window size " + windowSize);
+        }
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.length = channel.size();
+        this.windowSize = windowSize;
+        this.windows = new AtomicReferenceArray<>((int) ((length + windowSize - 1) / windowSize));
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public void setByteOrder(final ByteOrder bo) {
+        this.byteOrder = bo;
+    }
+
+    public ByteOrder getByteOrder() {
+        return byteOrder;
+    }
+
+    public long seek(final long pos) {
+        filePosition = pos;
+        return filePosition;
+    }
+
+    public long getFilePointer() {
+        return filePosition;
+    }
+
+    public boolean isAtEndOfFile() {
+        return filePosition >= length;
+    }
+
+    /**
+     * Releases the channel. Mapped windows are released when garbage collected.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Returns a view of the window holding pos, positioned at pos, in the current byte order.
+     * The view is private to the caller so concurrent callers never share position or limit.
+     */
+    private ByteBuffer view(final long pos) throws IOException {
+        if (pos < 0 || pos >= length) {
+            throw new EOFException("position " + pos + " outside of " + file);
+        }
+        final int w = (int) (pos / windowSize);
+        MappedByteBuffer window = windows.get(w);
+        if (window == null) {
+            final long start = (long) w * windowSize;
+            final long size = Math.min(length - start, (long) windowSize + WINDOW_OVERLAP);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+            if (!windows.compareAndSet(w, null, window)) {
+                window = windows.get(w);
+            }
+        }
+        final ByteBuffer view = window.duplicate().order(byteOrder);
+        view.position((int) (pos - (long) w * windowSize));
+        return view;
+    }
+
+    private ByteBuffer view(final long pos, final int elemSize) throws IOException {
+        if (pos + elemSize > length) {
+            throw new EOFException("position " + pos + " outside of " + file);
+        }
+        return view(pos);
+    }
+
+    // ////////////////////////////////////////////////////////////////////////////////////////////
+    // Positional reads. These do not modify the file pointer and are thread-safe.
+    //
+
+    public int read(final long pos, final byte[] b, int off, int len) throws IOException {
+        if (pos >= length) {
+            return -1;
+        }
+        len = (int) Math.min(len, length - pos);
+        long p = pos;
+        int remaining = len;
+        while (remaining > 0) {
+            final ByteBuffer buf = view(p);
+            final int n = Math.min(remaining, buf.remaining());
+            buf.get(b, off, n);
+            off += n;
+            p += n;
+            remaining -= n;
+        }
+        return len;
+    }
+
+    public void readFully(final long pos, final byte[] b, final int off, final int len) throws IOException {
+        if (pos + len > length) {
+            throw new EOFException();
+        }
+        read(pos, b, off, len);
+    }
+
+    public short readShort(final long pos) throws IOException {
+        return view(pos, Short.BYTES).getShort();
+    }
+
+    public int readInt(final long pos) throws IOException {
+        return view(pos, Integer.BYTES).getInt();
+    }
+
+    public long readLong(final long pos) throws IOException {
+        return view(pos, Long.BYTES).getLong();
+    }
+
+    public float readFloat(final long pos) throws IOException {
+        return view(pos, Float.BYTES).getFloat();
+    }
+
+    public double readDouble(final long pos) throws IOException {
+        return view(pos, Double.BYTES).getDouble();
+    }
+
+    public void readShort(long pos, final short[] pa, int start, int n) throws IOException {
+        checkBounds(pos, n, Short.BYTES);
+        while (n > 0) {
+            final ByteBuffer buf = view(pos);
+            final int cnt = Math.min(n, buf.remaining() / Short.BYTES);
+            buf.asShortBuffer().get(pa, start, cnt);
+            start += cnt;
+            n -= cnt;
+            pos += (long) cnt * Short.BYTES;
+        }
+    }
+
+    public void readInt(long pos, final int[] pa, int start, int n) throws IOException {
+        checkBounds(pos, n, Integer.BYTES);
+        while (n > 0) {
+            final ByteBuffer buf = view(pos);
+            final int cnt = Math.min(n, buf.remaining() / Integer.BYTES);
+            buf.asIntBuffer().get(pa, start, cnt);
+            start += cnt;
+            n -= cnt;
+            pos += (long) cnt * Integer.BYTES;
+        }
+    }
+
+    public void readLong(long pos, final long[] pa, int start, int n) throws IOException {
+        checkBounds(pos, n, Long.BYTES);
+        while (n > 0) {
+            final ByteBuffer buf = view(pos);
+            final int cnt = Math.min(n, buf.remaining() / Long.BYTES);
+            buf.asLongBuffer().get(pa, start, cnt);
+            start += cnt;
+            n -= cnt;
+            pos += (long) cnt * Long.BYTES;
+        }
+    }
+
+    public void readFloat(long pos, final float[] pa, int start, int n) throws IOException {
+        checkBounds(pos, n, Float.BYTES);
+        while (n > 0) {
+            final ByteBuffer buf = view(pos);
+            final int cnt = Math.min(n, buf.remaining() / Float.BYTES);
+            buf.asFloatBuffer().get(pa, start, cnt);
+            start += cnt;
+            n -= cnt;
+            pos += (long) cnt * Float.BYTES;
+        }
+    }
+
+    public void readDouble(long pos, final double[] pa, int start, int n) throws IOException {
+        checkBounds(pos, n, Double.BYTES);
+        while (n > 0) {
+            final ByteBuffer buf = view(pos);
+            final int cnt = Math.min(n, buf.remaining() / Double.BYTES);
+            buf.asDoubleBuffer().get(pa, start, cnt);
+            start += cnt;
+            n -= cnt;
+            pos += (long) cnt * Double.BYTES;
+        }
+    }
+
+    private void checkBounds(final long pos, final int n, final int elemSize) throws EOFException {
+        if (pos < 0 || pos + (long) n * elemSize > length) {
+            throw new EOFException("reading " + n + " elements at " + pos + " beyond end of " + file);
+        }
+    }
+
+    // ////////////////////////////////////////////////////////////////////////////////////////////
+    // Sequential reads from the file pointer.
+    //
+
+    public int read() throws IOException {
+        if (filePosition >= length) {
+            return -1;
+        }
+        return view(filePosition++).get() & 0xFF;
+    }
+
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        final int n = read(filePosition, b, off, len);
+        if (n > 0) {
+            filePosition += n;
+        }
+        return n;
+    }
+
+    public int read(final byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public void readFully(final byte[] b) throws IOException {
+        readFully(b, 0, b.length);
+    }
+
+    @Override
+    public void readFully(final byte[] b, final int off, final int len) throws IOException {
+        readFully(filePosition, b, off, len);
+        filePosition += len;
+    }
+
+    @Override
+    public int skipBytes(final int n) {
+        return (int) skipBytes((long) n);
+    }
+
+    public long skipBytes(final long n) {
+        final long skipped = Math.max(0, Math.min(n, length - filePosition));
+        filePosition += skipped;
+        return skipped;
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        final int ch = read();
+        if (ch < 0) {
+            throw new EOFException();
+        }
+        return (byte) ch;
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException {
+        return readByte() & 0xFF;
+    }
+
+    @Override
+    public short readShort() throws IOException {
+        final short v = readShort(filePosition);
+        filePosition += Short.BYTES;
+        return v;
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException {
+        return readShort() & 0xFFFF;
+    }
+
+    @Override
+    public char readChar() throws IOException {
+        return (char) readShort();
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        final int v = readInt(filePosition);
+        filePosition += Integer.BYTES;
+        return v;
+    }
+
+    public long readUnsignedInt() throws IOException {
+        return ((long) readInt()) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        final long v = readLong(filePosition);
+        filePosition += Long.BYTES;
+        return v;
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        final float v = readFloat(filePosition);
+        filePosition += Float.BYTES;
+        return v;
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        final double v = readDouble(filePosition);
+        filePosition += Double.BYTES;
+        return v;
+    }
+
+    public void readShort(final short[] pa, final int start, final int n) throws IOException {
+        readShort(filePosition, pa, start, n);
+        filePosition += (long) n * Short.BYTES;
+    }
+
+    public void readInt(final int[] pa, final int start, final int n) throws IOException {
+        readInt(filePosition, pa, start, n);
+        filePosition += (long) n * Integer.BYTES;
+    }
+
+    public void readLong(final long[] pa, final int start, final int n) throws IOException {
+        readLong(filePosition, pa, start, n);
+        filePosition += (long) n * Long.BYTES;
+    }
+
+    public void readFloat(final float[] pa, final int start, final int n) throws IOException {
+        readFloat(filePosition, pa, start, n);
+        filePosition += (long) n * Float.BYTES;
+    }
+
+    public void readDouble(final double[] pa, final int start, final int n) throws IOException {
+        readDouble(filePosition, pa, start, n);
+        filePosition += (long) n * Double.BYTES;
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        final StringBuilder input = new StringBuilder();
+        int c;
+
+        while (((c = read()) != -1) && (c != '\n')) {
+            input.append((char) c);
+        }
+        if ((c == -1) && (input.length() == 0)) {
+            return null;
+        }
+        return input.toString();
+    }
+
+    @Override
+    public String readUTF() throws IOException {
+        return DataInputStream.readUTF(this);
+    }
+
+    /**
+     * Read a String of known length.
+     *
+     * @param nbytes number of bytes to read
+     * @return String wrapping the bytes.
+     * @throws IOException if an I/O error occurs.
+     */
+    public String readString(final int nbytes) throws IOException {
+        final byte[] data = new byte[nbytes];
+        readFully(data);
+        return new String(data);
+    }
+
+    @Override
+    public String toString() {
+        return "MappedRandomAccessFile " + file;
+    }
+}
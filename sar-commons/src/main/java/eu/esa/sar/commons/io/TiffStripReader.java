@@ -0,0 +1,336 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons.io;
+
+import java.awt.Rectangle;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Direct reader for uncompressed, stripped TIFF files such as the Sentinel-1 measurement files.
+ * The strip table is parsed once and rectangles are read with positional reads on a FileChannel,
+ * so no ImageIO objects are involved and any number of threads may read at the same time.
+ */
+public final class TiffStripReader {
+
+    private static final int TAG_IMAGE_WIDTH = 256;
+    private static final int TAG_IMAGE_LENGTH = 257;
+    private static final int TAG_BITS_PER_SAMPLE = 258;
+    private static final int TAG_COMPRESSION = 259;
+    private static final int TAG_STRIP_OFFSETS = 273;
+    private static final int TAG_SAMPLES_PER_PIXEL = 277;
+    private static final int TAG_ROWS_PER_STRIP = 278;
+    private static final int TAG_STRIP_BYTE_COUNTS = 279;
+    private static final int TAG_PLANAR_CONFIGURATION = 284;
+    private static final int TAG_TILE_WIDTH = 322;
+    private static final int TAG_SAMPLE_FORMAT = 339;
+
+    private static final int SAMPLE_FORMAT_INT = 2;
+    private static final int SAMPLE_FORMAT_COMPLEX_INT = 5;
+
+    private final FileChannel channel;
+    private final ByteOrder byteOrder;
+    private final int width;
+    private final int height;
+    private final int rowsPerStrip;
+    private final int bytesPerPixel;
+    private final int sampleFormat;
+    private final int samplesPerPixel;
+    private final long[] stripOffsets;
+
+    private TiffStripReader(final FileChannel channel, final ByteOrder byteOrder, final Header header) {
+        this.channel = channel;
+        this.byteOrder = byteOrder;
+        this.width = header.width;
+        this.height = header.height;
+        this.rowsPerStrip = header.rowsPerStrip;
+        this.bytesPerPixel = header.bitsPerSample / 8 * header.samplesPerPixel;
+        this.sampleFormat = header.sampleFormat;
+        this.samplesPerPixel = header.samplesPerPixel;
+        this.stripOffsets = header.stripOffsets;
+    }
+
+    /**
+     * Opens a TIFF file for direct reading
+     *
+     * @param file the TIFF file
+     * @return the reader or null if the file layout is not supported (compressed, tiled or planar)
+     * @throws IOException on read error
+     */
+    public static TiffStripReader open(final File file) throws IOException {
+        final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            final ByteBuffer buf = ByteBuffer.allocate(16);
+            readFully(channel, buf, 0);
+            final ByteOrder order;
+            if (buf.get(0) == 'I' && buf.get(1) == 'I') {
+                order = ByteOrder.LITTLE_ENDIAN;
+            } else if (buf.get(0) == 'M' && buf.get(1) == 'M') {
+                order = ByteOrder.BIG_ENDIAN;
+            } else {
+                channel.close();
+                return null;
+            }
+            buf.order(order);
+            final int magic = buf.getShort(2) & 0xFFFF;
+            final Header header;
+            if (magic == 42) {
+                header = readHeader(channel, order, buf.getInt(4) & 0xFFFFFFFFL, false);
+            } else if (magic == 43) {
+                header = readHeader(channel, order, buf.getLong(8), true);
+            } else {
+                header = null;
+            }
+            if (header == null || !header.isSupported()) {
+                channel.close();
+                return null;
+            }
+            return new TiffStripReader(channel, order, header);
+        } catch (IOException | RuntimeException e) {
+            // a malformed header may fail with an unchecked exception
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return true if each pixel holds a pair of 16 bit integers (CInt16) such as Sentinel-1 SLC
+     */
+    public boolean isComplexInt16() {
+        return bytesPerPixel == 4 &&
+                ((sampleFormat == SAMPLE_FORMAT_COMPLEX_INT && samplesPerPixel == 1) ||
+                        (sampleFormat == SAMPLE_FORMAT_INT && samplesPerPixel == 2));
+    }
+
+    /**
+     * Reads the I or Q part of a CInt16 image directly into the destination array
+     *
+     * @param rect      the rectangle to read in image coordinates
+     * @param imaginary true to read the Q part, false for the I part
+     * @param dest      a short[] or int[] of at least rect.width * rect.height elements
+     * @throws IOException on read error
+     */
+    public void readComplexInt16(final Rectangle rect, final boolean imaginary, final Object dest) throws IOException {
+        if (!isComplexInt16()) {
+            throw new IOException("TIFF is not CInt16");
+        }
+        if (rect.x < 0 || rect.y < 0 || rect.x + rect.width > width || rect.y + rect.height > height) {
+            throw new IOException("Rectangle " + rect + " outside of image " + width + 'x' + height);
+        }
+
+        final int rowBytes = rect.width * bytesPerPixel;
+        final ByteBuffer rowBuffer = ByteBuffer.allocate(rowBytes).order(byteOrder);
+        final ShortBuffer samples = rowBuffer.asShortBuffer();
+        final short[] row = new short[rect.width * 2];
+        final int part = imaginary ? 1 : 0;
+
+        int destIdx = 0;
+        for (int y = rect.y; y < rect.y + rect.height; ++y) {
+            rowBuffer.clear();
+            readFully(channel, rowBuffer, getPixelOffset(rect.x, y));
+            samples.clear();
+            samples.get(row);
+
+            if (dest instanceof short[]) {
+                final short[] destArray = (short[]) dest;
+                for (int i = part; i < row.length; i += 2) {
+                    destArray[destIdx++] = row[i];
+                }
+            } else {
+                final int[] destArray = (int[]) dest;
+                for (int i = part; i < row.length; i += 2) {
+                    destArray[destIdx++] = row[i];
+                }
+            }
+        }
+    }
+
+    private long getPixelOffset(final int x, final int y) {
+        final int strip = y / rowsPerStrip;
+        return stripOffsets[strip] + ((long) (y - strip * rowsPerStrip) * width + x) * bytesPerPixel;
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) {
+            final int n = channel.read(buf, pos);
+            if (n < 0) {
+                throw new IOException("Unexpected end of TIFF file at " + pos);
+            }
+            pos += n;
+        }
+    }
+
+    private static Header readHeader(final FileChannel channel, final ByteOrder order, final long ifdOffset,
+                                     final boolean bigTiff) throws IOException {
+        final ByteBuffer countBuf = ByteBuffer.allocate(bigTiff ? 8 : 2).order(order);
+        readFully(channel, countBuf, ifdOffset);
+        final long numEntries = bigTiff ? countBuf.getLong(0) : countBuf.getShort(0) & 0xFFFF;
+        final int entrySize = bigTiff ? 20 : 12;
+
+        final ByteBuffer entries = ByteBuffer.allocate((int) numEntries * entrySize).order(order);
+        readFully(channel, entries, ifdOffset + countBuf.capacity());
+
+        final Header header = new Header();
+        long[] stripByteCounts = null;
+        for (int e = 0; e < numEntries; ++e) {
+            final int pos = e * entrySize;
+            final int tag = entries.getShort(pos) & 0xFFFF;
+            final int type = entries.getShort(pos + 2) & 0xFFFF;
+            final long count = bigTiff ? entries.getLong(pos + 4) : entries.getInt(pos + 4) & 0xFFFFFFFFL;
+            final int valuePos = pos + (bigTiff ? 12 : 8);
+
+            switch (tag) {
+                case TAG_IMAGE_WIDTH:
+                    header.width = (int) readValues(channel, order, entries, valuePos, type, count, bigTiff)[0];
+                    break;
+                case TAG_IMAGE_LENGTH:
+                    header.height = (int) readValues(channel, order, entries, valuePos, type, count, bigTiff)[0];
+                    break;
+                case TAG_BITS_PER_SAMPLE:
+                    header.bitsPerSample = (int) readValues(channel, order, entries, valuePos, type, count, bigTiff)[0];
+                    break;
+                case TAG_COMPRESSION:
+                    header.compression = (int) readValues(channel, order, entries, valuePos, type, count, bigTiff)[0];
+                    break;
+                case TAG_SAMPLES_PER_PIXEL:
+                    header.samplesPerPixel = (int) readValues(channel, order, entries, valuePos, type, count, bigTiff)[0];
+                    break;
+                case TAG_ROWS_PER_STRIP:
+                    header.rowsPerStrip = (int) Math.min(Integer.MAX_VALUE,
+                            readValues(channel, order, entries, valuePos, type, count, bigTiff)[0]);
+                    break;
+                case TAG_PLANAR_CONFIGURATION:
+                    header.planarConfig = (int) readValues(channel, order, entries, valuePos, type, count, bigTiff)[0];
+                    break;
+                case TAG_SAMPLE_FORMAT:
+                    header.sampleFormat = (int) readValues(channel, order, entries, valuePos, type, count, bigTiff)[0];
+                    break;
+                case TAG_TILE_WIDTH:
+                    header.tiled = true;
+                    break;
+                case TAG_STRIP_OFFSETS:
+                    header.stripOffsets = readValues(channel, order, entries, valuePos, type, count, bigTiff);
+                    break;
+                case TAG_STRIP_BYTE_COUNTS:
+                    stripByteCounts = readValues(channel, order, entries, valuePos, type, count, bigTiff);
+                    break;
+            }
+        }
+        if (header.rowsPerStrip <= 0 || header.rowsPerStrip > header.height) {
+            header.rowsPerStrip = header.height;
+        }
+        if (header.stripOffsets != null && stripByteCounts != null) {
+            // every strip must hold its full complement of rows for offsets to be computed directly
+            final long bytesPerRow = (long) header.width * header.bitsPerSample / 8 * header.samplesPerPixel;
+            for (int s = 0; s < header.stripOffsets.length; ++s) {
+                final long rows = Math.min(header.rowsPerStrip, header.height - (long) s * header.rowsPerStrip);
+                if (stripByteCounts.length <= s || stripByteCounts[s] < rows * bytesPerRow) {
+                    header.stripOffsets = null;
+                    break;
+                }
+            }
+        }
+        return header;
+    }
+
+    private static long[] readValues(final FileChannel channel, final ByteOrder order, final ByteBuffer entries,
+                                     final int valuePos, final int type, final long count,
+                                     final boolean bigTiff) throws IOException {
+        final int typeSize = getTypeSize(type);
+        final long[] values = new long[(int) count];
+        if (typeSize == 0) {
+            return values;
+        }
+        final long totalSize = typeSize * count;
+        final ByteBuffer buf;
+        if (totalSize <= (bigTiff ? 8 : 4)) {
+            buf = entries.duplicate().order(order);
+            buf.position(valuePos);
+        } else {
+            final long offset = bigTiff ? entries.getLong(valuePos) : entries.getInt(valuePos) & 0xFFFFFFFFL;
+            buf = ByteBuffer.allocate((int) totalSize).order(order);
+            readFully(channel, buf, offset);
+            buf.flip();
+        }
+        for (int i = 0; i < count; ++i) {
+            switch (type) {
+                case 1:     // BYTE
+                    values[i] = buf.get() & 0xFF;
+                    break;
+                case 3:     // SHORT
+                    values[i] = buf.getShort() & 0xFFFF;
+                    break;
+                case 4:     // LONG
+                    values[i] = buf.getInt() & 0xFFFFFFFFL;
+                    break;
+                case 16:    // LONG8
+                    values[i] = buf.getLong();
+                    break;
+            }
+        }
+        return values;
+    }
+
+    private static int getTypeSize(final int type) {
+        switch (type) {
+            case 1:
+                return 1;
+            case 3:
+                return 2;
+            case 4:
+                return 4;
+            case 16:
+                return 8;
+            default:
+                return 0;
+        }
+    }
+
+    private static class Header {
+        int width, height;
+        int bitsPerSample = 1;
+        int samplesPerPixel = 1;
+        int compression = 1;
+        int planarConfig = 1;
+        int sampleFormat = 1;
+        int rowsPerStrip = 0;
+        boolean tiled = false;
+        long[] stripOffsets;
+
+        boolean isSupported() {
+            return compression == 1 && planarConfig == 1 && !tiled && stripOffsets != null &&
+                    width > 0 && height > 0 && bitsPerSample % 8 == 0 &&
+                    stripOffsets.length >= (height + rowsPerStrip - 1) / rowsPerStrip;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons.io;
+
+import com.bc.ceres.core.ProgressMonitor;
+import org.esa.snap.core.dataio.ProductWriter;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.util.SystemUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded write-behind queue for band raster data.
+ * <p>
+ * Compute threads hand their rectangles to {@link #write} and continue, while dedicated writer threads pass them
+ * on to the product writers. A writer thread takes all queued rectangles at once and merges the ones of the same
+ * band that are adjacent along a row or a column into a single larger write. When the queue is full, {@link #write}
+ * blocks until a writer thread has made room. Writes to the same product writer are serialized on the writer.
+ * <p>
+ * A failed write is reported by the next call to {@link #write}, {@link #flush} or {@link #close}.
+ */
+public class TileWriteQueue implements Closeable {
+
+    private static final int MAX_BATCH_SIZE = 64;
+    private static final long POLL_MILLIS = 100;
+
+    private final String name;
+    private final BlockingQueue<WriteRequest> queue;
+    private final Thread[] writerThreads;
+
+    private final Object pendingLock = new Object();
+    private int pending = 0;
+    private volatile boolean closed = false;
+    private volatile IOException failure = null;
+
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong writeCount = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+
+    /**
+     * @param name             name of the queue used for the writer threads and the statistics
+     * @param capacity         number of rectangles that may wait before {@link #write} blocks
+     * @param numWriterThreads number of writer threads
+     */
+    public TileWriteQueue(final String name, final int capacity, final int numWriterThreads) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.writerThreads = new Thread[Math.max(1, numWriterThreads)];
+        for (int i = 0; i < writerThreads.length; ++i) {
+            writerThreads[i] = new Thread(this::run, name + "-writer-" + (i + 1));
+            writerThreads[i].setDaemon(true);
+            writerThreads[i].start();
+        }
+    }
+
+    /**
+     * Queue a rectangle of band raster data for writing. The data must not be modified afterwards.
+     *
+     * @see ProductWriter#writeBandRasterData
+     */
+    public void write(final ProductWriter productWriter, final Band band,
+                      final int offsetX, final int offsetY, final int width, final int height,
+                      final ProductData data) throws IOException {
+        checkFailure();
+        if (closed) {
+            throw new IOException(name + " is closed");
+        }
+
+        synchronized (pendingLock) {
+            ++pending;
+        }
+        try {
+            queue.put(new WriteRequest(productWriter, band, offsetX, offsetY, width, height, data));
+        } catch (InterruptedException e) {
+            done(1);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(name + " interrupted");
+        }
+        requestCount.incrementAndGet();
+        maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    /**
+     * Wait until all queued rectangles are written.
+     */
+    public void flush() throws IOException {
+        synchronized (pendingLock) {
+            while (pending > 0) {
+                try {
+                    pendingLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException(name + " interrupted");
+                }
+            }
+        }
+        checkFailure();
+    }
+
+    /**
+     * Write the remaining rectangles and stop the writer threads. The product writers are not closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            checkFailure();
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            for (Thread thread : writerThreads) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (requestCount.get() > 0) {
+                SystemUtils.LOG.info(getStatistics());
+            }
+        }
+    }
+
+    /**
+     * @return the number of rectangles waiting for a writer thread
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return the largest number of rectangles that were waiting at the same time
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * @return the number of rectangles queued so far
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return the number of writes passed to the product writers after merging adjacent rectangles
+     */
+    public long getWriteCount() {
+        return writeCount.get();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    /**
+     * @return the write throughput in MB per second of time spent in the product writers
+     */
+    public double getWriteThroughput() {
+        final long nanos = writeNanos.get();
+        return nanos == 0 ? 0.0 : (bytesWritten.get() / (1024.0 * 1024.0)) / (nanos / 1.0e9);
+    }
+
+    public String getStatistics() {
+        return String.format("%s: %d rectangles in %d writes, %.1f MB at %.1f MB/s, max queue depth %d",
+                name, getRequestCount(), getWriteCount(), getBytesWritten() / (1024.0 * 1024.0),
+                getWriteThroughput(), getMaxQueueDepth());
+    }
+
+    private void checkFailure() throws IOException {
+        final IOException e = failure;
+        if (e != null) {
+            throw new IOException(name + " failed to write: " + e.getMessage(), e);
+        }
+    }
+
+    private void done(final int count) {
+        synchronized (pendingLock) {
+            pending -= count;
+            pendingLock.notifyAll();
+        }
+    }
+
+    private void run() {
+        final List<WriteRequest> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            final WriteRequest first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) {
+                if (closed) {
+                    return;
+                }
+                continue;
+            }
+
+            batch.add(first);
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            try {
+                if (failure == null) {
+                    for (WriteRequest request : coalesce(batch)) {
+                        writeRequest(request);
+                    }
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (Throwable e) {
+                failure = new IOException(e.getMessage(), e);
+            } finally {
+                // after a failure the queue is still drained so no compute thread stays blocked
+                done(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeRequest(final WriteRequest request) throws IOException {
+        synchronized (request.productWriter) {
+            final long start = System.nanoTime();
+            request.productWriter.writeBandRasterData(request.band, request.x, request.y,
+                    request.width, request.height, request.data, ProgressMonitor.NULL);
+            writeNanos.addAndGet(System.nanoTime() - start);
+        }
+        writeCount.incrementAndGet();
+        bytesWritten.addAndGet((long) request.data.getNumElems() * request.data.getElemSize());
+    }
+
+    /**
+     * Merge the rectangles of the same band that continue each other, first along rows and then along columns.
+     */
+    static List<WriteRequest> coalesce(final List<WriteRequest> requests) {
+        final Map<Band, List<WriteRequest>> bandMap = new LinkedHashMap<>();
+        for (WriteRequest request : requests) {
+            bandMap.computeIfAbsent(request.band, b -> new ArrayList<>()).add(request);
+        }
+
+        final List<WriteRequest> result = new ArrayList<>(requests.size());
+        for (List<WriteRequest> list : bandMap.values()) {
+            if (list.size() == 1) {
+                result.add(list.get(0));
+                continue;
+            }
+
+            list.sort(Comparator.comparingInt((WriteRequest r) -> r.y).thenComparingInt(r -> r.x));
+            final List<WriteRequest> rows = new ArrayList<>(list.size());
+            WriteRequest current = list.get(0);
+            for (int i = 1; i < list.size(); ++i) {
+                final WriteRequest next = list.get(i);
+                if (current.canAppendInRow(next)) {
+                    current = current.appendInRow(next);
+                } else {
+                    rows.add(current);
+                    current = next;
+                }
+            }
+            rows.add(current);
+
+            rows.sort(Comparator.comparingInt((WriteRequest r) -> r.x).thenComparingInt(r -> r.y));
+            current = rows.get(0);
+            for (int i = 1; i < rows.size(); ++i) {
+                final WriteRequest next = rows.get(i);
+                if (current.canAppendInColumn(next)) {
+                    current = current.appendInColumn(next);
+                } else {
+                    result.add(current);
+                    current = next;
+                }
+            }
+            result.add(current);
+        }
+        return result;
+    }
+
+    static final class WriteRequest {
+        final ProductWriter productWriter;
+        final Band band;
+        final int x;
+        final int y;
+        final int width;
+        final int height;
+        final ProductData data;
+
+        WriteRequest(final ProductWriter productWriter, final Band band,
+                     final int x, final int y, final int width, final int height, final ProductData data) {
+            this.productWriter = productWriter;
+            this.band = band;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.data = data;
+        }
+
+        private boolean canMerge(final WriteRequest other) {
+            return productWriter == other.productWriter && data.getType() == other.data.getType() &&
+                    data.getElems().getClass() == other.data.getElems().getClass() &&
+                    data.getNumElems() == width * height && other.data.getNumElems() == other.width * other.height;
+        }
+
+        boolean canAppendInRow(final WriteRequest other) {
+            return other.y == y && other.height == height && other.x == x + width && canMerge(other);
+        }
+
+        boolean canAppendInColumn(final WriteRequest other) {
+            return other.x == x && other.width == width && other.y == y + height && canMerge(other);
+        }
+
+        WriteRequest appendInRow(final WriteRequest other) {
+            final int mergedWidth = width + other.width;
+            final ProductData merged = ProductData.createInstance(data.getType(), mergedWidth * height);
+            final Object dst = merged.getElems();
+            for (int row = 0; row < height; ++row) {
+                System.arraycopy(data.getElems(), row * width, dst, row * mergedWidth, width);
+                System.arraycopy(other.data.getElems(), row * other.width, dst, row * mergedWidth + width, other.width);
+            }
+            return new WriteRequest(productWriter, band, x, y, mergedWidth, height, merged);
+        }
+
+        WriteRequest appendInColumn(final WriteRequest other) {
+            final int n = width * height;
+            final ProductData merged = ProductData.createInstance(data.getType(), n + other.width * other.height);
+            System.arraycopy(data.getElems(), 0, merged.getElems(), 0, n);
+            System.arraycopy(other.data.getElems(), 0, merged.getElems(), n, other.width * other.height);
+            return new WriteRequest(productWriter, band, x, y, width, height + other.height, merged);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package eu.esa.sar.commons;
+
+import org.esa.snap.core.dataop.dem.ElevationModel;
+import org.esa.snap.core.datamodel.GeoPos;
+import org.esa.snap.core.datamodel.PixelPos;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ElevationModelCacheTest {
+
+    // a DEM of 0.01 degree nodes where the elevation depends on the position
+    private static class FakeDEM {
+        final AtomicInteger numElevations = new AtomicInteger();
+        final AtomicInteger numDisposed = new AtomicInteger();
+        final ElevationModel model = (ElevationModel) Proxy.newProxyInstance(
+                ElevationModel.class.getClassLoader(), new Class<?>[]{ElevationModel.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getGeoPos":
+                            final PixelPos pix = (PixelPos) args[0];
+                            return new GeoPos(60.0 - pix.y * 0.01, pix.x * 0.01 - 180.0);
+                        case "getElevation":
+                            numElevations.incrementAndGet();
+                            final GeoPos gp = (GeoPos) args[0];
+                            return gp.lat * 100.0 + gp.lon;
+                        case "dispose":
+                            numDisposed.incrementAndGet();
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    @Test
+    public void testModelIsShared() throws Exception {
+        final FakeDEM fakeDEM = new FakeDEM();
+        final AtomicInteger numCreated = new AtomicInteger();
+        final ElevationModelCache.Factory factory = () -> {
+            numCreated.incrementAndGet();
+            return fakeDEM.model;
+        };
+
+        final ElevationModelCache.Handle handle1 = ElevationModelCache.acquire("shared", "BILINEAR_INTERPOLATION", factory);
+        final ElevationModelCache.Handle handle2 = ElevationModelCache.acquire("shared", "BILINEAR_INTERPOLATION", factory);
+        assertSame(handle1.getElevationModel(), handle2.getElevationModel());
+        assertEquals(1, numCreated.get());
+
+        handle1.release();
+        handle1.release();
+        assertEquals(0, fakeDEM.numDisposed.get());
+        handle2.release();
+        assertEquals(1, fakeDEM.numDisposed.get());
+    }
+
+    @Test
+    public void testResamplingIsPartOfKey() throws Exception {
+        final FakeDEM bilinear = new FakeDEM();
+        final FakeDEM cubic = new FakeDEM();
+        final ElevationModelCache.Handle handle1 = ElevationModelCache.acquire("key", "BILINEAR_INTERPOLATION", () -> bilinear.model);
+        final ElevationModelCache.Handle handle2 = ElevationModelCache.acquire("key", "CUBIC_CONVOLUTION", () -> cubic.model);
+        assertNotSame(handle1.getElevationModel(), handle2.getElevationModel());
+        handle1.release();
+        handle2.release();
+    }
+
+    @Test
+    public void testSlowModelDoesNotBlockOtherKeys() throws Exception {
+        final FakeDEM slowDEM = new FakeDEM();
+        final FakeDEM fastDEM = new FakeDEM();
+        final CountDownLatch creating = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<ElevationModelCache.Handle> slow = executor.submit(() ->
+                    ElevationModelCache.acquire("slow", "BILINEAR_INTERPOLATION", () -> {
+                        creating.countDown();
+                        finish.await();
+                        return slowDEM.model;
+                    }));
+            assertTrue(creating.await(10, TimeUnit.SECONDS));
+
+            // another DEM is created while the slow one is still loading
+            final ElevationModelCache.Handle fast = ElevationModelCache.acquire("fast", "BILINEAR_INTERPOLATION",
+                    () -> fastDEM.model);
+            assertSame(fastDEM.model, fast.getElevationModel());
+            assertFalse(slow.isDone());
+
+            finish.countDown();
+            final ElevationModelCache.Handle handle = slow.get(10, TimeUnit.SECONDS);
+            assertSame(slowDEM.model, handle.getElevationModel());
+            handle.release();
+            fast.release();
+        } finally {
+            finish.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailedModelIsNotShared() throws Exception {
+        final FakeDEM fakeDEM = new FakeDEM();
+        try {
+            ElevationModelCache.acquire("failing", "BILINEAR_INTERPOLATION", () -> {
+                throw new IOException("DEM not found");
+            });
+            fail("factory failure not reported");
+        } catch (IOException e) {
+            assertEquals("DEM not found", e.getMessage());
+        }
+
+        final ElevationModelCache.Handle handle = ElevationModelCache.acquire("failing", "BILINEAR_INTERPOLATION",
+                () -> fakeDEM.model);
+        assertSame(fakeDEM.model, handle.getElevationModel());
+        handle.release();
+        assertEquals(1, fakeDEM.numDisposed.get());
+    }
+
+    @Test
+    public void testNodeElevations() throws Exception {
+        final FakeDEM fakeDEM = new FakeDEM();
+        final ElevationModelCache.Handle handle = ElevationModelCache.acquire("nodes", "NEAREST_NEIGHBOUR", () -> fakeDEM.model);
+        final ElevationModel dem = handle.getElevationModel();
+
+        final CacheStatistics before = ElevationModelCache.getStats();
+        for (int y = 100; y < 140; ++y) {
+            for (int x = -20; x < 20; ++x) {
+                final double expected = dem.getElevation(dem.getGeoPos(new PixelPos(x, y)));
+                assertEquals(expected, handle.getElevation(x, y), 0.0);
+            }
+        }
+        final int numComputed = fakeDEM.numElevations.get();
+
+        // the same nodes again come from the cached tiles
+        for (int y = 100; y < 140; ++y) {
+            for (int x = -20; x < 20; ++x) {
+                handle.getElevation(x, y);
+            }
+        }
+        assertEquals(numComputed, fakeDEM.numElevations.get());
+
+        final CacheStatistics after = ElevationModelCache.getStats();
+        assertEquals(before.missCount + 4, after.missCount);
+        assertTrue(after.hitCount > before.hitCount);
+        assertTrue(after.currentBytes > 0);
+
+        handle.release();
+        assertEquals(before.currentBytes, ElevationModelCache.getStats().currentBytes);
+    }
+}
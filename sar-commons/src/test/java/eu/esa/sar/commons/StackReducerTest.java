@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons;
+
+import org.esa.snap.core.datamodel.ProductData;
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class StackReducerTest {
+
+    private static final int numPixels = 50;
+    private static final int numImages = 200;
+    private static final double noDataValue = 0.0;
+
+    @Test
+    public void testStatisticsMatchTwoPass() {
+        final float[][] stack = createStack(false);
+
+        final StackReducer reducer = new StackReducer(numPixels, EnumSet.allOf(StackReducer.Statistic.class));
+        for (float[] image : stack) {
+            reducer.add(ProductData.createInstance(image), noDataValue);
+        }
+
+        for (int i = 0; i < numPixels; ++i) {
+            double sum = 0, sum2 = 0, sum4 = 0;
+            double min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+            for (float[] image : stack) {
+                final double v = image[i];
+                sum += v;
+                sum2 += v * v;
+                sum4 += v * v * v * v;
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+            final double mean = sum / numImages;
+            final double mean2 = sum2 / numImages;
+            final double mean4 = sum4 / numImages;
+
+            assertEquals(mean, reducer.getValue(StackReducer.Statistic.MEAN, i, noDataValue), 1e-9);
+            assertEquals(min, reducer.getValue(StackReducer.Statistic.MIN, i, noDataValue), 0.0);
+            assertEquals(max, reducer.getValue(StackReducer.Statistic.MAX, i, noDataValue), 0.0);
+            assertEquals(Math.sqrt(mean2 - mean * mean),
+                    reducer.getValue(StackReducer.Statistic.STDDEV, i, noDataValue), 1e-6);
+            assertEquals(Math.sqrt(mean4 - mean2 * mean2) / mean2,
+                    reducer.getValue(StackReducer.Statistic.COEF_VAR, i, noDataValue), 1e-6);
+        }
+    }
+
+    @Test
+    public void testNoDataSkipped() {
+        final float[][] stack = createStack(true);
+
+        final StackReducer reducer = new StackReducer(numPixels, StackReducer.Statistic.MEAN);
+        for (float[] image : stack) {
+            reducer.add(ProductData.createInstance(image), noDataValue);
+        }
+
+        for (int i = 0; i < numPixels; ++i) {
+            if (i % 10 == 0) {
+                // no valid sample at all
+                assertFalse(reducer.isValid(i));
+                assertEquals(-1.0, reducer.getValue(StackReducer.Statistic.MEAN, i, -1.0), 0.0);
+                continue;
+            }
+            double sum = 0;
+            int count = 0;
+            for (float[] image : stack) {
+                if (image[i] != noDataValue) {
+                    sum += image[i];
+                    ++count;
+                }
+            }
+            assertEquals(sum / count, reducer.getValue(StackReducer.Statistic.MEAN, i, -1.0), 1e-9);
+        }
+    }
+
+    @Test
+    public void testWeightedMean() {
+        final StackReducer reducer = new StackReducer(1, StackReducer.Statistic.MEAN);
+        reducer.add(0, 2.0, 1.0);
+        reducer.add(0, 5.0, 0.5);
+        reducer.add(0, 100.0, 0.0);
+        reducer.add(0, Double.NaN, 1.0);
+        assertEquals((2.0 + 5.0 * 0.5) / 1.5, reducer.getValue(StackReducer.Statistic.MEAN, 0, -1.0), 1e-12);
+
+        reducer.reset();
+        assertFalse(reducer.isValid(0));
+    }
+
+    private static float[][] createStack(final boolean withNoData) {
+        final Random random = new Random(11);
+        final float[][] stack = new float[numImages][numPixels];
+        for (int b = 0; b < numImages; ++b) {
+            for (int i = 0; i < numPixels; ++i) {
+                if (withNoData && (i % 10 == 0 || random.nextInt(4) == 0)) {
+                    stack[b][i] = (float) noDataValue;
+                } else {
+                    stack[b][i] = 1000f + 10f * i + 50f * (float) random.nextGaussian();
+                }
+            }
+        }
+        return stack;
+    }
+}
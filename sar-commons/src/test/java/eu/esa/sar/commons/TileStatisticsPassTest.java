@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons;
+
+import org.junit.Test;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TileStatisticsPassTest {
+
+    private static final int width = 83;
+    private static final int height = 67;
+    private static final int numBins = 10;
+
+    @Test
+    public void testStatisticsMatchSequential() throws Exception {
+        final double[] image = createImage();
+        final AtomicInteger numReads = new AtomicInteger(0);
+
+        final Rectangle[] tiles = getTiles(16);
+        final TileStatisticsPass<double[]> pass = new TileStatisticsPass<>(tiles, rect -> {
+            numReads.incrementAndGet();
+            return read(image, rect);
+        });
+        final TileStatisticsPass.Result<Moments> moments = pass.add(Moments::new);
+        final TileStatisticsPass.Result<Histogram> histogram = pass.add(Histogram::new);
+        pass.run();
+
+        double sum = 0, sum2 = 0, min = Double.MAX_VALUE;
+        final long[] bins = new long[numBins];
+        for (double v : image) {
+            sum += v;
+            sum2 += v * v;
+            min = Math.min(min, v);
+            bins[(int) v]++;
+        }
+
+        // each tile is read once for both statistics
+        assertEquals(tiles.length, numReads.get());
+        assertEquals(width * height, moments.get().count);
+        assertEquals(sum, moments.get().sum, 1e-6);
+        assertEquals(sum2, moments.get().sum2, 1e-6);
+        assertEquals(min, moments.get().min, 0.0);
+        assertArrayEquals(bins, histogram.get().bins);
+    }
+
+    @Test
+    public void testCancellation() throws Exception {
+        final double[] image = createImage();
+        final AtomicInteger numChecks = new AtomicInteger(0);
+
+        final Rectangle[] tiles = getTiles(4);
+        final TileStatisticsPass<double[]> pass = new TileStatisticsPass<>(tiles, rect -> read(image, rect));
+        pass.add(Moments::new);
+        pass.setCancellationCheck(() -> {
+            if (numChecks.incrementAndGet() > 10) {
+                throw new IllegalStateException("cancelled");
+            }
+        });
+
+        try {
+            pass.run();
+            fail("pass not cancelled");
+        } catch (IllegalStateException e) {
+            assertEquals("cancelled", e.getMessage());
+        }
+        assertTrue(numChecks.get() < tiles.length);
+    }
+
+    private static final class Moments implements TileStatisticsPass.Accumulator<double[], Moments> {
+        long count = 0;
+        double sum = 0, sum2 = 0, min = Double.MAX_VALUE;
+
+        @Override
+        public void accumulate(final Rectangle rectangle, final double[] data) {
+            for (double v : data) {
+                sum += v;
+                sum2 += v * v;
+                min = Math.min(min, v);
+            }
+            count += data.length;
+        }
+
+        @Override
+        public void merge(final Moments other) {
+            count += other.count;
+            sum += other.sum;
+            sum2 += other.sum2;
+            min = Math.min(min, other.min);
+        }
+    }
+
+    private static final class Histogram implements TileStatisticsPass.Accumulator<double[], Histogram> {
+        final long[] bins = new long[numBins];
+
+        @Override
+        public void accumulate(final Rectangle rectangle, final double[] data) {
+            for (double v : data) {
+                bins[(int) v]++;
+            }
+        }
+
+        @Override
+        public void merge(final Histogram other) {
+            for (int i = 0; i < numBins; ++i) {
+                bins[i] += other.bins[i];
+            }
+        }
+    }
+
+    private static Rectangle[] getTiles(final int tileSize) {
+        final List<Rectangle> tiles = new ArrayList<>();
+        for (int y = 0; y < height; y += tileSize) {
+            for (int x = 0; x < width; x += tileSize) {
+                tiles.add(new Rectangle(x, y, Math.min(tileSize, width - x), Math.min(tileSize, height - y)));
+            }
+        }
+        return tiles.toArray(new Rectangle[0]);
+    }
+
+    private static double[] read(final double[] image, final Rectangle rect) {
+        final double[] data = new double[rect.width * rect.height];
+        for (int y = 0; y < rect.height; ++y) {
+            System.arraycopy(image, (rect.y + y) * width + rect.x, data, y * rect.width, rect.width);
+        }
+        return data;
+    }
+
+    private static double[] createImage() {
+        final Random random = new Random(7);
+        final double[] image = new double[width * height];
+        for (int i = 0; i < image.length; ++i) {
+            image[i] = random.nextDouble() * numBins;
+        }
+        return image;
+    }
+}
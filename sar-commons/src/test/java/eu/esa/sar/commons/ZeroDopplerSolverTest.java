@@ -0,0 +1,96 @@
+package eu.esa.sar.commons;
+
+import org.esa.snap.engine_utilities.datamodel.PosVector;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ZeroDopplerSolverTest {
+
+    private static final int numLines = 12000;
+    private static final double orbitRadius = 7071000.0;
+    private static final double earthRadius = 6371000.0;
+    private static final double angularVelocity = Math.sqrt(3.986004418e14 / (orbitRadius * orbitRadius * orbitRadius));
+    private static final double firstLineUTC = 8891.5;
+    private static final double lineTimeInterval = 2.0e-3 / 86400.0;
+    private static final double wavelength = 0.05546576;
+
+    private final PosVector[] sensorPosition = new PosVector[numLines];
+    private final PosVector[] sensorVelocity = new PosVector[numLines];
+
+    public ZeroDopplerSolverTest() {
+        for (int i = 0; i < numLines; ++i) {
+            final double wt = angularVelocity * i * 2.0e-3;
+            final double v = orbitRadius * angularVelocity;
+            sensorPosition[i] = new PosVector(orbitRadius * Math.cos(wt), orbitRadius * Math.sin(wt), 0.0);
+            sensorVelocity[i] = new PosVector(-v * Math.sin(wt), v * Math.cos(wt), 0.0);
+        }
+    }
+
+    // ground point at the given fraction of the orbit arc, offset cross track
+    private static PosVector earthPoint(final double line, final double crossTrack) {
+        final double wt = angularVelocity * line * 2.0e-3;
+        final double r = Math.sqrt(earthRadius * earthRadius - crossTrack * crossTrack);
+        return new PosVector(r * Math.cos(wt), r * Math.sin(wt), crossTrack);
+    }
+
+    private double reference(final PosVector earthPoint) {
+        return SARGeocoding.getEarthPointZeroDopplerTime(firstLineUTC, lineTimeInterval, wavelength,
+                earthPoint, sensorPosition, sensorVelocity);
+    }
+
+    @Test
+    public void testSameAsBisection() {
+        final ZeroDopplerSolver solver = new ZeroDopplerSolver(firstLineUTC, lineTimeInterval, wavelength,
+                sensorPosition, sensorVelocity);
+        final Random random = new Random(1);
+        for (int i = 0; i < 2000; ++i) {
+            final PosVector p = earthPoint(random.nextDouble() * (numLines - 1), 250000 + random.nextDouble() * 250000);
+            assertEquals(reference(p), solver.getZeroDopplerTime(p), 0.0);
+        }
+    }
+
+    @Test
+    public void testCursorAlongRows() {
+        final ZeroDopplerSolver solver = new ZeroDopplerSolver(firstLineUTC, lineTimeInterval, wavelength,
+                sensorPosition, sensorVelocity);
+        final ZeroDopplerSolver.Cursor cursor = solver.newCursor();
+        for (int row = 0; row < 50; ++row) {
+            for (int col = 0; col < 200; ++col) {
+                final PosVector p = earthPoint(row * 237.3 + col * 0.37, 250000 + col * 1000.0);
+                assertEquals(reference(p), cursor.getZeroDopplerTime(p), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testBatch() {
+        final ZeroDopplerSolver solver = new ZeroDopplerSolver(firstLineUTC, lineTimeInterval, wavelength,
+                sensorPosition, sensorVelocity);
+        final int n = 100;
+        final double[] x = new double[n], y = new double[n], z = new double[n], times = new double[n];
+        for (int i = 0; i < n; ++i) {
+            final PosVector p = earthPoint(5000 + i * 3.1, 300000);
+            x[i] = p.x;
+            y[i] = p.y;
+            z[i] = p.z;
+        }
+        solver.getZeroDopplerTimes(x, y, z, n, times);
+        for (int i = 0; i < n; ++i) {
+            assertEquals(reference(new PosVector(x[i], y[i], z[i])), times[i], 0.0);
+        }
+    }
+
+    @Test
+    public void testOutsideOfImage() {
+        final ZeroDopplerSolver solver = new ZeroDopplerSolver(firstLineUTC, lineTimeInterval, wavelength,
+                sensorPosition, sensorVelocity);
+        final PosVector before = earthPoint(-500, 300000);
+        final PosVector after = earthPoint(numLines + 500, 300000);
+        assertEquals(SARGeocoding.NonValidZeroDopplerTime, solver.getZeroDopplerTime(before), 0.0);
+        assertEquals(SARGeocoding.NonValidZeroDopplerTime, solver.newCursor().getZeroDopplerTime(after), 0.0);
+        assertEquals(reference(earthPoint(0, 300000)), solver.getZeroDopplerTime(earthPoint(0, 300000)), 0.0);
+    }
+}
@@ -0,0 +1,117 @@
+package eu.esa.sar.commons.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteOrder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MappedRandomAccessFileTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    // small windows so that reads cross window boundaries
+    private static final int windowSize = 64;
+    private static final int numValues = 100;
+
+    private File createFile() throws Exception {
+        final File file = tempFolder.newFile("mapped.bin");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeByte(7);
+            for (int i = 0; i < numValues; ++i) {
+                out.writeShort(i - 50);
+            }
+            for (int i = 0; i < numValues; ++i) {
+                out.writeFloat(i * 0.5f);
+            }
+            for (int i = 0; i < numValues; ++i) {
+                out.writeDouble(i * 0.25);
+            }
+        }
+        return file;
+    }
+
+    @Test
+    public void testSequentialReads() throws Exception {
+        try (MappedRandomAccessFile raf = new MappedRandomAccessFile(createFile(), windowSize)) {
+            assertEquals(1 + numValues * 14, raf.length());
+            assertEquals(7, raf.readByte());
+
+            final short[] shorts = new short[numValues];
+            raf.readShort(shorts, 0, numValues);
+            for (int i = 0; i < numValues; ++i) {
+                assertEquals(i - 50, shorts[i]);
+            }
+
+            assertEquals(0.0f, raf.readFloat(), 0.0f);
+            final float[] floats = new float[numValues];
+            raf.readFloat(floats, 1, numValues - 1);
+            for (int i = 1; i < numValues; ++i) {
+                assertEquals(i * 0.5f, floats[i], 0.0f);
+            }
+
+            final double[] doubles = new double[numValues];
+            raf.readDouble(doubles, 0, numValues);
+            for (int i = 0; i < numValues; ++i) {
+                assertEquals(i * 0.25, doubles[i], 0.0);
+            }
+            assertTrue(raf.isAtEndOfFile());
+            assertEquals(-1, raf.read());
+        }
+    }
+
+    @Test
+    public void testLittleEndian() throws Exception {
+        try (MappedRandomAccessFile raf = new MappedRandomAccessFile(createFile(), windowSize)) {
+            raf.setByteOrder(ByteOrder.LITTLE_ENDIAN);
+            raf.seek(1);
+            assertEquals(Short.reverseBytes((short) -50), raf.readShort());
+        }
+    }
+
+    @Test
+    public void testConcurrentPositionalReads() throws Exception {
+        final long floatStart = 1 + numValues * 2;
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (MappedRandomAccessFile raf = new MappedRandomAccessFile(createFile(), windowSize)) {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 16; ++t) {
+                final int offset = t;
+                results.add(executor.submit(() -> {
+                    final float[] floats = new float[numValues - offset];
+                    raf.readFloat(floatStart + offset * 4L, floats, 0, floats.length);
+                    for (int i = 0; i < floats.length; ++i) {
+                        if (floats[i] != (i + offset) * 0.5f)
+                            return false;
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+            assertEquals(0, raf.getFilePointer());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = EOFException.class)
+    public void testReadBeyondEnd() throws Exception {
+        try (MappedRandomAccessFile raf = new MappedRandomAccessFile(createFile(), windowSize)) {
+            raf.readDouble(raf.length() - 4, new double[1], 0, 1);
+        }
+    }
+}
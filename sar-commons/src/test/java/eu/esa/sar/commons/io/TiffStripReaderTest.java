@@ -0,0 +1,117 @@
+package eu.esa.sar.commons.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.awt.Rectangle;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class TiffStripReaderTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private static final int width = 7;
+    private static final int height = 5;
+    private static final int rowsPerStrip = 2;
+
+    @Test
+    public void testReadComplexInt16() throws Exception {
+        final File file = tempFolder.newFile("cint16.tif");
+        Files.write(file.toPath(), createCInt16Tiff());
+
+        final TiffStripReader reader = TiffStripReader.open(file);
+        assertNotNull(reader);
+        try {
+            assertEquals(width, reader.getWidth());
+            assertEquals(height, reader.getHeight());
+            assertTrue(reader.isComplexInt16());
+
+            final Rectangle rect = new Rectangle(2, 1, 4, 3);
+            final short[] i = new short[rect.width * rect.height];
+            final int[] q = new int[rect.width * rect.height];
+            reader.readComplexInt16(rect, false, i);
+            reader.readComplexInt16(rect, true, q);
+
+            int idx = 0;
+            for (int y = rect.y; y < rect.y + rect.height; ++y) {
+                for (int x = rect.x; x < rect.x + rect.width; ++x) {
+                    assertEquals(real(x, y), i[idx]);
+                    assertEquals(imag(x, y), q[idx]);
+                    ++idx;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testNotATiff() throws Exception {
+        final File file = tempFolder.newFile("notatiff.tif");
+        Files.write(file.toPath(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        assertNull(TiffStripReader.open(file));
+    }
+
+    private static short real(final int x, final int y) {
+        return (short) (y * 100 + x);
+    }
+
+    private static short imag(final int x, final int y) {
+        return (short) -(y * 100 + x);
+    }
+
+    private static byte[] createCInt16Tiff() {
+        final int numStrips = (height + rowsPerStrip - 1) / rowsPerStrip;
+        final int numEntries = 9;
+        final int ifdOffset = 8;
+        final int ifdSize = 2 + numEntries * 12 + 4;
+        final int offsetsPos = ifdOffset + ifdSize;
+        final int countsPos = offsetsPos + numStrips * 4;
+        final int dataPos = countsPos + numStrips * 4;
+        final int rowBytes = width * 4;
+
+        final ByteBuffer buf = ByteBuffer.allocate(dataPos + height * rowBytes).order(ByteOrder.LITTLE_ENDIAN);
+        buf.put((byte) 'I').put((byte) 'I').putShort((short) 42).putInt(ifdOffset);
+
+        buf.putShort((short) numEntries);
+        putEntry(buf, 256, 3, 1, width);
+        putEntry(buf, 257, 3, 1, height);
+        putEntry(buf, 258, 3, 1, 32);
+        putEntry(buf, 259, 3, 1, 1);
+        putEntry(buf, 273, 4, numStrips, offsetsPos);
+        putEntry(buf, 277, 3, 1, 1);
+        putEntry(buf, 278, 3, 1, rowsPerStrip);
+        putEntry(buf, 279, 4, numStrips, countsPos);
+        putEntry(buf, 339, 3, 1, 5);
+        buf.putInt(0);
+
+        for (int s = 0; s < numStrips; ++s) {
+            buf.putInt(dataPos + s * rowsPerStrip * rowBytes);
+        }
+        for (int s = 0; s < numStrips; ++s) {
+            buf.putInt(Math.min(rowsPerStrip, height - s * rowsPerStrip) * rowBytes);
+        }
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                buf.putShort(real(x, y)).putShort(imag(x, y));
+            }
+        }
+        return buf.array();
+    }
+
+    private static void putEntry(final ByteBuffer buf, final int tag, final int type, final int count, final int value) {
+        buf.putShort((short) tag).putShort((short) type).putInt(count);
+        if (type == 3 && count == 1) {
+            buf.putShort((short) value).putShort((short) 0);
+        } else {
+            buf.putInt(value);
+        }
+    }
+}
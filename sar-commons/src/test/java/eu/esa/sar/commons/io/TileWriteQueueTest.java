@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.commons.io;
+
+import com.bc.ceres.core.ProgressMonitor;
+import org.esa.snap.core.dataio.AbstractProductWriter;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.ProductData;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TileWriteQueueTest {
+
+    private static final int width = 12;
+    private static final int height = 8;
+    private static final int tileSize = 4;
+
+    @Test
+    public void testWriteAllTiles() throws Exception {
+        final Band band = new Band("band", ProductData.TYPE_FLOAT32, width, height);
+        final RasterWriter writer = new RasterWriter(false);
+
+        final TileWriteQueue queue = new TileWriteQueue("test", 2, 2);
+        for (int y = 0; y < height; y += tileSize) {
+            for (int x = 0; x < width; x += tileSize) {
+                queue.write(writer, band, x, y, tileSize, tileSize, createTile(x, y, tileSize, tileSize));
+            }
+        }
+        queue.close();
+
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                assertEquals(value(x, y), writer.raster[y * width + x], 0.0f);
+            }
+        }
+        assertEquals(6, queue.getRequestCount());
+        assertTrue(queue.getWriteCount() <= 6);
+        assertEquals(width * height * 4L, queue.getBytesWritten());
+        assertTrue(queue.getMaxQueueDepth() <= 2);
+        assertEquals(0, queue.getQueueDepth());
+    }
+
+    @Test
+    public void testCoalesce() {
+        final Band band = new Band("band", ProductData.TYPE_FLOAT32, width, height);
+        final RasterWriter writer = new RasterWriter(false);
+
+        final List<TileWriteQueue.WriteRequest> requests = new ArrayList<>();
+        for (int y = height - tileSize; y >= 0; y -= tileSize) {
+            for (int x = 0; x < width; x += tileSize) {
+                requests.add(new TileWriteQueue.WriteRequest(writer, band, x, y, tileSize, tileSize,
+                        createTile(x, y, tileSize, tileSize)));
+            }
+        }
+
+        final List<TileWriteQueue.WriteRequest> merged = TileWriteQueue.coalesce(requests);
+        assertEquals(1, merged.size());
+
+        final TileWriteQueue.WriteRequest request = merged.get(0);
+        assertEquals(0, request.x);
+        assertEquals(0, request.y);
+        assertEquals(width, request.width);
+        assertEquals(height, request.height);
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                assertEquals(value(x, y), request.data.getElemFloatAt(y * width + x), 0.0f);
+            }
+        }
+    }
+
+    @Test
+    public void testCoalesceKeepsBandsApart() {
+        final Band band1 = new Band("band1", ProductData.TYPE_FLOAT32, width, height);
+        final Band band2 = new Band("band2", ProductData.TYPE_FLOAT32, width, height);
+        final RasterWriter writer = new RasterWriter(false);
+
+        final List<TileWriteQueue.WriteRequest> requests = new ArrayList<>();
+        requests.add(new TileWriteQueue.WriteRequest(writer, band1, 0, 0, tileSize, tileSize,
+                createTile(0, 0, tileSize, tileSize)));
+        requests.add(new TileWriteQueue.WriteRequest(writer, band2, tileSize, 0, tileSize, tileSize,
+                createTile(tileSize, 0, tileSize, tileSize)));
+        // not adjacent
+        requests.add(new TileWriteQueue.WriteRequest(writer, band1, 2 * tileSize, tileSize, tileSize, tileSize,
+                createTile(2 * tileSize, tileSize, tileSize, tileSize)));
+
+        assertEquals(3, TileWriteQueue.coalesce(requests).size());
+    }
+
+    @Test
+    public void testWriteFailure() throws Exception {
+        final Band band = new Band("band", ProductData.TYPE_FLOAT32, width, height);
+        final RasterWriter writer = new RasterWriter(true);
+
+        final TileWriteQueue queue = new TileWriteQueue("test", 4, 1);
+        try {
+            queue.write(writer, band, 0, 0, tileSize, tileSize, createTile(0, 0, tileSize, tileSize));
+            try {
+                queue.flush();
+                fail("write failure not reported");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("disk full"));
+            }
+            try {
+                queue.write(writer, band, 0, 0, tileSize, tileSize, createTile(0, 0, tileSize, tileSize));
+                fail("write failure not reported");
+            } catch (IOException e) {
+                // expected
+            }
+        } finally {
+            // stops the writer threads, the failure is reported again on close
+            try {
+                queue.close();
+                fail("write failure not reported on close");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("disk full"));
+            }
+        }
+    }
+
+    private static float value(final int x, final int y) {
+        return y * 100 + x;
+    }
+
+    private static ProductData createTile(final int x0, final int y0, final int w, final int h) {
+        final float[] data = new float[w * h];
+        for (int y = 0; y < h; ++y) {
+            for (int x = 0; x < w; ++x) {
+                data[y * w + x] = value(x0 + x, y0 + y);
+            }
+        }
+        return ProductData.createInstance(data);
+    }
+
+    private static class RasterWriter extends AbstractProductWriter {
+
+        private final float[] raster = new float[width * height];
+        private final boolean fail;
+
+        RasterWriter(final boolean fail) {
+            super(null);
+            this.fail = fail;
+        }
+
+        @Override
+        protected void writeProductNodesImpl() {
+        }
+
+        @Override
+        public void writeBandRasterData(final Band sourceBand, final int sourceOffsetX, final int sourceOffsetY,
+                                        final int sourceWidth, final int sourceHeight,
+                                        final ProductData sourceBuffer, final ProgressMonitor pm) throws IOException {
+            if (fail) {
+                throw new IOException("disk full");
+            }
+            for (int y = 0; y < sourceHeight; ++y) {
+                for (int x = 0; x < sourceWidth; ++x) {
+                    raster[(sourceOffsetY + y) * width + sourceOffsetX + x] =
+                            sourceBuffer.getElemFloatAt(y * sourceWidth + x);
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void deleteOutput() {
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.orbits.io.sentinel1;
+
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.util.SystemUtils;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Validity interval index of the Sentinel-1 orbit files in one local orbit folder.
+ * <p>
+ * The index keeps the validity start and stop parsed from the file names, sorted by start, and is saved in the
+ * folder so a new session does not parse the file names again. It is brought up to date when the folder has
+ * changed or a lookup finds no file, parsing only the names of files that are not in the index yet.
+ */
+final class Sentinel1OrbitFileIndex {
+
+    static final String INDEX_FILE_NAME = "orbit_files.idx";
+
+    private static final int MAGIC = 0x53314958; // S1IX
+    private static final int VERSION = 1;
+    private static final int MIN_ENTRY_SIZE = 2 + 2 * 8; // name length and validity dates
+
+    private static final Map<File, Sentinel1OrbitFileIndex> indexMap = new ConcurrentHashMap<>();
+
+    private final File folder;
+    private final File indexFile;
+    private long folderLastModified = -1;
+    private List<Entry> entries = new ArrayList<>();
+
+    private Sentinel1OrbitFileIndex(final File folder) {
+        this.folder = folder;
+        this.indexFile = new File(folder, INDEX_FILE_NAME);
+    }
+
+    /**
+     * @param folder orbit file folder
+     * @return the index of the folder, shared by all lookups in this session
+     */
+    static Sentinel1OrbitFileIndex getIndex(final File folder) {
+        return indexMap.computeIfAbsent(folder.getAbsoluteFile(), f -> {
+            final Sentinel1OrbitFileIndex index = new Sentinel1OrbitFileIndex(f);
+            index.load();
+            return index;
+        });
+    }
+
+    /**
+     * Find the orbit file valid at the given time. When several files cover the time, the one with the time
+     * closest to the centre of its validity period is chosen.
+     *
+     * @param filter          accepts the orbit files of the mission and orbit type
+     * @param stateVectorTime the time to cover
+     * @return the orbit file or null if none covers the time
+     */
+    synchronized File findOrbitFile(final FilenameFilter filter, final ProductData.UTC stateVectorTime) {
+        final double mjd = stateVectorTime.getMJD();
+
+        if (folder.lastModified() != folderLastModified) {
+            update();
+        }
+        Entry entry = find(filter, mjd);
+        if (entry == null && update()) {
+            entry = find(filter, mjd);
+        }
+        return entry == null ? null : new File(folder, entry.name);
+    }
+
+    private Entry find(final FilenameFilter filter, final double mjd) {
+        // entries are sorted by validity start, the candidates start at or before the time
+        int hi = entries.size();
+        int lo = 0;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (entries.get(mid).startMJD <= mjd) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        Entry best = null;
+        double bestMargin = -1;
+        for (int i = lo - 1; i >= 0; --i) {
+            final Entry entry = entries.get(i);
+            if (mjd >= entry.stopMJD || !filter.accept(folder, entry.name)) {
+                continue;
+            }
+            final double margin = Math.min(mjd - entry.startMJD, entry.stopMJD - mjd);
+            if (margin > bestMargin) {
+                bestMargin = margin;
+                best = entry;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Add the files of the folder that are not indexed yet and drop the ones that no longer exist.
+     *
+     * @return true if the index has changed
+     */
+    private boolean update() {
+        final String[] names = folder.list(new OrbitFileFilter());
+        if (names == null) {
+            return false;
+        }
+
+        final Map<String, Entry> indexed = new HashMap<>();
+        for (Entry entry : entries) {
+            indexed.put(entry.name, entry);
+        }
+
+        boolean changed = false;
+        final List<Entry> newEntries = new ArrayList<>(names.length);
+        for (String name : names) {
+            Entry entry = indexed.get(name);
+            if (entry == null) {
+                entry = parse(name);
+                if (entry == null) {
+                    continue;
+                }
+                changed = true;
+            }
+            newEntries.add(entry);
+        }
+        changed |= newEntries.size() != entries.size();
+
+        if (changed) {
+            newEntries.sort(Comparator.comparingDouble(e -> e.startMJD));
+            entries = newEntries;
+            save();
+        }
+        // writing the index modifies the folder too, a file added meanwhile is picked up when a lookup misses
+        folderLastModified = folder.lastModified();
+        return changed;
+    }
+
+    private static Entry parse(final String name) {
+        try {
+            final ProductData.UTC utcStart = Sentinel1OrbitFileReader.getValidityStartFromFilenameUTC(name);
+            final ProductData.UTC utcEnd = Sentinel1OrbitFileReader.getValidityStopFromFilenameUTC(name);
+            if (utcStart != null && utcEnd != null) {
+                return new Entry(name, utcStart.getMJD(), utcEnd.getMJD());
+            }
+        } catch (Exception e) {
+            // not a Sentinel-1 orbit file name
+        }
+        return null;
+    }
+
+    private void load() {
+        if (!indexFile.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return;
+            }
+            final int count = in.readInt();
+            if (count < 0 || count * (long) MIN_ENTRY_SIZE > indexFile.length()) {
+                throw new IOException("invalid entry count " + count);
+            }
+            final List<Entry> list = new ArrayList<>(count);
+            for (int i = 0; i < count; ++i) {
+                list.add(new Entry(in.readUTF(), in.readDouble(), in.readDouble()));
+            }
+            entries = list;
+        } catch (IOException e) {
+            SystemUtils.LOG.warning("Unable to read orbit file index " + indexFile + ": " + e.getMessage());
+        }
+    }
+
+    private void save() {
+        // the index is written next to it and moved into place, so a concurrent reader never sees half of it
+        File tmpFile = null;
+        try {
+            // a unique name, other processes may be writing the index of a shared folder at the same time
+            tmpFile = File.createTempFile(INDEX_FILE_NAME, ".tmp", folder);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (Entry entry : entries) {
+                    out.writeUTF(entry.name);
+                    out.writeDouble(entry.startMJD);
+                    out.writeDouble(entry.stopMJD);
+                }
+            }
+            if (!tmpFile.renameTo(indexFile)) {
+                indexFile.delete();
+                tmpFile.renameTo(indexFile);
+            }
+        } catch (IOException e) {
+            if (tmpFile != null) {
+                tmpFile.delete();
+            }
+            SystemUtils.LOG.warning("Unable to write orbit file index " + indexFile + ": " + e.getMessage());
+        }
+    }
+
+    private static final class Entry {
+        private final String name;
+        private final double startMJD;
+        private final double stopMJD;
+
+        Entry(final String name, final double startMJD, final double stopMJD) {
+            this.name = name;
+            this.startMJD = startMJD;
+            this.stopMJD = stopMJD;
+        }
+    }
+
+    private static class OrbitFileFilter implements FilenameFilter {
+        @Override
+        public boolean accept(File dir, String name) {
+            name = name.toUpperCase();
+            return name.endsWith(".ZIP") || name.endsWith(".EOF");
+        }
+    }
+}
@@ -22,7 +22,7 @@ import org.esa.snap.engine_utilities.datamodel.Orbits;
 import org.jdom2.Document;
 import org.jdom2.Element;
 
-import java.io.File;
+import java.io.*;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.util.ArrayList;
@@ -36,6 +36,10 @@ public class Sentinel1OrbitFileReader {
     final static DateFormat dateFormat = ProductData.UTC.createDateFormat("yyyyMMdd-HHmmss");
     final static DateFormat orbitDateFormat = ProductData.UTC.createDateFormat("yyyy-MM-dd HH:mm:ss");
 
+    static final String STATE_VECTOR_FILE_EXTENSION = ".osv";
+    private static final int STATE_VECTOR_FILE_MAGIC = 0x53314f56; // S1OV
+    private static final int STATE_VECTOR_FILE_VERSION = 1;
+
     private FixedHeader fixedHeader = null;
     private final File orbitFile;
     private List<Orbits.OrbitVector> osvList = new ArrayList<>();
@@ -48,6 +52,27 @@ public class Sentinel1OrbitFileReader {
         return osvList;
     }
 
+    /**
+     * Read an orbit file. The header and state vectors are kept in a binary file next to the orbit file, which is
+     * read instead of the XML as long as the orbit file is unchanged.
+     *
+     * @param file the orbit file
+     * @return the reader holding the content of the orbit file
+     */
+    static Sentinel1OrbitFileReader load(final File file) throws Exception {
+        final Sentinel1OrbitFileReader orbitFileReader = new Sentinel1OrbitFileReader(file);
+        final File stateVectorFile = getStateVectorFile(file);
+        if (!orbitFileReader.readStateVectorFile(stateVectorFile)) {
+            orbitFileReader.read();
+            orbitFileReader.writeStateVectorFile(stateVectorFile);
+        }
+        return orbitFileReader;
+    }
+
+    static File getStateVectorFile(final File file) {
+        return new File(file.getParentFile(), file.getName() + STATE_VECTOR_FILE_EXTENSION);
+    }
+
     void read() throws Exception {
 
         final Document doc;
@@ -77,6 +102,86 @@ public class Sentinel1OrbitFileReader {
         }
     }
 
+    private boolean readStateVectorFile(final File stateVectorFile) {
+        if (!stateVectorFile.exists()) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(stateVectorFile)))) {
+            if (in.readInt() != STATE_VECTOR_FILE_MAGIC || in.readInt() != STATE_VECTOR_FILE_VERSION ||
+                    in.readLong() != orbitFile.length() || in.readLong() != orbitFile.lastModified()) {
+                return false;
+            }
+
+            FixedHeader header = null;
+            if (in.readBoolean()) {
+                header = new FixedHeader(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF());
+            }
+
+            final int count = in.readInt();
+            // each state vector holds seven doubles
+            if (count < 0 || count * 7L * 8L > stateVectorFile.length()) {
+                throw new IOException("invalid state vector count " + count);
+            }
+            final List<Orbits.OrbitVector> list = new ArrayList<>(count);
+            for (int i = 0; i < count; ++i) {
+                list.add(new Orbits.OrbitVector(in.readDouble(),
+                        in.readDouble(), in.readDouble(), in.readDouble(),
+                        in.readDouble(), in.readDouble(), in.readDouble()));
+            }
+
+            fixedHeader = header;
+            osvList = list;
+            return true;
+        } catch (IOException e) {
+            SystemUtils.LOG.warning("Unable to read " + stateVectorFile + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void writeStateVectorFile(final File stateVectorFile) {
+        File tmpFile = null;
+        try {
+            // a unique name, other processes may be writing the same file in a shared orbit folder
+            tmpFile = File.createTempFile(stateVectorFile.getName(), ".tmp", stateVectorFile.getParentFile());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+                out.writeInt(STATE_VECTOR_FILE_MAGIC);
+                out.writeInt(STATE_VECTOR_FILE_VERSION);
+                out.writeLong(orbitFile.length());
+                out.writeLong(orbitFile.lastModified());
+
+                out.writeBoolean(fixedHeader != null);
+                if (fixedHeader != null) {
+                    out.writeUTF(fixedHeader.mission);
+                    out.writeUTF(fixedHeader.fileType);
+                    out.writeUTF(fixedHeader.validityStart);
+                    out.writeUTF(fixedHeader.validityStop);
+                    out.writeUTF(fixedHeader.version);
+                }
+
+                out.writeInt(osvList.size());
+                for (Orbits.OrbitVector osv : osvList) {
+                    out.writeDouble(osv.utcMJD);
+                    out.writeDouble(osv.xPos);
+                    out.writeDouble(osv.yPos);
+                    out.writeDouble(osv.zPos);
+                    out.writeDouble(osv.xVel);
+                    out.writeDouble(osv.yVel);
+                    out.writeDouble(osv.zVel);
+                }
+            }
+            if (!tmpFile.renameTo(stateVectorFile)) {
+                stateVectorFile.delete();
+                tmpFile.renameTo(stateVectorFile);
+            }
+        } catch (IOException e) {
+            // the orbit file stays readable, it is parsed again next time
+            if (tmpFile != null) {
+                tmpFile.delete();
+            }
+            SystemUtils.LOG.warning("Unable to write " + stateVectorFile + ": " + e.getMessage());
+        }
+    }
+
     private static FixedHeader readFixedHeader(final Element fixedHeaderElem) {
 
         String mission = fixedHeaderElem.getChild("Mission").getText();
@@ -158,16 +158,8 @@ public class SentinelPODOrbitFile extends BaseOrbitFile implements OrbitFile {
 
         if (!orbitFileFolder.exists())
             return null;
-        final File[] files = orbitFileFolder.listFiles(new S1OrbitFileFilter(prefix));
-        if (files == null || files.length == 0)
-            return null;
 
-        for (File file : files) {
-            if (Sentinel1OrbitFileReader.isWithinRange(file.getName(), stateVectorTime)) {
-                return file;
-            }
-        }
-        return null;
+        return Sentinel1OrbitFileIndex.getIndex(orbitFileFolder).findOrbitFile(new S1OrbitFileFilter(prefix), stateVectorTime);
     }
 
     /**
@@ -298,10 +290,7 @@ public class SentinelPODOrbitFile extends BaseOrbitFile implements OrbitFile {
                 .build(new CacheLoader<File, Sentinel1OrbitFileReader>() {
                            @Override
                            public Sentinel1OrbitFileReader load(File key) throws Exception {
-                               Sentinel1OrbitFileReader orbitFileReader = new Sentinel1OrbitFileReader(key);
-                               orbitFileReader.read();
-
-                               return orbitFileReader;
+                               return Sentinel1OrbitFileReader.load(key);
                            }
                        }
                 );
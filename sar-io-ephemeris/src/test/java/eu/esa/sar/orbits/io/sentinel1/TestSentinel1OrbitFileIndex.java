@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.orbits.io.sentinel1;
+
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.engine_utilities.datamodel.Orbits;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * To test Sentinel1OrbitFileIndex and the state vector files of Sentinel1OrbitFileReader
+ */
+public class TestSentinel1OrbitFileIndex {
+
+    private static final String POE_PREFIX = "S1A_OPER_AUX_POEORB_OPOD_";
+    private static final FilenameFilter poeFilter =
+            (dir, name) -> name.startsWith(POE_PREFIX) && name.toUpperCase().endsWith(".EOF");
+
+    private File folder;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("orbits").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        final File[] files = folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        folder.delete();
+    }
+
+    @Test
+    public void testFindOrbitFile() throws Exception {
+        createFile(POE_PREFIX + "20150917T122248_V20150827T225943_20150829T005943.EOF");
+        createFile(POE_PREFIX + "20150918T122322_V20150828T225943_20150830T005943.EOF");
+        createFile("S1A_OPER_AUX_RESORB_OPOD_20150828T122322_V20150828T000000_20150828T230000.EOF");
+
+        final Sentinel1OrbitFileIndex index = Sentinel1OrbitFileIndex.getIndex(folder);
+
+        // covered by the first file only
+        File file = index.findOrbitFile(poeFilter, utc("2015-08-28 10:00:00"));
+        assertEquals(POE_PREFIX + "20150917T122248_V20150827T225943_20150829T005943.EOF", file.getName());
+
+        // covered by both, the second one is centred on the time
+        file = index.findOrbitFile(poeFilter, utc("2015-08-29 00:30:00"));
+        assertEquals(POE_PREFIX + "20150918T122322_V20150828T225943_20150830T005943.EOF", file.getName());
+
+        // the validity stop is not included
+        assertNull(index.findOrbitFile(poeFilter, utc("2015-08-30 00:59:43")));
+        assertNull(index.findOrbitFile(poeFilter, utc("2015-08-27 12:00:00")));
+
+        assertTrue(new File(folder, Sentinel1OrbitFileIndex.INDEX_FILE_NAME).exists());
+    }
+
+    @Test
+    public void testAddedOrbitFile() throws Exception {
+        createFile(POE_PREFIX + "20150917T122248_V20150827T225943_20150829T005943.EOF");
+
+        final Sentinel1OrbitFileIndex index = Sentinel1OrbitFileIndex.getIndex(folder);
+        assertNull(index.findOrbitFile(poeFilter, utc("2015-08-29 12:00:00")));
+
+        createFile(POE_PREFIX + "20150918T122322_V20150828T225943_20150830T005943.EOF");
+
+        final File file = index.findOrbitFile(poeFilter, utc("2015-08-29 12:00:00"));
+        assertNotNull(file);
+        assertEquals(POE_PREFIX + "20150918T122322_V20150828T225943_20150830T005943.EOF", file.getName());
+    }
+
+    @Test
+    public void testCorruptIndexFile() throws Exception {
+        createFile(POE_PREFIX + "20150917T122248_V20150827T225943_20150829T005943.EOF");
+
+        // a valid header with an entry count far beyond the file length
+        try (DataOutputStream out = new DataOutputStream(
+                new FileOutputStream(new File(folder, Sentinel1OrbitFileIndex.INDEX_FILE_NAME)))) {
+            out.writeInt(0x53314958);
+            out.writeInt(1);
+            out.writeInt(Integer.MAX_VALUE);
+        }
+
+        final Sentinel1OrbitFileIndex index = Sentinel1OrbitFileIndex.getIndex(folder);
+        assertNotNull(index.findOrbitFile(poeFilter, utc("2015-08-28 10:00:00")));
+    }
+
+    @Test
+    public void testStateVectorFile() throws Exception {
+        final File orbitFile = new File(folder, POE_PREFIX + "20150917T122248_V20150827T225943_20150829T005943.EOF");
+        Files.write(orbitFile.toPath(), createOrbitFileContent().getBytes(StandardCharsets.UTF_8));
+
+        final Sentinel1OrbitFileReader parsed = Sentinel1OrbitFileReader.load(orbitFile);
+        assertTrue(Sentinel1OrbitFileReader.getStateVectorFile(orbitFile).exists());
+
+        final Sentinel1OrbitFileReader cached = Sentinel1OrbitFileReader.load(orbitFile);
+
+        assertEquals("1.10.1", cached.getFileVersion());
+        assertEquals("UTC=2015-08-27T22:59:43", cached.getValidityStartFromHeader());
+        assertEquals("UTC=2015-08-29T00:59:43", cached.getValidityStopFromHeader());
+
+        final List<Orbits.OrbitVector> expected = parsed.getOrbitStateVectors();
+        final List<Orbits.OrbitVector> actual = cached.getOrbitStateVectors();
+        assertEquals(2, actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).utcMJD, actual.get(i).utcMJD, 0.0);
+            assertEquals(expected.get(i).xPos, actual.get(i).xPos, 0.0);
+            assertEquals(expected.get(i).yVel, actual.get(i).yVel, 0.0);
+            assertEquals(expected.get(i).zVel, actual.get(i).zVel, 0.0);
+        }
+        assertEquals(-368251.718419, actual.get(0).xPos, 0.0);
+    }
+
+    private void createFile(final String name) throws IOException {
+        assertTrue(new File(folder, name).createNewFile());
+    }
+
+    private static ProductData.UTC utc(final String time) throws Exception {
+        return ProductData.UTC.parse(time, Sentinel1OrbitFileReader.orbitDateFormat);
+    }
+
+    private static String createOrbitFileContent() {
+        return "<?xml version=\"1.0\" ?>\n" +
+                "<Earth_Explorer_File>\n" +
+                "  <Earth_Explorer_Header>\n" +
+                "    <Fixed_Header>\n" +
+                "      <Mission>Sentinel-1A</Mission>\n" +
+                "      <File_Type>AUX_POEORB</File_Type>\n" +
+                "      <Validity_Period>\n" +
+                "        <Validity_Start>UTC=2015-08-27T22:59:43</Validity_Start>\n" +
+                "        <Validity_Stop>UTC=2015-08-29T00:59:43</Validity_Stop>\n" +
+                "      </Validity_Period>\n" +
+                "      <Source>\n" +
+                "        <Creator_Version>1.10.1</Creator_Version>\n" +
+                "      </Source>\n" +
+                "    </Fixed_Header>\n" +
+                "  </Earth_Explorer_Header>\n" +
+                "  <Data_Block type=\"xml\">\n" +
+                "    <List_of_OSVs count=\"2\">\n" +
+                osv("UTC=2015-08-27T22:59:43.000000", "-368251.718419", "-2299963.236657", "6671242.884855",
+                    "-2359.280562", "6854.762675", "2228.116584") +
+                osv("UTC=2015-08-27T22:59:53.000000", "-391815.542389", "-2231265.386201", "6693365.007420",
+                    "-2353.475651", "6884.809434", "2196.321869") +
+                "    </List_of_OSVs>\n" +
+                "  </Data_Block>\n" +
+                "</Earth_Explorer_File>\n";
+    }
+
+    private static String osv(final String utc, final String x, final String y, final String z,
+                              final String vx, final String vy, final String vz) {
+        return "      <OSV>\n" +
+                "        <UTC>" + utc + "</UTC>\n" +
+                "        <X unit=\"m\">" + x + "</X>\n" +
+                "        <Y unit=\"m\">" + y + "</Y>\n" +
+                "        <Z unit=\"m\">" + z + "</Z>\n" +
+                "        <VX unit=\"m/s\">" + vx + "</VX>\n" +
+                "        <VY unit=\"m/s\">" + vy + "</VY>\n" +
+                "        <VZ unit=\"m/s\">" + vz + "</VZ>\n" +
+                "      </OSV>\n";
+    }
+}
@@ -1,47 +1,125 @@
 package eu.esa.sar.io;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import eu.esa.sar.commons.CacheStatistics;
 import eu.esa.sar.commons.io.ImageIOFile;
+import org.esa.snap.runtime.Config;
 
 import java.awt.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Cache of raster tiles read by product readers.
+ * <p>
+ * All DataCache instances share one byte-bounded store so that readers of several products draw from a single
+ * memory budget. Entries are weighed by the bytes they hold and may optionally be kept off-heap.
+ * Each instance only sees its own entries and releases them with dispose().
+ * <p>
  * Created by lveci on 20/05/2014.
  */
 public class DataCache {
 
-    private final LoadingCache<DataKey, Data> cache;
+    private static final String PREF_CACHE_SIZE = "s1tbx.readers.dataCacheSizeMB";
+    private static final String PREF_OFF_HEAP = "s1tbx.readers.dataCacheOffHeap";
+
+    private static final long maxBytes = Config.instance().preferences().getLong(PREF_CACHE_SIZE,
+            Runtime.getRuntime().maxMemory() / 16 / (1024 * 1024)) * 1024 * 1024;
+    private static final boolean offHeap = Config.instance().preferences().getBoolean(PREF_OFF_HEAP, false);
+
+    private static final AtomicLong currentBytes = new AtomicLong();
+
+    private static final Cache<CacheKey, Data> sharedCache = CacheBuilder.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((CacheKey key, Data data) -> data.getSizeInBytes())
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .removalListener(DataCache::onRemoval)
+            .recordStats()
+            .build();
 
     public DataCache() {
-        cache = CacheBuilder.newBuilder().maximumSize(500).initialCapacity(500)
-                .expireAfterAccess(10, TimeUnit.MINUTES)
-                //.recordStats()
-                .build(new CacheLoader<DataKey, Data>() {
-                           @Override
-                           public Data load(DataKey key) throws Exception {
-                               return new Data();
-                           }
-                       }
-        );
     }
 
+    private static void onRemoval(final RemovalNotification<CacheKey, Data> notification) {
+        final Data data = notification.getValue();
+        if (data != null) {
+            currentBytes.addAndGet(-data.getSizeInBytes());
+        }
+    }
+
+    /**
+     * @return the number of entries held by this instance
+     */
     public long size() {
-        return cache.size();
+        return sharedCache.asMap().keySet().stream().filter(k -> k.owner == this).count();
     }
 
     public String stats() {
-        return cache.stats().toString();
+        return getStats().toString();
+    }
+
+    /**
+     * @return hit/miss and memory statistics of the store shared by all instances
+     */
+    public static CacheStatistics getStats() {
+        final CacheStats stats = sharedCache.stats();
+        return new CacheStatistics("DataCache", sharedCache.size(), stats.hitCount(), stats.missCount(),
+                stats.evictionCount(), currentBytes.get(), maxBytes);
     }
 
-    public Data get(DataKey key) {
-        return cache.getUnchecked(key);
+    /**
+     * @param key the tile key
+     * @return the cached data or null if not present
+     */
+    public Data get(final DataKey key) {
+        return sharedCache.getIfPresent(new CacheKey(this, key));
     }
 
-    public synchronized void put(DataKey key, Data value) {
-        cache.put(key, value);
+    public void put(final DataKey key, final Data value) {
+        if (!value.valid) {
+            return;
+        }
+        final Data stored = offHeap ? value.toOffHeap() : value;
+        currentBytes.addAndGet(stored.getSizeInBytes());
+        sharedCache.put(new CacheKey(this, key), stored);
+    }
+
+    /**
+     * Removes all entries of this instance. Readers should call this when closing.
+     */
+    public void dispose() {
+        sharedCache.asMap().keySet().removeIf(k -> k.owner == this);
+    }
+
+    private static final class CacheKey {
+        private final DataCache owner;
+        private final DataKey key;
+
+        CacheKey(final DataCache owner, final DataKey key) {
+            this.owner = owner;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof CacheKey))
+                return false;
+            final CacheKey other = (CacheKey) obj;
+            return owner == other.owner && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(owner) + key.hashCode();
+        }
     }
 
     public static class DataKey {
@@ -55,6 +133,10 @@ public class DataCache {
 
         @Override
         public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof DataKey))
+                return false;
 
             DataKey key = (DataKey) obj;
             return (rect.x == key.rect.x &&
@@ -66,7 +148,12 @@ public class DataCache {
 
         @Override
         public int hashCode() {
-            return img.hashCode();
+            int hash = System.identityHashCode(img);
+            hash = 31 * hash + rect.x;
+            hash = 31 * hash + rect.y;
+            hash = 31 * hash + rect.width;
+            hash = 31 * hash + rect.height;
+            return hash;
         }
 
         @Override
@@ -79,14 +166,51 @@ public class DataCache {
 
         public final boolean valid;
         public int[] intArray;
+        private final IntBuffer offHeapBuffer;
 
         public Data() {
             valid = false;
+            offHeapBuffer = null;
         }
 
         public Data(final int[] srcArray) {
             this.intArray = srcArray;
             this.valid = true;
+            this.offHeapBuffer = null;
+        }
+
+        private Data(final IntBuffer offHeapBuffer) {
+            this.valid = true;
+            this.offHeapBuffer = offHeapBuffer;
+        }
+
+        /**
+         * @return the tile samples. Off-heap entries are copied into a new array.
+         */
+        public int[] getIntArray() {
+            if (offHeapBuffer != null) {
+                final int[] array = new int[offHeapBuffer.capacity()];
+                offHeapBuffer.duplicate().get(array);
+                return array;
+            }
+            return intArray;
+        }
+
+        int getSizeInBytes() {
+            if (offHeapBuffer != null) {
+                return offHeapBuffer.capacity() * Integer.BYTES;
+            }
+            return intArray == null ? 0 : intArray.length * Integer.BYTES;
+        }
+
+        private Data toOffHeap() {
+            if (offHeapBuffer != null || intArray == null) {
+                return this;
+            }
+            final IntBuffer buffer = ByteBuffer.allocateDirect(intArray.length * Integer.BYTES)
+                    .order(ByteOrder.nativeOrder()).asIntBuffer();
+            buffer.put(intArray);
+            return new Data(buffer);
         }
     }
 }
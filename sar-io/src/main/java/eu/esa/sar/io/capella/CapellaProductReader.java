@@ -64,6 +64,7 @@ public class CapellaProductReader extends SARReader {
             dataDir.close();
             dataDir = null;
         }
+        cache.dispose();
         super.close();
     }
 
@@ -122,11 +123,11 @@ public class CapellaProductReader extends SARReader {
         final DataCache.DataKey datakey = new DataCache.DataKey(bandInfo.img, destRect);
         DataCache.Data cachedData = cache.get(datakey);
         if (cachedData != null && cachedData.valid) {
-            srcArray = cachedData.intArray;
+            srcArray = cachedData.getIntArray();
         } else {
             cachedData = readRect(datakey, bandInfo, sourceOffsetX, sourceOffsetY, sourceStepX, sourceStepY, destRect);
 
-            srcArray = cachedData.intArray;
+            srcArray = cachedData.getIntArray();
         }
 
         final boolean isSLC = dataDir.isSLC();
@@ -62,6 +62,7 @@ public class Gaofen3ProductReader extends SARReader {
             dataDir.close();
             dataDir = null;
         }
+        cache.dispose();
         super.close();
     }
 
@@ -115,10 +116,10 @@ public class Gaofen3ProductReader extends SARReader {
         final DataCache.DataKey datakey = new DataCache.DataKey(bandInfo.img, destRect);
         DataCache.Data cachedData = cache.get(datakey);
         if (cachedData != null && cachedData.valid) {
-            srcArray = cachedData.intArray;
+            srcArray = cachedData.getIntArray();
         } else {
             cachedData = readRect(datakey, bandInfo, sourceOffsetX, sourceOffsetY, sourceStepX, sourceStepY, destRect);
-            srcArray = cachedData.intArray;
+            srcArray = cachedData.getIntArray();
         }
         final boolean isSLC = dataDir.isSLC();
         final float[] elems = (float[]) destBuffer.getElems();
@@ -19,6 +19,7 @@ import eu.esa.sar.io.geotiffxml.GeoTiffUtils;
 import eu.esa.sar.commons.io.ImageIOFile;
 import eu.esa.sar.commons.io.JSONProductDirectory;
 import eu.esa.sar.commons.io.SARReader;
+import eu.esa.sar.commons.io.TiffStripReader;
 import eu.esa.sar.commons.io.XMLProductDirectory;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.GeoCoding;
@@ -90,6 +91,11 @@ public class Sentinel1Level1Directory extends XMLProductDirectory implements Sen
 
                     final ImageIOFile img = new ImageIOFile(name, imgStream, GeoTiffUtils.getTiffIIOReader(imgStream),
                                 1, 1, ProductData.TYPE_INT32, productInputFile);
+                    if (!isCompressed()) {
+                        final File imgFile = getFile(imgPath);
+                        img.enableConcurrentReads(imgFile, GeoTiffUtils::getTiffIIOReader);
+                        setStripReader(img, imgFile);
+                    }
                     bandImageFileMap.put(img.getName(), img);
                 } else {
                     inStream.close();
@@ -100,6 +106,20 @@ public class Sentinel1Level1Directory extends XMLProductDirectory implements Sen
         }
     }
 
+    private static void setStripReader(final ImageIOFile img, final File imgFile) {
+        // the strip reader is only a faster path, the band is read with ImageIO if it cannot be used
+        try {
+            final TiffStripReader stripReader = TiffStripReader.open(imgFile);
+            if (stripReader != null && stripReader.isComplexInt16()) {
+                img.setStripReader(stripReader);
+            } else if (stripReader != null) {
+                stripReader.close();
+            }
+        } catch (Exception e) {
+            SystemUtils.LOG.warning("Unable to read " + imgFile + " directly, using ImageIO: " + e.getMessage());
+        }
+    }
+
     public static ImageInputStream createImageInputStream(final InputStream inStream, final Dimension bandDimensions,
                                                           final boolean isSLC) throws IOException {
         final long maxMemory = Runtime.getRuntime().maxMemory() / 1024 / 1024;
@@ -18,6 +18,7 @@ package eu.esa.sar.io.sentinel1;
 import com.bc.ceres.core.ProgressMonitor;
 import eu.esa.sar.commons.io.ImageIOFile;
 import eu.esa.sar.commons.io.SARReader;
+import eu.esa.sar.commons.io.TiffStripReader;
 import org.esa.snap.core.dataio.ProductReaderPlugIn;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.MetadataElement;
@@ -201,17 +202,27 @@ public class Sentinel1ProductReader extends SARReader {
                                   final ProductData destBuffer,
                                   final int destOffsetX, final int destOffsetY,
                                   int destWidth, int destHeight,
-                                  final ImageIOFile.BandInfo bandInfo) {
+                                  final ImageIOFile.BandInfo bandInfo) throws IOException {
 
         final int length;
         final int[] srcArray;
         final Rectangle destRect = new Rectangle(destOffsetX, destOffsetY, destWidth, destHeight);
 
-        synchronized (dataDir) {
-            srcArray = readRect(bandInfo, sourceOffsetX, sourceOffsetY, sourceStepX, sourceStepY, destRect);
-            length = srcArray.length;
+        final TiffStripReader stripReader = bandInfo.img.getStripReader();
+        if (stripReader != null && sourceStepX == 1 && sourceStepY == 1) {
+            stripReader.readComplexInt16(destRect, bandInfo.isImaginary, destBuffer.getElems());
+            return;
         }
 
+        if (bandInfo.img.isConcurrentReadEnabled()) {
+            srcArray = readRectConcurrent(bandInfo, sourceOffsetX, sourceOffsetY, sourceStepX, sourceStepY, destRect);
+        } else {
+            synchronized (dataDir) {
+                srcArray = readRect(bandInfo, sourceOffsetX, sourceOffsetY, sourceStepX, sourceStepY, destRect);
+            }
+        }
+        length = srcArray.length;
+
         if (destBuffer.getElemSize() > 2) {
             final int[] destArray = (int[]) destBuffer.getElems();
             if (!bandInfo.isImaginary) {
@@ -237,11 +248,41 @@ public class Sentinel1ProductReader extends SARReader {
         }
     }
 
+    /**
+     * Reads with a reader owned by the calling thread so that tiles of any band or swath can be read in parallel
+     */
+    private int[] readRectConcurrent(final ImageIOFile.BandInfo bandInfo,
+                                     int sourceOffsetX, int sourceOffsetY, int sourceStepX, int sourceStepY,
+                                     final Rectangle destRect) {
+        final ImageIOFile.PooledReader pooled;
+        try {
+            pooled = bandInfo.img.acquireReader();
+        } catch (IOException e) {
+            synchronized (dataDir) {
+                return readRect(bandInfo, sourceOffsetX, sourceOffsetY, sourceStepX, sourceStepY, destRect);
+            }
+        }
+        try {
+            return readRect(pooled.reader, sourceOffsetX, sourceOffsetY, sourceStepX, sourceStepY, destRect);
+        } finally {
+            bandInfo.img.releaseReader(pooled);
+        }
+    }
+
     private int[] readRect(final ImageIOFile.BandInfo bandInfo,
                            int sourceOffsetX, int sourceOffsetY, int sourceStepX, int sourceStepY,
                            final Rectangle destRect) {
         try {
-            final ImageReader imageReader = bandInfo.img.getReader();
+            return readRect(bandInfo.img.getReader(), sourceOffsetX, sourceOffsetY, sourceStepX, sourceStepY, destRect);
+        } catch (IOException e) {
+            return new int[(int)destRect.getWidth()*(int)destRect.getHeight()];
+        }
+    }
+
+    private static int[] readRect(final ImageReader imageReader,
+                                  int sourceOffsetX, int sourceOffsetY, int sourceStepX, int sourceStepY,
+                                  final Rectangle destRect) {
+        try {
             final ImageReadParam param = imageReader.getDefaultReadParam();
             param.setSourceSubsampling(sourceStepX, sourceStepY,
                     sourceOffsetX % sourceStepX,
@@ -76,6 +76,9 @@ public class SpacetyProductReader extends SARReader {
             dataDir.close();
             dataDir = null;
         }
+        if (cache != null) {
+            cache.dispose();
+        }
     }
 
     /**
@@ -168,14 +171,14 @@ public class SpacetyProductReader extends SARReader {
             final DataCache.DataKey datakey = new DataCache.DataKey(bandInfo.img, destRect);
             DataCache.Data cachedData = cache.get(datakey);
             if (cachedData != null && cachedData.valid) {
-                srcArray = cachedData.intArray;
+                srcArray = cachedData.getIntArray();
                 length = srcArray.length;
             } else {
                 cachedData = readRect(datakey, bandInfo,
                         sourceOffsetX, sourceOffsetY, sourceStepX, sourceStepY,
                         destRect);
 
-                srcArray = cachedData.intArray;
+                srcArray = cachedData.getIntArray();
                 length = srcArray.length;
             }
         } else {
@@ -183,7 +186,7 @@ public class SpacetyProductReader extends SARReader {
             DataCache.Data cachedData = readRect(null, bandInfo,
                     sourceOffsetX, sourceOffsetY, sourceStepX, sourceStepY, destRect);
 
-            srcArray = cachedData.intArray;
+            srcArray = cachedData.getIntArray();
             length = srcArray.length;
         }
 
@@ -0,0 +1,72 @@
+package eu.esa.sar.io;
+
+import eu.esa.sar.commons.CacheStatistics;
+import org.junit.Test;
+
+import java.awt.*;
+
+import static org.junit.Assert.*;
+
+public class DataCacheTest {
+
+    @Test
+    public void testPutGet() {
+        final DataCache cache = new DataCache();
+        final DataCache.DataKey key = new DataCache.DataKey(null, new Rectangle(0, 0, 4, 4));
+        assertNull(cache.get(key));
+
+        cache.put(key, new DataCache.Data(new int[]{1, 2, 3, 4}));
+        final DataCache.Data data = cache.get(new DataCache.DataKey(null, new Rectangle(0, 0, 4, 4)));
+        assertNotNull(data);
+        assertTrue(data.valid);
+        assertArrayEquals(new int[]{1, 2, 3, 4}, data.getIntArray());
+        assertEquals(1, cache.size());
+
+        assertNull(cache.get(new DataCache.DataKey(null, new Rectangle(4, 0, 4, 4))));
+        cache.dispose();
+    }
+
+    @Test
+    public void testKeyHashUsesRectangle() {
+        final DataCache.DataKey key1 = new DataCache.DataKey(null, new Rectangle(0, 0, 512, 512));
+        final DataCache.DataKey key2 = new DataCache.DataKey(null, new Rectangle(512, 0, 512, 512));
+        final DataCache.DataKey key3 = new DataCache.DataKey(null, new Rectangle(0, 0, 512, 512));
+
+        assertNotEquals(key1.hashCode(), key2.hashCode());
+        assertEquals(key1.hashCode(), key3.hashCode());
+        assertEquals(key1, key3);
+        assertNotEquals(key1, key2);
+    }
+
+    @Test
+    public void testInstancesAreIsolated() {
+        final DataCache cache1 = new DataCache();
+        final DataCache cache2 = new DataCache();
+        final DataCache.DataKey key = new DataCache.DataKey(null, new Rectangle(0, 0, 2, 2));
+
+        cache1.put(key, new DataCache.Data(new int[]{1, 2, 3, 4}));
+        assertNotNull(cache1.get(key));
+        assertNull(cache2.get(key));
+
+        cache1.dispose();
+        assertNull(cache1.get(key));
+        assertEquals(0, cache1.size());
+    }
+
+    @Test
+    public void testStats() {
+        final DataCache cache = new DataCache();
+        final DataCache.DataKey key = new DataCache.DataKey(null, new Rectangle(0, 0, 2, 2));
+
+        final CacheStatistics before = DataCache.getStats();
+        cache.get(key);
+        cache.put(key, new DataCache.Data(new int[4]));
+        cache.get(key);
+        final CacheStatistics after = DataCache.getStats();
+
+        assertEquals(before.hitCount + 1, after.hitCount);
+        assertEquals(before.missCount + 1, after.missCount);
+        assertTrue(after.currentBytes >= 16);
+        cache.dispose();
+    }
+}
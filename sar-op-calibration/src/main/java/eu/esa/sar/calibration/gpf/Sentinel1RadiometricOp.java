@@ -0,0 +1,444 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.calibration.gpf;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.calibration.gpf.calibrators.Sentinel1Calibrator;
+import eu.esa.sar.calibration.gpf.support.Sentinel1LUTCache;
+import eu.esa.sar.commons.Sentinel1Utils;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.MetadataElement;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.datamodel.VirtualBand;
+import org.esa.snap.core.gpf.Operator;
+import org.esa.snap.core.gpf.OperatorException;
+import org.esa.snap.core.gpf.OperatorSpi;
+import org.esa.snap.core.gpf.Tile;
+import org.esa.snap.core.gpf.annotations.OperatorMetadata;
+import org.esa.snap.core.gpf.annotations.Parameter;
+import org.esa.snap.core.gpf.annotations.SourceProduct;
+import org.esa.snap.core.gpf.annotations.TargetProduct;
+import org.esa.snap.core.util.ProductUtils;
+import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
+import org.esa.snap.engine_utilities.datamodel.Unit;
+import org.esa.snap.engine_utilities.gpf.InputProductValidator;
+import org.esa.snap.engine_utilities.gpf.OperatorUtils;
+import org.esa.snap.engine_utilities.gpf.TileIndex;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Thermal noise removal and absolute calibration of Sentinel-1 Level-1 products in a single pass.
+ * <p>
+ * The result is the same as ThermalNoiseRemoval followed by Calibration, but the source tile is read once and
+ * the noise removed intensity is never written to an intermediate float band: for every pixel the noise power is
+ * subtracted from the detected intensity and the calibration factor is applied straight away. The noise power
+ * is computed once per tile and the calibration factors once per line, both from the range interpolated vectors
+ * that the thermal noise removal operator caches for the product.
+ */
+@OperatorMetadata(alias = "S1-Radiometric-Calibration",
+        category = "Radar/Radiometric",
+        authors = "Jun Lu, Luis Veci",
+        copyright = "Copyright (C) 2025 SkyWatch Space Applications Inc.",
+        version = "1.0",
+        description = "Removes thermal noise and calibrates Sentinel-1 products in one step")
+public final class Sentinel1RadiometricOp extends Operator {
+
+    @SourceProduct(alias = "source")
+    private Product sourceProduct;
+    @TargetProduct
+    private Product targetProduct;
+
+    @Parameter(description = "The list of polarisations", label = "Polarisations")
+    private String[] selectedPolarisations;
+
+    @Parameter(description = "Output sigma0 band", defaultValue = "true", label = "Output sigma0 band")
+    private Boolean outputSigmaBand = true;
+
+    @Parameter(description = "Output gamma0 band", defaultValue = "false", label = "Output gamma0 band")
+    private Boolean outputGammaBand = false;
+
+    @Parameter(description = "Output beta0 band", defaultValue = "false", label = "Output beta0 band")
+    private Boolean outputBetaBand = false;
+
+    private Sentinel1RemoveThermalNoiseOp noiseOp = null;
+    private boolean isMultiSwath = false;
+    private int subsetOffsetX = 0;
+    private int subsetOffsetY = 0;
+    private List<String> selectedPolList = null;
+    private final HashMap<String, String[]> targetBandNameToSourceBandName = new HashMap<>(2);
+    private final HashMap<String, String> targetBandNameToNoiseBandName = new HashMap<>(2);
+    private final HashMap<String, Sentinel1Calibrator.CalibrationInfo> targetBandToCalInfo = new HashMap<>(2);
+
+    private static final String PRODUCT_SUFFIX = "_NR_Cal";
+
+    /**
+     * Default constructor. The graph processing framework
+     * requires that an operator has a default constructor.
+     */
+    public Sentinel1RadiometricOp() {
+    }
+
+    /**
+     * Initializes this operator and sets the one and only target product.
+     * <p>The target product can be either defined by a field of type {@link Product} annotated with the
+     * {@link TargetProduct TargetProduct} annotation or
+     * by calling {@link #setTargetProduct} method.</p>
+     * <p>The framework calls this method after it has created this operator.
+     * Any client code that must be performed before computation of tile data
+     * should be placed here.</p>
+     *
+     * @throws OperatorException If an error occurs during operator initialisation.
+     * @see #getTargetProduct()
+     */
+    @Override
+    public void initialize() throws OperatorException {
+
+        try {
+            final InputProductValidator validator = new InputProductValidator(sourceProduct);
+            validator.checkIfSentinel1Product();
+            validator.checkAcquisitionMode(new String[] {"IW","EW","SM"});
+            validator.checkProductType(new String[] {"SLC","GRD"});
+            validator.checkIfCalibrated(false);
+            if (validator.isComplex() && validator.isTOPSARProduct() && validator.isDebursted()) {
+                throw new OperatorException("Calibration should be applied before deburst");
+            }
+            isMultiSwath = validator.isMultiSwath();
+
+            if (!outputSigmaBand && !outputGammaBand && !outputBetaBand) {
+                throw new OperatorException("Please select at least one output band");
+            }
+
+            final MetadataElement absRoot = AbstractMetadata.getAbstractedMetadata(sourceProduct);
+            subsetOffsetX = absRoot.getAttributeInt(AbstractMetadata.subset_offset_x);
+            subsetOffsetY = absRoot.getAttributeInt(AbstractMetadata.subset_offset_y);
+
+            String[] selectedPols = selectedPolarisations;
+            if (selectedPols == null || selectedPols.length == 0) {
+                selectedPols = Sentinel1Utils.getProductPolarizations(absRoot);
+            }
+            selectedPolList = Arrays.asList(selectedPols);
+
+            // the thermal noise removal operator validates the noise annotation and provides the noise power
+            noiseOp = (Sentinel1RemoveThermalNoiseOp) new Sentinel1RemoveThermalNoiseOp.Spi().createOperator();
+            noiseOp.setSourceProduct(sourceProduct);
+            noiseOp.setParameter("selectedPolarisations", selectedPols);
+            noiseOp.getTargetProduct();
+
+            createTargetProduct();
+
+            final Sentinel1Calibrator.CalibrationInfo[] calibration = Sentinel1Calibrator.getCalibrationVectors(
+                    sourceProduct, selectedPolList, outputSigmaBand, outputBetaBand, outputGammaBand, false);
+            createTargetBandToCalInfoMap(calibration);
+
+            updateTargetProductMetadata();
+
+        } catch (Throwable e) {
+            OperatorUtils.catchOperatorException(getId(), e);
+        }
+    }
+
+    /**
+     * Create a target product for output.
+     */
+    private void createTargetProduct() {
+
+        targetProduct = new Product(sourceProduct.getName() + PRODUCT_SUFFIX,
+                sourceProduct.getProductType(),
+                sourceProduct.getSceneRasterWidth(),
+                sourceProduct.getSceneRasterHeight());
+
+        addSelectedBands();
+
+        ProductUtils.copyProductNodes(sourceProduct, targetProduct);
+    }
+
+    /**
+     * Add a sigma0, gamma0 and/or beta0 band for every selected source image.
+     */
+    private void addSelectedBands() {
+
+        final List<String> calPrefixes = new ArrayList<>(3);
+        if (outputSigmaBand) {
+            calPrefixes.add("Sigma0");
+        }
+        if (outputGammaBand) {
+            calPrefixes.add("Gamma0");
+        }
+        if (outputBetaBand) {
+            calPrefixes.add("Beta0");
+        }
+
+        final Band[] sourceBands = sourceProduct.getBands();
+        for (int i = 0; i < sourceBands.length; i++) {
+
+            final Band srcBand = sourceBands[i];
+            if (srcBand instanceof VirtualBand) {
+                continue;
+            }
+
+            final String unit = srcBand.getUnit();
+            if (unit == null) {
+                throw new OperatorException("band " + srcBand.getName() + " requires a unit");
+            }
+
+            if (!unit.contains(Unit.REAL) && !unit.contains(Unit.AMPLITUDE) && !unit.contains(Unit.INTENSITY)) {
+                continue;
+            }
+
+            String[] srcBandNames;
+            if (unit.contains(Unit.REAL)) { // SLC
+
+                if (i + 1 >= sourceBands.length) {
+                    throw new OperatorException("Real and imaginary bands are not in pairs");
+                }
+
+                final String nextUnit = sourceBands[i + 1].getUnit();
+                if (nextUnit == null || !nextUnit.contains(Unit.IMAGINARY)) {
+                    throw new OperatorException("Real and imaginary bands are not in pairs");
+                }
+
+                srcBandNames = new String[]{srcBand.getName(), sourceBands[i + 1].getName()};
+                ++i;
+
+            } else { // GRD
+
+                srcBandNames = new String[]{srcBand.getName()};
+            }
+
+            final String pol = srcBandNames[0].substring(srcBandNames[0].lastIndexOf("_") + 1);
+            if (!selectedPolList.contains(pol)) {
+                continue;
+            }
+
+            final String suffix = srcBandNames[0].substring(srcBandNames[0].indexOf('_'));
+            for (String prefix : calPrefixes) {
+                final String targetBandName = prefix + suffix;
+                if (targetProduct.getBand(targetBandName) != null) {
+                    continue;
+                }
+
+                targetBandNameToSourceBandName.put(targetBandName, srcBandNames);
+                targetBandNameToNoiseBandName.put(targetBandName, "Intensity" + suffix);
+
+                final Band targetBand = new Band(
+                        targetBandName,
+                        ProductData.TYPE_FLOAT32,
+                        srcBand.getRasterWidth(),
+                        srcBand.getRasterHeight());
+
+                targetBand.setUnit(Unit.INTENSITY);
+                targetBand.setDescription(srcBand.getDescription());
+                targetBand.setNoDataValue(srcBand.getNoDataValue());
+                targetBand.setNoDataValueUsed(true);
+                targetProduct.addBand(targetBand);
+            }
+        }
+
+        if (targetProduct.getNumBands() == 0) {
+            throw new OperatorException("No valid bands found for the selected polarisations");
+        }
+    }
+
+    /**
+     * Create a target band name to CalibrationInfo map.
+     */
+    private void createTargetBandToCalInfoMap(final Sentinel1Calibrator.CalibrationInfo[] calibration) {
+
+        for (String bandName : targetProduct.getBandNames()) {
+            for (Sentinel1Calibrator.CalibrationInfo cal : calibration) {
+                if (bandName.contains(cal.polarization) && (!isMultiSwath || bandName.contains(cal.subSwath))) {
+                    targetBandToCalInfo.put(bandName, cal);
+                }
+            }
+            if (!targetBandToCalInfo.containsKey(bandName)) {
+                throw new OperatorException("Calibration information not found for " + bandName);
+            }
+        }
+    }
+
+    /**
+     * Update target product metadata.
+     */
+    private void updateTargetProductMetadata() {
+
+        final MetadataElement absRoot = AbstractMetadata.getAbstractedMetadata(targetProduct);
+        absRoot.getAttribute(AbstractMetadata.abs_calibration_flag).getData().setElemBoolean(true);
+        absRoot.setAttributeString(AbstractMetadata.SAMPLE_TYPE, "DETECTED");
+
+        Sentinel1Utils.updateBandNames(absRoot, selectedPolList, targetProduct.getBandNames());
+
+        final MetadataElement[] bandMetadataList = AbstractMetadata.getBandAbsMetadataList(absRoot);
+        for (MetadataElement bandMeta : bandMetadataList) {
+            boolean polFound = false;
+            for (String pol : selectedPolList) {
+                if (bandMeta.getName().contains(pol)) {
+                    polFound = true;
+                    break;
+                }
+            }
+            if (!polFound) {
+                // remove band metadata if polarization is not included
+                absRoot.removeElement(bandMeta);
+            }
+        }
+
+        final MetadataElement origMetadataRoot = AbstractMetadata.getOriginalProductMetadata(targetProduct);
+        final MetadataElement annotationElem = origMetadataRoot.getElement("annotation");
+        for (MetadataElement elem : annotationElem.getElements()) {
+            final MetadataElement productElem = elem.getElement("product");
+            final MetadataElement imageAnnotationElem = productElem.getElement("imageAnnotation");
+            final MetadataElement processingInformationElem = imageAnnotationElem.getElement("processingInformation");
+            processingInformationElem.getAttribute("thermalNoiseCorrectionPerformed").getData().setElems("true");
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (noiseOp != null) {
+            noiseOp.dispose();
+            noiseOp = null;
+        }
+        super.dispose();
+    }
+
+    /**
+     * Called by the framework in order to compute a tile for the given target band.
+     * <p>The default implementation throws a runtime exception with the message "not implemented".</p>
+     *
+     * @param targetBand The target band.
+     * @param targetTile The current tile associated with the target band to be computed.
+     * @param pm         A progress monitor which should be used to determine computation cancelation requests.
+     * @throws OperatorException If an error occurs during computation of the target raster.
+     */
+    @Override
+    public void computeTile(Band targetBand, Tile targetTile, ProgressMonitor pm) throws OperatorException {
+
+        final Rectangle targetTileRectangle = targetTile.getRectangle();
+        final int x0 = targetTileRectangle.x;
+        final int y0 = targetTileRectangle.y;
+        final int w = targetTileRectangle.width;
+        final int h = targetTileRectangle.height;
+
+        try {
+            final String targetBandName = targetBand.getName();
+            final String[] srcBandNames = targetBandNameToSourceBandName.get(targetBandName);
+            final Band sourceBand1 = sourceProduct.getBand(srcBandNames[0]);
+            final Tile sourceRaster1 = getSourceTile(sourceBand1, targetTileRectangle);
+            final ProductData srcData1 = sourceRaster1.getDataBuffer();
+            ProductData srcData2 = null;
+            if (srcBandNames.length > 1) {
+                srcData2 = getSourceTile(sourceProduct.getBand(srcBandNames[1]), targetTileRectangle).getDataBuffer();
+            }
+
+            final double srcNoDataValue = sourceBand1.getNoDataValue();
+            final Unit.UnitType bandUnit = Unit.getUnitType(sourceBand1);
+            final boolean complexData = bandUnit == Unit.UnitType.REAL || bandUnit == Unit.UnitType.IMAGINARY;
+            if (!complexData && bandUnit != Unit.UnitType.AMPLITUDE && bandUnit != Unit.UnitType.INTENSITY) {
+                throw new OperatorException("Unhandled unit");
+            }
+
+            final double[][] noise = noiseOp.computeNoiseLUT(
+                    targetBandNameToNoiseBandName.get(targetBandName), targetTileRectangle);
+
+            final Sentinel1Calibrator.CalibrationInfo calInfo = targetBandToCalInfo.get(targetBandName);
+            final Sentinel1Calibrator.CALTYPE calType = Sentinel1Calibrator.getCalibrationType(targetBandName);
+            final Sentinel1LUTCache lutCache = noiseOp.getLUTCache();
+            final int lutWidth = subsetOffsetX + sourceProduct.getSceneRasterWidth();
+            final double[] calibrationFactors = new double[w];
+            final double trgFloorValue = Sentinel1RemoveThermalNoiseOp.trgFloorValue;
+
+            final ProductData tgtData = targetTile.getDataBuffer();
+            final TileIndex srcIndex = new TileIndex(sourceRaster1);
+            final TileIndex tgtIndex = new TileIndex(targetTile);
+            final int maxY = y0 + h;
+            final int maxX = x0 + w;
+
+            double dn, dn2, i, q;
+            int srcIdx;
+            for (int y = y0; y < maxY; ++y) {
+                srcIndex.calculateStride(y);
+                tgtIndex.calculateStride(y);
+                final double[] noiseLine = noise[y - y0];
+
+                Sentinel1Calibrator.computeCalibrationFactors(lutCache, calInfo, calType, lutWidth,
+                        subsetOffsetY + y, subsetOffsetX + x0, w, calibrationFactors);
+
+                for (int x = x0; x < maxX; ++x) {
+                    final int xx = x - x0;
+                    srcIdx = srcIndex.getIndex(x);
+                    if (complexData) {
+                        i = srcData1.getElemDoubleAt(srcIdx);
+                        q = srcData2.getElemDoubleAt(srcIdx);
+                        dn2 = i * i + q * q;
+                    } else if (bandUnit == Unit.UnitType.AMPLITUDE) {
+                        dn = srcData1.getElemDoubleAt(srcIdx);
+                        dn2 = dn * dn;
+                    } else {
+                        dn2 = srcData1.getElemDoubleAt(srcIdx);
+                    }
+
+                    if (dn2 == srcNoDataValue) {
+                        tgtData.setElemDoubleAt(tgtIndex.getIndex(x), srcNoDataValue);
+                        continue;
+                    }
+
+                    // thermal noise removal, floored as in Sentinel1RemoveThermalNoiseOp
+                    double value = dn2 - noiseLine[xx];
+                    if (value < 0) {
+                        value = trgFloorValue;
+                    }
+
+                    // calibration, keeping floored pixels above the floor as in Sentinel1Calibrator
+                    final double calibrationFactor = calibrationFactors[xx];
+                    double calValue = value * calibrationFactor;
+                    if (value == trgFloorValue) {
+                        while ((float) calValue < 0.00001) {
+                            value *= 2;
+                            calValue = value * calibrationFactor;
+                        }
+                    }
+
+                    tgtData.setElemDoubleAt(tgtIndex.getIndex(x), calValue);
+                }
+            }
+        } catch (Throwable e) {
+            OperatorUtils.catchOperatorException(getId(), e);
+        } finally {
+            pm.done();
+        }
+    }
+
+    /**
+     * The SPI is used to register this operator in the graph processing framework
+     * via the SPI configuration file
+     * {@code META-INF/services/org.esa.snap.core.gpf.OperatorSpi}.
+     * This class may also serve as a factory for new operator instances.
+     *
+     * @see OperatorSpi#createOperator()
+     * @see OperatorSpi#createOperator(java.util.Map, java.util.Map)
+     */
+    public static class Spi extends OperatorSpi {
+        public Spi() {
+            super(Sentinel1RadiometricOp.class);
+        }
+    }
+}
@@ -17,6 +17,8 @@ package eu.esa.sar.calibration.gpf;
 
 import com.bc.ceres.core.ProgressMonitor;
 import eu.esa.sar.calibration.gpf.calibrators.Sentinel1Calibrator;
+import eu.esa.sar.calibration.gpf.support.Sentinel1LUTCache;
+import eu.esa.sar.commons.CacheStatistics;
 import eu.esa.sar.commons.Sentinel1Utils;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.MetadataElement;
@@ -90,6 +92,8 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
     private int numOfSubSwath = 1;
     private int subsetOffsetX = 0;
     private int subsetOffsetY = 0;
+    private int lutWidth = 0;
+    private final Sentinel1LUTCache lutCache = new Sentinel1LUTCache();
     private ThermalNoiseInfo[] noise = null;
     private Sentinel1Calibrator.CalibrationInfo[] calibration = null;
     private List<String> selectedPolList = null;
@@ -186,6 +190,7 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
     private void getSubsetOffset() {
         subsetOffsetX = absRoot.getAttributeInt(AbstractMetadata.subset_offset_x);
         subsetOffsetY = absRoot.getAttributeInt(AbstractMetadata.subset_offset_y);
+        lutWidth = subsetOffsetX + sourceProduct.getSceneRasterWidth();
     }
 
     /**
@@ -554,6 +559,37 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
         return null;
     }
 
+    /**
+     * Compute the thermal noise power of a tile of an uncalibrated product, so that other operators can remove
+     * the noise as part of their own tile computation without materialising the noise removed intensity.
+     *
+     * @param targetBandName Name of the noise removed intensity band, e.g. Intensity_IW1_VV.
+     * @param rectangle      The tile rectangle in product coordinates.
+     * @return The noise power indexed by [y - rectangle.y][x - rectangle.x].
+     */
+    public double[][] computeNoiseLUT(final String targetBandName, final Rectangle rectangle) {
+
+        if (absoluteCalibrationPerformed) {
+            throw new OperatorException("Noise power is only available for uncalibrated products");
+        }
+
+        final int w = rectangle.width;
+        final int h = rectangle.height;
+        final int sx0 = subsetOffsetX + rectangle.x; // tile start x coordinate in original image
+        final int sy0 = subsetOffsetY + rectangle.y; // tile start y coordinate in original image
+
+        if (version >= 2.9 && !isSM) {
+            return populateNoiseAzimuthBlock(sx0, sy0, w, h, targetBandName);
+        }
+
+        final ThermalNoiseInfo noiseInfo = getNoiseInfo(targetBandName);
+        final double[][] noiseBlock = new double[h][w];
+        for (int yy = 0; yy < h; ++yy) {
+            computeTileNoiseLUT(sy0 + yy, sx0, w, noiseInfo, noiseBlock[yy]);
+        }
+        return noiseBlock;
+    }
+
     /**
      * Called by the framework in order to compute a tile for the given target band.
      * <p>The default implementation throws a runtime exception with the message "not implemented".</p>
@@ -648,21 +684,11 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
 
                 double[] lut = new double[w];
                 if (absoluteCalibrationPerformed) {
-                    final int calVecIdx = calInfo.getCalibrationVectorIndex(sy);
-                    final Sentinel1Utils.CalibrationVector vec0 = calInfo.getCalibrationVector(calVecIdx);
-                    final Sentinel1Utils.CalibrationVector vec1 = calInfo.getCalibrationVector(calVecIdx + 1);
-                    final float[] vec0LUT = Sentinel1Calibrator.getVector(calType, vec0);
-                    final float[] vec1LUT = Sentinel1Calibrator.getVector(calType, vec1);
-                    final Sentinel1Utils.CalibrationVector calVec = calInfo.calibrationVectorList[calVecIdx];
-                    final int pixelIdx0 = calVec.getPixelIndex(sx0);
-
                     if (version < 2.9 || isSM) {
                         final ThermalNoiseInfo noiseInfo = getNoiseInfo(targetBandName);
-                        computeTileScaledNoiseLUT(sy, sx0, w, noiseInfo, calInfo, vec0.timeMJD, vec1.timeMJD,
-                                vec0LUT, vec1LUT, vec0.pixels, pixelIdx0, lut);
+                        computeTileScaledNoiseLUT(sy, sx0, w, noiseInfo, calInfo, calType, lut);
                     } else {
-                        computeTileScaledNoiseLUT(sy, sx0, sy0, w, noiseBlock, calInfo, vec0.timeMJD, vec1.timeMJD,
-                                vec0LUT, vec1LUT, vec0.pixels, pixelIdx0, lut);
+                        computeTileScaledNoiseLUT(sy, sx0, sy0, w, noiseBlock, calInfo, calType, lut);
                     }
 
                 } else {
@@ -748,21 +774,11 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
 
                 double[] lut = new double[w];
                 if (absoluteCalibrationPerformed) {
-                    final int calVecIdx = calInfo.getCalibrationVectorIndex(sy);
-                    final Sentinel1Utils.CalibrationVector vec0 = calInfo.getCalibrationVector(calVecIdx);
-                    final Sentinel1Utils.CalibrationVector vec1 = calInfo.getCalibrationVector(calVecIdx + 1);
-                    final float[] vec0LUT = Sentinel1Calibrator.getVector(calType, vec0);
-                    final float[] vec1LUT = Sentinel1Calibrator.getVector(calType, vec1);
-                    final Sentinel1Utils.CalibrationVector calVec = calInfo.calibrationVectorList[calVecIdx];
-                    final int pixelIdx0 = calVec.getPixelIndex(sx0);
-
                     if (version < 2.9 || isSM) {
                         final ThermalNoiseInfo noiseInfo = getNoiseInfo(targetBandName);
-                        computeTileScaledNoiseLUT(sy, sx0, w, noiseInfo, calInfo, vec0.timeMJD, vec1.timeMJD,
-                                vec0LUT, vec1LUT, vec0.pixels, pixelIdx0, lut);
+                        computeTileScaledNoiseLUT(sy, sx0, w, noiseInfo, calInfo, calType, lut);
                     } else {
-                        computeTileScaledNoiseLUT(sy, sx0, sy0, w, noiseBlock, calInfo, vec0.timeMJD, vec1.timeMJD,
-                                vec0LUT, vec1LUT, vec0.pixels, pixelIdx0, lut);
+                        computeTileScaledNoiseLUT(sy, sx0, sy0, w, noiseBlock, calInfo, calType, lut);
                     }
 
                 } else {
@@ -839,29 +855,28 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
      * @param w         Tile width.
      * @param noiseInfo Object of ThermalNoiseInfo class.
      * @param calInfo   Object of CalibrationInfo class.
+     * @param calType   Calibration type of the input band.
      * @param lut       The scaled noise LUT.
      */
     private void computeTileScaledNoiseLUT(final int y, final int x0, final int w,
                                            final ThermalNoiseInfo noiseInfo,
                                            final Sentinel1Calibrator.CalibrationInfo calInfo,
-                                           final double azT0, final double azT1,
-                                           final float[] vec0LUT, final float[] vec1LUT,
-                                           final int[] vec0Pixels, final int pixelIdx0,
+                                           final Sentinel1Calibrator.CALTYPE calType,
                                            final double[] lut) {
 
         final double[] noiseLut = new double[w];
         computeTileNoiseLUT(y, x0, w, noiseInfo, noiseLut);
 
-        final double[] calLut = new double[w];
-        computeTileCalibrationLUTs(y, x0, w, calInfo, azT0, azT1, vec0LUT, vec1LUT, vec0Pixels, pixelIdx0, calLut);
+        final double[] calFactors = new double[w];
+        Sentinel1Calibrator.computeCalibrationFactors(lutCache, calInfo, calType, lutWidth, y, x0, w, calFactors);
 
         if (removeThermalNoise) {
             for (int i = 0; i < w; i++) {
-                lut[i] = noiseLut[i] / (calLut[i]*calLut[i]);
+                lut[i] = noiseLut[i] * calFactors[i];
             }
         } else { // reIntroduceThermalNoise
             for (int i = 0; i < w; i++) {
-                lut[i] = -noiseLut[i] / (calLut[i]*calLut[i]);
+                lut[i] = -noiseLut[i] * calFactors[i];
             }
         }
     }
@@ -869,58 +884,24 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
     private void computeTileScaledNoiseLUT(final int y, final int x0, final int y0, final int w,
                                            final double[][] noiseBlock,
                                            final Sentinel1Calibrator.CalibrationInfo calInfo,
-                                           final double azT0, final double azT1,
-                                           final float[] vec0LUT, final float[] vec1LUT,
-                                           final int[] vec0Pixels, final int pixelIdx0,
+                                           final Sentinel1Calibrator.CALTYPE calType,
                                            final double[] lut) {
 
-        final double[] calLut = new double[w];
-        computeTileCalibrationLUTs(y, x0, w, calInfo, azT0, azT1,
-                vec0LUT, vec1LUT, vec0Pixels, pixelIdx0, calLut);
+        final double[] calFactors = new double[w];
+        Sentinel1Calibrator.computeCalibrationFactors(lutCache, calInfo, calType, lutWidth, y, x0, w, calFactors);
 
         final int yy = y - y0;
         if (removeThermalNoise) {
             for (int i = 0; i < w; i++) {
-                lut[i] = noiseBlock[yy][i] / (calLut[i]*calLut[i]);
+                lut[i] = noiseBlock[yy][i] * calFactors[i];
             }
         } else { // reIntroduceThermalNoise
             for (int i = 0; i < w; i++) {
-                lut[i] = -noiseBlock[yy][i] / (calLut[i]*calLut[i]);
+                lut[i] = -noiseBlock[yy][i] * calFactors[i];
             }
         }
     }
 
-    /**
-     * Compute calibration LUTs for the given range line.
-     *
-     * @param y       Index of the given range line.
-     * @param x0      X coordinate of the upper left corner pixel of the given tile.
-     * @param w       Tile width.
-     * @param calInfo Object of CalibrationInfo class.
-     * @param lut     LUT for calibration.
-     */
-    private static void computeTileCalibrationLUTs(final int y, final int x0, final int w,
-                                                  final Sentinel1Calibrator.CalibrationInfo calInfo,
-                                                  final double azT0, final double azT1,
-                                                  final float[] vec0LUT, final float[] vec1LUT,
-                                                  final int[] vec0Pixels, int pixelIdx0,
-                                                  final double[] lut) {
-        final double azTime = calInfo.firstLineTime + y * calInfo.lineTimeInterval;
-        double muX, muY = (azTime - azT0) / (azT1 - azT0);
-
-        int pixelIdx = pixelIdx0;
-        final int maxX = x0 + w;
-        for (int x = x0; x < maxX; x++) {
-            if (x > vec0Pixels[pixelIdx + 1]) {
-                pixelIdx++;
-            }
-
-            muX = (double) (x - vec0Pixels[pixelIdx]) / (double) (vec0Pixels[pixelIdx + 1] - vec0Pixels[pixelIdx]);
-            lut[x - x0] = Maths.interpolationBiLinear(
-                    vec0LUT[pixelIdx], vec0LUT[pixelIdx + 1], vec1LUT[pixelIdx], vec1LUT[pixelIdx + 1], muX, muY);
-        }
-    }
-
     /**
      * Compute noise LUTs for the given range line.
      *
@@ -930,8 +911,8 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
      * @param noiseInfo Object of ThermalNoiseInfo class.
      * @param lut       The noise LUT.
      */
-    private static void computeTileNoiseLUT(final int y, final int x0, final int w,
-                                            final ThermalNoiseInfo noiseInfo, final double[] lut) {
+    private void computeTileNoiseLUT(final int y, final int x0, final int w,
+                                     final ThermalNoiseInfo noiseInfo, final double[] lut) {
         try {
             final double azTime = noiseInfo.firstLineTime + y * noiseInfo.lineTimeInterval;
             final int noiseVecIdx = getNoiseVectorIndex(azTime, noiseInfo);
@@ -942,39 +923,73 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
             final double azT1 = noiseVector1.timeMJD;
             final double muY = (azTime - azT0) / (azT1 - azT0);
 
-            int pixelIdx0 = getPixelIndex(x0, noiseVector0);
-            int pixelIdx1 = getPixelIndex(x0, noiseVector1);
-
-            final int maxLength0 = noiseVector0.pixels.length - 2;
-            final int maxLength1 = noiseVector1.pixels.length - 2;
-            final int maxX = x0 + w;
-            for (int x = x0; x < maxX; x++) {
-
-                if (x > noiseVector0.pixels[pixelIdx0 + 1] && pixelIdx0 < maxLength0) {
-                    pixelIdx0++;
-                }
-                final int x00 = noiseVector0.pixels[pixelIdx0];
-                final int x01 = noiseVector0.pixels[pixelIdx0 + 1];
-                final double muX0 = (double) (x - x00) / (double) (x01 - x00);
-                final double noise0 = Maths.interpolationLinear(
-                        noiseVector0.noiseLUT[pixelIdx0], noiseVector0.noiseLUT[pixelIdx0 + 1], muX0);
-
-                if (x > noiseVector1.pixels[pixelIdx1 + 1] && pixelIdx1 < maxLength1) {
-                    pixelIdx1++;
-                }
-                final int x10 = noiseVector1.pixels[pixelIdx1];
-                final int x11 = noiseVector1.pixels[pixelIdx1 + 1];
-                final double muX1 = (double) (x - x10) / (double) (x11 - x10);
-                final double noise1 = Maths.interpolationLinear(
-                        noiseVector1.noiseLUT[pixelIdx1], noiseVector1.noiseLUT[pixelIdx1 + 1], muX1);
-
-                lut[x - x0] = Maths.interpolationLinear(noise0, noise1, muY);
+            final double[] noiseLine0 = getNoiseLine(noiseInfo, noiseVecIdx);
+            final double[] noiseLine1 = getNoiseLine(noiseInfo, noiseVecIdx + 1);
+            for (int i = 0; i < w; i++) {
+                lut[i] = Maths.interpolationLinear(noiseLine0[x0 + i], noiseLine1[x0 + i], muY);
             }
         } catch (Throwable e) {
             OperatorUtils.catchOperatorException("computeTileNoiseLUT", e);
         }
     }
 
+    /**
+     * Get the range interpolation of a noise vector over the image width from the LUT cache.
+     *
+     * @param noiseInfo   Object of ThermalNoiseInfo class.
+     * @param noiseVecIdx Index of the noise vector in the list.
+     * @return The interpolated noise indexed by pixel in the original image.
+     */
+    private double[] getNoiseLine(final ThermalNoiseInfo noiseInfo, final int noiseVecIdx) {
+
+        final String key = "noise_" + noiseInfo.subSwath + '_' + noiseInfo.polarization + '_' + noiseVecIdx;
+        return lutCache.getLine(key, () -> {
+            final Sentinel1Utils.NoiseVector noiseVector = noiseInfo.noiseVectorList[noiseVecIdx];
+            final int maxLength = noiseVector.pixels.length - 2;
+            final double[] line = new double[lutWidth];
+
+            int pixelIdx = Math.max(getPixelIndex(0, noiseVector), 0);
+            for (int x = 0; x < lutWidth; x++) {
+                if (x > noiseVector.pixels[pixelIdx + 1] && pixelIdx < maxLength) {
+                    pixelIdx++;
+                }
+                final int x0 = noiseVector.pixels[pixelIdx];
+                final int x1 = noiseVector.pixels[pixelIdx + 1];
+                final double muX = (double) (x - x0) / (double) (x1 - x0);
+                line[x] = Maths.interpolationLinear(
+                        noiseVector.noiseLUT[pixelIdx], noiseVector.noiseLUT[pixelIdx + 1], muX);
+            }
+            return line;
+        });
+    }
+
+    /**
+     * Get the range interpolation of a noise range vector over the image width from the LUT cache.
+     *
+     * @param key              Identifies the noise range vector.
+     * @param noiseRangeVector The noise range vector.
+     * @return The interpolated noise indexed by pixel in the original image.
+     */
+    private double[] getNoiseRangeLine(final String key, final Sentinel1Utils.NoiseVector noiseRangeVector) {
+
+        return lutCache.getLine(key, () -> {
+            final double[] line = new double[lutWidth];
+            interpolNoiseRangeVector(noiseRangeVector, 0, lutWidth - 1, line);
+            return line;
+        });
+    }
+
+    /**
+     * @return statistics of the cached noise and calibration LUT lines of the product
+     */
+    public CacheStatistics getLUTCacheStats() {
+        return lutCache.getStats();
+    }
+
+    Sentinel1LUTCache getLUTCache() {
+        return lutCache;
+    }
+
     private static void computeTileNoiseLUT(final int yy, final int x0, final int w,
                                             final double[][] noiseBlock, final double[] lut) {
         try {
@@ -1087,8 +1102,8 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
 
         // create noise matrix for the tile
         double[][] noiseMatrix = new double[h][w];
-        populateNoiseMatrixForTOPSSLC(
-                noiseAzimuthVectors[0], noiseRangeVectors, numVectorsToSkip, linesPerBurst, x0, y0, w, h, noiseMatrix);
+        populateNoiseMatrixForTOPSSLC(noiseAzimuthVectors[0], noiseRangeVectors, numVectorsToSkip, linesPerBurst,
+                "range_" + targetBandSwath + '_' + targetBandPol, x0, y0, w, h, noiseMatrix);
 
         return noiseMatrix;
     }
@@ -1137,6 +1152,7 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
     private void populateNoiseMatrixForTOPSSLC(final Sentinel1Utils.NoiseAzimuthVector noiseAzimuthVector,
                                                final Sentinel1Utils.NoiseVector[] noiseRangeVectors,
                                                final int numVectorsToSkip, final int linesPerBurst,
+                                               final String rangeVectorKey,
                                                final int x0, final int y0, final int w, final int h,
                                                final double[][] noiseMatrix) {
 
@@ -1147,20 +1163,21 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
         interpolNoiseAzimuthVector(noiseAzimuthVector, y0, yMax, interpolatedAzimuthVector);
 
         int currentNoiseVectorLine = Integer.MAX_VALUE;
-        double[] interpolatedRangeVector = new double[w];
+        double[] interpolatedRangeVector = null;
 
         for (int y = y0; y <= yMax; ++y) {
             final int yy = y - y0;
             final int burstIdx = y / linesPerBurst;
-            final Sentinel1Utils.NoiseVector noiseRangeVector = noiseRangeVectors[burstIdx + numVectorsToSkip];
+            final int rangeVectorIdx = burstIdx + numVectorsToSkip;
+            final Sentinel1Utils.NoiseVector noiseRangeVector = noiseRangeVectors[rangeVectorIdx];
             if (noiseRangeVector.line != currentNoiseVectorLine) {
                 currentNoiseVectorLine = noiseRangeVector.line;
-                interpolNoiseRangeVector(noiseRangeVector, x0, xMax, interpolatedRangeVector);
+                interpolatedRangeVector = getNoiseRangeLine(rangeVectorKey + '_' + rangeVectorIdx, noiseRangeVector);
             }
 
              for (int x = x0; x <= xMax; ++x) {
                 final int xx = x - x0;
-                noiseMatrix[yy][xx] = interpolatedAzimuthVector[yy] * interpolatedRangeVector[xx];
+                noiseMatrix[yy][xx] = interpolatedAzimuthVector[yy] * interpolatedRangeVector[x];
             }
         }
     }
@@ -1250,14 +1267,15 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
 
         if (noiseRangeVecIndices != null && noiseRangeVecIndices.length > 0) {
 
-            final double[][] interpolatedRangeVectors = new double[noiseRangeVecIndices.length][nxMax - nx0 + 1];
+            // range interpolated over the image width, indexed by pixel
+            final double[][] interpolatedRangeVectors = new double[noiseRangeVecIndices.length][];
             final double[] noiseRangeVectorAzTime = new double[noiseRangeVecIndices.length];
             for (int j = 0; j < noiseRangeVecIndices.length; j++) {
 
                 noiseRangeVectorAzTime[j] = noiseRangeVectors[noiseRangeVecIndices[j]].timeMJD;
 
-                interpolNoiseRangeVector(
-                        noiseRangeVectors[noiseRangeVecIndices[j]], nx0, nxMax, interpolatedRangeVectors[j]);
+                interpolatedRangeVectors[j] = getNoiseRangeLine("range_" + pol + '_' + noiseRangeVecIndices[j],
+                        noiseRangeVectors[noiseRangeVecIndices[j]]);
             }
 
             final double[] interpolatedAzimuthVector = new double[nyMax - ny0 + 1];
@@ -1347,9 +1365,8 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
 
         if (noiseRangeVectorAzTime.length == 1) {
             for (int x = nx0; x <= nxMax; x++) {
-                final int xx = x - nx0;
                 for (int y = ny0; y <= nyMax; y++) {
-                    noiseMatrix[y - y0][x - x0] = interpolatedAzimuthVector[y - ny0] * interpolatedRangeVectors[0][xx];
+                    noiseMatrix[y - y0][x - x0] = interpolatedAzimuthVector[y - ny0] * interpolatedRangeVectors[0][x];
                 }
             }
 
@@ -1359,7 +1376,6 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
             final int line0Idx = getLineIndexByTime(time0, noiseRangeVectorAzTime);
 
             for (int x = nx0; x <= nxMax; x++) {
-                final int xx = x - nx0;
                 int lineIdx = line0Idx;
 
                 for (int y = ny0; y <= nyMax; y++) {
@@ -1370,7 +1386,7 @@ public final class Sentinel1RemoveThermalNoiseOp extends Operator {
 
                     noiseMatrix[y - y0][x - x0] = interpolatedAzimuthVector[y - ny0] *
                             interpolByTime(noiseRangeVectorAzTime[lineIdx], noiseRangeVectorAzTime[lineIdx + 1],
-                            interpolatedRangeVectors[lineIdx][xx], interpolatedRangeVectors[lineIdx + 1][xx], time);
+                            interpolatedRangeVectors[lineIdx][x], interpolatedRangeVectors[lineIdx + 1][x], time);
                 }
             }
         }
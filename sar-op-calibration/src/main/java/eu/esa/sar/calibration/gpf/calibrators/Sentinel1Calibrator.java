@@ -20,6 +20,8 @@ import org.apache.commons.math3.util.FastMath;
 import eu.esa.sar.calibration.gpf.Sentinel1RemoveThermalNoiseOp;
 import eu.esa.sar.calibration.gpf.support.BaseCalibrator;
 import eu.esa.sar.calibration.gpf.support.Calibrator;
+import eu.esa.sar.calibration.gpf.support.Sentinel1LUTCache;
+import eu.esa.sar.commons.CacheStatistics;
 import eu.esa.sar.commons.Sentinel1Utils;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.MetadataElement;
@@ -58,6 +60,8 @@ public final class Sentinel1Calibrator extends BaseCalibrator implements Calibra
     private CALTYPE dataType = null;
     private int subsetOffsetX = 0;
     private int subsetOffsetY = 0;
+    private int lutWidth = 0;
+    private final Sentinel1LUTCache lutCache = new Sentinel1LUTCache();
 
     public enum CALTYPE {SIGMA0, BETA0, GAMMA, DN}
 
@@ -156,6 +160,14 @@ public final class Sentinel1Calibrator extends BaseCalibrator implements Calibra
     private void getSubsetOffset() {
         subsetOffsetX = absRoot.getAttributeInt(AbstractMetadata.subset_offset_x);
         subsetOffsetY = absRoot.getAttributeInt(AbstractMetadata.subset_offset_y);
+        lutWidth = subsetOffsetX + sourceProduct.getSceneRasterWidth();
+    }
+
+    /**
+     * @return statistics of the cached calibration LUT lines of the product
+     */
+    public CacheStatistics getLUTCacheStats() {
+        return lutCache.getStats();
     }
 
     private void getVectors() throws IOException {
@@ -375,9 +387,10 @@ public final class Sentinel1Calibrator extends BaseCalibrator implements Calibra
             }
             final CALTYPE calType = getCalibrationType(targetBandName);
 
-            double dn = 0.0, i, q, muX, lutVal, retroLutVal = 1.0, calValue, calibrationFactor, phaseTerm = 0.0;
+            double dn = 0.0, i, q, lutVal, retroLutVal = 1.0, calValue, calibrationFactor, phaseTerm = 0.0;
             int srcIdx;
-            int pixelIdx = -1;
+            int lastCalVecIdx = -1;
+            double[] line0 = null, line1 = null, retroLine0 = null, retroLine1 = null;
 
             float trgFloorValue = Sentinel1RemoveThermalNoiseOp.trgFloorValue;
 
@@ -385,33 +398,29 @@ public final class Sentinel1Calibrator extends BaseCalibrator implements Calibra
                 srcIndex.calculateStride(y);
                 trgIndex.calculateStride(y);
 
+                // range interpolated vectors are shared by all tiles in the rows of the vector pair
                 final int calVecIdx = calInfo.getCalibrationVectorIndex(subsetOffsetY + y);
+                if (calVecIdx != lastCalVecIdx) {
+                    line0 = getCalibrationLine(lutCache, calInfo, calType, calVecIdx, 0, lutWidth);
+                    line1 = getCalibrationLine(lutCache, calInfo, calType, calVecIdx, 1, lutWidth);
+                    if (dataType != null) {
+                        retroLine0 = getCalibrationLine(lutCache, calInfo, dataType, calVecIdx, 0, lutWidth);
+                        retroLine1 = getCalibrationLine(lutCache, calInfo, dataType, calVecIdx, 1, lutWidth);
+                    }
+                    lastCalVecIdx = calVecIdx;
+                }
                 final Sentinel1Utils.CalibrationVector vec0 = calInfo.getCalibrationVector(calVecIdx);
                 final Sentinel1Utils.CalibrationVector vec1 = calInfo.getCalibrationVector(calVecIdx + 1);
-                final float[] vec0LUT = getVector(calType, vec0);
-                final float[] vec1LUT = getVector(calType, vec1);
-                float[] retroVec0LUT = null;
-                float[] retroVec1LUT = null;
-                if (dataType != null) {
-                    retroVec0LUT = getVector(dataType, vec0);
-                    retroVec1LUT = getVector(dataType, vec1);
-                }
                 final double azTime = calInfo.firstLineTime + (subsetOffsetY + y) * calInfo.lineTimeInterval;
                 final double muY = (azTime - vec0.timeMJD) / (vec1.timeMJD - vec0.timeMJD);
-                final int[] vec0Pixels = vec0.pixels;
-                final Sentinel1Utils.CalibrationVector calVec = calInfo.calibrationVectorList[calVecIdx];
 
                 for (int x = x0; x < maxX; ++x) {
                     srcIdx = srcIndex.getIndex(x);
 
                     dn = srcData1.getElemDoubleAt(srcIdx);
 
-                    pixelIdx = getPixelIndex(calVec, pixelIdx, subsetOffsetX + x);
-                    muX = (subsetOffsetX + x - vec0Pixels[pixelIdx]) /
-                            (double)(vec0Pixels[pixelIdx + 1] - vec0Pixels[pixelIdx]);
-
-                    lutVal = (1 - muY) * ((1 - muX) * vec0LUT[pixelIdx] + muX * vec0LUT[pixelIdx + 1]) +
-                            muY * ((1 - muX) * vec1LUT[pixelIdx] + muX * vec1LUT[pixelIdx + 1]);
+                    final int sx = subsetOffsetX + x;
+                    lutVal = (1 - muY) * line0[sx] + muY * line1[sx];
 
                     calibrationFactor = 1.0 / (lutVal*lutVal);
 
@@ -419,8 +428,7 @@ public final class Sentinel1Calibrator extends BaseCalibrator implements Calibra
                         dn *= dn;
                     } else if (isUnitIntensity) {
                         if (dataType != null) {
-                            retroLutVal = (1 - muY) * ((1 - muX) * retroVec0LUT[pixelIdx] + muX * retroVec0LUT[pixelIdx + 1]) +
-                                    muY * ((1 - muX) * retroVec1LUT[pixelIdx] + muX * retroVec1LUT[pixelIdx + 1]);
+                            retroLutVal = (1 - muY) * retroLine0[sx] + muY * retroLine1[sx];
                         }
                         calibrationFactor *= retroLutVal;
                     } else if (isUnitReal) {
@@ -466,6 +474,71 @@ public final class Sentinel1Calibrator extends BaseCalibrator implements Calibra
         }
     }
 
+    /**
+     * Get the range interpolation of a calibration vector over the image width. Like computeTile, both vectors
+     * of a line pair are interpolated at the pixel knots of the first one.
+     *
+     * @param lutCache  The LUT cache of the product.
+     * @param calInfo   The calibration information of the swath.
+     * @param calType   The calibration type.
+     * @param calVecIdx Index of the first calibration vector of the line pair.
+     * @param vecOffset 0 for the first and 1 for the second vector of the pair.
+     * @param width     Image width in the original image.
+     * @return The interpolated LUT indexed by pixel in the original image.
+     */
+    public static double[] getCalibrationLine(final Sentinel1LUTCache lutCache, final CalibrationInfo calInfo,
+                                              final CALTYPE calType, final int calVecIdx, final int vecOffset,
+                                              final int width) {
+
+        final String key = calInfo.subSwath + '_' + calInfo.polarization + '_' + calType + '_' +
+                calVecIdx + '_' + vecOffset + '_' + width;
+        return lutCache.getLine(key, () -> {
+            final Sentinel1Utils.CalibrationVector calVec = calInfo.getCalibrationVector(calVecIdx);
+            final float[] vecLUT = getVector(calType, calInfo.getCalibrationVector(calVecIdx + vecOffset));
+            final int[] pixels = calVec.pixels;
+            final double[] line = new double[width];
+
+            int pixelIdx = -1;
+            for (int x = 0; x < width; ++x) {
+                pixelIdx = getPixelIndex(calVec, pixelIdx, x);
+                final double muX = (x - pixels[pixelIdx]) / (double)(pixels[pixelIdx + 1] - pixels[pixelIdx]);
+                line[x] = (1 - muX) * vecLUT[pixelIdx] + muX * vecLUT[pixelIdx + 1];
+            }
+            return line;
+        });
+    }
+
+    /**
+     * Compute the calibration factors 1 / lut^2 for a segment of an image line from the cached range
+     * interpolated vectors, as computeTile does.
+     *
+     * @param lutCache The LUT cache of the product.
+     * @param calInfo  The calibration information of the swath.
+     * @param calType  The calibration type.
+     * @param width    Image width in the original image.
+     * @param y        Line index in the original image.
+     * @param x0       Index of the first pixel in the original image.
+     * @param w        Number of pixels.
+     * @param factors  The calibration factors.
+     */
+    public static void computeCalibrationFactors(final Sentinel1LUTCache lutCache, final CalibrationInfo calInfo,
+                                                 final CALTYPE calType, final int width,
+                                                 final int y, final int x0, final int w, final double[] factors) {
+
+        final int calVecIdx = calInfo.getCalibrationVectorIndex(y);
+        final Sentinel1Utils.CalibrationVector vec0 = calInfo.getCalibrationVector(calVecIdx);
+        final Sentinel1Utils.CalibrationVector vec1 = calInfo.getCalibrationVector(calVecIdx + 1);
+        final double azTime = calInfo.firstLineTime + y * calInfo.lineTimeInterval;
+        final double muY = (azTime - vec0.timeMJD) / (vec1.timeMJD - vec0.timeMJD);
+
+        final double[] line0 = getCalibrationLine(lutCache, calInfo, calType, calVecIdx, 0, width);
+        final double[] line1 = getCalibrationLine(lutCache, calInfo, calType, calVecIdx, 1, width);
+        for (int i = 0; i < w; ++i) {
+            final double lutVal = (1 - muY) * line0[x0 + i] + muY * line1[x0 + i];
+            factors[i] = 1.0 / (lutVal * lutVal);
+        }
+    }
+
     private static int getPixelIndex(final Sentinel1Utils.CalibrationVector calVec, final int lastIndex, final int x) {
         if(lastIndex >= 0 && lastIndex < calVec.pixels.length-1 && x >= calVec.pixels[lastIndex] && x < calVec.pixels[lastIndex+1]) {
             return lastIndex;
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.calibration.gpf.support;
+
+import eu.esa.sar.commons.CacheStatistics;
+import org.esa.snap.runtime.Config;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Range interpolated calibration and noise vectors of one product.
+ * <p>
+ * Sentinel-1 calibration and noise LUTs are separable: a value is the azimuth interpolation of two range vectors,
+ * each interpolated linearly between its pixel knots. A line caches the range interpolation of one vector over
+ * the full image width, so every tile in the rows of the vector reads it instead of searching the knots and
+ * interpolating for every pixel again. Lines are kept in a byte-bounded LRU store; an evicted line is computed
+ * again when it is asked for.
+ */
+public final class Sentinel1LUTCache {
+
+    private static final String PREF_CACHE_SIZE = "s1tbx.calibration.lutCacheSizeMB";
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, double[]> lines = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<double[]>> pending = new HashMap<>();
+    private long currentBytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Computes the line for a key when it is not cached.
+     */
+    public interface LineFactory {
+        double[] compute();
+    }
+
+    /**
+     * Create a cache bounded by the s1tbx.calibration.lutCacheSizeMB preference.
+     */
+    public Sentinel1LUTCache() {
+        this(Config.instance().preferences().getLong(PREF_CACHE_SIZE,
+                Runtime.getRuntime().maxMemory() / 64 / (1024 * 1024)) * 1024 * 1024);
+    }
+
+    /**
+     * @param maxBytes The memory cap of the cached lines in bytes.
+     */
+    public Sentinel1LUTCache(final long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Get a cached line or compute and cache it. A line is computed outside of the cache lock; threads asking
+     * for a line that is being computed wait for it, while other keys stay available.
+     *
+     * @param key     Identifies the vector, e.g. swath, polarisation, LUT type and vector index.
+     * @param factory Computes the line.
+     * @return The line; callers must not modify it.
+     */
+    public double[] getLine(final String key, final LineFactory factory) {
+        final CompletableFuture<double[]> pendingLine;
+        final CompletableFuture<double[]> newLine;
+        synchronized (this) {
+            final double[] line = lines.get(key);
+            if (line != null) {
+                hits++;
+                return line;
+            }
+            pendingLine = pending.get(key);
+            if (pendingLine != null) {
+                hits++;
+                newLine = null;
+            } else {
+                misses++;
+                newLine = new CompletableFuture<>();
+                pending.put(key, newLine);
+            }
+        }
+
+        if (newLine == null) {
+            try {
+                return pendingLine.join();
+            } catch (CompletionException e) {
+                // the thread computing the line has reported the failure, rethrow it here as well
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        final double[] line;
+        try {
+            line = factory.compute();
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                pending.remove(key);
+            }
+            newLine.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            pending.remove(key);
+            put(key, line);
+        }
+        newLine.complete(line);
+        return line;
+    }
+
+    // callers hold the cache lock
+    private void put(final String key, final double[] line) {
+        lines.put(key, line);
+        currentBytes += (long) line.length * Double.BYTES;
+
+        // the line just added is kept even if it alone exceeds the cap
+        final Iterator<Map.Entry<String, double[]>> it = lines.entrySet().iterator();
+        while (currentBytes > maxBytes && lines.size() > 1 && it.hasNext()) {
+            final double[] eldest = it.next().getValue();
+            it.remove();
+            currentBytes -= (long) eldest.length * Double.BYTES;
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        lines.clear();
+        currentBytes = 0;
+    }
+
+    /**
+     * @return hit/miss and memory statistics of the cache
+     */
+    public synchronized CacheStatistics getStats() {
+        return new CacheStatistics("Sentinel1LUTCache", lines.size(), hits, misses, evictions, currentBytes, maxBytes);
+    }
+}
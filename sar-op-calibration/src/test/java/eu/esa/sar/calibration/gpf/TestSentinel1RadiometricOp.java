@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.calibration.gpf;
+
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.commons.test.TestData;
+import org.esa.snap.core.datamodel.Band;
+import org.esa.snap.core.datamodel.Product;
+import org.esa.snap.core.gpf.GPF;
+import org.esa.snap.core.gpf.OperatorSpi;
+import org.esa.snap.core.gpf.OperatorSpiRegistry;
+import org.esa.snap.engine_utilities.util.TestUtils;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Unit test for the fused thermal noise removal and calibration operator.
+ */
+public class TestSentinel1RadiometricOp {
+
+    private final static File inputFile1 = TestData.inputS1_GRD;
+    private final static File inputFile2 = TestData.inputS1_StripmapSLC;
+
+    static {
+        TestUtils.initTestEnvironment();
+    }
+
+    @Test
+    public void testOperatorSpiRegistered() {
+        final OperatorSpiRegistry registry = GPF.getDefaultInstance().getOperatorSpiRegistry();
+        registry.loadOperatorSpis();
+
+        final OperatorSpi spi = registry.getOperatorSpi("S1-Radiometric-Calibration");
+        assertNotNull(spi);
+        assertEquals(Sentinel1RadiometricOp.class, spi.getOperatorClass());
+        assertNotNull(registry.getOperatorSpi("Remove-GRD-Border-Noise"));
+    }
+
+    @Test
+    public void testProcessingS1_GRD() throws Exception {
+        // If the file does not exist: the test will be ignored
+        assumeTrue(inputFile1 + "not found", inputFile1.exists());
+        compareWithChainedOperators(inputFile1, "VV");
+    }
+
+    @Test
+    public void testProcessingS1_StripmapSLC() throws Exception {
+        assumeTrue(inputFile2 + "not found", inputFile2.exists());
+        compareWithChainedOperators(inputFile2, "VV");
+    }
+
+    private static void compareWithChainedOperators(final File inputFile, final String pol) throws Exception {
+        try (final Product sourceProduct = TestUtils.readSourceProduct(inputFile)) {
+
+            final Sentinel1RadiometricOp fusedOp =
+                    (Sentinel1RadiometricOp) new Sentinel1RadiometricOp.Spi().createOperator();
+            fusedOp.setSourceProduct(sourceProduct);
+            fusedOp.setParameter("outputBetaBand", true);
+            final Product fusedProduct = fusedOp.getTargetProduct();
+            TestUtils.verifyProduct(fusedProduct, true, true, true);
+
+            final Sentinel1RemoveThermalNoiseOp noiseOp =
+                    (Sentinel1RemoveThermalNoiseOp) new Sentinel1RemoveThermalNoiseOp.Spi().createOperator();
+            noiseOp.setSourceProduct(sourceProduct);
+            final CalibrationOp calibrationOp = (CalibrationOp) new CalibrationOp.Spi().createOperator();
+            calibrationOp.setSourceProduct(noiseOp.getTargetProduct());
+            calibrationOp.setParameter("outputBetaBand", true);
+            final Product chainedProduct = calibrationOp.getTargetProduct();
+
+            final int w = 50, h = 20;
+            for (String bandName : new String[]{"Sigma0_" + pol, "Beta0_" + pol}) {
+                final Band fusedBand = fusedProduct.getBand(bandName);
+                final Band chainedBand = chainedProduct.getBand(bandName);
+                assertNotNull(fusedBand);
+                assertNotNull(chainedBand);
+
+                final float[] fusedValues = new float[w * h];
+                final float[] chainedValues = new float[w * h];
+                fusedBand.readPixels(0, 0, w, h, fusedValues, ProgressMonitor.NULL);
+                chainedBand.readPixels(0, 0, w, h, chainedValues, ProgressMonitor.NULL);
+
+                // the chained operators round the noise removed intensity to float
+                for (int i = 0; i < fusedValues.length; ++i) {
+                    assertEquals(chainedValues[i], fusedValues[i], 1e-5 * Math.abs(chainedValues[i]));
+                }
+            }
+        }
+    }
+}
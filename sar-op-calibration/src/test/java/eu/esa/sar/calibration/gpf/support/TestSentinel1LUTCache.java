@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.calibration.gpf.support;
+
+import eu.esa.sar.commons.CacheStatistics;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestSentinel1LUTCache {
+
+    private static double[] createLine(final int width, final double value) {
+        final double[] line = new double[width];
+        Arrays.fill(line, value);
+        return line;
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        final Sentinel1LUTCache cache = new Sentinel1LUTCache(1024 * 1024);
+        final double[] line = cache.getLine("a", () -> createLine(100, 1.0));
+        assertSame(line, cache.getLine("a", () -> createLine(100, 2.0)));
+        cache.getLine("b", () -> createLine(100, 3.0));
+
+        final CacheStatistics stats = cache.getStats();
+        assertEquals(2, stats.numEntries);
+        assertEquals(1, stats.hitCount);
+        assertEquals(2, stats.missCount);
+        assertEquals(0, stats.evictionCount);
+        assertEquals(200 * Double.BYTES, stats.currentBytes);
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        // room for two lines of 100 samples
+        final Sentinel1LUTCache cache = new Sentinel1LUTCache(200 * Double.BYTES);
+        cache.getLine("a", () -> createLine(100, 1.0));
+        cache.getLine("b", () -> createLine(100, 2.0));
+        cache.getLine("a", () -> createLine(100, 1.0));
+        cache.getLine("c", () -> createLine(100, 3.0));
+
+        final CacheStatistics stats = cache.getStats();
+        assertEquals(2, stats.numEntries);
+        assertEquals(1, stats.evictionCount);
+        assertEquals(200 * Double.BYTES, stats.currentBytes);
+
+        // b was evicted and is computed again
+        assertEquals(5.0, cache.getLine("b", () -> createLine(100, 5.0))[0], 0.0);
+        assertEquals(3.0, cache.getLine("c", () -> createLine(100, 6.0))[0], 0.0);
+    }
+
+    @Test
+    public void testKeepsLineLargerThanCap() {
+        final Sentinel1LUTCache cache = new Sentinel1LUTCache(10);
+        cache.getLine("a", () -> createLine(100, 1.0));
+        cache.getLine("b", () -> createLine(100, 2.0));
+
+        final CacheStatistics stats = cache.getStats();
+        assertEquals(1, stats.numEntries);
+        assertEquals(1, stats.evictionCount);
+        assertEquals(2.0, cache.getLine("b", () -> createLine(100, 3.0))[0], 0.0);
+    }
+
+    @Test
+    public void testComputesOutsideTheLock() throws Exception {
+        final Sentinel1LUTCache cache = new Sentinel1LUTCache(1024 * 1024);
+        final AtomicInteger numComputed = new AtomicInteger();
+        final CountDownLatch computing = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Sentinel1LUTCache.LineFactory slowFactory = () -> {
+                numComputed.incrementAndGet();
+                computing.countDown();
+                try {
+                    finish.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return createLine(100, 1.0);
+            };
+            final Future<double[]> slow = executor.submit(() -> cache.getLine("slow", slowFactory));
+            assertTrue(computing.await(10, TimeUnit.SECONDS));
+            final Future<double[]> waiting = executor.submit(() -> cache.getLine("slow", slowFactory));
+
+            // another key is computed while the slow line is still being computed
+            assertEquals(2.0, cache.getLine("fast", () -> createLine(100, 2.0))[0], 0.0);
+            assertFalse(slow.isDone());
+
+            finish.countDown();
+            assertSame(slow.get(10, TimeUnit.SECONDS), waiting.get(10, TimeUnit.SECONDS));
+            assertEquals(1, numComputed.get());
+            assertEquals(2, cache.getStats().numEntries);
+        } finally {
+            finish.countDown();
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,596 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.fex.gpf;
+
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.gpf.Tile;
+import org.esa.snap.core.util.ThreadExecutor;
+import org.esa.snap.core.util.ThreadRunnable;
+import org.esa.snap.engine_utilities.gpf.TileIndex;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Labels the 8-connected objects of a binary mask over a whole raster, independent of the tile size.
+ * <p>
+ * The raster is cut into a regular grid of tiles which are labeled in parallel with a two pass labeling into a
+ * compact int label buffer. Only the labels on the tile borders and the features of each label are kept. The labels
+ * touching across tile borders are then joined with a lock-free union-find, and the features of the joined labels
+ * are merged into one {@link Component} per object.
+ * <p>
+ * The labels of a tile are not stored; {@link #getComponentIndices} labels the tile again when the object of each
+ * pixel is needed, so the memory used depends on the number of objects rather than on the raster size.
+ */
+public class ConnectedComponentLabeler {
+
+    /**
+     * Provides the binary mask of a rectangle of the raster.
+     */
+    public interface MaskSource {
+        /**
+         * @param rect the rectangle
+         * @param mask true for the pixels belonging to an object, row by row (output)
+         */
+        void getMask(Rectangle rect, boolean[] mask);
+    }
+
+    /**
+     * Provides the sample values of a rectangle of the raster, summed per object.
+     */
+    public interface ValueSource {
+        /**
+         * @param rect   the rectangle
+         * @param values the sample values, row by row (output)
+         */
+        void getValues(Rectangle rect, double[] values);
+    }
+
+    private final int width;
+    private final int height;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final int numTilesX;
+    private final TileLabels[] tiles;
+
+    private AtomicIntegerArray parent = null;
+    private int[] labelToComponent = null;
+    private List<Component> components = null;
+
+    /**
+     * @param width      raster width
+     * @param height     raster height
+     * @param tileWidth  width of the labeling tiles
+     * @param tileHeight height of the labeling tiles
+     */
+    public ConnectedComponentLabeler(final int width, final int height, final int tileWidth, final int tileHeight) {
+        this.width = width;
+        this.height = height;
+        this.tileWidth = Math.max(1, Math.min(tileWidth, width));
+        this.tileHeight = Math.max(1, Math.min(tileHeight, height));
+        this.numTilesX = (width + this.tileWidth - 1) / this.tileWidth;
+        final int numTilesY = (height + this.tileHeight - 1) / this.tileHeight;
+
+        tiles = new TileLabels[numTilesX * numTilesY];
+        for (int ty = 0; ty < numTilesY; ++ty) {
+            for (int tx = 0; tx < numTilesX; ++tx) {
+                final int x0 = tx * this.tileWidth;
+                final int y0 = ty * this.tileHeight;
+                tiles[ty * numTilesX + tx] = new TileLabels(new Rectangle(x0, y0,
+                        Math.min(this.tileWidth, width - x0), Math.min(this.tileHeight, height - y0)));
+            }
+        }
+    }
+
+    /**
+     * Label the objects of the whole raster.
+     *
+     * @param maskSource  the binary mask
+     * @param valueSource the values to sum per object, may be null
+     * @return the objects, ordered by their first pixel in raster order
+     */
+    public synchronized List<Component> label(final MaskSource maskSource, final ValueSource valueSource)
+            throws Exception {
+
+        if (components != null) {
+            return components;
+        }
+
+        // label each tile on its own
+        ThreadExecutor executor = new ThreadExecutor();
+        for (final TileLabels tile : tiles) {
+            final ThreadRunnable worker = new ThreadRunnable() {
+                @Override
+                public void process() {
+                    tile.label(maskSource, valueSource);
+                }
+            };
+            executor.execute(worker);
+        }
+        executor.complete();
+
+        int numLabels = 0;
+        for (TileLabels tile : tiles) {
+            tile.base = numLabels;
+            numLabels += tile.numLabels;
+        }
+
+        parent = new AtomicIntegerArray(numLabels + 1);
+        for (int i = 0; i <= numLabels; ++i) {
+            parent.set(i, i);
+        }
+
+        // join the labels touching across the tile borders
+        executor = new ThreadExecutor();
+        for (final TileLabels tile : tiles) {
+            if (tile.numLabels == 0) {
+                continue;
+            }
+            final ThreadRunnable worker = new ThreadRunnable() {
+                @Override
+                public void process() {
+                    joinBorders(tile);
+                }
+            };
+            executor.execute(worker);
+        }
+        executor.complete();
+
+        components = mergeFeatures(numLabels);
+        return components;
+    }
+
+    /**
+     * @return the objects found by {@link #label}
+     */
+    public List<Component> getComponents() {
+        return components;
+    }
+
+    /**
+     * Find the object of each pixel of a rectangle. {@link #label} must have been called before.
+     *
+     * @param rect       the rectangle
+     * @param maskSource the binary mask given to {@link #label}
+     * @param indices    the index of the object of each pixel in the list of components or -1, row by row (output)
+     */
+    public void getComponentIndices(final Rectangle rect, final MaskSource maskSource, final int[] indices) {
+        if (components == null) {
+            throw new IllegalStateException("labeling not performed");
+        }
+
+        final int tx0 = rect.x / tileWidth;
+        final int tx1 = (rect.x + rect.width - 1) / tileWidth;
+        final int ty0 = rect.y / tileHeight;
+        final int ty1 = (rect.y + rect.height - 1) / tileHeight;
+        for (int ty = ty0; ty <= ty1; ++ty) {
+            for (int tx = tx0; tx <= tx1; ++tx) {
+                getComponentIndices(tiles[ty * numTilesX + tx], rect, maskSource, indices);
+            }
+        }
+    }
+
+    private void getComponentIndices(final TileLabels tile, final Rectangle rect, final MaskSource maskSource,
+                                     final int[] indices) {
+        final Rectangle r = tile.rect;
+        final Rectangle overlap = r.intersection(rect);
+
+        final int[] labels = new int[r.width * r.height];
+        if (tile.numLabels > 0) {
+            final boolean[] mask = new boolean[r.width * r.height];
+            maskSource.getMask(r, mask);
+            labelTile(mask, r.width, r.height, labels);
+        }
+
+        for (int y = overlap.y; y < overlap.y + overlap.height; ++y) {
+            final int srcOffset = (y - r.y) * r.width - r.x;
+            final int trgOffset = (y - rect.y) * rect.width - rect.x;
+            for (int x = overlap.x; x < overlap.x + overlap.width; ++x) {
+                final int l = labels[srcOffset + x];
+                indices[trgOffset + x] = l == 0 ? -1 : labelToComponent[tile.base + l];
+            }
+        }
+    }
+
+    /**
+     * Fill a mask with the pixels of a bit mask tile that are set to 1.
+     */
+    public static void getBitMask(final Tile tile, final Rectangle rect, final boolean[] mask) {
+        final ProductData data = tile.getDataBuffer();
+        final TileIndex index = new TileIndex(tile);
+        int k = 0;
+        for (int y = rect.y; y < rect.y + rect.height; ++y) {
+            index.calculateStride(y);
+            for (int x = rect.x; x < rect.x + rect.width; ++x) {
+                mask[k++] = data.getElemIntAt(index.getIndex(x)) == 1;
+            }
+        }
+    }
+
+    /**
+     * Two pass labeling of the 8-connected objects of a mask.
+     *
+     * @param mask   the mask, row by row
+     * @param w      width of the mask
+     * @param h      height of the mask
+     * @param labels the labels 1..n numbered in raster order of the first pixel, 0 for the background (output)
+     * @return the number of labels n
+     */
+    static int labelTile(final boolean[] mask, final int w, final int h, final int[] labels) {
+
+        // provisional labels with their equivalences
+        int[] equiv = new int[Math.max(16, w + 1)];
+        int next = 1;
+        for (int y = 0; y < h; ++y) {
+            final int row = y * w;
+            for (int x = 0; x < w; ++x) {
+                final int i = row + x;
+                if (!mask[i]) {
+                    labels[i] = 0;
+                    continue;
+                }
+
+                int l = x > 0 ? labels[i - 1] : 0;
+                if (y > 0) {
+                    final int up = i - w;
+                    if (x > 0) {
+                        l = join(equiv, l, labels[up - 1]);
+                    }
+                    l = join(equiv, l, labels[up]);
+                    if (x < w - 1) {
+                        l = join(equiv, l, labels[up + 1]);
+                    }
+                }
+                if (l == 0) {
+                    if (next == equiv.length) {
+                        final int[] grown = new int[equiv.length * 2];
+                        System.arraycopy(equiv, 0, grown, 0, next);
+                        equiv = grown;
+                    }
+                    l = next++;
+                    equiv[l] = l;
+                }
+                labels[i] = l;
+            }
+        }
+
+        // final labels in raster order
+        final int[] remap = new int[next];
+        int n = 0;
+        final int size = w * h;
+        for (int i = 0; i < size; ++i) {
+            final int l = labels[i];
+            if (l != 0) {
+                final int root = find(equiv, l);
+                if (remap[root] == 0) {
+                    remap[root] = ++n;
+                }
+                labels[i] = remap[root];
+            }
+        }
+        return n;
+    }
+
+    private static int join(final int[] equiv, final int a, final int b) {
+        if (b == 0) {
+            return a;
+        }
+        if (a == 0 || a == b) {
+            return b;
+        }
+        final int ra = find(equiv, a);
+        final int rb = find(equiv, b);
+        if (ra < rb) {
+            equiv[rb] = ra;
+            return ra;
+        }
+        equiv[ra] = rb;
+        return rb;
+    }
+
+    private static int find(final int[] equiv, int l) {
+        while (equiv[l] != l) {
+            equiv[l] = equiv[equiv[l]];
+            l = equiv[l];
+        }
+        return l;
+    }
+
+    private int findRoot(int l) {
+        while (true) {
+            final int p = parent.get(l);
+            if (p == l) {
+                return l;
+            }
+            final int gp = parent.get(p);
+            if (gp != p) {
+                // path halving, gp is an ancestor of l whatever other threads do
+                parent.compareAndSet(l, p, gp);
+            }
+            l = gp;
+        }
+    }
+
+    private void union(int a, int b) {
+        while (true) {
+            a = findRoot(a);
+            b = findRoot(b);
+            if (a == b) {
+                return;
+            }
+            // always link the larger root to the smaller one so no cycles can form
+            if (a < b) {
+                final int tmp = a;
+                a = b;
+                b = tmp;
+            }
+            if (parent.compareAndSet(a, a, b)) {
+                return;
+            }
+        }
+    }
+
+    private TileLabels getTile(final int x, final int y) {
+        return tiles[(y / tileHeight) * numTilesX + (x / tileWidth)];
+    }
+
+    private void joinBorders(final TileLabels tile) {
+        final Rectangle r = tile.rect;
+
+        // right border against the left column of the next tiles, including the diagonals
+        final int xRight = r.x + r.width;
+        if (xRight < width) {
+            for (int i = 0; i < r.height; ++i) {
+                final int a = tile.right[i];
+                if (a == 0) {
+                    continue;
+                }
+                for (int y = Math.max(r.y + i - 1, 0); y <= Math.min(r.y + i + 1, height - 1); ++y) {
+                    final TileLabels other = getTile(xRight, y);
+                    final int b = other.left[y - other.rect.y];
+                    if (b != 0) {
+                        union(tile.base + a, other.base + b);
+                    }
+                }
+            }
+        }
+
+        // bottom border against the top row of the tiles below, including the diagonals
+        final int yBottom = r.y + r.height;
+        if (yBottom < height) {
+            for (int i = 0; i < r.width; ++i) {
+                final int a = tile.bottom[i];
+                if (a == 0) {
+                    continue;
+                }
+                for (int x = Math.max(r.x + i - 1, 0); x <= Math.min(r.x + i + 1, width - 1); ++x) {
+                    final TileLabels other = getTile(x, yBottom);
+                    final int b = other.top[x - other.rect.x];
+                    if (b != 0) {
+                        union(tile.base + a, other.base + b);
+                    }
+                }
+            }
+        }
+    }
+
+    private List<Component> mergeFeatures(final int numLabels) {
+        labelToComponent = new int[numLabels + 1];
+        final List<Component> list = new ArrayList<>();
+
+        // roots are the smallest labels of their objects so they are met before the other labels
+        for (int g = 1; g <= numLabels; ++g) {
+            final int root = findRoot(g);
+            if (root == g) {
+                labelToComponent[g] = list.size();
+                list.add(new Component());
+            } else {
+                labelToComponent[g] = labelToComponent[root];
+            }
+        }
+
+        for (TileLabels tile : tiles) {
+            for (int l = 1; l <= tile.numLabels; ++l) {
+                list.get(labelToComponent[tile.base + l]).add(tile, l, width);
+            }
+            tile.releaseFeatures();
+        }
+        parent = null;
+
+        final Integer[] order = new Integer[list.size()];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> list.get(i).firstPixel));
+
+        final int[] newIndex = new int[order.length];
+        final List<Component> sorted = new ArrayList<>(order.length);
+        for (int i = 0; i < order.length; ++i) {
+            newIndex[order[i]] = i;
+            final Component c = list.get(order[i]);
+            c.index = i;
+            sorted.add(c);
+        }
+        for (int g = 1; g <= numLabels; ++g) {
+            labelToComponent[g] = newIndex[labelToComponent[g]];
+        }
+        return sorted;
+    }
+
+    /**
+     * Labels of one tile of the grid: the borders and the features of each label.
+     */
+    private static final class TileLabels {
+        final Rectangle rect;
+        int numLabels = 0;
+        int base = 0;
+
+        int[] top, bottom, left, right;
+
+        long[] area;
+        int[] xMin, xMax, yMin, yMax;
+        long[] firstPixel;
+        double[] valueSum;
+
+        TileLabels(final Rectangle rect) {
+            this.rect = rect;
+        }
+
+        void label(final MaskSource maskSource, final ValueSource valueSource) {
+            final int w = rect.width;
+            final int h = rect.height;
+            final boolean[] mask = new boolean[w * h];
+            maskSource.getMask(rect, mask);
+
+            final int[] labels = new int[w * h];
+            numLabels = labelTile(mask, w, h, labels);
+            if (numLabels == 0) {
+                top = bottom = left = right = new int[Math.max(w, h)];
+                return;
+            }
+
+            top = new int[w];
+            bottom = new int[w];
+            System.arraycopy(labels, 0, top, 0, w);
+            System.arraycopy(labels, (h - 1) * w, bottom, 0, w);
+            left = new int[h];
+            right = new int[h];
+            for (int y = 0; y < h; ++y) {
+                left[y] = labels[y * w];
+                right[y] = labels[y * w + w - 1];
+            }
+
+            double[] values = null;
+            if (valueSource != null) {
+                values = new double[w * h];
+                valueSource.getValues(rect, values);
+                valueSum = new double[numLabels + 1];
+            }
+
+            area = new long[numLabels + 1];
+            xMin = new int[numLabels + 1];
+            xMax = new int[numLabels + 1];
+            yMin = new int[numLabels + 1];
+            yMax = new int[numLabels + 1];
+            firstPixel = new long[numLabels + 1];
+            Arrays.fill(xMin, Integer.MAX_VALUE);
+            Arrays.fill(yMin, Integer.MAX_VALUE);
+            Arrays.fill(xMax, Integer.MIN_VALUE);
+            Arrays.fill(yMax, Integer.MIN_VALUE);
+
+            for (int y = 0; y < h; ++y) {
+                for (int x = 0; x < w; ++x) {
+                    final int i = y * w + x;
+                    final int l = labels[i];
+                    if (l == 0) {
+                        continue;
+                    }
+                    final int gx = rect.x + x;
+                    final int gy = rect.y + y;
+                    if (area[l]++ == 0) {
+                        // labels are numbered in raster order so this is the first pixel of l
+                        firstPixel[l] = i;
+                    }
+                    if (gx < xMin[l]) xMin[l] = gx;
+                    if (gx > xMax[l]) xMax[l] = gx;
+                    if (gy < yMin[l]) yMin[l] = gy;
+                    if (gy > yMax[l]) yMax[l] = gy;
+                    if (values != null) {
+                        valueSum[l] += values[i];
+                    }
+                }
+            }
+        }
+
+        void releaseFeatures() {
+            area = null;
+            xMin = xMax = yMin = yMax = null;
+            firstPixel = null;
+            valueSum = null;
+        }
+    }
+
+    /**
+     * Features of one object.
+     */
+    public static final class Component {
+        private int index;
+        private long area = 0;
+        private int xMin = Integer.MAX_VALUE;
+        private int xMax = Integer.MIN_VALUE;
+        private int yMin = Integer.MAX_VALUE;
+        private int yMax = Integer.MIN_VALUE;
+        private double valueSum = 0.0;
+        private long firstPixel = Long.MAX_VALUE;
+
+        private void add(final TileLabels tile, final int l, final int rasterWidth) {
+            area += tile.area[l];
+            xMin = Math.min(xMin, tile.xMin[l]);
+            xMax = Math.max(xMax, tile.xMax[l]);
+            yMin = Math.min(yMin, tile.yMin[l]);
+            yMax = Math.max(yMax, tile.yMax[l]);
+            if (tile.valueSum != null) {
+                valueSum += tile.valueSum[l];
+            }
+            final int i = (int) tile.firstPixel[l];
+            final long first = (long) (tile.rect.y + i / tile.rect.width) * rasterWidth + tile.rect.x + i % tile.rect.width;
+            if (first < firstPixel) {
+                firstPixel = first;
+            }
+        }
+
+        /**
+         * @return the position of the object in the list of components
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return the number of pixels
+         */
+        public long getArea() {
+            return area;
+        }
+
+        public int getXMin() {
+            return xMin;
+        }
+
+        public int getXMax() {
+            return xMax;
+        }
+
+        public int getYMin() {
+            return yMin;
+        }
+
+        public int getYMax() {
+            return yMax;
+        }
+
+        /**
+         * @return the sum of the values of the pixels, 0 if no value source was given
+         */
+        public double getValueSum() {
+            return valueSum;
+        }
+    }
+}
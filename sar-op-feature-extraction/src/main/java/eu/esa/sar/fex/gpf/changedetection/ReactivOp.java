@@ -16,6 +16,7 @@
 package eu.esa.sar.fex.gpf.changedetection;
 
 import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.commons.TileStatisticsPass;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.dataop.downloadable.StatusProgressMonitor;
 import org.esa.snap.core.gpf.Operator;
@@ -27,8 +28,6 @@ import org.esa.snap.core.gpf.annotations.Parameter;
 import org.esa.snap.core.gpf.annotations.SourceProduct;
 import org.esa.snap.core.gpf.annotations.TargetProduct;
 import org.esa.snap.core.util.ProductUtils;
-import org.esa.snap.core.util.ThreadExecutor;
-import org.esa.snap.core.util.ThreadRunnable;
 import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
 import org.esa.snap.engine_utilities.datamodel.Unit;
 import org.esa.snap.engine_utilities.gpf.*;
@@ -438,92 +437,15 @@ public class ReactivOp extends Operator {
         final Rectangle[] tileRectangles = OperatorUtils.getAllTileRectangles(sourceProduct, tileSize, 0);
         final StatusProgressMonitor status = new StatusProgressMonitor(StatusProgressMonitor.TYPE.SUBTASK);
         status.beginTask("Computing Value normalization threshold... ", tileRectangles.length);
-        final ThreadExecutor executor = new ThreadExecutor();
 
-        double[] sumSum2 = new double[2];
+        final double[] sumSum2 = new double[2];
         try {
-            for (final Rectangle rectangle : tileRectangles) {
-                final ThreadRunnable worker = new ThreadRunnable() {
-                    @Override
-                    public void process() {
-                        final int x0 = rectangle.x;
-                        final int y0 = rectangle.y;
-                        final int w = rectangle.width;
-                        final int h = rectangle.height;
-                        final int maxX = x0 + w;
-                        final int maxY = y0 + h;
-
-                        final double[][] sumMax = new double[h][w];
-                        final double[][] max = new double[h][w];
-                        for (String date : prodAcqDateArray) {
-
-                            final HashMap<String, ProductData> dataBuffersPol = new HashMap<>();
-                            final HashMap<String, Double> noDataValuePol = new HashMap<>();
-                            TileIndex srcIndex = null;
-                            for (String pol : selectedPolarisations) {
-                                final Band band = getBand(date, pol);
-                                if (band == null) {
-                                    dataBuffersPol.put(pol, null);
-                                    noDataValuePol.put(pol, null);
-                                } else {
-                                    final Tile tile = getSourceTile(band, rectangle);
-                                    dataBuffersPol.put(pol, tile.getDataBuffer());
-                                    noDataValuePol.put(pol, band.getNoDataValue());
-                                    if (srcIndex == null) {
-                                        srcIndex = new TileIndex(tile);
-                                    }
-                                }
-                            }
-
-                            if (srcIndex == null) {
-                                throw new OperatorException("No polarization found for source band containing date: " + date);
-                            }
-
-                            for (int y = y0; y < maxY; ++y) {
-                                srcIndex.calculateStride(y);
-                                final int yy = y - y0;
-
-                                for (int x = x0; x < maxX; ++x) {
-                                    final int srcIdx = srcIndex.getIndex(x);
-                                    final int xx = x - x0;
-
-                                    final double vMax = getMaxValue(srcIdx, dataBuffersPol, noDataValuePol);
-                                    if (vMax == -9999) {
-                                        sumMax[yy][xx] = -1.0;
-                                        continue;
-                                    }
-
-                                    sumMax[yy][xx] += vMax;
-                                    if (max[yy][xx] < vMax) {
-                                        max[yy][xx] = vMax;
-                                    }
-                                }
-                            }
-                        }
+            final TileStatisticsPass<double[]> pass = new TileStatisticsPass<>(tileRectangles, this::computeValues);
+            final TileStatisticsPass.Result<ValueSums> sums = pass.add(ValueSums::new);
+            pass.setCancellationCheck(this::checkForCancellation).setProgressMonitor(status).run();
 
-                        for (int y = y0; y < maxY; ++y) {
-                            final int yy = y - y0;
-                            for (int x = x0; x < maxX; ++x) {
-                                final int xx = x - x0;
-                                if (sumMax[yy][xx] == -1.0) {
-                                    continue;
-                                }
-
-                                final double meanOfMax = sumMax[yy][xx] / numOfProducts;
-                                final double value = 0.4 * (max[yy][xx] + meanOfMax);
-                                final double value2 = value * value;
-                                synchronized (sumSum2) {
-                                    sumSum2[0] += value;
-                                    sumSum2[1] += value2;
-                                }
-                            }
-                        }
-                    }
-                };
-                executor.execute(worker);
-                status.worked(1);
-            }
-            executor.complete();
+            sumSum2[0] = sums.get().sum;
+            sumSum2[1] = sums.get().sum2;
         } catch (Throwable e) {
             OperatorUtils.catchOperatorException(getId() + " computeThreshold ", e);
         } finally {
@@ -537,6 +459,104 @@ public class ReactivOp extends Operator {
         thresholdComputed = true;
     }
 
+    /**
+     * Compute the un-normalized Value of each pixel of a tile, NaN where there is no data.
+     */
+    private double[] computeValues(final Rectangle rectangle) {
+        final int x0 = rectangle.x;
+        final int y0 = rectangle.y;
+        final int w = rectangle.width;
+        final int h = rectangle.height;
+        final int maxX = x0 + w;
+        final int maxY = y0 + h;
+
+        final double[][] sumMax = new double[h][w];
+        final double[][] max = new double[h][w];
+        for (String date : prodAcqDateArray) {
+
+            final HashMap<String, ProductData> dataBuffersPol = new HashMap<>();
+            final HashMap<String, Double> noDataValuePol = new HashMap<>();
+            TileIndex srcIndex = null;
+            for (String pol : selectedPolarisations) {
+                final Band band = getBand(date, pol);
+                if (band == null) {
+                    dataBuffersPol.put(pol, null);
+                    noDataValuePol.put(pol, null);
+                } else {
+                    final Tile tile = getSourceTile(band, rectangle);
+                    dataBuffersPol.put(pol, tile.getDataBuffer());
+                    noDataValuePol.put(pol, band.getNoDataValue());
+                    if (srcIndex == null) {
+                        srcIndex = new TileIndex(tile);
+                    }
+                }
+            }
+
+            if (srcIndex == null) {
+                throw new OperatorException("No polarization found for source band containing date: " + date);
+            }
+
+            for (int y = y0; y < maxY; ++y) {
+                srcIndex.calculateStride(y);
+                final int yy = y - y0;
+
+                for (int x = x0; x < maxX; ++x) {
+                    final int srcIdx = srcIndex.getIndex(x);
+                    final int xx = x - x0;
+
+                    final double vMax = getMaxValue(srcIdx, dataBuffersPol, noDataValuePol);
+                    if (vMax == -9999) {
+                        sumMax[yy][xx] = -1.0;
+                        continue;
+                    }
+
+                    sumMax[yy][xx] += vMax;
+                    if (max[yy][xx] < vMax) {
+                        max[yy][xx] = vMax;
+                    }
+                }
+            }
+        }
+
+        final double[] values = new double[w * h];
+        for (int yy = 0; yy < h; ++yy) {
+            for (int xx = 0; xx < w; ++xx) {
+                if (sumMax[yy][xx] == -1.0) {
+                    values[yy * w + xx] = Double.NaN;
+                    continue;
+                }
+
+                final double meanOfMax = sumMax[yy][xx] / numOfProducts;
+                values[yy * w + xx] = 0.4 * (max[yy][xx] + meanOfMax);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Sum and sum of squares of the Values of the tiles processed by one worker.
+     */
+    private static final class ValueSums implements TileStatisticsPass.Accumulator<double[], ValueSums> {
+        double sum = 0.0;
+        double sum2 = 0.0;
+
+        @Override
+        public void accumulate(final Rectangle rectangle, final double[] values) {
+            for (double value : values) {
+                if (!Double.isNaN(value)) {
+                    sum += value;
+                    sum2 += value * value;
+                }
+            }
+        }
+
+        @Override
+        public void merge(final ValueSums other) {
+            sum += other.sum;
+            sum2 += other.sum2;
+        }
+    }
+
     private double getMaxValue(final int srcIdx, final HashMap<String, ProductData> dataBuffersPol,
                                final HashMap<String, Double> noDataValuePol) {
 
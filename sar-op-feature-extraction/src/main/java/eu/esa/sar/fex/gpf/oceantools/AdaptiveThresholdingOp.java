@@ -312,6 +312,8 @@ public class AdaptiveThresholdingOp extends Operator {
             final float[] data = sourceTile.getDataBufferFloat();
 
             final double noDataValue = sourceBand.getNoDataValue();
+            final CFARIntegralImage integralImage = new CFARIntegralImage(data, w, h, noDataValue);
+            final double[] stats = new double[3];
 
             double backgroundThreshold = 0;
             if (estimateBackground) {
@@ -325,7 +327,7 @@ public class AdaptiveThresholdingOp extends Operator {
                 trgIndex.calculateStride(ty);
                 for (int tx = tx0; tx < maxx; tx++) {
                     //System.out.println("ty = " + ty + " tx = " + tx);
-                    final double targetMean = computeTargetMean(tx, ty, data, x0, y0, w, h, noDataValue);
+                    final double targetMean = computeTargetMean(tx, ty, data, integralImage, x0, y0, noDataValue);
                     if (noDataValue == targetMean) {
                         trgData.setElemIntAt(trgIndex.getIndex(tx), 0);
                         continue;
@@ -336,15 +338,7 @@ public class AdaptiveThresholdingOp extends Operator {
                             trgData.setElemIntAt(trgIndex.getIndex(tx), 0);
                             continue;
                         }
-                        backgroundThreshold = computeBackgroundThreshold(tx, ty, data, x0, y0, w, h, noDataValue);
-
-                        // DEBUG...
-                        /*
-                        double oldT = computeBackgroundThreshold(tx, ty, data, x0, y0, w, h, noDataValue);
-                        System.out.println("DEBUG: tx = " + tx + " ty = " + ty + ": backgroundThreshold = " + backgroundThreshold
-                                + " oldT = " + oldT + " targetMean = " + targetMean);
-                        */
-                        // ...DEBUG
+                        backgroundThreshold = computeBackgroundThreshold(tx, ty, integralImage, x0, y0, stats);
                     }
                     if (targetMean > backgroundThreshold) {
                         trgData.setElemIntAt(trgIndex.getIndex(tx), 1);
@@ -364,17 +358,22 @@ public class AdaptiveThresholdingOp extends Operator {
     /**
      * Compute the mean value for pixels in the target window.
      *
-     * @param tx          The x coordinate of the central point of the target window.
-     * @param ty          The y coordinate of the central point of the target window.
-     * @param data        The source tile data array.
-     * @param noDataValue
+     * @param tx            The x coordinate of the central point of the target window.
+     * @param ty            The y coordinate of the central point of the target window.
+     * @param data          The source tile data array.
+     * @param integralImage The summed area tables of the source tile.
+     * @param xx0           The x coordinate of the top left pixel of the source tile.
+     * @param yy0           The y coordinate of the top left pixel of the source tile.
+     * @param noDataValue   Value representing no data available.
      * @return The mean value.
      */
     private double computeTargetMean(final int tx, final int ty, final float[] data,
-                                     final int xx0, int yy0, int width, int height, final double noDataValue) {
+                                     final CFARIntegralImage integralImage, final int xx0, final int yy0,
+                                     final double noDataValue) {
 
-        int index = ((ty - yy0) * width) + (tx - xx0);
-        final double v = data[index];
+        final int cx = tx - xx0;
+        final int cy = ty - yy0;
+        final double v = data[cy * integralImage.getWidth() + cx];
         if (noDataValue == v) {
             return noDataValue;
         }
@@ -383,91 +382,41 @@ public class AdaptiveThresholdingOp extends Operator {
             return v;
         }
 
-        final int x0 = Math.max((tx - xx0) - halfTargetWindowSize, 0);
-        final int y0 = Math.max((ty - yy0) - halfTargetWindowSize, 0);
-        final int w = Math.min((tx - xx0) + halfTargetWindowSize, width - 1) - x0 + 1;
-        final int h = Math.min((ty - yy0) + halfTargetWindowSize, height - 1) - y0 + 1;
+        final int x0 = Math.max(cx - halfTargetWindowSize, 0);
+        final int y0 = Math.max(cy - halfTargetWindowSize, 0);
+        final int x1 = Math.min(cx + halfTargetWindowSize, integralImage.getWidth() - 1);
+        final int y1 = Math.min(cy + halfTargetWindowSize, integralImage.getHeight() - 1);
 
-        double mean = 0.0;
-        int numPixels = 0;
-        int nodataCnt = 0;
-
-        final int maxy = y0 + h;
-        final int maxx = x0 + w;
-        for (int y = y0; y < maxy; y++) {
-            int yWidth = y * width;
-            for (int x = x0; x < maxx; x++) {
-                final double val = data[yWidth + x];
-
-                if (noDataValue == val) {
-                    nodataCnt++;
-                } else {
-                    mean += val;
-                    ++numPixels;
-                }
-            }
-        }
-
-        if(nodataCnt > (0.1 * w*h)) {
+        final int numPixels = (x1 - x0 + 1) * (y1 - y0 + 1);
+        final int nodataCnt = numPixels - integralImage.getCount(x0, y0, x1, y1);
+        if(nodataCnt > (0.1 * numPixels)) {
             return noDataValue;
         }
-        return mean / numPixels;
+        return integralImage.getMean(x0, y0, x1, y1);
     }
 
     /**
-     * Compute the standard deviation value for pixels in the background window.
+     * Compute the detection threshold from the mean and standard deviation of the pixels in the background window
+     * outside of the guard window.
      *
-     * @param tx          The x coordinate of the central point of the background window.
-     * @param ty          The y coordinate of the central point of the background window.
-     * @param noDataValue no data value
-     * @return The std value.
+     * @param tx            The x coordinate of the central point of the background window.
+     * @param ty            The y coordinate of the central point of the background window.
+     * @param integralImage The summed area tables of the source tile.
+     * @param xx0           The x coordinate of the top left pixel of the source tile.
+     * @param yy0           The y coordinate of the top left pixel of the source tile.
+     * @param stats         Work array for the background statistics.
+     * @return The threshold.
      */
-    private double computeBackgroundThreshold(final int tx, final int ty, final float[] data,
-                                              final int xx0, int yy0, int width, int height, final double noDataValue) {
-
-        final int x0 = Math.max((tx - xx0) - halfBackgroundWindowSize, 0);
-        final int y0 = Math.max((ty - yy0) - halfBackgroundWindowSize, 0);
-        final int w = Math.min((tx - xx0) + halfBackgroundWindowSize, width - 1) - x0 + 1;
-        final int h = Math.min((ty - yy0) + halfBackgroundWindowSize, height - 1) - y0 + 1;
-
-        // Compute the mean value for pixels in the background window.
-        double sum = 0.0;
-        double val;
-        final int maxy = y0 + h;
-        final int maxx = x0 + w;
-
-        final double[] dataArray = new double[w * h];
-        int numValues = 0;
-
-        for (int y = y0; y < maxy; y++) {
-            final int yy = y - (ty - yy0);
-            final int yWidth = y * width;
-            final boolean yGtrHalfGuard = ((yy < 0) ? -yy : yy) > halfGuardWindowSize;
-            for (int x = x0; x < maxx; x++) {
-                final int xx = x - (tx - xx0);
-                if (yGtrHalfGuard || ((xx < 0) ? -xx : xx) > halfGuardWindowSize) {
-                    val = data[yWidth + x];
-                    if (noDataValue != val) {// && val < backgroundThreshold) {
-                        sum += val;
-                        dataArray[numValues] = val;
-                        numValues++;
-                    }
-                }
-            }
-        }
-        final double mean = sum / numValues;
+    private double computeBackgroundThreshold(final int tx, final int ty, final CFARIntegralImage integralImage,
+                                              final int xx0, final int yy0, final double[] stats) {
 
-        // Compute the standard deviation value for pixels in the background window.
-        double std = 0.0;
-        double tmp;
-        for (int i=0; i < numValues; ++i) {
-            tmp = dataArray[i] - mean;
-            std += tmp * tmp;
+        final int numValues = integralImage.getRingStatistics(tx - xx0, ty - yy0,
+                halfBackgroundWindowSize, halfGuardWindowSize, stats);
+        if (numValues == 0) {
+            return Double.MAX_VALUE;
         }
 
-        final double backgroundSTD = Math.sqrt(std / numValues);
-
-        return mean + backgroundSTD * t;
+        return stats[0] + stats[2] * t;
     }
 
     private double computeBackgroundThreshold(final float[] data, final double noDataValue) {
@@ -573,75 +522,22 @@ public class AdaptiveThresholdingOp extends Operator {
     /**
      * Compute the mean, square mean and standard deviation values in the background window (ring).
      *
-     * @param tx          The x coordinate of the central point of the target window.
-     * @param ty          The y coordinate of the central point of the target window.
-     * @param data        The source tile data array.
-     * @param xx0         The x coordinate of the top left pixel of the source tile.
-     * @param yy0         The y coordinate of the top left pixel of the source tile.
-     * @param width       The width of the source tile.
-     * @param height      The height of the source tile.
-     * @param noDataValue Value representing no data available.
-     * @param stats       The mean, mean of square and standard deviation values (output).
+     * @param tx            The x coordinate of the central point of the target window.
+     * @param ty            The y coordinate of the central point of the target window.
+     * @param integralImage The summed area tables of the source tile.
+     * @param xx0           The x coordinate of the top left pixel of the source tile.
+     * @param yy0           The y coordinate of the top left pixel of the source tile.
+     * @param stats         The mean, mean of square and standard deviation values (output).
      * @return 'true' if successful
      */
-    private boolean computeBackgroundStatistics(final int tx, final int ty, final float[] data,
-                                                final int xx0, int yy0, int width, int height,
-                                                final double noDataValue, final double[] stats) {
+    private boolean computeBackgroundStatistics(final int tx, final int ty, final CFARIntegralImage integralImage,
+                                                final int xx0, final int yy0, final double[] stats) {
 
         // stats[0] = mean = <x>
         // stats[1] = mean of x^2 = <x^2>
         // stats[2] = standard deviation sigma
-
-        final int x0 = Math.max((tx - xx0) - halfBackgroundWindowSize, 0);
-        final int y0 = Math.max((ty - yy0) - halfBackgroundWindowSize, 0);
-        final int w = Math.min((tx - xx0) + halfBackgroundWindowSize, width - 1) - x0 + 1;
-        final int h = Math.min((ty - yy0) + halfBackgroundWindowSize, height - 1) - y0 + 1;
-
-        // Compute the mean <x> and mean of square <x^2> values for pixels in the background window.
-        double sum = 0.0;
-        double sumsq = 0.0;
-        double val;
-        final int maxy = y0 + h;
-        final int maxx = x0 + w;
-
-        final double[] dataArray = new double[w * h];
-        int numValues = 0;
-
-        for (int y = y0; y < maxy; y++) {
-            final int yy = y - (ty - yy0);
-            final int yWidth = y * width;
-            final boolean yGtrHalfGuard = ((yy < 0) ? -yy : yy) > halfGuardWindowSize;
-            for (int x = x0; x < maxx; x++) {
-                final int xx = x - (tx - xx0);
-                if (yGtrHalfGuard || ((xx < 0) ? -xx : xx) > halfGuardWindowSize) {
-                    val = data[yWidth + x];
-                    if (noDataValue != val) {// && val < backgroundThreshold) {
-                        sum += val;
-                        sumsq += (val * val);
-                        dataArray[numValues] = val;
-                        numValues++;
-                    }
-                }
-            }
-        }
-
-        if (numValues == 0) {
-            return false;
-        }
-
-        final double mean = sum / numValues;
-        stats[0] = mean;
-        stats[1] = sumsq / numValues;
-
-        double std = 0.0;
-        double tmp;
-        for (int i=0; i < numValues; ++i) {
-            tmp = dataArray[i] - mean;
-            std += tmp * tmp;
-        }
-        stats[2] = Math.sqrt(std / numValues);
-
-        return true;
+        return integralImage.getRingStatistics(tx - xx0, ty - yy0,
+                halfBackgroundWindowSize, halfGuardWindowSize, stats) > 0;
     }
 
     private double evaluateProbability(final UnivariateFunction pdf, final double x) {
@@ -834,15 +730,15 @@ public class AdaptiveThresholdingOp extends Operator {
         return spdf;
     }
 
-    private double computeBackgroundThreshold1(final int tx, final int ty, final float[] data,
-                                               final int xx0, int yy0, int width, int height, final double noDataValue) {
+    private double computeBackgroundThreshold1(final int tx, final int ty, final CFARIntegralImage integralImage,
+                                               final int xx0, final int yy0) {
 
         // Estimate mu and nu
         // mu = <x>
         // (1 + 1/nu)(1 + 1/L) = <x^2> / <x>^2
         // L is numLooks
         final double[] stats = new double[3]; // <x>, <x^2> and sigma
-        final boolean ok = computeBackgroundStatistics(tx, ty, data, xx0, yy0, width, height, noDataValue, stats);
+        final boolean ok = computeBackgroundStatistics(tx, ty, integralImage, xx0, yy0, stats);
         if (!ok) {
             return Double.MAX_VALUE;
         }
@@ -863,7 +759,6 @@ public class AdaptiveThresholdingOp extends Operator {
         return computeT(pdf, tx, ty);
     }
 
-
     private String getParamsString(final UnivariateFunction pdf) {
         if (pdf instanceof KDistributionPDF) {
             return " K-dis params: " + ((KDistributionPDF) pdf).getParamsString();
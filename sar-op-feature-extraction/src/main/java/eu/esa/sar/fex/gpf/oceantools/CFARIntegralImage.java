@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.fex.gpf.oceantools;
+
+/**
+ * Summed area tables of a source tile for CFAR detectors.
+ * <p>
+ * The sum, the sum of squares and the number of valid samples are accumulated once per tile, after which the
+ * statistics of any rectangle, and of a background ring around a guard window, are available in constant time
+ * independent of the window sizes. No-data and NaN samples are not counted.
+ * <p>
+ * To keep the sums of squares well conditioned the samples are accumulated relative to the mean of the tile.
+ */
+final class CFARIntegralImage {
+
+    private final int width;
+    private final int height;
+    private final int stride;
+    private final double offset;
+
+    private final double[] sum;
+    private final double[] sumSq;
+    private final int[] count;
+
+    /**
+     * @param data        the source tile data array, row by row
+     * @param width       the width of the source tile
+     * @param height      the height of the source tile
+     * @param noDataValue value representing no data available
+     */
+    CFARIntegralImage(final float[] data, final int width, final int height, final double noDataValue) {
+        this.width = width;
+        this.height = height;
+        this.stride = width + 1;
+        this.offset = computeMean(data, width * height, noDataValue);
+
+        final int size = stride * (height + 1);
+        sum = new double[size];
+        sumSq = new double[size];
+        count = new int[size];
+
+        for (int y = 0; y < height; ++y) {
+            double rowSum = 0.0;
+            double rowSumSq = 0.0;
+            int rowCount = 0;
+            final int yWidth = y * width;
+            final int above = y * stride;
+            final int row = above + stride;
+            for (int x = 0; x < width; ++x) {
+                final double val = data[yWidth + x];
+                if (isValid(val, noDataValue)) {
+                    final double d = val - offset;
+                    rowSum += d;
+                    rowSumSq += d * d;
+                    ++rowCount;
+                }
+                sum[row + x + 1] = sum[above + x + 1] + rowSum;
+                sumSq[row + x + 1] = sumSq[above + x + 1] + rowSumSq;
+                count[row + x + 1] = count[above + x + 1] + rowCount;
+            }
+        }
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return the number of valid samples in the rectangle [x0, x1] x [y0, y1], bounds inclusive
+     */
+    int getCount(final int x0, final int y0, final int x1, final int y1) {
+        final int a = y0 * stride, b = (y1 + 1) * stride;
+        return count[b + x1 + 1] - count[a + x1 + 1] - count[b + x0] + count[a + x0];
+    }
+
+    /**
+     * @return the mean of the valid samples in the rectangle [x0, x1] x [y0, y1], bounds inclusive
+     */
+    double getMean(final int x0, final int y0, final int x1, final int y1) {
+        return offset + rectSum(sum, x0, y0, x1, y1) / getCount(x0, y0, x1, y1);
+    }
+
+    /**
+     * Compute the statistics of the valid samples in a window around (cx, cy) with a guard window removed from its
+     * centre. Both windows are clipped to the tile.
+     *
+     * @param cx         The x coordinate of the central point, relative to the tile.
+     * @param cy         The y coordinate of the central point, relative to the tile.
+     * @param halfWindow Half size of the background window.
+     * @param halfGuard  Half size of the guard window; negative for no guard window.
+     * @param stats      The mean, mean of square and population standard deviation (output).
+     * @return the number of valid samples in the ring; the statistics are not set if there are none
+     */
+    int getRingStatistics(final int cx, final int cy, final int halfWindow, final int halfGuard,
+                          final double[] stats) {
+
+        final int x0 = Math.max(cx - halfWindow, 0);
+        final int y0 = Math.max(cy - halfWindow, 0);
+        final int x1 = Math.min(cx + halfWindow, width - 1);
+        final int y1 = Math.min(cy + halfWindow, height - 1);
+
+        int n = getCount(x0, y0, x1, y1);
+        double s = rectSum(sum, x0, y0, x1, y1);
+        double s2 = rectSum(sumSq, x0, y0, x1, y1);
+
+        if (halfGuard >= 0) {
+            final int gx0 = Math.max(cx - halfGuard, x0);
+            final int gy0 = Math.max(cy - halfGuard, y0);
+            final int gx1 = Math.min(cx + halfGuard, x1);
+            final int gy1 = Math.min(cy + halfGuard, y1);
+            if (gx0 <= gx1 && gy0 <= gy1) {
+                n -= getCount(gx0, gy0, gx1, gy1);
+                s -= rectSum(sum, gx0, gy0, gx1, gy1);
+                s2 -= rectSum(sumSq, gx0, gy0, gx1, gy1);
+            }
+        }
+
+        if (n > 0) {
+            final double meanD = s / n;
+            final double meanSqD = s2 / n;
+            final double var = Math.max(0.0, meanSqD - meanD * meanD);
+            final double mean = offset + meanD;
+            stats[0] = mean;
+            // <x^2> = <(d + offset)^2>
+            stats[1] = meanSqD + 2.0 * offset * meanD + offset * offset;
+            stats[2] = Math.sqrt(var);
+        }
+        return n;
+    }
+
+    private double rectSum(final double[] table, final int x0, final int y0, final int x1, final int y1) {
+        final int a = y0 * stride, b = (y1 + 1) * stride;
+        return table[b + x1 + 1] - table[a + x1 + 1] - table[b + x0] + table[a + x0];
+    }
+
+    private static boolean isValid(final double val, final double noDataValue) {
+        return val != noDataValue && !Double.isNaN(val);
+    }
+
+    private static double computeMean(final float[] data, final int n, final double noDataValue) {
+        double s = 0.0;
+        int cnt = 0;
+        for (int i = 0; i < n; ++i) {
+            final double val = data[i];
+            if (isValid(val, noDataValue)) {
+                s += val;
+                ++cnt;
+            }
+        }
+        return cnt == 0 ? 0.0 : s / cnt;
+    }
+}
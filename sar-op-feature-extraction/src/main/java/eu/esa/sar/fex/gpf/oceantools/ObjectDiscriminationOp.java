@@ -16,6 +16,7 @@
 package eu.esa.sar.fex.gpf.oceantools;
 
 import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.fex.gpf.ConnectedComponentLabeler;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.esa.snap.core.datamodel.Band;
@@ -23,7 +24,6 @@ import org.esa.snap.core.datamodel.GeoPos;
 import org.esa.snap.core.datamodel.MetadataElement;
 import org.esa.snap.core.datamodel.PixelPos;
 import org.esa.snap.core.datamodel.Product;
-import org.esa.snap.core.datamodel.ProductData;
 import org.esa.snap.core.datamodel.VectorDataNode;
 import org.esa.snap.core.datamodel.VirtualBand;
 import org.esa.snap.core.dataop.downloadable.XMLSupport;
@@ -40,7 +40,6 @@ import org.esa.snap.core.util.StringUtils;
 import org.esa.snap.core.util.SystemUtils;
 import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
 import org.esa.snap.engine_utilities.gpf.OperatorUtils;
-import org.esa.snap.engine_utilities.gpf.TileIndex;
 import org.esa.snap.engine_utilities.util.ResourceUtils;
 import org.esa.snap.engine_utilities.util.VectorUtils;
 import org.geotools.feature.DefaultFeatureCollection;
@@ -51,13 +50,13 @@ import org.opengis.feature.simple.SimpleFeature;
 import org.opengis.feature.simple.SimpleFeatureType;
 import org.opengis.feature.type.AttributeDescriptor;
 
-import java.awt.Rectangle;
+import java.awt.Dimension;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The ship detection discrimination operator. False ship detections are eliminated based on simple target
@@ -91,7 +90,7 @@ public class ObjectDiscriminationOp extends Operator {
     private double rangeSpacing = 0;
     private double azimuthSpacing = 0;
 
-    private final Map<String, List<ShipRecord>> bandClusterLists = new HashMap<>();
+    private final Map<String, List<ShipRecord>> bandClusterLists = new ConcurrentHashMap<>();
     private File targetReportFile = null;
     private SimpleFeatureType shipFeatureType;
 
@@ -197,65 +196,13 @@ public class ObjectDiscriminationOp extends Operator {
     @Override
     public void computeTile(Band targetBand, Tile targetTile, ProgressMonitor pm) throws OperatorException {
         try {
-            final Rectangle targetTileRectangle = targetTile.getRectangle();
-            final int tx0 = targetTileRectangle.x;
-            final int ty0 = targetTileRectangle.y;
-            final int tw = targetTileRectangle.width;
-            final int th = targetTileRectangle.height;
-            //System.out.println("tx0 = " + tx0 + ", ty0 = " + ty0 + ", tw = " + tw + ", th = " + th);
-
-            final int x0 = Math.max(tx0 - 10, 0);
-            final int y0 = Math.max(ty0 - 10, 0);
-            final int w = Math.min(tw + 20, targetBand.getRasterWidth());
-            final int h = Math.min(th + 20, targetBand.getRasterHeight());
-            final Rectangle sourceTileRectangle = new Rectangle(x0, y0, w, h);
-            //System.out.println("x0 = " + x0 + ", y0 = " + y0 + ", w = " + w + ", h = " + h);
-
             final Band sourceBand = sourceProduct.getBand(targetBand.getName());
-            final int[][] pixelsScanned = new int[h][w];
-            final List<ShipRecord> clusterList = new ArrayList<>();
-
-            final Tile bitMaskTile = getSourceTile(sourceBand, sourceTileRectangle);
-            final ProductData bitMaskData = bitMaskTile.getDataBuffer();
-
-            final TileIndex srcIndex = new TileIndex(bitMaskTile);    // src and trg tile are different size
-
-            final int maxy = ty0 + th;
-            final int maxx = tx0 + tw;
-            for (int ty = ty0; ty < maxy; ty++) {
-                srcIndex.calculateStride(ty);
-                for (int tx = tx0; tx < maxx; tx++) {
-
-                    if (pixelsScanned[ty - y0][tx - x0] == 0) {
-
-                        if (bitMaskData.getElemIntAt(srcIndex.getIndex(tx)) == 1) {
-
-                            final List<PixelPos> clusterPixels = new ArrayList<>();
-                            clustering(tx, ty, x0, y0, w, h, bitMaskData, bitMaskTile, pixelsScanned, clusterPixels);
 
-                            final ShipRecord record = generateRecord(x0, y0, w, h, clusterPixels);
-
-                            final double size = Math.sqrt(record.length * record.length + record.width * record.width);
-                            if (size >= minTargetSizeInMeter && size <= maxTargetSizeInMeter) {
-                                clusterList.add(record);
-                            }
-                        }
-                    }
-                }
+            if (!bandClusterLists.containsKey(targetBand.getName())) {
+                detectTargets(sourceBand);
             }
 
-            if (!clusterList.isEmpty()) {
-                AddShipRecordsAsVectors(clusterList);
-            }
-
-            List<ShipRecord> shipRecordList = bandClusterLists.get(targetBand.getName());
-            if (shipRecordList == null) {
-                shipRecordList = new ArrayList<>();
-                bandClusterLists.put(targetBand.getName(), shipRecordList);
-            }
-            shipRecordList.addAll(clusterList);
-
-            targetTile.setRawSamples(getSourceTile(sourceBand, targetTileRectangle).getRawSamples());
+            targetTile.setRawSamples(getSourceTile(sourceBand, targetTile.getRectangle()).getRawSamples());
 
             clusteringPerformed = true;
         } catch (Throwable e) {
@@ -264,74 +211,59 @@ public class ObjectDiscriminationOp extends Operator {
     }
 
     /**
-     * Find pixels detected as target in a 3x3 window centered at a given point.
+     * Cluster the contiguous detected pixels of the whole bit mask band and keep the clusters within the target
+     * size limits. The clusters are labeled tile by tile in parallel and joined across the tile borders, so targets
+     * are complete whatever the tile size.
      *
-     * @param xc            The x coordinate of the given point.
-     * @param yc            The y coordinate of the given point.
-     * @param x0            The x coordinate for the upper left corner point of the source rectangle.
-     * @param y0            The y coordinate for the upper left corner point of the source rectangle.
-     * @param w             The width of the source rectangle.
-     * @param h             The height of the source rectangle.
-     * @param bitMaskData   The bit maks band data.
-     * @param bitMaskTile   The bit mask band tile.
-     * @param pixelsScanned The binary array indicating which pixel in the tile has been scaned.
-     * @param clusterPixels The list of pixels in the cluster.
+     * @param sourceBand The bit mask band.
+     * @throws Exception The exceptions.
      */
-    private static void clustering(final int xc, final int yc, final int x0, final int y0, final int w, final int h,
-                                   final ProductData bitMaskData, final Tile bitMaskTile,
-                                   final int[][] pixelsScanned, List<PixelPos> clusterPixels) {
+    private synchronized void detectTargets(final Band sourceBand) throws Exception {
+
+        if (bandClusterLists.containsKey(sourceBand.getName())) {
+            return;
+        }
 
-        pixelsScanned[yc - y0][xc - x0] = 1;
-        clusterPixels.add(new PixelPos(xc, yc));
+        Dimension tileSize = targetProduct.getPreferredTileSize();
+        if (tileSize == null) {
+            tileSize = new Dimension(512, 512);
+        }
 
-        final int[] x = {xc - 1, xc, xc + 1, xc - 1, xc + 1, xc - 1, xc, xc + 1};
-        final int[] y = {yc - 1, yc - 1, yc - 1, yc, yc, yc + 1, yc + 1, yc + 1};
+        final ConnectedComponentLabeler labeler = new ConnectedComponentLabeler(
+                sourceBand.getRasterWidth(), sourceBand.getRasterHeight(), tileSize.width, tileSize.height);
 
-        for (int i = 0; i < 8; i++) {
+        final List<ConnectedComponentLabeler.Component> components = labeler.label(
+                (rect, mask) -> ConnectedComponentLabeler.getBitMask(getSourceTile(sourceBand, rect), rect, mask),
+                null);
 
-            if (x[i] >= x0 && x[i] < x0 + w && y[i] >= y0 && y[i] < y0 + h &&
-                    pixelsScanned[y[i] - y0][x[i] - x0] == 0 &&
-                    bitMaskData.getElemIntAt(bitMaskTile.getDataBufferIndex(x[i], y[i])) == 1) {
+        final List<ShipRecord> clusterList = new ArrayList<>();
+        for (ConnectedComponentLabeler.Component component : components) {
+            final ShipRecord record = generateRecord(component);
 
-                clustering(x[i], y[i], x0, y0, w, h, bitMaskData, bitMaskTile, pixelsScanned, clusterPixels);
+            final double size = Math.sqrt(record.length * record.length + record.width * record.width);
+            if (size >= minTargetSizeInMeter && size <= maxTargetSizeInMeter) {
+                clusterList.add(record);
             }
         }
+
+        if (!clusterList.isEmpty()) {
+            AddShipRecordsAsVectors(clusterList);
+        }
+
+        bandClusterLists.put(sourceBand.getName(), clusterList);
     }
 
     /**
      * Generate a ship record for the detected cluster.
      *
-     * @param x0            The x coordinate for the upper left corner point of the source rectangle.
-     * @param y0            The y coordinate for the upper left corner point of the source rectangle.
-     * @param w             The width of the source rectangle.
-     * @param h             The height of the source rectangle.
-     * @param clusterPixels The list of pixels in the cluster.
+     * @param component The cluster.
      * @return ShipRecord
      */
-    private ShipRecord generateRecord(final int x0, final int y0, final int w, final int h,
-                                      List<PixelPos> clusterPixels) {
-        int xMin = x0 + w - 1;
-        int xMax = x0;
-        int yMin = y0 + h - 1;
-        int yMax = y0;
-
-        for (PixelPos pixel : clusterPixels) {
-            if (pixel.x < xMin) {
-                xMin = (int) pixel.x;
-            }
-
-            if (pixel.x > xMax) {
-                xMax = (int) pixel.x;
-            }
-
-            if (pixel.y < yMin) {
-                yMin = (int) pixel.y;
-            }
-
-            if (pixel.y > yMax) {
-                yMax = (int) pixel.y;
-            }
-        }
+    private ShipRecord generateRecord(final ConnectedComponentLabeler.Component component) {
+        final int xMin = component.getXMin();
+        final int xMax = component.getXMax();
+        final int yMin = component.getYMin();
+        final int yMax = component.getYMax();
 
         final double xMid = (xMin + xMax) / 2.0;
         final double yMid = (yMin + yMax) / 2.0;
@@ -404,7 +336,7 @@ public class ObjectDiscriminationOp extends Operator {
         return VectorUtils.createFeatureType(targetProduct.getSceneGeoCoding(), VECTOR_NODE_NAME, attributeDescriptors);
     }
 
-    private synchronized void AddShipRecordsAsVectors(final List<ShipRecord> clusterList) {
+    private void AddShipRecordsAsVectors(final List<ShipRecord> clusterList) {
 
         VectorDataNode vectorDataNode = targetProduct.getVectorDataGroup().get(VECTOR_NODE_NAME);
         if (vectorDataNode == null) {
@@ -16,9 +16,9 @@
 package eu.esa.sar.fex.gpf.oceantools;
 
 import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.fex.gpf.ConnectedComponentLabeler;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.MetadataElement;
-import org.esa.snap.core.datamodel.PixelPos;
 import org.esa.snap.core.datamodel.Product;
 import org.esa.snap.core.datamodel.ProductData;
 import org.esa.snap.core.gpf.Operator;
@@ -38,6 +38,8 @@ import org.esa.snap.engine_utilities.gpf.TileIndex;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The oil spill clustering and discrimination operator. The pixels detected as oil spill area are first
@@ -63,6 +65,8 @@ public class OilSpillClusteringOp extends Operator {
 
     private MetadataElement absRoot = null;
 
+    private final Map<String, ConnectedComponentLabeler> bandLabelers = new ConcurrentHashMap<>();
+
     @Override
     public void initialize() throws OperatorException {
         try {
@@ -154,43 +158,31 @@ public class OilSpillClusteringOp extends Operator {
             final ProductData trgData = targetTile.getDataBuffer();
             //System.out.println("tx0 = " + tx0 + ", ty0 = " + ty0 + ", tw = " + tw + ", th = " + th);
 
-            final int x0 = Math.max(tx0 - minClusterSizeInPixels, 0);
-            final int y0 = Math.max(ty0 - minClusterSizeInPixels, 0);
-            final int w = Math.min(tw + 2 * minClusterSizeInPixels, targetBand.getRasterWidth());
-            final int h = Math.min(th + 2 * minClusterSizeInPixels, targetBand.getRasterHeight());
-            final Rectangle sourceTileRectangle = new Rectangle(x0, y0, w, h);
-            //System.out.println("x0 = " + x0 + ", y0 = " + y0 + ", w = " + w + ", h = " + h);
-
             final Band sourceBand = sourceProduct.getBand(targetBand.getName());
-            final Tile sourceTile = getSourceTile(sourceBand, sourceTileRectangle);
-            final ProductData srcData = sourceTile.getDataBuffer();
-            final int[][] pixelsScaned = new int[h][w];
+            final ConnectedComponentLabeler.MaskSource maskSource =
+                    (rect, mask) -> ConnectedComponentLabeler.getBitMask(getSourceTile(sourceBand, rect), rect, mask);
+
+            ConnectedComponentLabeler labeler = bandLabelers.get(sourceBand.getName());
+            if (labeler == null) {
+                labeler = performClustering(sourceBand, maskSource);
+            }
+            final List<ConnectedComponentLabeler.Component> clusters = labeler.getComponents();
 
-            final TileIndex srcIndex = new TileIndex(sourceTile);
+            final int[] clusterIndices = new int[tw * th];
+            labeler.getComponentIndices(targetTileRectangle, maskSource, clusterIndices);
+
+            final TileIndex trgIndex = new TileIndex(targetTile);
 
             final int maxy = ty0 + th;
             final int maxx = tx0 + tw;
+            int k = 0;
             for (int ty = ty0; ty < maxy; ty++) {
-
-                srcIndex.calculateStride(ty);
+                trgIndex.calculateStride(ty);
                 for (int tx = tx0; tx < maxx; tx++) {
-
-                    if (pixelsScaned[ty - y0][tx - x0] == 0 && srcData.getElemIntAt(srcIndex.getIndex(tx)) == 1) {
-
-                        final List<PixelPos> clusterPixels = new ArrayList<>();
-
-                        clustering(tx, ty, x0, y0, w, h, srcData, sourceTile, pixelsScaned, clusterPixels);
-
-                        if (clusterPixels.size() >= minClusterSizeInPixels) {
-                            for (PixelPos pixel : clusterPixels) {
-                                final int x = (int) pixel.x;
-                                final int y = (int) pixel.y;
-                                if (x >= tx0 && x < tx0 + tw && y >= ty0 && y < ty0 + th) {
-                                    trgData.setElemIntAt(targetTile.getDataBufferIndex(x, y), 1);
-                                }
-                            }
-                        }
-                    }
+                    final int clusterIndex = clusterIndices[k++];
+                    final boolean keep = clusterIndex >= 0 &&
+                            clusters.get(clusterIndex).getArea() >= minClusterSizeInPixels;
+                    trgData.setElemIntAt(trgIndex.getIndex(tx), keep ? 1 : 0);
                 }
             }
         } catch (Throwable e) {
@@ -199,58 +191,31 @@ public class OilSpillClusteringOp extends Operator {
     }
 
     /**
-     * Find pixels detected as target in a 3x3 window centered at a given point.
+     * Cluster the contiguous pixels detected as oil spill over the whole band. The clusters are labeled tile by
+     * tile in parallel and joined across the tile borders, so the size of a cluster does not depend on the tile size.
      *
-     * @param xc            The x coordinate of the given point.
-     * @param yc            The y coordinate of the given point.
-     * @param x0            The x coordinate for the upper left corner point of the source rectangle.
-     * @param y0            The y coordinate for the upper left corner point of the source rectangle.
-     * @param w             The width of the source rectangle.
-     * @param h             The height of the source rectangle.
-     * @param bitMaskData   The bit maks band data.
-     * @param bitMaskTile   The bit mask band tile.
-     * @param pixelsScaned  The binary array indicating which pixel in the tile has been scaned.
-     * @param clusterPixels The list of pixels in the cluster.
+     * @param sourceBand The bit mask band.
+     * @param maskSource The detected pixels of the band.
+     * @return The labeler holding the clusters of the band.
+     * @throws Exception The exceptions.
      */
-    private static void clustering(final int xc, final int yc, final int x0, final int y0, final int w, final int h,
-                                   final ProductData bitMaskData, final Tile bitMaskTile,
-                                   final int[][] pixelsScaned, final List<PixelPos> clusterPixels) {
-
-        final List<PixelPos> seeds = new ArrayList<>();
-        seeds.add(new PixelPos(xc, yc));
-        pixelsScaned[yc - y0][xc - x0] = 1;
-        clusterPixels.add(new PixelPos(xc, yc));
-
-        while (seeds.size() > 0) {
-            final List<PixelPos> newSeeds = new ArrayList<>();
-            for (PixelPos pixel : seeds) {
-                searchNeighbourhood(pixel, x0, y0, w, h, bitMaskData, bitMaskTile, pixelsScaned, clusterPixels, newSeeds);
+    private synchronized ConnectedComponentLabeler performClustering(
+            final Band sourceBand, final ConnectedComponentLabeler.MaskSource maskSource)
+            throws Exception {
+
+        ConnectedComponentLabeler labeler = bandLabelers.get(sourceBand.getName());
+        if (labeler == null) {
+            Dimension tileSize = targetProduct.getPreferredTileSize();
+            if (tileSize == null) {
+                tileSize = new Dimension(512, 512);
             }
-            seeds.clear();
-            seeds.addAll(newSeeds);
-        }
-    }
 
-    private static void searchNeighbourhood(final PixelPos pixel, final int x0, final int y0, final int w, final int h,
-                                            final ProductData bitMaskData, final Tile bitMaskTile,
-                                            final int[][] pixelsScaned, final List<PixelPos> clusterPixels,
-                                            final List<PixelPos> newSeeds) {
-
-        final int xc = (int) pixel.x;
-        final int yc = (int) pixel.y;
-        final int[] x = {xc - 1, xc, xc + 1, xc - 1, xc + 1, xc - 1, xc, xc + 1};
-        final int[] y = {yc - 1, yc - 1, yc - 1, yc, yc, yc + 1, yc + 1, yc + 1};
-
-        for (int i = 0; i < 8; i++) {
-            if (x[i] >= x0 && x[i] < x0 + w && y[i] >= y0 && y[i] < y0 + h &&
-                    pixelsScaned[y[i] - y0][x[i] - x0] == 0 &&
-                    bitMaskData.getElemIntAt(bitMaskTile.getDataBufferIndex(x[i], y[i])) == 1) {
-
-                pixelsScaned[y[i] - y0][x[i] - x0] = 1;
-                clusterPixels.add(new PixelPos(x[i], y[i]));
-                newSeeds.add(new PixelPos(x[i], y[i]));
-            }
+            labeler = new ConnectedComponentLabeler(
+                    sourceBand.getRasterWidth(), sourceBand.getRasterHeight(), tileSize.width, tileSize.height);
+            labeler.label(maskSource, null);
+            bandLabelers.put(sourceBand.getName(), labeler);
         }
+        return labeler;
     }
 
     /**
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.fex.gpf;
+
+import org.junit.Test;
+
+import java.awt.Rectangle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConnectedComponentLabelerTest {
+
+    private static final int width = 61;
+    private static final int height = 47;
+
+    @Test
+    public void testComponentsMatchFloodFill() throws Exception {
+        final boolean[] raster = createRaster();
+        final double[] values = new double[width * height];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = i % 7;
+        }
+
+        final int[] expectedLabels = new int[width * height];
+        final List<long[]> expected = floodFill(raster, values, expectedLabels);
+
+        // tile sizes that do not divide the raster, down to single pixel tiles
+        for (int[] tileSize : new int[][]{{16, 16}, {7, 5}, {1, 1}, {width, height}}) {
+            final ConnectedComponentLabeler labeler =
+                    new ConnectedComponentLabeler(width, height, tileSize[0], tileSize[1]);
+            final List<ConnectedComponentLabeler.Component> components =
+                    labeler.label(maskSource(raster), valueSource(values));
+
+            assertEquals(expected.size(), components.size());
+            for (int i = 0; i < expected.size(); ++i) {
+                final long[] e = expected.get(i);
+                final ConnectedComponentLabeler.Component c = components.get(i);
+                assertEquals(i, c.getIndex());
+                assertEquals(e[0], c.getArea());
+                assertEquals(e[1], c.getXMin());
+                assertEquals(e[2], c.getXMax());
+                assertEquals(e[3], c.getYMin());
+                assertEquals(e[4], c.getYMax());
+                assertEquals((double) e[5], c.getValueSum(), 1e-9);
+            }
+
+            final Rectangle rect = new Rectangle(5, 3, 40, 31);
+            final int[] indices = new int[rect.width * rect.height];
+            labeler.getComponentIndices(rect, maskSource(raster), indices);
+            for (int y = 0; y < rect.height; ++y) {
+                for (int x = 0; x < rect.width; ++x) {
+                    assertEquals(expectedLabels[(rect.y + y) * width + rect.x + x] - 1,
+                            indices[y * rect.width + x]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testObjectAcrossTiles() throws Exception {
+        // a diagonal line touching the tile corners only
+        final boolean[] raster = new boolean[width * height];
+        for (int i = 0; i < height; ++i) {
+            raster[i * width + i] = true;
+        }
+
+        final ConnectedComponentLabeler labeler = new ConnectedComponentLabeler(width, height, 4, 4);
+        final List<ConnectedComponentLabeler.Component> components = labeler.label(maskSource(raster), null);
+
+        assertEquals(1, components.size());
+        assertEquals(height, components.get(0).getArea());
+        assertEquals(0, components.get(0).getXMin());
+        assertEquals(height - 1, components.get(0).getYMax());
+    }
+
+    private static ConnectedComponentLabeler.MaskSource maskSource(final boolean[] raster) {
+        return (rect, mask) -> {
+            for (int y = 0; y < rect.height; ++y) {
+                System.arraycopy(raster, (rect.y + y) * width + rect.x, mask, y * rect.width, rect.width);
+            }
+        };
+    }
+
+    private static ConnectedComponentLabeler.ValueSource valueSource(final double[] raster) {
+        return (rect, values) -> {
+            for (int y = 0; y < rect.height; ++y) {
+                System.arraycopy(raster, (rect.y + y) * width + rect.x, values, y * rect.width, rect.width);
+            }
+        };
+    }
+
+    private static boolean[] createRaster() {
+        final Random random = new Random(3);
+        final boolean[] raster = new boolean[width * height];
+        for (int i = 0; i < raster.length; ++i) {
+            raster[i] = random.nextInt(100) < 45;
+        }
+        return raster;
+    }
+
+    /**
+     * Reference labeling of the whole raster, components numbered in raster order.
+     *
+     * @return area, xMin, xMax, yMin, yMax and value sum of each component
+     */
+    private static List<long[]> floodFill(final boolean[] raster, final double[] values, final int[] labels) {
+        final List<long[]> components = new ArrayList<>();
+        final Deque<Integer> queue = new ArrayDeque<>();
+        for (int start = 0; start < raster.length; ++start) {
+            if (!raster[start] || labels[start] != 0) {
+                continue;
+            }
+            final long[] c = {0, Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, 0};
+            components.add(c);
+            labels[start] = components.size();
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                final int i = queue.poll();
+                final int x = i % width;
+                final int y = i / width;
+                c[0]++;
+                c[1] = Math.min(c[1], x);
+                c[2] = Math.max(c[2], x);
+                c[3] = Math.min(c[3], y);
+                c[4] = Math.max(c[4], y);
+                c[5] += (long) values[i];
+                for (int ny = Math.max(y - 1, 0); ny <= Math.min(y + 1, height - 1); ++ny) {
+                    for (int nx = Math.max(x - 1, 0); nx <= Math.min(x + 1, width - 1); ++nx) {
+                        final int n = ny * width + nx;
+                        if (raster[n] && labels[n] == 0) {
+                            labels[n] = components.size();
+                            queue.add(n);
+                        }
+                    }
+                }
+            }
+        }
+        return components;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.fex.gpf.oceantools;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class CFARIntegralImageTest {
+
+    private static final int width = 37;
+    private static final int height = 29;
+    private static final double noDataValue = 0.0;
+
+    @Test
+    public void testRectangle() {
+        final float[] data = createData();
+        final CFARIntegralImage integralImage = new CFARIntegralImage(data, width, height, noDataValue);
+
+        final int x0 = 3, y0 = 5, x1 = 20, y1 = 11;
+        double sum = 0;
+        int count = 0;
+        for (int y = y0; y <= y1; ++y) {
+            for (int x = x0; x <= x1; ++x) {
+                final float val = data[y * width + x];
+                if (isValid(val)) {
+                    sum += val;
+                    ++count;
+                }
+            }
+        }
+
+        assertEquals(count, integralImage.getCount(x0, y0, x1, y1));
+        assertEquals(sum / count, integralImage.getMean(x0, y0, x1, y1), 1e-9);
+    }
+
+    @Test
+    public void testRingStatisticsMatchBruteForce() {
+        final float[] data = createData();
+        final CFARIntegralImage integralImage = new CFARIntegralImage(data, width, height, noDataValue);
+
+        final int halfWindow = 9;
+        final int halfGuard = 4;
+        final double[] stats = new double[3];
+        for (int cy = 0; cy < height; ++cy) {
+            for (int cx = 0; cx < width; ++cx) {
+                double sum = 0, sumSq = 0;
+                int n = 0;
+                for (int y = Math.max(cy - halfWindow, 0); y <= Math.min(cy + halfWindow, height - 1); ++y) {
+                    for (int x = Math.max(cx - halfWindow, 0); x <= Math.min(cx + halfWindow, width - 1); ++x) {
+                        if (Math.abs(y - cy) <= halfGuard && Math.abs(x - cx) <= halfGuard) {
+                            continue;
+                        }
+                        final double val = data[y * width + x];
+                        if (isValid(val)) {
+                            sum += val;
+                            sumSq += val * val;
+                            ++n;
+                        }
+                    }
+                }
+                final double mean = sum / n;
+                double var = 0;
+                for (int y = Math.max(cy - halfWindow, 0); y <= Math.min(cy + halfWindow, height - 1); ++y) {
+                    for (int x = Math.max(cx - halfWindow, 0); x <= Math.min(cx + halfWindow, width - 1); ++x) {
+                        final double val = data[y * width + x];
+                        if (isValid(val) && !(Math.abs(y - cy) <= halfGuard && Math.abs(x - cx) <= halfGuard)) {
+                            var += (val - mean) * (val - mean);
+                        }
+                    }
+                }
+
+                assertEquals(n, integralImage.getRingStatistics(cx, cy, halfWindow, halfGuard, stats));
+                assertEquals(mean, stats[0], 1e-9);
+                assertEquals(sumSq / n, stats[1], 1e-9);
+                assertEquals(Math.sqrt(var / n), stats[2], 1e-7);
+            }
+        }
+    }
+
+    private static boolean isValid(final double val) {
+        return val != noDataValue && !Double.isNaN(val);
+    }
+
+    private static float[] createData() {
+        final Random random = new Random(5);
+        final float[] data = new float[width * height];
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                // first column and a few random pixels have no data
+                if (x == 0) {
+                    data[y * width + x] = (float) noDataValue;
+                } else if (random.nextInt(20) == 0) {
+                    data[y * width + x] = Float.NaN;
+                } else {
+                    data[y * width + x] = 0.02f + 0.01f * (float) random.nextGaussian() * (float) random.nextGaussian();
+                }
+            }
+        }
+        return data;
+    }
+}
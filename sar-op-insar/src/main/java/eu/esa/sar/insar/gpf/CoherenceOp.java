@@ -41,10 +41,7 @@ import org.esa.snap.engine_utilities.gpf.InputProductValidator;
 import org.esa.snap.engine_utilities.gpf.OperatorUtils;
 import org.esa.snap.engine_utilities.gpf.StackUtils;
 import org.esa.snap.engine_utilities.gpf.TileIndex;
-import org.jblas.ComplexDouble;
-import org.jblas.ComplexDoubleMatrix;
 import org.jblas.DoubleMatrix;
-import org.jblas.MatrixFunctions;
 import org.jlinda.core.GeoPoint;
 import org.jlinda.core.Orbit;
 import org.jlinda.core.Point;
@@ -739,6 +736,7 @@ public class CoherenceOp extends Operator {
             final int cohw = targetRectangle.width + cohWinRg - 1;
             final int cohh = targetRectangle.height + cohWinAz - 1;
             final Rectangle extRect = new Rectangle(cohx0, cohy0, cohw, cohh);
+            final CoherenceKernel kernel = new CoherenceKernel(cohWinAz, cohWinRg);
 
             final org.jlinda.core.Window tileWindow = new org.jlinda.core.Window(
                     cohy0, cohy0 + cohh - 1, cohx0, cohx0 + cohw - 1);
@@ -760,21 +758,16 @@ public class CoherenceOp extends Operator {
 
                 final Tile mstTileReal = getSourceTile(product.sourceMaster.realBand, extRect, border);
                 final Tile mstTileImag = getSourceTile(product.sourceMaster.imagBand, extRect, border);
-                final ComplexDoubleMatrix dataMaster = TileUtilsDoris.pullComplexDoubleMatrix(mstTileReal, mstTileImag);
-
                 final Tile slvTileReal = getSourceTile(product.sourceSlave.realBand, extRect, border);
                 final Tile slvTileImag = getSourceTile(product.sourceSlave.imagBand, extRect, border);
-                final ComplexDoubleMatrix dataSlave = TileUtilsDoris.pullComplexDoubleMatrix(slvTileReal, slvTileImag);
+                kernel.load(mstTileReal, mstTileImag, slvTileReal, slvTileImag);
 
                 if (subtractFlatEarthPhase) {
                     final DoubleMatrix flatEarthPhase = computeFlatEarthPhase(
                             cohx0, cohx0 + cohw - 1, cohw, cohy0, cohy0 + cohh - 1, cohh,
                             0, sourceImageWidth - 1, 0, sourceImageHeight - 1, product.sourceSlave.name);
 
-                    final ComplexDoubleMatrix complexReferencePhase = new ComplexDoubleMatrix(
-                            MatrixFunctions.cos(flatEarthPhase), MatrixFunctions.sin(flatEarthPhase));
-
-                    dataSlave.muli(complexReferencePhase);
+                    kernel.subtractPhase(flatEarthPhase);
 
                     if (OUTPUT_PHASE) {
                         saveFlatEarthPhase(x0, xN, y0, yN, flatEarthPhase, product, targetTileMap);
@@ -785,28 +778,19 @@ public class CoherenceOp extends Operator {
                     final TopoPhase topoPhase = TopoPhase.computeTopoPhase(
                             product, tileWindow, demTile, false);
 
-                    final ComplexDoubleMatrix ComplexTopoPhase = new ComplexDoubleMatrix(
-                            MatrixFunctions.cos(new DoubleMatrix(topoPhase.demPhase)),
-                            MatrixFunctions.sin(new DoubleMatrix(topoPhase.demPhase)));
-
-                    dataSlave.muli(ComplexTopoPhase);
+                    kernel.subtractPhase(topoPhase.demPhase);
 
                     if (OUTPUT_PHASE) {
                         saveTopoPhase(x0, xN, y0, yN, topoPhase.demPhase, product, targetTileMap);
                     }
                 }
 
-                for (int i = 0; i < dataMaster.length; i++) {
-                    double tmp = norm(dataMaster.get(i));
-                    dataMaster.put(i, dataMaster.get(i).mul(dataSlave.get(i).conj()));
-                    dataSlave.put(i, new ComplexDouble(norm(dataSlave.get(i)), tmp));
-                }
-
-                DoubleMatrix cohMatrix;
+                final DoubleMatrix cohMatrix;
                 if (removeLocalPhaseRamp) {
-                    cohMatrix = SarUtils.coherence_LPR(dataMaster, dataSlave, cohWinAz, cohWinRg);
+                    cohMatrix = SarUtils.coherence_LPR(
+                            kernel.getInterferogram(), kernel.getNorms(), cohWinAz, cohWinRg);
                 } else {
-                    cohMatrix = SarUtils.coherence3(dataMaster, dataSlave, cohWinAz, cohWinRg);
+                    cohMatrix = kernel.coherence();
                 }
 
                 saveCoherence(cohMatrix, product, targetTileMap, targetRectangle);
@@ -973,6 +957,7 @@ public class CoherenceOp extends Operator {
             final int cohw = targetRectangle.width + cohWinRg - 1;
             final int cohh = targetRectangle.height + cohWinAz - 1;
             final Rectangle extRect = new Rectangle(cohx0, cohy0, cohw, cohh);
+            final CoherenceKernel kernel = new CoherenceKernel(cohWinAz, cohWinRg);
 
             final org.jlinda.core.Window tileWindow = new org.jlinda.core.Window(
                     cohy0 - firstLineIdx, cohy0 + cohh - 1 - firstLineIdx, cohx0, cohx0 + cohw - 1);
@@ -1010,11 +995,9 @@ public class CoherenceOp extends Operator {
 
                 final Tile mstTileReal = getSourceTile(product.sourceMaster.realBand, extRect, border);
                 final Tile mstTileImag = getSourceTile(product.sourceMaster.imagBand, extRect, border);
-                final ComplexDoubleMatrix dataMaster = TileUtilsDoris.pullComplexDoubleMatrix(mstTileReal, mstTileImag);
-
                 final Tile slvTileReal = getSourceTile(product.sourceSlave.realBand, extRect, border);
                 final Tile slvTileImag = getSourceTile(product.sourceSlave.imagBand, extRect, border);
-                final ComplexDoubleMatrix dataSlave = TileUtilsDoris.pullComplexDoubleMatrix(slvTileReal, slvTileImag);
+                kernel.load(mstTileReal, mstTileImag, slvTileReal, slvTileImag);
 
                 final String polynomialName = product.sourceSlave.name + '_' + (subSwathIndex - 1) + '_' + burstIndex;
                 if (subtractFlatEarthPhase) {
@@ -1022,10 +1005,7 @@ public class CoherenceOp extends Operator {
                             cohx0, cohx0 + cohw - 1, cohw, cohy0 - firstLineIdx, cohy0 + cohh - 1 - firstLineIdx, cohh,
                             minPixel, maxPixel, minLine, maxLine, polynomialName);
 
-                    final ComplexDoubleMatrix complexReferencePhase = new ComplexDoubleMatrix(
-                            MatrixFunctions.cos(flatEarthPhase), MatrixFunctions.sin(flatEarthPhase));
-
-                    dataSlave.muli(complexReferencePhase);
+                    kernel.subtractPhase(flatEarthPhase);
 
                     if (OUTPUT_PHASE) {
                         saveFlatEarthPhase(x0, xN, y0, yN, flatEarthPhase, product, targetTileMap);
@@ -1036,28 +1016,19 @@ public class CoherenceOp extends Operator {
                     TopoPhase topoPhase = TopoPhase.computeTopoPhase(
                             mstMeta, mstOrbit, slvMeta, slvOrbit, tileWindow, demTile, false);
 
-                    final ComplexDoubleMatrix ComplexTopoPhase = new ComplexDoubleMatrix(
-                            MatrixFunctions.cos(new DoubleMatrix(topoPhase.demPhase)),
-                            MatrixFunctions.sin(new DoubleMatrix(topoPhase.demPhase)));
-
-                    dataSlave.muli(ComplexTopoPhase);
+                    kernel.subtractPhase(topoPhase.demPhase);
 
                     if (OUTPUT_PHASE) {
                         saveTopoPhase(x0, xN, y0, yN, topoPhase.demPhase, product, targetTileMap);
                     }
                 }
 
-                for (int i = 0; i < dataMaster.length; i++) {
-                    double tmp = norm(dataMaster.get(i));
-                    dataMaster.put(i, dataMaster.get(i).mul(dataSlave.get(i).conj()));
-                    dataSlave.put(i, new ComplexDouble(norm(dataSlave.get(i)), tmp));
-                }
-
-                DoubleMatrix cohMatrix;
+                final DoubleMatrix cohMatrix;
                 if (removeLocalPhaseRamp) {
-                    cohMatrix = SarUtils.coherence_LPR(dataMaster, dataSlave, cohWinAz, cohWinRg);
+                    cohMatrix = SarUtils.coherence_LPR(
+                            kernel.getInterferogram(), kernel.getNorms(), cohWinAz, cohWinRg);
                 } else {
-                    cohMatrix = SarUtils.coherence3(dataMaster, dataSlave, cohWinAz, cohWinRg);
+                    cohMatrix = kernel.coherence();
                 }
 
                 saveCoherence(cohMatrix, product, targetTileMap, targetRectangle);
@@ -1119,10 +1090,6 @@ public class CoherenceOp extends Operator {
         return new GeoPoint(lat / (2*cols), lon / (2*cols));
     }
 
-    private static double norm(final ComplexDouble number) {
-        return number.real() * number.real() + number.imag() * number.imag();
-    }
-
     private static double norm(final double real, final double imag) {
         return real * real + imag * imag;
     }
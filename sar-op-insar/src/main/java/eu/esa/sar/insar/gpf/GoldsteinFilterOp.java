@@ -16,7 +16,7 @@
 package eu.esa.sar.insar.gpf;
 
 import com.bc.ceres.core.ProgressMonitor;
-import edu.emory.mathcs.jtransforms.fft.DoubleFFT_1D;
+import edu.emory.mathcs.jtransforms.fft.DoubleFFT_2D;
 import org.apache.commons.math3.util.FastMath;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.Product;
@@ -231,6 +231,8 @@ public class GoldsteinFilterOp extends Operator {
             final int sw = sourceTileRectangle.width;
             final int sh = sourceTileRectangle.height;
 
+            final Workspace ws = new Workspace(FFTSize);
+
             for (Band iBand : targetIQPair.keySet()) {
                 final Band qBand = targetIQPair.get(iBand);
 
@@ -245,53 +247,35 @@ public class GoldsteinFilterOp extends Operator {
                 final TileIndex srcIndex = new TileIndex(iBandRaster);
                 noDataValue = iBand.getNoDataValue();
 
-                // perform filtering with a sliding window
-                final boolean[][] mask = new boolean[FFTSize][FFTSize];
-                final double[][] I = new double[FFTSize][FFTSize];
-                final double[][] Q = new double[FFTSize][FFTSize];
-                final double[][] specI = new double[FFTSize][FFTSize];
-                final double[][] specQ = new double[FFTSize][FFTSize];
-                final double[][] pwrSpec = new double[FFTSize][FFTSize];
-                final double[][] fltSpec = new double[FFTSize][FFTSize];
-                final int colMax = I[0].length;
-
                 // arrays saving filtered I/Q data for the tile, note tile size could be different from 512x512 on boundary
                 final float[] iBandFiltered = new float[w * h];
                 final float[] qBandFiltered = new float[w * h];
 
+                // perform filtering with a sliding window
                 final int stepSize = FFTSize / 4;
                 final int syMax = FastMath.min(sy0 + sh - FFTSize, sourceImageHeight - FFTSize);
                 final int sxMax = FastMath.min(sx0 + sw - FFTSize, sourceImageWidth - FFTSize);
                 for (int y = sy0; y <= syMax; y += stepSize) {
                     for (int x = sx0; x <= sxMax; x += stepSize) {
 
-                        getComplexImagettes(x, y, iBandData, qBandData, srcIndex, I, Q, mask);
-
-                        // check for no data value
-                        boolean allNoData = true;
-                        for (double[] aI : I) {
-                            for (int c = 0; c < colMax; ++c) {
-                                if (aI[c] != noDataValue) {
-                                    allNoData = false;
-                                    break;
-                                }
-                            }
-                            if (!allNoData)
-                                break;
-                        }
-                        if (allNoData) {
+                        // a window without valid pixels in the target tile adds nothing to it
+                        if (!getComplexImagette(x, y, x0, y0, w, h, iBandData, qBandData, srcIndex, ws)) {
                             continue;
                         }
 
-                        perform2DFFT(I, Q, specI, specQ);
+                        ws.fft.complexForward(ws.spectrum);
 
-                        getPowerSpectrum(specI, specQ, pwrSpec);
+                        getPowerSpectrum(ws.spectrum, ws.pwrSpec);
 
-                        getFilteredPowerSpectrum(pwrSpec, fltSpec, alpha, halfWindowSize);
+                        getFilteredPowerSpectrum(ws, alpha, halfWindowSize);
 
-                        performInverse2DFFT(specI, specQ, fltSpec, I, Q);
+                        for (int i = 0; i < ws.fltSpec.length; ++i) {
+                            ws.spectrum[2 * i] *= ws.fltSpec[i];
+                            ws.spectrum[2 * i + 1] *= ws.fltSpec[i];
+                        }
+                        ws.fft.complexInverse(ws.spectrum, false);
 
-                        updateFilteredBands(x0, y0, w, h, x, y, I, Q, mask, iBandFiltered, qBandFiltered);
+                        updateFilteredBands(x0, y0, w, h, x, y, ws, iBandFiltered, qBandFiltered);
                     }
                 }
 
@@ -352,159 +336,93 @@ public class GoldsteinFilterOp extends Operator {
     /**
      * Get source image data for given sliding window
      *
-     * @param x           The x coordinate of the upper left pixel in the sliding window
-     * @param y           The y coordinate of the upper left pixel in the sliding window
+     * @param x         The x coordinate of the upper left pixel in the sliding window
+     * @param y         The y coordinate of the upper left pixel in the sliding window
+     * @param x0        The x coordinate of the pixel on the upper left corner of current tile.
+     * @param y0        The y coordinate of the pixel on the upper left corner of current tile.
+     * @param w         The width of current tile.
+     * @param h         The height of current tile.
      * @param iBandData The source tile for I band
      * @param qBandData The source tile for Q band
-     * @param I           Real parts of the retrieved data
-     * @param Q           Imaginary parts of the retrieved data
+     * @param ws        The workspace receiving the data as complex (Q, I) samples and the valid pixel mask
+     * @return true if the window has valid pixels inside the current tile
      */
-    private void getComplexImagettes(final int x, final int y,
-                                     final ProductData iBandData, final ProductData qBandData,
-                                     final TileIndex srcIndex,
-                                     final double[][] I, final double[][] Q,
-                                     final boolean[][] mask) {
-        int index;
+    private boolean getComplexImagette(final int x, final int y, final int x0, final int y0, final int w, final int h,
+                                       final ProductData iBandData, final ProductData qBandData,
+                                       final TileIndex srcIndex, final Workspace ws) {
+        final double[] spectrum = ws.spectrum;
+        final boolean[] mask = ws.mask;
+        boolean hasValidTargetPixel = false;
+        int k = 0;
         final int maxY = y + FFTSize;
         final int maxX = x + FFTSize;
         for (int yy = y; yy < maxY; yy++) {
             srcIndex.calculateStride(yy);
-            final int yidx = yy - y;
-            for (int xx = x; xx < maxX; xx++) {
-                index = srcIndex.getIndex(xx);
-                I[yidx][xx - x] = iBandData.getElemDoubleAt(index);
-                Q[yidx][xx - x] = qBandData.getElemDoubleAt(index);
-                mask[yidx][xx - x] = I[yidx][xx - x] != noDataValue;
+            final boolean inTileY = yy >= y0 && yy < y0 + h;
+            for (int xx = x; xx < maxX; xx++, k++) {
+                final int index = srcIndex.getIndex(xx);
+                final double i = iBandData.getElemDoubleAt(index);
+                spectrum[2 * k] = qBandData.getElemDoubleAt(index);
+                spectrum[2 * k + 1] = i;
+                mask[k] = i != noDataValue;
+                if (mask[k] && inTileY && xx >= x0 && xx < x0 + w) {
+                    hasValidTargetPixel = true;
+                }
             }
         }
+        return hasValidTargetPixel;
     }
 
-    private static void perform2DFFT(final double[][] I, final double[][] Q,
-                                     final double[][] specI, final double[][] specQ) {
-
-        final int rowMax = I.length;
-        final int colMax = I[0].length;
-
-        // perform 1-D FFT to each row
-        final int rowFFTSize = colMax;
-        final int colFFTSize = rowMax;
-        final DoubleFFT_1D row_fft = new DoubleFFT_1D(rowFFTSize);
-        final double[][] complexDataI = new double[colFFTSize][rowFFTSize];
-        final double[][] complexDataQ = new double[colFFTSize][rowFFTSize];
-        final double[] rowArray = new double[2 * rowFFTSize];
-        for (int r = 0; r < rowMax; r++) {
-            int k = 0;
-            for (int c = 0; c < colMax; c++) {
-                rowArray[k++] = Q[r][c];
-                rowArray[k++] = I[r][c];
-            }
-            row_fft.complexForward(rowArray);
-            for (int c = 0; c < rowFFTSize; c++) {
-                complexDataQ[r][c] = rowArray[c + c];
-                complexDataI[r][c] = rowArray[c + c + 1];
-            }
-        }
-
-        // perform 1-D FFT to each column
-        final DoubleFFT_1D col_fft = new DoubleFFT_1D(colFFTSize);
-        final double[] colArray = new double[2 * colFFTSize];
-        for (int c = 0; c < colMax; c++) {
-            int k = 0;
-            for (int r = 0; r < rowMax; r++) {
-                colArray[k++] = complexDataQ[r][c];
-                colArray[k++] = complexDataI[r][c];
-            }
-            col_fft.complexForward(colArray);
-            for (int r = 0; r < colFFTSize; r++) {
-                specQ[r][c] = colArray[r + r];
-                specI[r][c] = colArray[r + r + 1];
-            }
+    private static void getPowerSpectrum(final double[] spectrum, final double[] pwrSpec) {
+        for (int i = 0; i < pwrSpec.length; i++) {
+            final double re = spectrum[2 * i];
+            final double im = spectrum[2 * i + 1];
+            pwrSpec[i] = Math.sqrt(re * re + im * im);
         }
     }
 
-    private static void getPowerSpectrum(final double[][] specI, final double[][] specQ, final double[][] pwrSpec) {
+    /**
+     * Smooth the power spectrum with a mean filter over the valid samples of a square window,
+     * summed first along rows and then along columns.
+     */
+    private void getFilteredPowerSpectrum(final Workspace ws, final double alpha, final int halfWindowSize) {
 
-        final int rowMax = specI.length;
-        final int colMax = specI[0].length;
+        final double[] pwrSpec = ws.pwrSpec;
+        final double[] rowSum = ws.rowSum;
+        final int[] rowCount = ws.rowCount;
+        final double[] fltSpec = ws.fltSpec;
+        final int size = FFTSize;
 
-        for (int r = 0; r < rowMax; r++) {
-            for (int c = 0; c < colMax; c++) {
-                pwrSpec[r][c] = Math.sqrt(specI[r][c] * specI[r][c] + specQ[r][c] * specQ[r][c]);
+        for (int r = 0; r < size; r++) {
+            final int offset = r * size;
+            for (int c = 0; c < size; c++) {
+                final int iMin = Math.max(0, c - halfWindowSize);
+                final int iMax = Math.min(size - 1, c + halfWindowSize);
+                double sum = 0;
+                int k = 0;
+                for (int i = iMin; i <= iMax; i++) {
+                    final double p = pwrSpec[offset + i];
+                    if (p != noDataValue) {
+                        sum += p;
+                        k++;
+                    }
+                }
+                rowSum[offset + c] = sum;
+                rowCount[offset + c] = k;
             }
         }
-    }
-
-    private void getFilteredPowerSpectrum(
-            final double[][] pwrSpec, final double[][] fltSpec, final double alpha, final int halfWindowSize) {
 
-        final int rowMax = pwrSpec.length;
-        final int colMax = pwrSpec[0].length;
-
-        for (int r = 0; r < rowMax; r++) {
+        for (int r = 0; r < size; r++) {
             final int jMin = Math.max(0, r - halfWindowSize);
-            final int jMax = Math.min(rowMax - 1, r + halfWindowSize);
-            for (int c = 0; c < colMax; c++) {
+            final int jMax = Math.min(size - 1, r + halfWindowSize);
+            for (int c = 0; c < size; c++) {
                 double sum = 0;
                 int k = 0;
-                final int iMin = Math.max(0, c - halfWindowSize);
-                final int iMax = Math.min(colMax - 1, c + halfWindowSize);
                 for (int j = jMin; j <= jMax; j++) {
-                    for (int i = iMin; i <= iMax; i++) {
-                        if(pwrSpec[j][i] != noDataValue) {
-                            sum += pwrSpec[j][i];
-                            k++;
-                        }
-                    }
-                }
-                if(k != 0) {
-                    fltSpec[r][c] = FastMath.pow(sum / k, alpha);
-                } else {
-                    fltSpec[r][c] = 0;
+                    sum += rowSum[j * size + c];
+                    k += rowCount[j * size + c];
                 }
-            }
-        }
-    }
-
-    private static void performInverse2DFFT(final double[][] specI, final double[][] specQ, final double[][] fltSpec,
-                                            final double[][] I, final double[][] Q) {
-
-        final int rowMax = I.length;
-        final int colMax = I[0].length;
-
-        final int rowFFTSize = colMax;
-        final int colFFTSize = rowMax;
-        final double[][] complexDataI = new double[colFFTSize][rowFFTSize];
-        final double[][] complexDataQ = new double[colFFTSize][rowFFTSize];
-
-        // perform 1-D FFT to each column
-        final DoubleFFT_1D col_fft = new DoubleFFT_1D(colFFTSize);
-        final double[] colArray = new double[2 * colFFTSize];
-        for (int c = 0; c < colMax; c++) {
-            int k = 0;
-            for (int r = 0; r < rowMax; r++) {
-                colArray[k++] = specQ[r][c] * fltSpec[r][c];
-                colArray[k++] = specI[r][c] * fltSpec[r][c];
-            }
-            col_fft.complexInverse(colArray, false);
-            for (int r = 0; r < colFFTSize; r++) {
-                complexDataQ[r][c] = colArray[r + r];
-                complexDataI[r][c] = colArray[r + r + 1];
-            }
-        }
-
-        // perform 1-D FFT to each row
-        final DoubleFFT_1D row_fft = new DoubleFFT_1D(rowFFTSize);
-        final double[] rowArray = new double[2 * rowFFTSize];
-        for (int r = 0; r < rowMax; r++) {
-            int k = 0;
-            for (int c = 0; c < colMax; c++) {
-                rowArray[k++] = complexDataQ[r][c];
-                rowArray[k++] = complexDataI[r][c];
-            }
-            row_fft.complexInverse(rowArray, false);
-            for (int c = 0; c < rowFFTSize; c++) {
-                Q[r][c] = rowArray[c + c];
-                I[r][c] = rowArray[c + c + 1];
+                fltSpec[r * size + c] = k != 0 ? FastMath.pow(sum / k, alpha) : 0;
             }
         }
     }
@@ -516,14 +434,12 @@ public class GoldsteinFilterOp extends Operator {
      * @param h             The height of current tile.
      * @param x             The x coordinate of the pixel on the upper left corner of the sliding window.
      * @param y             The y coordinate of the pixel on the upper left corner of the sliding window.
-     * @param I             Imaginary part of the filtered imagette.
-     * @param Q             Real part of the filtered imagette.
+     * @param ws            The workspace holding the filtered imagette as complex (Q, I) samples.
      * @param iBandFiltered Buffer holding imaginary part of the filtered image.
      * @param qBandFiltered Buffer holding real part of the filtered image.
      */
     private void updateFilteredBands(final int x0, final int y0, final int w, final int h,
-                                     final int x, final int y, final double[][] I, final double[][] Q,
-                                     final boolean[][] mask,
+                                     final int x, final int y, final Workspace ws,
                                      final float[] iBandFiltered, final float[] qBandFiltered) {
 
         final int xSt = FastMath.max(x, x0);
@@ -536,7 +452,8 @@ public class GoldsteinFilterOp extends Operator {
             final double weightY = (1 - Math.abs(yy - y - halfFFTSize + 0.5) / halfFFTSize);
             for (int xx = xSt; xx < xEd; xx++) {
 
-                if(!mask[yi][xx - x]) {
+                final int i = yi * FFTSize + xx - x;
+                if(!ws.mask[i]) {
                     continue;
                 }
 
@@ -544,8 +461,8 @@ public class GoldsteinFilterOp extends Operator {
                 final double weight = (1 - Math.abs(xx - x - halfFFTSize + 0.5) / halfFFTSize) * weightY;
 
                 final int k = yw + (xx - x0);
-                iBandFiltered[k] += I[yi][xx - x] * weight;
-                qBandFiltered[k] += Q[yi][xx - x] * weight;
+                iBandFiltered[k] += ws.spectrum[2 * i + 1] * weight;
+                qBandFiltered[k] += ws.spectrum[2 * i] * weight;
             }
         }
     }
@@ -565,6 +482,31 @@ public class GoldsteinFilterOp extends Operator {
     }
 
 
+    /**
+     * FFT plan and scratch arrays of the sliding window, reused for all windows of a tile.
+     * Complex samples are interleaved row by row with the Q band as real and the I band as imaginary part.
+     */
+    private static class Workspace {
+        final DoubleFFT_2D fft;
+        final double[] spectrum;
+        final boolean[] mask;
+        final double[] pwrSpec;
+        final double[] rowSum;
+        final int[] rowCount;
+        final double[] fltSpec;
+
+        Workspace(final int fftSize) {
+            final int n = fftSize * fftSize;
+            fft = new DoubleFFT_2D(fftSize, fftSize);
+            spectrum = new double[2 * n];
+            mask = new boolean[n];
+            pwrSpec = new double[n];
+            rowSum = new double[n];
+            rowCount = new int[n];
+            fltSpec = new double[n];
+        }
+    }
+
     /**
      * The SPI is used to register this operator in the graph processing framework
      * via the SPI configuration file
@@ -1147,41 +1147,25 @@ public class InterferogramOp extends Operator {
                     final Tile mstTileImag2 = getSourceTile(product.sourceMaster.imagBand, rect, border);
                     final Tile slvTileReal2 = getSourceTile(product.sourceSlave.realBand, rect, border);
                     final Tile slvTileImag2 = getSourceTile(product.sourceSlave.imagBand, rect, border);
-                    final ComplexDoubleMatrix dataMaster2 =
-                            TileUtilsDoris.pullComplexDoubleMatrix(mstTileReal2, mstTileImag2);
-
-                    final ComplexDoubleMatrix dataSlave2 =
-                            TileUtilsDoris.pullComplexDoubleMatrix(slvTileReal2, slvTileImag2);
+                    final CoherenceKernel kernel = new CoherenceKernel(cohWinAz, cohWinRg);
+                    kernel.load(mstTileReal2, mstTileImag2, slvTileReal2, slvTileImag2);
 
                     if (subtractFlatEarthPhase) {
                         final DoubleMatrix flatEarthPhase = computeFlatEarthPhase(
                                 cohx0, cohx0 + cohw - 1, cohw, cohy0, cohy0 + cohh - 1, cohh,
                                 0, sourceImageWidth - 1, 0, sourceImageHeight - 1, product.sourceSlave.name);
 
-                        final ComplexDoubleMatrix complexReferencePhase = new ComplexDoubleMatrix(
-                                MatrixFunctions.cos(flatEarthPhase), MatrixFunctions.sin(flatEarthPhase));
-
-                        dataSlave2.muli(complexReferencePhase);
+                        kernel.subtractPhase(flatEarthPhase);
                     }
 
                     if (subtractTopographicPhase) {
                         final TopoPhase topoPhase = TopoPhase.computeTopoPhase(
                                 product, cohTileWindow, cohDemTile, false);
 
-                        final ComplexDoubleMatrix ComplexTopoPhase = new ComplexDoubleMatrix(
-                                MatrixFunctions.cos(new DoubleMatrix(topoPhase.demPhase)),
-                                MatrixFunctions.sin(new DoubleMatrix(topoPhase.demPhase)));
-
-                        dataSlave2.muli(ComplexTopoPhase);
+                        kernel.subtractPhase(topoPhase.demPhase);
                     }
 
-                    for (int i = 0; i < dataMaster2.length; i++) {
-                        double tmp = norm(dataMaster2.get(i));
-                        dataMaster2.put(i, dataMaster2.get(i).mul(dataSlave2.get(i).conj()));
-                        dataSlave2.put(i, new ComplexDouble(norm(dataSlave2.get(i)), tmp));
-                    }
-
-                    DoubleMatrix cohMatrix = SarUtils.coherence3(dataMaster2, dataSlave2, cohWinAz, cohWinRg);
+                    final DoubleMatrix cohMatrix = kernel.coherence();
 
                     saveCoherence(cohMatrix, product, targetTileMap, targetRectangle);
                 }
@@ -1430,10 +1414,6 @@ public class InterferogramOp extends Operator {
         }
     }
 
-    private static double norm(final ComplexDouble number) {
-        return number.real() * number.real() + number.imag() * number.imag();
-    }
-
     private void computeTileStackForTOPSARProduct(
             final Map<Band, Tile> targetTileMap, final Rectangle targetRectangle, final ProgressMonitor pm)
             throws OperatorException {
@@ -1616,41 +1596,25 @@ public class InterferogramOp extends Operator {
                     final Tile mstTileImag2 = getSourceTile(product.sourceMaster.imagBand, rect, border);
                     final Tile slvTileReal2 = getSourceTile(product.sourceSlave.realBand, rect, border);
                     final Tile slvTileImag2 = getSourceTile(product.sourceSlave.imagBand, rect, border);
-                    final ComplexDoubleMatrix dataMaster2 =
-                            TileUtilsDoris.pullComplexDoubleMatrix(mstTileReal2, mstTileImag2);
-
-                    final ComplexDoubleMatrix dataSlave2 =
-                            TileUtilsDoris.pullComplexDoubleMatrix(slvTileReal2, slvTileImag2);
+                    final CoherenceKernel kernel = new CoherenceKernel(cohWinAz, cohWinRg);
+                    kernel.load(mstTileReal2, mstTileImag2, slvTileReal2, slvTileImag2);
 
                     if (subtractFlatEarthPhase) {
                         final DoubleMatrix flatEarthPhase = computeFlatEarthPhase(
                                 cohx0, cohx0 + cohw - 1, cohw, cohy0 - firstLineIdx, cohy0 + cohh - 1 - firstLineIdx, cohh,
                                 minPixel, maxPixel, minLine, maxLine, polynomialName);
 
-                        final ComplexDoubleMatrix complexReferencePhase = new ComplexDoubleMatrix(
-                                MatrixFunctions.cos(flatEarthPhase), MatrixFunctions.sin(flatEarthPhase));
-
-                        dataSlave2.muli(complexReferencePhase);
+                        kernel.subtractPhase(flatEarthPhase);
                     }
 
                     if (subtractTopographicPhase) {
                         TopoPhase topoPhase = TopoPhase.computeTopoPhase(
                                 mstMeta, mstOrbit, slvMeta, slvOrbit, cohTileWindow, cohDemTile, false);
 
-                        final ComplexDoubleMatrix ComplexTopoPhase = new ComplexDoubleMatrix(
-                                MatrixFunctions.cos(new DoubleMatrix(topoPhase.demPhase)),
-                                MatrixFunctions.sin(new DoubleMatrix(topoPhase.demPhase)));
-
-                        dataSlave2.muli(ComplexTopoPhase);
-                    }
-
-                    for (int i = 0; i < dataMaster2.length; i++) {
-                        double tmp = norm(dataMaster2.get(i));
-                        dataMaster2.put(i, dataMaster2.get(i).mul(dataSlave2.get(i).conj()));
-                        dataSlave2.put(i, new ComplexDouble(norm(dataSlave2.get(i)), tmp));
+                        kernel.subtractPhase(topoPhase.demPhase);
                     }
 
-                    DoubleMatrix cohMatrix = SarUtils.coherence3(dataMaster2, dataSlave2, cohWinAz, cohWinRg);
+                    final DoubleMatrix cohMatrix = kernel.coherence();
 
                     saveCoherence(cohMatrix, product, targetTileMap, targetRectangle);
                 }
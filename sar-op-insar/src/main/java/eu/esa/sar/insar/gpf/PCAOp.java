@@ -18,6 +18,7 @@ package eu.esa.sar.insar.gpf;
 import Jama.Matrix;
 import Jama.SingularValueDecomposition;
 import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.commons.TileStatisticsPass;
 import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.Product;
 import org.esa.snap.core.datamodel.ProductData;
@@ -32,8 +33,6 @@ import org.esa.snap.core.gpf.annotations.Parameter;
 import org.esa.snap.core.gpf.annotations.SourceProduct;
 import org.esa.snap.core.gpf.annotations.TargetProduct;
 import org.esa.snap.core.util.ProductUtils;
-import org.esa.snap.core.util.ThreadExecutor;
-import org.esa.snap.core.util.ThreadRunnable;
 import org.esa.snap.core.util.math.MathUtils;
 import org.esa.snap.engine_utilities.gpf.TileIndex;
 import org.esa.snap.engine_utilities.util.ResourceUtils;
@@ -384,47 +383,13 @@ public class PCAOp extends Operator {
         final StatusProgressMonitor status = new StatusProgressMonitor(StatusProgressMonitor.TYPE.SUBTASK);
         status.beginTask("Computing Statistics... ", tileRectangles.length);
 
-        final ThreadExecutor executor = new ThreadExecutor();
-
         try {
-            for (final Rectangle rectangle : tileRectangles) {
-
-                ThreadRunnable worker = new ThreadRunnable() {
-                    final ProductData[] bandsRawSamples = new ProductData[numOfSourceBands];
-                    final double[] tileSum = new double[numOfSourceBands];
-                    final double[][] tileSumCross = new double[numOfSourceBands][numOfSourceBands];
-
-                    @Override
-                    public void process() {
-                        for (int i = 0; i < numOfSourceBands; i++) {
-                            bandsRawSamples[i] =
-                                    getSourceTile(sourceProduct.getBand(sourceBandNames[i]), rectangle).getRawSamples();
-                        }
-
-                        if (subtractMeanImage) {
-
-                            final ProductData meanBandRawSamples =
-                                    getSourceTile(sourceProduct.getBand(meanImageBandName), rectangle).getRawSamples();
+            final TileStatisticsPass<ProductData[]> pass =
+                    new TileStatisticsPass<>(tileRectangles, rectangle -> readSourceTiles(rectangle, subtractMeanImage));
+            final TileStatisticsPass.Result<SumAccumulator> sums = pass.add(SumAccumulator::new);
+            pass.setCancellationCheck(this::checkForCancellation).setProgressMonitor(status).run();
 
-                            computeTileStatisticsWithMeanImageSubstract(numOfSourceBands,
-                                    bandsRawSamples, meanBandRawSamples, tileSum, tileSumCross);
-
-                        } else {
-
-                            computeTileStatisticsWithoutMeanImageSubstract(numOfSourceBands,
-                                    bandsRawSamples, tileSum, tileSumCross);
-                        }
-
-                        synchronized (sum) {
-                            computeImageStatistics(tileSum, tileSumCross);
-                        }
-                    }
-                };
-                executor.execute(worker);
-
-                status.worked(1);
-            }
-            executor.complete();
+            computeImageStatistics(sums.get().sum, sums.get().sumCross);
 
             completeStatistics();
 
@@ -439,48 +404,16 @@ public class PCAOp extends Operator {
         final StatusProgressMonitor status = new StatusProgressMonitor(StatusProgressMonitor.TYPE.SUBTASK);
         status.beginTask("Computing Min... ", tileRectangles.length);
 
-        final ThreadExecutor executor = new ThreadExecutor();
-
         try {
             initializeMin();
 
-            for (final Rectangle rectangle : tileRectangles) {
-                ThreadRunnable worker = new ThreadRunnable() {
-                    final double[] tileMinPCA = new double[numOfSourceBands];
-                    final ProductData[] bandsRawSamples = new ProductData[numOfSourceBands];
-
-                    @Override
-                    public void process() {
-                        for (int i = 0; i < numOfSourceBands; i++) {
-                            bandsRawSamples[i] =
-                                    getSourceTile(sourceProduct.getBand(sourceBandNames[i]), rectangle).getRawSamples();
-                        }
-                        final int n = bandsRawSamples[0].getNumElems();
-
-                        Arrays.fill(tileMinPCA, Double.MAX_VALUE);
-
-                        for (int i = 0; i < numPCA; i++) {
-                            for (int k = 0; k < n; k++) {
-                                double vPCA = 0.0;
-                                for (int j = 0; j < numOfSourceBands; j++) {
-                                    vPCA += bandsRawSamples[j].getElemDoubleAt(k) * eigenVectorMatrices[j][i];
-                                }
-                                if (vPCA < tileMinPCA[i])
-                                    tileMinPCA[i] = vPCA;
-                            }
-                        }
-
-                        synchronized (minPCA) {
-                            computePCAMin(tileMinPCA);
-                        }
-                    }
-                };
-                executor.execute(worker);
-
-                status.worked(1);
-            }
+            // the projection needs the eigenvectors of the complete covariance matrix, so the min is a second pass
+            final TileStatisticsPass<ProductData[]> pass =
+                    new TileStatisticsPass<>(tileRectangles, rectangle -> readSourceTiles(rectangle, false));
+            final TileStatisticsPass.Result<MinAccumulator> min = pass.add(MinAccumulator::new);
+            pass.setCancellationCheck(this::checkForCancellation).setProgressMonitor(status).run();
 
-            executor.complete();
+            computePCAMin(min.get().minPCA);
 
         } catch (Throwable e) {
             throw new OperatorException(e);
@@ -489,6 +422,92 @@ public class PCAOp extends Operator {
         }
     }
 
+    /**
+     * Read the source bands for a given tile, followed by the mean image band if requested.
+     */
+    private ProductData[] readSourceTiles(final Rectangle rectangle, final boolean withMeanImage) {
+        final ProductData[] bandsRawSamples = new ProductData[numOfSourceBands + (withMeanImage ? 1 : 0)];
+        for (int i = 0; i < numOfSourceBands; i++) {
+            bandsRawSamples[i] = getSourceTile(sourceProduct.getBand(sourceBandNames[i]), rectangle).getRawSamples();
+        }
+        if (withMeanImage) {
+            bandsRawSamples[numOfSourceBands] =
+                    getSourceTile(sourceProduct.getBand(meanImageBandName), rectangle).getRawSamples();
+        }
+        return bandsRawSamples;
+    }
+
+    /**
+     * Summation and cross-summation of the tiles processed by one worker.
+     */
+    private final class SumAccumulator implements TileStatisticsPass.Accumulator<ProductData[], SumAccumulator> {
+        final double[] sum = new double[numOfSourceBands];
+        final double[][] sumCross = new double[numOfSourceBands][numOfSourceBands];
+        private final double[] tileSum = new double[numOfSourceBands];
+        private final double[][] tileSumCross = new double[numOfSourceBands][numOfSourceBands];
+
+        @Override
+        public void accumulate(final Rectangle rectangle, final ProductData[] bandsRawSamples) {
+            if (subtractMeanImage) {
+                computeTileStatisticsWithMeanImageSubstract(numOfSourceBands,
+                        bandsRawSamples, bandsRawSamples[numOfSourceBands], tileSum, tileSumCross);
+            } else {
+                computeTileStatisticsWithoutMeanImageSubstract(numOfSourceBands,
+                        bandsRawSamples, tileSum, tileSumCross);
+            }
+            add(tileSum, tileSumCross);
+        }
+
+        @Override
+        public void merge(final SumAccumulator other) {
+            add(other.sum, other.sumCross);
+        }
+
+        private void add(final double[] s, final double[][] sc) {
+            for (int i = 0; i < numOfSourceBands; i++) {
+                sum[i] += s[i];
+                for (int j = 0; j <= i; j++) {
+                    sumCross[i][j] += sc[i][j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Minimum values of the PCA images over the tiles processed by one worker.
+     */
+    private final class MinAccumulator implements TileStatisticsPass.Accumulator<ProductData[], MinAccumulator> {
+        final double[] minPCA = new double[numOfSourceBands];
+
+        MinAccumulator() {
+            Arrays.fill(minPCA, Double.MAX_VALUE);
+        }
+
+        @Override
+        public void accumulate(final Rectangle rectangle, final ProductData[] bandsRawSamples) {
+            final int n = bandsRawSamples[0].getNumElems();
+            for (int i = 0; i < numPCA; i++) {
+                for (int k = 0; k < n; k++) {
+                    double vPCA = 0.0;
+                    for (int j = 0; j < numOfSourceBands; j++) {
+                        vPCA += bandsRawSamples[j].getElemDoubleAt(k) * eigenVectorMatrices[j][i];
+                    }
+                    if (vPCA < minPCA[i])
+                        minPCA[i] = vPCA;
+                }
+            }
+        }
+
+        @Override
+        public void merge(final MinAccumulator other) {
+            for (int i = 0; i < numPCA; i++) {
+                if (other.minPCA[i] < minPCA[i]) {
+                    minPCA[i] = other.minPCA[i];
+                }
+            }
+        }
+    }
+
     /**
      * Compute summation and cross-summation for all bands for a given tile.
      *
@@ -15,10 +15,13 @@
  */
 package eu.esa.sar.insar.gpf;
 
+import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.commons.StackReducer;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.gpf.Operator;
 import org.esa.snap.core.gpf.OperatorException;
 import org.esa.snap.core.gpf.OperatorSpi;
+import org.esa.snap.core.gpf.Tile;
 import org.esa.snap.core.gpf.annotations.OperatorMetadata;
 import org.esa.snap.core.gpf.annotations.Parameter;
 import org.esa.snap.core.gpf.annotations.SourceProduct;
@@ -27,10 +30,14 @@ import org.esa.snap.core.util.ProductUtils;
 import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
 import org.esa.snap.engine_utilities.gpf.OperatorUtils;
 import org.esa.snap.engine_utilities.gpf.StackUtils;
+import org.esa.snap.engine_utilities.gpf.TileIndex;
 
+import java.awt.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -54,6 +61,8 @@ public class StackAveragingOp extends Operator {
     private String statistic = "Mean Average";
 
     private BandInfo[] nameGroups;
+    private StackReducer.Statistic reducerStatistic;
+    private final Map<Band, Band[]> targetSourceBandMap = new HashMap<>();
 
     /**
      * Initializes this operator and sets the one and only target product.
@@ -79,6 +88,7 @@ public class StackAveragingOp extends Operator {
             ProductUtils.copyProductNodes(sourceProduct, targetProduct);
 
             nameGroups = getBandGroupNames();
+            reducerStatistic = getReducerStatistic(statistic);
 
             for (BandInfo bandInfo : nameGroups) {
                 if (bandInfo.isVirtual) {
@@ -90,23 +100,7 @@ public class StackAveragingOp extends Operator {
                     final String unit = sourceBands[0].getUnit();
                     final double nodatavalue = sourceBands[0].getNoDataValue();
 
-                    switch (statistic) {
-                        case "Mean Average":
-                            addVirtualBand("average", name_prefix, mean(sourceBands), unit, nodatavalue);
-                            break;
-                        case "Minimum":
-                            addVirtualBand("min", name_prefix, min(sourceBands), unit, nodatavalue);
-                            break;
-                        case "Maximum":
-                            addVirtualBand("max", name_prefix, max(sourceBands), unit, nodatavalue);
-                            break;
-                        case "Standard Deviation":
-                            addVirtualBand("stddev", name_prefix, stddev(sourceBands), unit, nodatavalue);
-                            break;
-                        case "Coefficient of Variation":
-                            addVirtualBand("coefVar", name_prefix, coefVar(sourceBands), unit, nodatavalue);
-                            break;
-                    }
+                    addStatisticBand(getOperationName(reducerStatistic), name_prefix, sourceBands, unit, nodatavalue);
                 }
             }
 
@@ -116,17 +110,6 @@ public class StackAveragingOp extends Operator {
         }
     }
 
-    @Override
-    public void dispose() {
-        for (BandInfo bandInfo : nameGroups) {
-            final Band srcBand = sourceProduct.getBand(bandInfo.name);
-            if (srcBand != null) {
-                sourceProduct.removeBand(srcBand);
-            }
-        }
-        sourceProduct.setModified(false);
-    }
-
     private static void updateMetadata(final Product targetProduct) {
         final MetadataElement absRoot = AbstractMetadata.getAbstractedMetadata(targetProduct);
 
@@ -159,25 +142,107 @@ public class StackAveragingOp extends Operator {
         return bandList.toArray(new Band[0]);
     }
 
-    private void addVirtualBand(final String operation, final String name_prefix, final String expression,
-                                final String unit, final double nodatavalue) {
-        final VirtualBand virtBand = new VirtualBand(name_prefix,
+    private static StackReducer.Statistic getReducerStatistic(final String statistic) {
+        switch (statistic) {
+            case "Minimum":
+                return StackReducer.Statistic.MIN;
+            case "Maximum":
+                return StackReducer.Statistic.MAX;
+            case "Standard Deviation":
+                return StackReducer.Statistic.STDDEV;
+            case "Coefficient of Variation":
+                return StackReducer.Statistic.COEF_VAR;
+            case "Mean Average":
+            default:
+                return StackReducer.Statistic.MEAN;
+        }
+    }
+
+    private static String getOperationName(final StackReducer.Statistic statistic) {
+        switch (statistic) {
+            case MIN:
+                return "min";
+            case MAX:
+                return "max";
+            case STDDEV:
+                return "stddev";
+            case COEF_VAR:
+                return "coefVar";
+            default:
+                return "average";
+        }
+    }
+
+    private void addStatisticBand(final String operation, final String name_prefix, final Band[] sourceBands,
+                                  final String unit, final double nodatavalue) {
+        final Band targetBand = new Band(name_prefix,
                 ProductData.TYPE_FLOAT32,
                 sourceProduct.getSceneRasterWidth(),
-                sourceProduct.getSceneRasterHeight(),
-                expression);
-        virtBand.setUnit(unit);
-        virtBand.setDescription(name_prefix + ' ' + operation + ' ' + unit);
-        virtBand.setNoDataValueUsed(true);
-        virtBand.setNoDataValue(nodatavalue);
-
-        final Band srcBand = sourceProduct.getBand(virtBand.getName());
-        if (srcBand != null) {
-            sourceProduct.removeBand(srcBand);
-        }
-        sourceProduct.addBand(virtBand);
+                sourceProduct.getSceneRasterHeight());
+        targetBand.setUnit(unit);
+        targetBand.setDescription(name_prefix + ' ' + operation + ' ' + unit);
+        targetBand.setNoDataValueUsed(true);
+        targetBand.setNoDataValue(nodatavalue);
+        targetProduct.addBand(targetBand);
+
+        targetSourceBandMap.put(targetBand, sourceBands);
+    }
+
+    /**
+     * Called by the framework in order to compute a tile for the given target band.
+     *
+     * @param targetBand The target band.
+     * @param targetTile The current tile associated with the target band to be computed.
+     * @param pm         A progress monitor which should be used to determine computation cancelation requests.
+     * @throws OperatorException If an error occurs during computation of the target raster.
+     */
+    @Override
+    public void computeTile(Band targetBand, Tile targetTile, ProgressMonitor pm) throws OperatorException {
 
-        ProductUtils.copyBand(name_prefix, sourceProduct, targetProduct, true);
+        try {
+            final Band[] sourceBands = targetSourceBandMap.get(targetBand);
+            if (sourceBands == null) {
+                return;
+            }
+
+            final Rectangle targetTileRectangle = targetTile.getRectangle();
+            final int x0 = targetTileRectangle.x;
+            final int y0 = targetTileRectangle.y;
+            final int w = targetTileRectangle.width;
+            final int h = targetTileRectangle.height;
+
+            // one pass over the stack, each source tile is released once it is added
+            final StackReducer reducer = new StackReducer(w * h, reducerStatistic);
+            for (Band srcBand : sourceBands) {
+                checkForCancellation();
+                final Tile sourceTile = getSourceTile(srcBand, targetTileRectangle);
+                if (srcBand.isScalingApplied()) {
+                    // the statistics are of the geophysical values
+                    final double srcNoDataValue = srcBand.isNoDataValueUsed() ?
+                            srcBand.getGeophysicalNoDataValue() : Double.NaN;
+                    reducer.add(ProductData.createInstance(sourceTile.getSamplesDouble()), srcNoDataValue);
+                } else {
+                    final double srcNoDataValue = srcBand.isNoDataValueUsed() ? srcBand.getNoDataValue() : Double.NaN;
+                    reducer.add(sourceTile.getRawSamples(), srcNoDataValue);
+                }
+            }
+
+            final double noDataValue = targetBand.getNoDataValue();
+            final ProductData targetData = targetTile.getDataBuffer();
+            final TileIndex targetIndex = new TileIndex(targetTile);
+            int i = 0;
+            for (int y = y0; y < y0 + h; ++y) {
+                targetIndex.calculateStride(y);
+                for (int x = x0; x < x0 + w; ++x) {
+                    targetData.setElemDoubleAt(targetIndex.getIndex(x), reducer.getValue(reducerStatistic, i++, noDataValue));
+                }
+            }
+
+        } catch (Throwable e) {
+            OperatorUtils.catchOperatorException(getId(), e);
+        } finally {
+            pm.done();
+        }
     }
 
     private void addOriginalVirtualBands(final String trgBandName) {
@@ -223,102 +288,6 @@ public class StackAveragingOp extends Operator {
         return false;
     }
 
-    private static String mean(final Band[] sourceBands) {
-        final StringBuilder expression = new StringBuilder("( ");
-        int cnt = 0;
-        for (Band band : sourceBands) {
-            if (cnt > 0)
-                expression.append(" + ");
-            expression.append(band.getName());
-            ++cnt;
-        }
-        expression.append(") / ");
-        expression.append(sourceBands.length);
-
-        return expression.toString();
-    }
-
-    private static String min(final Band[] sourceBands) {
-        final StringBuilder expression = new StringBuilder("min( ");
-        int cnt = 0;
-        for (Band band : sourceBands) {
-            if (cnt > 0) {
-                expression.append(", ");
-                if (cnt < sourceBands.length - 1)
-                    expression.append("min( ");
-            }
-            expression.append(band.getName());
-            ++cnt;
-        }
-        for (int i = 0; i < sourceBands.length - 1; ++i) {
-            expression.append(')');
-        }
-
-        return expression.toString();
-    }
-
-    private static String max(final Band[] sourceBands) {
-        final StringBuilder expression = new StringBuilder("max( ");
-        int cnt = 0;
-        for (Band band : sourceBands) {
-            if (cnt > 0) {
-                expression.append(", ");
-                if (cnt < sourceBands.length - 1)
-                    expression.append("max( ");
-            }
-            expression.append(band.getName());
-            ++cnt;
-        }
-        for (int i = 0; i < sourceBands.length - 1; ++i) {
-            expression.append(')');
-        }
-
-        return expression.toString();
-    }
-
-    private static String mean2(final Band[] sourceBands) {
-        final StringBuilder expression = new StringBuilder("( ");
-        int cnt = 0;
-        for (Band band : sourceBands) {
-            if (cnt > 0)
-                expression.append(" + ");
-            expression.append("sq(");
-            expression.append(band.getName());
-            expression.append(')');
-            ++cnt;
-        }
-        expression.append(") / ");
-        expression.append(sourceBands.length);
-
-        return expression.toString();
-    }
-
-    private static String mean4(final Band[] sourceBands) {
-        final StringBuilder expression = new StringBuilder("( ");
-        int cnt = 0;
-        for (Band band : sourceBands) {
-            if (cnt > 0)
-                expression.append(" + ");
-            expression.append("pow(");
-            expression.append(band.getName());
-            expression.append(", 4)");
-            ++cnt;
-        }
-        expression.append(") / ");
-        expression.append(sourceBands.length);
-
-        return expression.toString();
-    }
-
-    private static String stddev(final Band[] sourceBands) {
-        return "sqrt( " + mean2(sourceBands) + " - " + "sq(" + mean(sourceBands) + "))";
-    }
-
-    private static String coefVar(final Band[] sourceBands) {
-        final String m2 = mean2(sourceBands);
-        return "sqrt( " + mean4(sourceBands) + " - " + "sq(" + m2 + ")) / " + m2;
-    }
-
     private static class BandInfo {
         final String name;
         final boolean isVirtual;
@@ -16,6 +16,7 @@
 package eu.esa.sar.insar.gpf;
 
 import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.commons.io.TileWriteQueue;
 import org.esa.snap.core.dataio.ProductIO;
 import org.esa.snap.core.dataio.ProductSubsetBuilder;
 import org.esa.snap.core.dataio.ProductSubsetDef;
@@ -30,6 +31,7 @@ import org.esa.snap.core.gpf.annotations.Parameter;
 import org.esa.snap.core.gpf.annotations.SourceProduct;
 import org.esa.snap.core.gpf.annotations.TargetProduct;
 import org.esa.snap.core.subset.PixelSubsetRegion;
+import org.esa.snap.core.util.SystemUtils;
 import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
 import org.esa.snap.engine_utilities.gpf.InputProductValidator;
 import org.esa.snap.engine_utilities.gpf.StackUtils;
@@ -69,6 +71,9 @@ public class StackSplitWriter extends Operator {
 
     private final Map<Band, SubsetInfo> bandMap = new HashMap<>();
 
+    private TileWriteQueue writeQueue = null;
+    private int subsetsQueued = 0;
+
     public StackSplitWriter() {
         setRequiresAllBands(true);
     }
@@ -107,6 +112,10 @@ public class StackSplitWriter extends Operator {
                 createSubset(slvProductName, getBandNames(slvBandNames));
             }
 
+            // whole bands are queued, so only a few may wait in memory
+            final int numThreads = Math.max(1, Math.min(bandMap.size(), Runtime.getRuntime().availableProcessors() / 2));
+            writeQueue = new TileWriteQueue("Stack-Split " + sourceProduct.getName(), numThreads, numThreads);
+
         } catch (Throwable t) {
             throw new OperatorException(t);
         }
@@ -182,11 +191,24 @@ public class StackSplitWriter extends Operator {
             if(subsetInfo == null)
                 return;
 
-            subsetInfo.productWriter.writeProductNodes(subsetInfo.subsetProduct, subsetInfo.file);
+            synchronized (subsetInfo) {
+                if (subsetInfo.written) {
+                    return;
+                }
+                subsetInfo.productWriter.writeProductNodes(subsetInfo.subsetProduct, subsetInfo.file);
+                subsetInfo.written = true;
+            }
 
             final Rectangle trgRect = subsetInfo.subsetBuilder.getSubsetDef().getRegion();
-            if (!subsetInfo.written) {
-                writeTile(subsetInfo, trgRect);
+            writeTile(subsetInfo, trgRect);
+
+            final boolean allQueued;
+            synchronized (bandMap) {
+                allQueued = ++subsetsQueued == bandMap.size();
+            }
+            if (allQueued) {
+                // report write failures while the operator is still running
+                writeQueue.flush();
             }
         } catch (Exception e) {
             if (e instanceof OperatorException) {
@@ -197,9 +219,7 @@ public class StackSplitWriter extends Operator {
         }
     }
 
-    private synchronized void writeTile(final SubsetInfo info, final Rectangle trgRect)
-            throws IOException {
-        if (info.written) return;
+    private void writeTile(final SubsetInfo info, final Rectangle trgRect) throws IOException {
 
         for(Band trgBand : info.subsetProduct.getBands()) {
             final String oldBandName = info.newBandNamingMap.get(trgBand.getName());
@@ -207,14 +227,20 @@ public class StackSplitWriter extends Operator {
             final ProductData rawSamples = sourceTile.getRawSamples();
 
             //final String newBandName = StackUtils.getBandNameWithoutDate(bandName);
-            info.productWriter.writeBandRasterData(trgBand,
-                    0, 0, trgBand.getRasterWidth(), trgBand.getRasterHeight(), rawSamples, ProgressMonitor.NULL);
+            writeQueue.write(info.productWriter, trgBand,
+                    0, 0, trgBand.getRasterWidth(), trgBand.getRasterHeight(), rawSamples);
         }
-        info.written = true;
     }
 
     @Override
     public void dispose() {
+        try {
+            if (writeQueue != null) {
+                writeQueue.close();
+            }
+        } catch (IOException e) {
+            SystemUtils.LOG.warning(e.getMessage());
+        }
         try {
             for (Band band : bandMap.keySet()) {
                 SubsetInfo info = bandMap.get(band);
@@ -49,8 +49,13 @@ import javax.media.jai.PlanarImage;
 import javax.media.jai.RasterFactory;
 import java.awt.*;
 import java.awt.image.*;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Image co-registration is fundamental for Interferometry SAR (InSAR) imaging and its applications, such as
@@ -163,10 +168,11 @@ public class CrossCorrelationOp extends Operator {
     private int fWindowHeight = 0; // column dimension for master and slave imagette for computing coherence, must be power of 2
 
     private final static double MaxInvalidPixelPercentage = 0.66; // maximum percentage of invalid pixels allowed in xcorrelation
+    private final static int GCPsPerBatch = 16; // GCPs of one grid row correlated by a worker from shared source reads
 
     private final Map<Band, Band> sourceRasterMap = new HashMap<>();
     private final Map<Band, Band> complexSrcMap = new HashMap<>();
-    private final Map<Band, Boolean> gcpsComputedMap = new HashMap<>();
+    private final Map<Band, Boolean> gcpsComputedMap = new ConcurrentHashMap<>();
     final Map<Band, Band> bandsToCoregister = new HashMap<>();
 
     private Band primarySlaveBand = null;    // the slave band to process
@@ -502,26 +508,26 @@ public class CrossCorrelationOp extends Operator {
 
             int bandCnt = 0;
             Band firstTargetBand = null;
+            final Map<Band, Band> gcpBandList = new LinkedHashMap<>();
+            final List<Band> copyBandList = new ArrayList<>();
             for (Band targetBand : bandList.keySet()) {
                 ++bandCnt;
-                final Band slaveBand = bandList.get(targetBand);
-
-                if (collocatedStack || (!collocatedStack && bandCnt == 1)) {
-                    final String bandCountStr = bandCnt + " of " + bandList.size();
-                    if (complexCoregistration) {
-                        computeSlaveGCPs(slaveBand, complexSrcMap.get(slaveBand), targetBand, bandCountStr);
-                    } else {
-                        computeSlaveGCPs(slaveBand, null, targetBand, bandCountStr);
-                    }
-
+                if (collocatedStack || bandCnt == 1) {
+                    gcpBandList.put(targetBand, bandList.get(targetBand));
                     if (bandCnt == 1) {
                         firstTargetBand = targetBand;
                     }
                 } else {
-                    copyFirstTargetBandGCPs(firstTargetBand, targetBand);
+                    copyBandList.add(targetBand);
                 }
             }
 
+            computeSlaveGCPs(gcpBandList);
+
+            for (Band targetBand : copyBandList) {
+                copyFirstTargetBandGCPs(firstTargetBand, targetBand);
+            }
+
             // copy slave data to target
             for (Band targetBand : targetProduct.getBands()) {
                 final Band slaveBand = sourceRasterMap.get(targetBand);
@@ -537,118 +543,216 @@ public class CrossCorrelationOp extends Operator {
     }
 
     /**
-     * Compute slave GCPs for the given tile.
+     * Compute slave GCPs of all given slave bands. The GCPs of all bands are split into batches of neighbouring
+     * GCPs that are correlated concurrently, so the slave bands of a stack are processed together.
      *
-     * @param slaveBand1 the input band
-     * @param slaveBand2 for complex
-     * @param targetBand the output band
+     * @param gcpBandList the output bands and their input slave bands
      */
-    private synchronized void computeSlaveGCPs(final Band slaveBand1, final Band slaveBand2, final Band targetBand,
-                                               final String bandCountStr) throws OperatorException {
-
-        if (gcpsComputedMap.get(slaveBand1)) {
-            return;
-        }
+    private synchronized void computeSlaveGCPs(final Map<Band, Band> gcpBandList) throws OperatorException {
 
+        final List<Band> slaveBands = new ArrayList<>();
         try {
+            final List<GCPBatch> batches = new ArrayList<>();
+            int numGCPs = 0;
+            for (Map.Entry<Band, Band> entry : gcpBandList.entrySet()) {
+                final Band slaveBand1 = entry.getValue();
+                if (gcpsComputedMap.get(slaveBand1) || slaveBands.contains(slaveBand1)) {
+                    continue;
+                }
+                slaveBands.add(slaveBand1);
+                final Band slaveBand2 = complexCoregistration ? complexSrcMap.get(slaveBand1) : null;
+
+                final int[] offset = new int[2]; // 0-x, 1-y
+                if (computeOffset) {
+                    determiningImageOffset(slaveBand1, slaveBand2, offset);
+                }
+
+                addGCPBatches(slaveBand1, slaveBand2, entry.getKey(), offset, batches);
+                numGCPs += masterGcpGroup.getNodeCount();
+            }
+            if (slaveBands.isEmpty()) {
+                return;
+            }
 
-            final ProductNodeGroup<Placemark> targetGCPGroup = GCPManager.instance().getGcpGroup(targetBand);
             final GeoCoding tgtGeoCoding = targetProduct.getSceneGeoCoding();
+            final StatusProgressMonitor status = new StatusProgressMonitor(StatusProgressMonitor.TYPE.SUBTASK);
+            status.beginTask("Cross Correlating " + slaveBands.size() + " of " + gcpBandList.size() + " bands... ",
+                             numGCPs);
 
-            final int[] offset = new int[2]; // 0-x, 1-y
-            if (computeOffset) {
-                determiningImageOffset(slaveBand1, slaveBand2, offset);
+            // GCPs rejected before correlation
+            int numBatchGCPs = 0;
+            for (GCPBatch batch : batches) {
+                numBatchGCPs += batch.masterPins.size();
             }
+            status.worked(numGCPs - numBatchGCPs);
 
             final ThreadExecutor executor = new ThreadExecutor();
+            for (final GCPBatch batch : batches) {
+                checkForCancellation();
 
-            //final ProcessTimeMonitor timeMonitor = new ProcessTimeMonitor();
-            //timeMonitor.start();
+                final ThreadRunnable worker = new ThreadRunnable() {
 
-            final int numberOfMasterGCPs = masterGcpGroup.getNodeCount();
-            final StatusProgressMonitor status = new StatusProgressMonitor(StatusProgressMonitor.TYPE.SUBTASK);
-            status.beginTask("Cross Correlating " + bandCountStr + ' ' + slaveBand1.getName() + "... ", numberOfMasterGCPs);
+                    @Override
+                    public void process() {
+                        computeSlaveGCPs(batch, tgtGeoCoding, status);
+                    }
+                };
+                executor.execute(worker);
+            }
 
-            for (int i = 0; i < numberOfMasterGCPs; ++i) {
-                checkForCancellation();
+            executor.complete();
 
-                final Placemark mPin = masterGcpGroup.get(i);
+            status.done();
+        } catch (Throwable e) {
+            OperatorUtils.catchOperatorException(getId() + " computeSlaveGCPs ", e);
+        }
 
-                if (checkMasterGCPValidity(mPin)) {
+        for (Band slaveBand : slaveBands) {
+            gcpsComputedMap.put(slaveBand, true);
+        }
+    }
 
-                    final GeoPos mGCPGeoPos = mPin.getGeoPos();
-                    final PixelPos mGCPPixelPos = mPin.getPixelPos();
-                    final PixelPos sGCPPixelPos = new PixelPos(mPin.getPixelPos().x + offset[0],
-                                                               mPin.getPixelPos().y + offset[1]);
-                    if (!checkSlaveGCPValidity(sGCPPixelPos)) {
-                        //System.out.println("GCP(" + i + ") is outside slave image.");
-                        status.worked(1);
-                        continue;
-                    }
+    /**
+     * Split the valid master GCPs into batches of neighbouring GCPs: rows of GCPs within one imagette height,
+     * cut into runs of at most GCPsPerBatch GCPs along the row.
+     */
+    private void addGCPBatches(final Band slaveBand1, final Band slaveBand2, final Band targetBand,
+                               final int[] offset, final List<GCPBatch> batches) throws Exception {
+
+        final List<Placemark> validPins = new ArrayList<>();
+        final int numberOfMasterGCPs = masterGcpGroup.getNodeCount();
+        for (int i = 0; i < numberOfMasterGCPs; ++i) {
+            final Placemark mPin = masterGcpGroup.get(i);
+            if (checkMasterGCPValidity(mPin)) {
+                final PixelPos sGCPPixelPos = new PixelPos(mPin.getPixelPos().x + offset[0],
+                                                           mPin.getPixelPos().y + offset[1]);
+                if (checkSlaveGCPValidity(sGCPPixelPos)) {
+                    validPins.add(mPin);
+                }
+            }
+        }
+        validPins.sort(Comparator.comparingDouble(pin -> pin.getPixelPos().y));
+
+        final ProductNodeGroup<Placemark> targetGCPGroup = GCPManager.instance().getGcpGroup(targetBand);
+        int rowStart = 0;
+        while (rowStart < validPins.size()) {
+            final double rowY = validPins.get(rowStart).getPixelPos().y;
+            int rowEnd = rowStart + 1;
+            while (rowEnd < validPins.size() && validPins.get(rowEnd).getPixelPos().y < rowY + cWindowHeight) {
+                ++rowEnd;
+            }
 
-                    final ThreadRunnable worker = new ThreadRunnable() {
+            final List<Placemark> row = new ArrayList<>(validPins.subList(rowStart, rowEnd));
+            row.sort(Comparator.comparingDouble(pin -> pin.getPixelPos().x));
+            for (int i = 0; i < row.size(); i += GCPsPerBatch) {
+                batches.add(new GCPBatch(slaveBand1, slaveBand2, targetGCPGroup, offset,
+                                         row.subList(i, Math.min(i + GCPsPerBatch, row.size()))));
+            }
+            rowStart = rowEnd;
+        }
+    }
 
-                        @Override
-                        public void process() {
-                            //System.out.println("Running "+mPin.getName());
-                            boolean getSlaveGCP = getCoarseSlaveGCPPosition(slaveBand1, slaveBand2, mGCPPixelPos, sGCPPixelPos);
-
-                            if (getSlaveGCP && complexCoregistration && applyFineRegistration) {
-                                if (inSAROptimized) {
-                                    getSlaveGCP = getFineOffsets(slaveBand1, slaveBand2, mGCPPixelPos, sGCPPixelPos);
-                                } else {
-                                    getSlaveGCP = getFineSlaveGCPPosition(slaveBand1, slaveBand2, mGCPPixelPos, sGCPPixelPos);
-                                }
-                            }
+    /**
+     * Compute the slave GCPs of one batch. The master and slave imagettes are cut from one source read per band
+     * covering the batch, and the FFT workspace is shared by all GCPs of the batch.
+     */
+    private void computeSlaveGCPs(final GCPBatch batch, final GeoCoding tgtGeoCoding,
+                                  final StatusProgressMonitor status) {
+
+        final ImagetteCorrelator correlator =
+                new ImagetteCorrelator(cWindowWidth, cWindowHeight, rowUpSamplingFactor, colUpSamplingFactor);
+        final double[] mI = new double[cWindowWidth * cWindowHeight];
+        final double[] sI = new double[cWindowWidth * cWindowHeight];
+
+        // imagette rectangles as in getMasterImagette and getSlaveImagette, the slave ones with a margin for shifts
+        Rectangle masterRectangle = null;
+        Rectangle slaveRectangle = null;
+        for (Placemark mPin : batch.masterPins) {
+            final int mx = (int) mPin.getPixelPos().x;
+            final int my = (int) mPin.getPixelPos().y;
+            final Rectangle mRect = new Rectangle(mx - cHalfWindowWidth + 1, my - cHalfWindowHeight + 1,
+                                                  cWindowWidth, cWindowHeight);
+            final int sx = (int) (mPin.getPixelPos().x + batch.offset[0]);
+            final int sy = (int) (mPin.getPixelPos().y + batch.offset[1]);
+            final Rectangle sRect = new Rectangle(sx - cHalfWindowWidth - cHalfWindowWidth / 2,
+                                                  sy - cHalfWindowHeight - cHalfWindowHeight / 2,
+                                                  cWindowWidth + cHalfWindowWidth + 3,
+                                                  cWindowHeight + cHalfWindowHeight + 3);
+            masterRectangle = masterRectangle == null ? mRect : masterRectangle.union(mRect);
+            slaveRectangle = slaveRectangle == null ? sRect : slaveRectangle.union(sRect);
+        }
+        if (masterRectangle == null) {
+            return;
+        }
+        final Rectangle imageRectangle = new Rectangle(0, 0, sourceImageWidth, sourceImageHeight);
+        masterRectangle = masterRectangle.intersection(imageRectangle);
+        slaveRectangle = slaveRectangle.intersection(imageRectangle);
 
-                            if (getSlaveGCP) {
-
-                                final Placemark sPin = Placemark.createPointPlacemark(
-                                        GcpDescriptor.getInstance(),
-                                        mPin.getName(),
-                                        mPin.getLabel(),
-                                        mPin.getDescription(),
-                                        sGCPPixelPos,
-                                        mGCPGeoPos,
-                                        tgtGeoCoding);
-
-                                addPlacemark(sPin);
-                                //System.out.println("final "+mPin.getName()+" = " + "(" + sGCPPixelPos.x + "," + sGCPPixelPos.y + ")");
-                                //System.out.println();
-
-                            } else {
-                                //System.out.println("GCP(" + mPin.getName() + ") is invalid.");
-                                synchronized (status) {
-                                    status.worked(1);
-                                }
-                            }
-                        }
+        final Tile[] masterTiles = {
+                getSourceTile(masterBand1, masterRectangle),
+                complexCoregistration ? getSourceTile(masterBand2, masterRectangle) : null};
+        final Tile[] slaveTiles = {
+                getSourceTile(batch.slaveBand1, slaveRectangle),
+                complexCoregistration ? getSourceTile(batch.slaveBand2, slaveRectangle) : null};
 
-                        private synchronized void addPlacemark(final Placemark pin) {
-                            targetGCPGroup.add(pin);
-                            status.worked(1);
-                        }
+        for (Placemark mPin : batch.masterPins) {
 
-                    };
+            final GeoPos mGCPGeoPos = mPin.getGeoPos();
+            final PixelPos mGCPPixelPos = mPin.getPixelPos();
+            final PixelPos sGCPPixelPos = new PixelPos(mPin.getPixelPos().x + batch.offset[0],
+                                                       mPin.getPixelPos().y + batch.offset[1]);
 
-                    executor.execute(worker);
+            boolean getSlaveGCP = getCoarseSlaveGCPPosition(batch.slaveBand1, batch.slaveBand2,
+                                                            masterTiles, slaveTiles, correlator, mI, sI,
+                                                            mGCPPixelPos, sGCPPixelPos);
+
+            if (getSlaveGCP && complexCoregistration && applyFineRegistration) {
+                if (inSAROptimized) {
+                    getSlaveGCP = getFineOffsets(batch.slaveBand1, batch.slaveBand2, mGCPPixelPos, sGCPPixelPos);
                 } else {
-                    status.worked(1);
+                    getSlaveGCP = getFineSlaveGCPPosition(batch.slaveBand1, batch.slaveBand2, mGCPPixelPos, sGCPPixelPos);
                 }
             }
 
-            executor.complete();
+            if (getSlaveGCP) {
 
-            //SystemUtils.tileCacheFreeOldTiles();
+                final Placemark sPin = Placemark.createPointPlacemark(
+                        GcpDescriptor.getInstance(),
+                        mPin.getName(),
+                        mPin.getLabel(),
+                        mPin.getDescription(),
+                        sGCPPixelPos,
+                        mGCPGeoPos,
+                        tgtGeoCoding);
 
-            //final long duration = timeMonitor.stop();
-            //System.out.println("XCorr completed in "+ ProcessTimeMonitor.formatDuration(duration));
-            status.done();
-        } catch (Throwable e) {
-            OperatorUtils.catchOperatorException(getId() + " computeSlaveGCPs ", e);
+                synchronized (batch.targetGCPGroup) {
+                    batch.targetGCPGroup.add(sPin);
+                }
+            }
+            synchronized (status) {
+                status.worked(1);
+            }
         }
+    }
 
-        gcpsComputedMap.put(slaveBand1, true);
+    /**
+     * Neighbouring master GCPs of one slave band.
+     */
+    private static class GCPBatch {
+        final Band slaveBand1;
+        final Band slaveBand2;
+        final ProductNodeGroup<Placemark> targetGCPGroup;
+        final int[] offset;
+        final List<Placemark> masterPins;
+
+        GCPBatch(final Band slaveBand1, final Band slaveBand2, final ProductNodeGroup<Placemark> targetGCPGroup,
+                 final int[] offset, final List<Placemark> masterPins) {
+            this.slaveBand1 = slaveBand1;
+            this.slaveBand2 = slaveBand2;
+            this.targetGCPGroup = targetGCPGroup;
+            this.offset = offset;
+            this.masterPins = masterPins;
+        }
     }
 
     private void determiningImageOffset(final Band slaveBand1, final Band slaveBand2, int[] offset) {
@@ -932,15 +1036,16 @@ public class CrossCorrelationOp extends Operator {
     }
 
     private boolean getCoarseSlaveGCPPosition(final Band slaveBand, final Band slaveBand2,
+                                              final Tile[] masterTiles, final Tile[] slaveTiles,
+                                              final ImagetteCorrelator correlator,
+                                              final double[] mI, final double[] sI,
                                               final PixelPos mGCPPixelPos, final PixelPos sGCPPixelPos) {
         try {
-            final double[] mI = new double[cWindowWidth * cWindowHeight];
-            final double[] sI = new double[cWindowWidth * cWindowHeight];
-
-            final boolean getMISuccess = getMasterImagette(mGCPPixelPos, mI);
+            final boolean getMISuccess = getMasterImagette(masterTiles, mGCPPixelPos, mI);
             if (!getMISuccess) {
                 return false;
             }
+            correlator.setMaster(mI);
             //System.out.println("Master imagette:");
             //outputRealImage(mI);
 
@@ -958,7 +1063,7 @@ public class CrossCorrelationOp extends Operator {
                     return false;
                 }
 
-                final boolean getSISuccess = getSlaveImagette(slaveBand, slaveBand2, sGCPPixelPos, sI);
+                final boolean getSISuccess = getSlaveImagette(slaveBand, slaveBand2, slaveTiles, sGCPPixelPos, sI);
                 if (!getSISuccess) {
                     return false;
                 }
@@ -966,9 +1071,7 @@ public class CrossCorrelationOp extends Operator {
                 //outputRealImage(sI);
 
                 final double[] shift = {0, 0};
-                if (!getSlaveGCPShift(shift, mI, sI)) {
-                    return false;
-                }
+                correlator.getShift(sI, shift);
 
                 rowShift = shift[0];
                 colShift = shift[1];
@@ -984,7 +1087,8 @@ public class CrossCorrelationOp extends Operator {
         return false;
     }
 
-    private boolean getMasterImagette(final PixelPos gcpPixelPos, final double[] mI) throws OperatorException {
+    private boolean getMasterImagette(final Tile[] masterTiles, final PixelPos gcpPixelPos, final double[] mI)
+            throws OperatorException {
 
         final int x0 = (int) gcpPixelPos.x;
         final int y0 = (int) gcpPixelPos.y;
@@ -994,14 +1098,14 @@ public class CrossCorrelationOp extends Operator {
         final double validPixelThreshold = MaxInvalidPixelPercentage * cWindowHeight * cWindowWidth;
 
         try {
-            final Tile masterImagetteRaster1 = getSourceTile(masterBand1, masterImagetteRectangle);
+            final Tile masterImagetteRaster1 = getImagetteTile(masterBand1, masterTiles[0], masterImagetteRectangle);
             final ProductData masterData1 = masterImagetteRaster1.getDataBuffer();
             final double noDataValue1 = masterBand1.getNoDataValue();
 
             ProductData masterData2 = null;
             double noDataValue2 = 0.0;
             if (complexCoregistration) {
-                final Tile masterImagetteRaster2 = getSourceTile(masterBand2, masterImagetteRectangle);
+                final Tile masterImagetteRaster2 = getImagetteTile(masterBand2, masterTiles[1], masterImagetteRectangle);
                 masterData2 = masterImagetteRaster2.getDataBuffer();
                 noDataValue2 = masterBand2.getNoDataValue();
             }
@@ -1035,10 +1139,6 @@ public class CrossCorrelationOp extends Operator {
                 }
             }
 
-            masterData1.dispose();
-            if (masterData2 != null)
-                masterData2.dispose();
-
             return numInvalidPixels <= validPixelThreshold;
 
         } catch (Throwable e) {
@@ -1047,9 +1147,8 @@ public class CrossCorrelationOp extends Operator {
         return false;
     }
 
-    private boolean getSlaveImagette(
-            final Band slaveBand1, final Band slaveBand2, final PixelPos gcpPixelPos, final double[] sI)
-            throws OperatorException {
+    private boolean getSlaveImagette(final Band slaveBand1, final Band slaveBand2, final Tile[] slaveTiles,
+                                     final PixelPos gcpPixelPos, final double[] sI) throws OperatorException {
 
         final double xx = gcpPixelPos.x;
         final double yy = gcpPixelPos.y;
@@ -1060,7 +1159,7 @@ public class CrossCorrelationOp extends Operator {
         int k = 0;
 
         try {
-            final Tile slaveImagetteRaster1 = getSourceTile(slaveBand1, slaveImagetteRectangle);
+            final Tile slaveImagetteRaster1 = getImagetteTile(slaveBand1, slaveTiles[0], slaveImagetteRectangle);
             final ProductData slaveData1 = slaveImagetteRaster1.getDataBuffer();
             final double noDataValue1 = slaveBand1.getNoDataValue();
 
@@ -1068,7 +1167,7 @@ public class CrossCorrelationOp extends Operator {
             ProductData slaveData2 = null;
             double noDataValue2 = 0.0;
             if (complexCoregistration) {
-                slaveImagetteRaster2 = getSourceTile(slaveBand2, slaveImagetteRectangle);
+                slaveImagetteRaster2 = getImagetteTile(slaveBand2, slaveTiles[1], slaveImagetteRectangle);
                 slaveData2 = slaveImagetteRaster2.getDataBuffer();
                 noDataValue2 = slaveBand2.getNoDataValue();
             }
@@ -1130,10 +1229,6 @@ public class CrossCorrelationOp extends Operator {
                     break;
                 }
             }
-            slaveData1.dispose();
-            if (slaveData2 != null)
-                slaveData2.dispose();
-
             return numInvalidPixels <= validPixelThreshold;
 
         } catch (Throwable e) {
@@ -1142,103 +1237,14 @@ public class CrossCorrelationOp extends Operator {
         return false;
     }
 
-    private boolean getSlaveGCPShift(final double[] shift, final double[] mI, final double[] sI) {
-        try {
-            // perform cross correlation
-            final PlanarImage crossCorrelatedImage = computeCrossCorrelatedImage(mI, sI);
-
-            // check peak validity
-            /*
-            final double mean = getMean(crossCorrelatedImage);
-            if (Double.compare(mean, 0.0) == 0) {
-                return false;
-            }
-
-            double max = getMax(crossCorrelatedImage);
-            double qualityParam = max / mean;
-            if (qualityParam <= qualityThreshold) {
-                return false;
-            }
-            */
-
-            // get peak shift: row and col
-            final int w = crossCorrelatedImage.getWidth();
-            final int h = crossCorrelatedImage.getHeight();
-
-            final Raster idftData = crossCorrelatedImage.getData();
-            final double[] real = idftData.getSamples(0, 0, w, h, 0, (double[]) null);
-            //System.out.println("Cross correlated imagette:");
-            //outputRealImage(real);
-
-            int peakRow = 0;
-            int peakCol = 0;
-            double peak = real[0];
-            for (int r = 0; r < h; r++) {
-                for (int c = 0; c < w; c++) {
-                    final int k = r * w + c;
-                    if (real[k] > peak) {
-                        peak = real[k];
-                        peakRow = r;
-                        peakCol = c;
-                    }
-                }
-            }
-            //System.out.println("peak = " + peak + " at (" + peakRow + ", " + peakCol + ")");
-
-            if (peakRow <= h / 2) {
-                shift[0] = (double) (-peakRow) / (double) rowUpSamplingFactor;
-            } else {
-                shift[0] = (double) (h - peakRow) / (double) rowUpSamplingFactor;
-            }
-
-            if (peakCol <= w / 2) {
-                shift[1] = (double) (-peakCol) / (double) colUpSamplingFactor;
-            } else {
-                shift[1] = (double) (w - peakCol) / (double) colUpSamplingFactor;
-            }
-
-            return true;
-        } catch (Throwable t) {
-            SystemUtils.LOG.warning("getSlaveGCPShift failed " + t.getMessage());
-            return false;
+    /**
+     * @return the batch tile if it covers the imagette, otherwise the imagette read on its own
+     */
+    private Tile getImagetteTile(final Band band, final Tile batchTile, final Rectangle imagetteRectangle) {
+        if (batchTile != null && batchTile.getRectangle().contains(imagetteRectangle)) {
+            return batchTile;
         }
-    }
-
-    private PlanarImage computeCrossCorrelatedImage(final double[] mI, final double[] sI) {
-
-        // get master imagette spectrum
-        final RenderedImage masterImage = createRenderedImage(mI, cWindowWidth, cWindowHeight);
-        final PlanarImage masterSpectrum = JAIFunctions.dft(masterImage);
-        //System.out.println("Master spectrum:");
-        //outputComplexImage(masterSpectrum);
-
-        // get slave imagette spectrum
-        final RenderedImage slaveImage = createRenderedImage(sI, cWindowWidth, cWindowHeight);
-        final PlanarImage slaveSpectrum = JAIFunctions.dft(slaveImage);
-        //System.out.println("Slave spectrum:");
-        //outputComplexImage(slaveSpectrum);
-
-        // get conjugate slave spectrum
-        final PlanarImage conjugateSlaveSpectrum = JAIFunctions.conjugate(slaveSpectrum);
-        //System.out.println("Conjugate slave spectrum:");
-        //outputComplexImage(conjugateSlaveSpectrum);
-
-        // multiply master spectrum and conjugate slave spectrum
-        final PlanarImage crossSpectrum = JAIFunctions.multiplyComplex(masterSpectrum, conjugateSlaveSpectrum);
-        //System.out.println("Cross spectrum:");
-        //outputComplexImage(crossSpectrum);
-
-        // upsampling cross spectrum
-        final RenderedImage upsampledCrossSpectrum = JAIFunctions.upsampling(crossSpectrum,
-                                                                             rowUpSamplingFactor, colUpSamplingFactor);
-
-        // perform IDF on the cross spectrum
-        final PlanarImage correlatedImage = JAIFunctions.idft(upsampledCrossSpectrum);
-        //System.out.println("Correlated image:");
-        //outputComplexImage(correlatedImage);
-
-        // compute the magnitude of the cross correlated image
-        return JAIFunctions.magnitude(correlatedImage);
+        return getSourceTile(band, imagetteRectangle);
     }
 
     private static RenderedImage createRenderedImage(final double[] array, final int w, final int h) {
@@ -16,6 +16,7 @@
 package eu.esa.sar.insar.gpf.coregistration;
 
 import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.commons.ElevationModelCache;
 import eu.esa.sar.commons.OrbitStateVectors;
 import eu.esa.sar.commons.SARGeocoding;
 import eu.esa.sar.insar.gpf.support.SARPosition;
@@ -105,6 +106,7 @@ public final class DEMAssistedCoregistrationOp extends Operator {
     private Metadata mstMetadata = new Metadata();
     private Metadata[] slvMetadatas;
     private ElevationModel dem = null;
+    private ElevationModelCache.Handle demHandle = null;
     private boolean isElevationModelAvailable = false;
     private double demNoDataValue = 0; // no data value for DEM
     private double noDataValue = 0.0;
@@ -410,6 +412,15 @@ public final class DEMAssistedCoregistrationOp extends Operator {
     }
 
 
+    @Override
+    public void dispose() throws OperatorException {
+        if (demHandle != null) {
+            demHandle.release();
+            demHandle = null;
+        }
+        super.dispose();
+    }
+
     /**
      * Called by the framework in order to compute a tile for the given target band.
      * <p>The default implementation throws a runtime exception with the message "not implemented".</p>
@@ -472,11 +483,16 @@ public final class DEMAssistedCoregistrationOp extends Operator {
         if (isElevationModelAvailable) return;
         try {
             if (externalDEMFile != null) { // if external DEM file is specified by user
-                dem = new FileElevationModel(externalDEMFile, demResamplingMethod, externalDEMNoDataValue);
+                demHandle = ElevationModelCache.acquire(externalDEMFile.getPath() + '|' + externalDEMNoDataValue,
+                        demResamplingMethod,
+                        () -> new FileElevationModel(externalDEMFile, demResamplingMethod, externalDEMNoDataValue));
+                dem = demHandle.getElevationModel();
                 demNoDataValue = externalDEMNoDataValue;
                 demName = externalDEMFile.getPath();
             } else {
-                dem = DEMFactory.createElevationModel(demName, demResamplingMethod);
+                demHandle = ElevationModelCache.acquire(demName, demResamplingMethod,
+                        () -> DEMFactory.createElevationModel(demName, demResamplingMethod));
+                dem = demHandle.getElevationModel();
                 demNoDataValue = dem.getDescriptor().getNoDataValue();
             }
         } catch (Throwable t) {
@@ -559,7 +575,7 @@ public final class DEMAssistedCoregistrationOp extends Operator {
                     GeoPos gp = dem.getGeoPos(pix);
                     lat[l][p] = gp.lat;
                     lon[l][p] = gp.lon;
-                    Double alt = dem.getElevation(gp);
+                    Double alt = demHandle.getElevation(lonMinIdx + p, latMaxIdx + l);
 
                     if (alt.equals(demNoDataValue)) { // get corrected elevation for 0
                         alt = (double)egm.getEGM(gp.lat, gp.lon);
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.coregistration;
+
+import edu.emory.mathcs.jtransforms.fft.DoubleFFT_2D;
+
+import java.util.Arrays;
+
+/**
+ * FFT cross correlation of real master and slave imagettes with an upsampled correlation surface.
+ * <p>
+ * The master spectrum is kept between calls, so the iterations of one GCP transform the master imagette once.
+ * FFT plans and spectra are allocated once per correlator; a correlator is not thread safe and is meant to be
+ * used by one worker for a batch of GCPs.
+ */
+final class ImagetteCorrelator {
+
+    private final int width;
+    private final int height;
+    private final int rowUpSamplingFactor;
+    private final int colUpSamplingFactor;
+    private final int upWidth;
+    private final int upHeight;
+
+    private final DoubleFFT_2D fft;
+    private final DoubleFFT_2D upFFT;
+    private final double[] masterSpectrum;
+    private final double[] slaveSpectrum;
+    private final double[] crossSpectrum;
+
+    /**
+     * @param width               imagette width, a power of 2
+     * @param height              imagette height, a power of 2
+     * @param rowUpSamplingFactor upsampling factor of the correlation surface width
+     * @param colUpSamplingFactor upsampling factor of the correlation surface height
+     */
+    ImagetteCorrelator(final int width, final int height,
+                       final int rowUpSamplingFactor, final int colUpSamplingFactor) {
+        this.width = width;
+        this.height = height;
+        this.rowUpSamplingFactor = rowUpSamplingFactor;
+        this.colUpSamplingFactor = colUpSamplingFactor;
+        this.upWidth = rowUpSamplingFactor * width;
+        this.upHeight = colUpSamplingFactor * height;
+
+        fft = new DoubleFFT_2D(height, width);
+        upFFT = new DoubleFFT_2D(upHeight, upWidth);
+        masterSpectrum = new double[2 * width * height];
+        slaveSpectrum = new double[2 * width * height];
+        crossSpectrum = new double[2 * upWidth * upHeight];
+    }
+
+    /**
+     * @param mI master imagette, row by row
+     */
+    void setMaster(final double[] mI) {
+        toSpectrum(mI, masterSpectrum);
+    }
+
+    /**
+     * Correlate a slave imagette with the master and find the shift of the correlation peak.
+     *
+     * @param sI    slave imagette, row by row
+     * @param shift receives the row and column shift that moves the slave position onto the master
+     */
+    void getShift(final double[] sI, final double[] shift) {
+        toSpectrum(sI, slaveSpectrum);
+
+        // master times conjugate slave, zero padded around the highest frequencies
+        Arrays.fill(crossSpectrum, 0.0);
+        for (int v = 0; v < height; v++) {
+            final int upV = v < height / 2 ? v : upHeight - height + v;
+            for (int u = 0; u < width; u++) {
+                final int upU = u < width / 2 ? u : upWidth - width + u;
+                final int k = 2 * (v * width + u);
+                final double mRe = masterSpectrum[k], mIm = masterSpectrum[k + 1];
+                final double sRe = slaveSpectrum[k], sIm = slaveSpectrum[k + 1];
+                final int l = 2 * (upV * upWidth + upU);
+                crossSpectrum[l] = mRe * sRe + mIm * sIm;
+                crossSpectrum[l + 1] = mIm * sRe - mRe * sIm;
+            }
+        }
+        upFFT.complexInverse(crossSpectrum, false);
+
+        // the peak of the squared magnitude is the peak of the magnitude
+        int peakRow = 0;
+        int peakCol = 0;
+        double peak = crossSpectrum[0] * crossSpectrum[0] + crossSpectrum[1] * crossSpectrum[1];
+        for (int r = 0; r < upHeight; r++) {
+            for (int c = 0; c < upWidth; c++) {
+                final int k = 2 * (r * upWidth + c);
+                final double pwr = crossSpectrum[k] * crossSpectrum[k] + crossSpectrum[k + 1] * crossSpectrum[k + 1];
+                if (pwr > peak) {
+                    peak = pwr;
+                    peakRow = r;
+                    peakCol = c;
+                }
+            }
+        }
+
+        if (peakRow <= upHeight / 2) {
+            shift[0] = (double) (-peakRow) / (double) rowUpSamplingFactor;
+        } else {
+            shift[0] = (double) (upHeight - peakRow) / (double) rowUpSamplingFactor;
+        }
+
+        if (peakCol <= upWidth / 2) {
+            shift[1] = (double) (-peakCol) / (double) colUpSamplingFactor;
+        } else {
+            shift[1] = (double) (upWidth - peakCol) / (double) colUpSamplingFactor;
+        }
+    }
+
+    private void toSpectrum(final double[] imagette, final double[] spectrum) {
+        final int n = width * height;
+        for (int i = 0; i < n; i++) {
+            spectrum[2 * i] = imagette[i];
+            spectrum[2 * i + 1] = 0.0;
+        }
+        fft.complexForward(spectrum);
+    }
+}
@@ -17,6 +17,7 @@ package eu.esa.sar.insar.gpf.support;
 
 import eu.esa.sar.commons.OrbitStateVectors;
 import eu.esa.sar.commons.SARGeocoding;
+import eu.esa.sar.commons.ZeroDopplerSolver;
 import org.esa.snap.engine_utilities.datamodel.AbstractMetadata;
 import org.esa.snap.engine_utilities.datamodel.PosVector;
 import org.esa.snap.engine_utilities.util.Maths;
@@ -39,6 +40,7 @@ public class SARPosition {
     private final AbstractMetadata.SRGRCoefficientList[] srgrConvParams;
 
     private int x0, y0, w, h;
+    private ZeroDopplerSolver.Cursor zeroDopplerCursor = null;
 
     public static class PositionData {
         public final PosVector earthPoint = new PosVector();
@@ -82,11 +84,21 @@ public class SARPosition {
         this.h = h;
     }
 
+    /**
+     * Use a zero Doppler solver built for the same orbit. Successive calls to getPosition then start
+     * the zero Doppler search from the previous point.
+     */
+    public void setZeroDopplerSolver(final ZeroDopplerSolver solver) {
+        this.zeroDopplerCursor = solver != null ? solver.newCursor() : null;
+    }
+
     public boolean getPosition(final PositionData data) {
 
-        final double zeroDopplerTime = SARGeocoding.getEarthPointZeroDopplerTime(
-                firstLineTime, lineTimeInterval, wavelength, data.earthPoint,
-                orbit.sensorPosition, orbit.sensorVelocity);
+        final double zeroDopplerTime = zeroDopplerCursor != null ?
+                zeroDopplerCursor.getZeroDopplerTime(data.earthPoint) :
+                SARGeocoding.getEarthPointZeroDopplerTime(
+                        firstLineTime, lineTimeInterval, wavelength, data.earthPoint,
+                        orbit.sensorPosition, orbit.sensorVelocity);
 
         if (zeroDopplerTime == SARGeocoding.NonValidZeroDopplerTime) {
             return false;
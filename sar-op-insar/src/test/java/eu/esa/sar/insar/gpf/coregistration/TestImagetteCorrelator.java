@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.insar.gpf.coregistration;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit test for ImagetteCorrelator.
+ */
+public class TestImagetteCorrelator {
+
+    private static final int width = 32;
+    private static final int height = 16;
+
+    @Test
+    public void testIntegerShift() {
+        final Random random = new Random(3);
+        final double[] master = new double[width * height];
+        for (int i = 0; i < master.length; i++) {
+            master[i] = random.nextDouble();
+        }
+
+        final ImagetteCorrelator correlator = new ImagetteCorrelator(width, height, 2, 2);
+        correlator.setMaster(master);
+
+        final double[] shift = new double[2];
+        final int[][] shifts = {{0, 0}, {3, -5}, {-2, 7}, {-6, -4}};
+        for (int[] s : shifts) {
+            correlator.getShift(shiftedCopy(master, s[0], s[1]), shift);
+            assertEquals(s[0], shift[0], 1e-12);
+            assertEquals(s[1], shift[1], 1e-12);
+        }
+    }
+
+    @Test
+    public void testSubPixelShift() {
+        final double[] master = blob(height / 2.0, width / 2.0);
+        final double[] slave = blob(height / 2.0 + 1.5, width / 2.0 - 2.5);
+
+        final ImagetteCorrelator correlator = new ImagetteCorrelator(width, height, 2, 2);
+        correlator.setMaster(master);
+
+        final double[] shift = new double[2];
+        correlator.getShift(slave, shift);
+        assertEquals(1.5, shift[0], 1e-12);
+        assertEquals(-2.5, shift[1], 1e-12);
+    }
+
+    // circular shift, the slave sample at (r, c) is the master sample at (r - dr, c - dc)
+    private static double[] shiftedCopy(final double[] master, final int dr, final int dc) {
+        final double[] slave = new double[master.length];
+        for (int r = 0; r < height; r++) {
+            for (int c = 0; c < width; c++) {
+                final int mr = Math.floorMod(r - dr, height);
+                final int mc = Math.floorMod(c - dc, width);
+                slave[r * width + c] = master[mr * width + mc];
+            }
+        }
+        return slave;
+    }
+
+    private static double[] blob(final double r0, final double c0) {
+        final double[] data = new double[width * height];
+        for (int r = 0; r < height; r++) {
+            for (int c = 0; c < width; c++) {
+                final double dr = r - r0, dc = c - c0;
+                data[r * width + c] = Math.exp(-(dr * dr + dc * dc) / 4.0);
+            }
+        }
+        return data;
+    }
+}
@@ -32,6 +32,7 @@ import org.esa.snap.engine_utilities.datamodel.Unit;
 import org.esa.snap.engine_utilities.gpf.FilterWindow;
 import org.esa.snap.engine_utilities.gpf.InputProductValidator;
 import org.esa.snap.engine_utilities.gpf.OperatorUtils;
+import org.esa.snap.engine_utilities.gpf.TileIndex;
 
 import java.awt.*;
 import java.util.ArrayList;
@@ -354,21 +355,20 @@ public class MultiTemporalSpeckleFilterOp extends Operator {
             for (Band tgtBand : targetBands) {
                 final Band srcBand = sourceProduct.getBand(tgtBand.getName());
                 final Tile srcTile = getSourceTile(srcBand, targetRectangle);
-                final ProductData srcData = srcTile.getDataBuffer();
                 final double bandNoDataValues = srcBand.getNoDataValue();
+                final TileIntensity srcIntensity = new TileIntensity(targetRectangle, srcTile.getDataBuffer(), null,
+                        new TileIndex(srcTile), bandNoDataValues, false);
+                final double[] srcValues = srcIntensity.getValues();
                 final String[] srcBandNames = {srcBand.getName()};
 
                 final double[][] filteredTile = speckleFilter.performFiltering(x0, y0, w, h, srcBandNames);
 
                 filteredTileList.add(filteredTile);
 
-                for (int y = y0; y < yMax; ++y) {
-                    final int yy = y - y0;
-                    for (int x = x0; x < xMax; ++x) {
-                        final int xx = x - x0;
+                for (int yy = 0; yy < h; ++yy) {
+                    for (int xx = 0; xx < w; ++xx) {
                         if (filteredTile[yy][xx] != 0.0) {
-                            final int sourceIndex = srcTile.getDataBufferIndex(x, y);
-                            final double srcDataValue = srcData.getElemDoubleAt(sourceIndex);
+                            final double srcDataValue = srcValues[yy * w + xx];
                             if (srcDataValue != bandNoDataValues) {
                                 sum[yy][xx] += srcDataValue / filteredTile[yy][xx];
                                 count[yy][xx]++;
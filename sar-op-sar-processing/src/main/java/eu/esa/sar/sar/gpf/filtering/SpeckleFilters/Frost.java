@@ -116,25 +116,27 @@ public class Frost implements SpeckleFilter {
         final Unit.UnitType bandUnit = Unit.getUnitType(sourceBand1);
         final double noDataValue = sourceBand1.getNoDataValue();
         final TileIndex srcIndex = new TileIndex(sourceTile1);
-        final double[] neighborValues = new double[windowSizeX * windowSizeY];
         final boolean isComplex = bandUnit == Unit.UnitType.REAL || bandUnit == Unit.UnitType.IMAGINARY;
+        final LocalStatistics localStatistics = new LocalStatistics(new TileIntensity(
+                sourceTileRectangle, sourceData1, sourceData2, srcIndex, noDataValue, isComplex));
+        final double[] meanVar = new double[2];
         final int xMax = x0 + w;
         final int yMax = y0 + h;
 
         final double[] mask = new double[windowSizeX * windowSizeY];
         getFrostMask(mask);
+        final double[] ringWeights = new double[Math.max(halfWindowSizeX, halfWindowSizeY) + 1];
 
         for (int y = y0; y < yMax; ++y) {
             final int yy = y - y0;
             for (int x = x0; x < xMax; ++x) {
                 final int xx = x - x0;
 
-                final int numSamples = getNeighborValues(
-                        x, y, sourceData1, sourceData2, srcIndex, noDataValue, isComplex,
-                        windowSizeX, windowSizeY, sourceImageWidth, sourceImageHeight, neighborValues);
+                final int numSamples = localStatistics.getStatistics(x, y, windowSizeX, windowSizeY, meanVar);
 
                 if (numSamples > 0) {
-                    filteredTile[yy][xx] = getFrostValue(neighborValues, numSamples, noDataValue, mask);
+                    filteredTile[yy][xx] = getFrostValue(
+                            x, y, localStatistics, meanVar[0], meanVar[1], noDataValue, mask, ringWeights);
                 } else {
                     filteredTile[yy][xx] = noDataValue;
                 }
@@ -166,35 +168,53 @@ public class Frost implements SpeckleFilter {
     /**
      * Get the Frost filtered pixel intensity for pixels in a given rectangular region.
      *
-     * @param neighborValues Array holding the pixel values.
-     * @param numSamples     The number of samples.
-     * @param noDataValue    Place holder for no data value.
-     * @param mask           Array holding Frost filter mask values.
+     * @param x               X coordinate of the centre pixel.
+     * @param y               Y coordinate of the centre pixel.
+     * @param localStatistics The pixel intensities of the source tile.
+     * @param mean            The mean of the valid pixel values in the region.
+     * @param var             The variance of the valid pixel values in the region.
+     * @param noDataValue     Place holder for no data value.
+     * @param mask            Array holding Frost filter mask values.
+     * @param ringWeights     Work array for the weight of each mask distance.
      * @return val The Frost filtered value.
-     * @throws OperatorException If an error occurs in computation of the Frost filtered value.
      */
-    private double getFrostValue(
-            final double[] neighborValues, final int numSamples, final double noDataValue, final double[] mask) {
+    private double getFrostValue(final int x, final int y, final LocalStatistics localStatistics,
+                                 final double mean, final double var, final double noDataValue,
+                                 final double[] mask, final double[] ringWeights) {
 
-        final double mean = getMeanValue(neighborValues, numSamples, noDataValue);
         if (mean <= Double.MIN_VALUE) {
             return mean;
         }
 
-        final double var = getVarianceValue(neighborValues, numSamples, mean, noDataValue);
         if (var <= Double.MIN_VALUE) {
             return mean;
         }
 
         final double k = dampingFactor * var / (mean * mean);
 
+        // the mask holds integer distances, so one exp per distance instead of one per pixel
+        for (int d = 0; d < ringWeights.length; d++) {
+            ringWeights[d] = -1.0;
+        }
+
+        final int minX = x - halfWindowSizeX;
+        final int minY = y - halfWindowSizeY;
         double sum = 0.0;
         double totalWeight = 0.0;
-        for (int i = 0; i < neighborValues.length; i++) {
-            if (neighborValues[i] != noDataValue) {
-                final double weight = FastMath.exp(-k * mask[i]);
-                sum += weight * neighborValues[i];
-                totalWeight += weight;
+        int i = 0;
+        for (int row = 0; row < windowSizeY; row++) {
+            for (int col = 0; col < windowSizeX; col++, i++) {
+                final double v = localStatistics.getValue(minX + col, minY + row);
+                if (v != noDataValue) {
+                    final int d = (int) mask[i];
+                    double weight = ringWeights[d];
+                    if (weight < 0.0) {
+                        weight = FastMath.exp(-k * mask[i]);
+                        ringWeights[d] = weight;
+                    }
+                    sum += weight * v;
+                    totalWeight += weight;
+                }
             }
         }
         return sum / totalWeight;
@@ -27,7 +27,6 @@ import org.esa.snap.engine_utilities.gpf.TileIndex;
 
 import java.awt.*;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -129,12 +128,30 @@ public class IDAN implements SpeckleFilter {
 
         final int xMax = x0 + w;
         final int yMax = y0 + h;
+        final SlidingWindowMedian seedWindow = new SlidingWindowMedian(9);
         for (int y = y0; y < yMax; ++y) {
             final int yy = y - y0;
+            final int seedMinY = Math.max(y - 1, sy0);
+            final int seedMaxY = Math.min(y + 1, sy0 + sh - 1);
+
+            seedWindow.clear();
+            if (x0 - 1 >= sx0) {
+                updateSeedWindow(seedWindow, true, x0 - 1, seedMinY, seedMaxY, sx0, sy0, srcTileIntensity, noDataValue);
+            }
+            updateSeedWindow(seedWindow, true, x0, seedMinY, seedMaxY, sx0, sy0, srcTileIntensity, noDataValue);
+
             for (int x = x0; x < xMax; ++x) {
                 final int xx = x - x0;
 
-                final double seed = getInitialSeed(x, y, sx0, sy0, sw, sh, srcTileIntensity, noDataValue);
+                if (x + 1 <= sx0 + sw - 1) {
+                    updateSeedWindow(seedWindow, true, x + 1, seedMinY, seedMaxY, sx0, sy0, srcTileIntensity, noDataValue);
+                }
+
+                final double seed = getInitialSeed(seedWindow);
+
+                if (x - 1 >= sx0) {
+                    updateSeedWindow(seedWindow, false, x - 1, seedMinY, seedMaxY, sx0, sy0, srcTileIntensity, noDataValue);
+                }
 
                 final Pix[] anPixelList = getIDANPixels(x, y, sx0, sy0, sw, sh, srcTileIntensity, noDataValue, seed);
 
@@ -196,41 +213,44 @@ public class IDAN implements SpeckleFilter {
      * Compute the initial seed value for given pixel. The marginal median in a 3x3 neighborhood of the given pixel
      * is computed and used as the seed value.
      *
-     * @param tx               X coordinate of a given pixel.
-     * @param ty               Y coordinate of a given pixel.
+     * @param seedWindow The valid pixel intensities in the 3x3 neighborhood of the given pixel.
+     * @return           The computed initial seed value
+     */
+    private static double getInitialSeed(final SlidingWindowMedian seedWindow) {
+
+        if (seedWindow.size() == 0) {
+            return 0.0;
+        }
+        return seedWindow.getMedian();
+    }
+
+    /**
+     * Add or remove the valid pixel intensities of one column of the 3x3 neighborhood used for the initial seed.
+     *
+     * @param seedWindow       The pixel intensities in the neighborhood.
+     * @param add              True to add the column, false to remove it.
+     * @param x                X coordinate of the column.
+     * @param yMin             Y coordinate of the first row of the neighborhood.
+     * @param yMax             Y coordinate of the last row of the neighborhood.
      * @param sx0              X coordinate of the pixel at the upper left corner of the source rectangle
      * @param sy0              Y coordinate of the pixel at the upper left corner of the source rectangle
-     * @param sw               Width of the source rectangle
-     * @param sh               Height of the source rectangle
      * @param srcTileIntensity Source tile intensity.
      * @param noDataValue      Place holder for no data value.
-     * @return                 The computed initial seed value
      */
-    private static double getInitialSeed(
-            final int tx, final int ty, final int sx0, final int sy0, final int sw, final int sh,
-            final double[][] srcTileIntensity, final double noDataValue) {
+    private static void updateSeedWindow(
+            final SlidingWindowMedian seedWindow, final boolean add, final int x, final int yMin, final int yMax,
+            final int sx0, final int sy0, final double[][] srcTileIntensity, final double noDataValue) {
 
-        final int xMin = Math.max(tx - 1, sx0);
-        final int xMax = Math.min(tx + 1, sx0 + sw - 1);
-        final int yMin = Math.max(ty - 1, sy0);
-        final int yMax = Math.min(ty + 1, sy0 + sh - 1);
-        final double[] validSamples = new double[9];
-
-        int k = 0;
         for (int y = yMin; y <= yMax; y++) {
-            final int yy = y - sy0;
-            for (int x = xMin; x <= xMax; x++) {
-                final double v = srcTileIntensity[yy][x - sx0];
-                if (Double.compare(v, noDataValue) != 0) {
-                    validSamples[k] = v;
-                    k++;
+            final double v = srcTileIntensity[y - sy0][x - sx0];
+            if (Double.compare(v, noDataValue) != 0) {
+                if (add) {
+                    seedWindow.add(v);
+                } else {
+                    seedWindow.remove(v);
                 }
             }
         }
-
-        Arrays.sort(validSamples, 0, k);
-
-        return validSamples[k / 2];
     }
 
     /**
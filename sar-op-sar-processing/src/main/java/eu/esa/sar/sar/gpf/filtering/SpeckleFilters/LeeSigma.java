@@ -29,7 +29,6 @@ import org.esa.snap.engine_utilities.gpf.TileIndex;
 
 import java.awt.*;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -384,6 +383,9 @@ public class LeeSigma implements SpeckleFilter {
         final Unit.UnitType bandUnit = Unit.getUnitType(sourceBand1);
         final double noDataValue = sourceBand1.getNoDataValue();
         final TileIndex srcIndex = new TileIndex(sourceTile1);
+        final boolean isComplex = bandUnit == Unit.UnitType.REAL || bandUnit == Unit.UnitType.IMAGINARY;
+        final TileIntensity intensity = new TileIntensity(
+                sourceTileRectangle, sourceData1, sourceData2, srcIndex, noDataValue, isComplex);
 
         final int sx0 = sourceTileRectangle.x;
         final int sy0 = sourceTileRectangle.y;
@@ -403,8 +405,7 @@ public class LeeSigma implements SpeckleFilter {
             sigmaRangeHigh = I2;
         }
 
-        final double z98 = computeZ98Values(
-                srcIndex, sourceTileRectangle, noDataValue, bandUnit, sourceData1, sourceData2);
+        final double z98 = computeZ98Values(intensity);
 
         final boolean[][] isPointTarget = new boolean[h][w];
         final double[][] targetWindow = new double[targetWindowSize][targetWindowSize];
@@ -413,13 +414,10 @@ public class LeeSigma implements SpeckleFilter {
         final int yMax = y0 + h;
         for (int y = y0; y < yMax; ++y) {
             final int yy = y - y0;
-            srcIndex.calculateStride(y);
-
             for (int x = x0; x < xMax; ++x) {
                 final int xx = x - x0;
-                final int srcIdx = srcIndex.getIndex(x);
 
-                final double v = getPixelValue(srcIdx, noDataValue, bandUnit, sourceData1, sourceData2);
+                final double v = intensity.getValue(x, y);
 
                 if (isPointTarget[yy][xx]) {
                     filteredTile[yy][xx] = v;
@@ -429,14 +427,12 @@ public class LeeSigma implements SpeckleFilter {
                 if (y - halfSizeY < sy0 || y + halfSizeY > sy0 + sh - 1 ||
                         x - halfSizeX < sx0 || x + halfSizeX > sx0 + sw - 1) {
 
-                    filteredTile[yy][xx] = filterPixelWithAllValidPixels(v, x, y, sx0, sy0, sw, sh, sourceTile1,
-                            noDataValue, bandUnit, sourceData1, sourceData2, etaV2);
+                    filteredTile[yy][xx] = filterPixelWithAllValidPixels(v, x, y, intensity, noDataValue, etaV2);
 
                     continue;
                 }
 
-                getWindowPixels(x, y, sx0, sy0, sw, sh, sourceTile1, noDataValue, bandUnit,
-                                sourceData1, sourceData2, targetWindow);
+                getWindowPixels(x, y, intensity, targetWindow);
 
                 if (checkPointTarget(x, y, z98, targetWindow, isPointTarget, x0, y0, w, h, noDataValue)) {
                     filteredTile[yy][xx] = v;
@@ -445,89 +441,45 @@ public class LeeSigma implements SpeckleFilter {
 
                 final double[] sigmaRange = computeSigmaRange(v, targetWindow, noDataValue, sigmaRangeLow, sigmaRangeHigh, etaV2);
 
-                filteredTile[yy][xx] = filterPixelWithAllPixelsInSigmaRange(v, x, y, sx0, sy0, sw, sh, sourceTile1,
-                        noDataValue, bandUnit, sourceData1, sourceData2, etaVP2, sigmaRange);
+                filteredTile[yy][xx] = filterPixelWithAllPixelsInSigmaRange(
+                        v, x, y, intensity, noDataValue, etaVP2, sigmaRange);
             }
         }
 
         return filteredTile;
     }
 
-    private static double computeZ98Values(final TileIndex srcIndex, final Rectangle sourceRectangle,
-                                           final double noDataValue, final Unit.UnitType unit,
-                                           final ProductData srcData1, final ProductData srcData2) {
-
-        final int sx0 = sourceRectangle.x;
-        final int sy0 = sourceRectangle.y;
-        final int sw = sourceRectangle.width;
-        final int sh = sourceRectangle.height;
-        final int maxY = sy0 + sh;
-        final int maxX = sx0 + sw;
-        final int z98Index = (int) (sw * sh * 0.98) - 1;
-
-        double[] pixelValues = new double[sw * sh];
-        int k = 0;
-        for (int y = sy0; y < maxY; y++) {
-            srcIndex.calculateStride(y);
-            for (int x = sx0; x < maxX; x++) {
-                pixelValues[k++] = getPixelValue(srcIndex.getIndex(x), noDataValue, unit, srcData1, srcData2);
-            }
-        }
-
-        Arrays.sort(pixelValues);
-        return pixelValues[z98Index];
-    }
+    private static double computeZ98Values(final TileIntensity intensity) {
 
-    private static double getPixelValue(final int index, final double noDataValue, final Unit.UnitType unit,
-                                        final ProductData srcData1, final ProductData srcData2) {
+        final double[] pixelValues = intensity.getValues().clone();
+        final int z98Index = (int) (pixelValues.length * 0.98) - 1;
 
-        if (unit == Unit.UnitType.REAL || unit == Unit.UnitType.IMAGINARY) {
-            final double I = srcData1.getElemDoubleAt(index);
-            final double Q = srcData2.getElemDoubleAt(index);
-            if (Double.compare(I, noDataValue) != 0 && Double.compare(Q, noDataValue) != 0) {
-                return I * I + Q * Q;
-            } else {
-                return noDataValue;
-            }
-        } else {
-            return srcData1.getElemDoubleAt(index);
-        }
+        return SlidingWindowMedian.select(pixelValues, pixelValues.length, z98Index);
     }
 
-    private double filterPixelWithAllValidPixels(final double v, final int x, final int y, final int sx0, final int sy0,
-                                                 final int sw, final int sh, final Tile sourceTile,
-                                                 final double noDataValue, final Unit.UnitType bandUnit,
-                                                 final ProductData srcData1, final ProductData srcData2,
+    private double filterPixelWithAllValidPixels(final double v, final int x, final int y,
+                                                 final TileIntensity intensity, final double noDataValue,
                                                  final double etaV2) {
 
         final double[][] filterWindow = new double[filterSize][filterSize];
 
-        getWindowPixels(x, y, sx0, sy0, sw, sh, sourceTile, noDataValue, bandUnit, srcData1, srcData2, filterWindow);
+        getWindowPixels(x, y, intensity, filterWindow);
 
         final double[] validPixels = getValidPixels(filterWindow, noDataValue);
 
         return computeMMSEEstimate(v, validPixels, etaV2, noDataValue);
     }
 
-    private static void getWindowPixels(final int x, final int y, final int sx0, final int sy0, final int sw, final int sh,
-                                        final Tile sourceTile, final double noDataValue, final Unit.UnitType unit,
-                                        final ProductData srcData1, final ProductData srcData2, final double[][] windowPixel) {
+    private static void getWindowPixels(final int x, final int y, final TileIntensity intensity,
+                                        final double[][] windowPixel) {
 
-        final TileIndex srcIndex = new TileIndex(sourceTile);
         final int windowSize = windowPixel.length;
         final int halfWindowSize = windowSize / 2;
 
-        int yy, xx;
         for (int j = 0; j < windowSize; j++) {
-            yy = y - halfWindowSize + j;
-            srcIndex.calculateStride(yy);
+            final int yy = y - halfWindowSize + j;
             for (int i = 0; i < windowSize; i++) {
-                xx = x - halfWindowSize + i;
-                if (yy >= sy0 && yy <= sy0 + sh - 1 && xx >= sx0 && xx <= sx0 + sw - 1) {
-                    windowPixel[j][i] = getPixelValue(srcIndex.getIndex(xx), noDataValue, unit, srcData1, srcData2);
-                } else {
-                    windowPixel[j][i] = noDataValue;
-                }
+                windowPixel[j][i] = intensity.getValue(x - halfWindowSize + i, yy);
             }
         }
     }
@@ -605,15 +557,13 @@ public class LeeSigma implements SpeckleFilter {
         return new double[]{meanEst * sigmaRangeLow, meanEst * sigmaRangeHigh};
     }
 
-    private double filterPixelWithAllPixelsInSigmaRange(final double v, final int x, final int y, final int sx0,
-                                                        final int sy0, final int sw, final int sh, final Tile sourceTile,
-                                                        final double noDataValue, final Unit.UnitType bandUnit,
-                                                        final ProductData srcData1, final ProductData srcData2,
+    private double filterPixelWithAllPixelsInSigmaRange(final double v, final int x, final int y,
+                                                        final TileIntensity intensity, final double noDataValue,
                                                         final double etaVP2, final double[] sigmaRange) {
 
         final double[][] filterWindow = new double[filterSize][filterSize];
 
-        getWindowPixels(x, y, sx0, sy0, sw, sh, sourceTile, noDataValue, bandUnit, srcData1, srcData2, filterWindow);
+        getWindowPixels(x, y, intensity, filterWindow);
 
         final double[] pixelsSelected = selectPixelsInSigmaRange(sigmaRange, filterWindow, noDataValue);
         if (pixelsSelected.length == 0) {
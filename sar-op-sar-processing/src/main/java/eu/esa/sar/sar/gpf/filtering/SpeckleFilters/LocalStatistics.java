@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sar.gpf.filtering.SpeckleFilters;
+
+/**
+ * Local mean and variance of the pixel intensities in a sliding window, from integral images of a source tile.
+ * <p>
+ * Running sums of the intensity, the squared intensity and the number of valid samples of a {@link TileIntensity}
+ * give the statistics of any window from its four corners, independent of the window size. Samples equal to the
+ * no data value are left out as in {@link SpeckleFilter#getNeighborValues}. The intensities
+ * are offset by the tile mean before they are summed so that the variance keeps its precision.
+ */
+public final class LocalStatistics {
+
+    private final int x0, y0, width, height;
+    private final double noDataValue;
+    private final double[] values;
+    private final double offset;
+
+    // integral images with one leading row and column of zeros
+    private final double[] sum;
+    private final double[] sum2;
+    private final int[] count;
+
+    /**
+     * @param intensity The pixel intensities of the source tile.
+     */
+    public LocalStatistics(final TileIntensity intensity) {
+
+        this.x0 = intensity.getMinX();
+        this.y0 = intensity.getMinY();
+        this.width = intensity.getWidth();
+        this.height = intensity.getHeight();
+        this.noDataValue = intensity.getNoDataValue();
+        this.values = intensity.getValues();
+
+        double total = 0.0;
+        for (int i = 0; i < values.length; ++i) {
+            if (intensity.isValid(i)) {
+                total += values[i];
+            }
+        }
+        final int numValid = intensity.getNumValid();
+        this.offset = numValid > 0 ? total / numValid : 0.0;
+
+        final int stride = width + 1;
+        sum = new double[stride * (height + 1)];
+        sum2 = new double[stride * (height + 1)];
+        count = new int[stride * (height + 1)];
+        for (int j = 0; j < height; ++j) {
+            double rowSum = 0.0, rowSum2 = 0.0;
+            int rowCount = 0;
+            final int row = (j + 1) * stride;
+            for (int i = 0; i < width; ++i) {
+                if (intensity.isValid(j * width + i)) {
+                    final double d = values[j * width + i] - offset;
+                    rowSum += d;
+                    rowSum2 += d * d;
+                    rowCount++;
+                }
+                sum[row + i + 1] = sum[row - stride + i + 1] + rowSum;
+                sum2[row + i + 1] = sum2[row - stride + i + 1] + rowSum2;
+                count[row + i + 1] = count[row - stride + i + 1] + rowCount;
+            }
+        }
+    }
+
+    /**
+     * Get the intensity of a pixel.
+     *
+     * @param x X coordinate of the pixel.
+     * @param y Y coordinate of the pixel.
+     * @return The intensity or the no data value if the pixel is invalid or outside of the tile.
+     */
+    public double getValue(final int x, final int y) {
+        if (x < x0 || y < y0 || x >= x0 + width || y >= y0 + height) {
+            return noDataValue;
+        }
+        return values[(y - y0) * width + x - x0];
+    }
+
+    /**
+     * Get the intensity at the middle of the window, the same sample as neighborValues[length / 2] of
+     * {@link SpeckleFilter#getNeighborValues}.
+     */
+    public double getCentreValue(final int x, final int y, final int windowSizeX, final int windowSizeY) {
+        final int k = windowSizeX * windowSizeY / 2;
+        return getValue(x - windowSizeX / 2 + k % windowSizeX, y - windowSizeY / 2 + k / windowSizeX);
+    }
+
+    /**
+     * Get the mean and variance of the valid intensities in a window centred at the given pixel. The window is
+     * the same as in {@link SpeckleFilter#getNeighborValues}.
+     *
+     * @param x           X coordinate of the given pixel.
+     * @param y           Y coordinate of the given pixel.
+     * @param windowSizeX The sliding window width.
+     * @param windowSizeY The sliding window height.
+     * @param meanVar     Returns the mean and the sample variance, which is 0 for less than two samples.
+     * @return The number of valid samples.
+     */
+    public int getStatistics(final int x, final int y, final int windowSizeX, final int windowSizeY,
+                             final double[] meanVar) {
+
+        final int minX = Math.max(x - windowSizeX / 2, x0) - x0;
+        final int minY = Math.max(y - windowSizeY / 2, y0) - y0;
+        final int maxX = Math.min(x - windowSizeX / 2 + windowSizeX, x0 + width) - x0;
+        final int maxY = Math.min(y - windowSizeY / 2 + windowSizeY, y0 + height) - y0;
+        if (minX >= maxX || minY >= maxY) {
+            meanVar[0] = 0.0;
+            meanVar[1] = 0.0;
+            return 0;
+        }
+
+        final int stride = width + 1;
+        final int a = minY * stride + minX;
+        final int b = minY * stride + maxX;
+        final int c = maxY * stride + minX;
+        final int d = maxY * stride + maxX;
+
+        final int n = count[d] - count[b] - count[c] + count[a];
+        if (n == 0) {
+            meanVar[0] = 0.0;
+            meanVar[1] = 0.0;
+            return 0;
+        }
+
+        final double s = sum[d] - sum[b] - sum[c] + sum[a];
+        final double s2 = sum2[d] - sum2[b] - sum2[c] + sum2[a];
+        meanVar[0] = offset + s / n;
+        meanVar[1] = n > 1 ? Math.max(0.0, (s2 - s * s / n) / (n - 1)) : 0.0;
+        return n;
+    }
+}
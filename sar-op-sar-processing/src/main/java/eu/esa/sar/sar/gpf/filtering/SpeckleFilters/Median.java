@@ -20,14 +20,12 @@ import org.esa.snap.core.datamodel.Band;
 import org.esa.snap.core.datamodel.Product;
 import org.esa.snap.core.datamodel.ProductData;
 import org.esa.snap.core.gpf.Operator;
-import org.esa.snap.core.gpf.OperatorException;
 import org.esa.snap.core.gpf.Tile;
 import org.esa.snap.engine_utilities.datamodel.Unit;
 import org.esa.snap.engine_utilities.gpf.OperatorUtils;
 import org.esa.snap.engine_utilities.gpf.TileIndex;
 
 import java.awt.*;
-import java.util.Arrays;
 import java.util.Map;
 
 /**
@@ -113,25 +111,47 @@ public class Median implements SpeckleFilter {
         final Unit.UnitType bandUnit = Unit.getUnitType(sourceBand1);
         final double noDataValue = sourceBand1.getNoDataValue();
         final TileIndex srcIndex = new TileIndex(sourceTile1);
-        final double[] neighborValues = new double[windowSizeX * windowSizeY];
         final boolean isComplex = bandUnit == Unit.UnitType.REAL || bandUnit == Unit.UnitType.IMAGINARY;
         final int xMax = x0 + w;
         final int yMax = y0 + h;
 
+        final TileIntensity intensity = new TileIntensity(
+                sourceTileRectangle, sourceData1, sourceData2, srcIndex, noDataValue, isComplex);
+        final SlidingWindowMedian window = new SlidingWindowMedian(windowSizeX * windowSizeY);
+        final double[] columnValues = new double[windowSizeY];
+
         for (int y = y0; y < yMax; ++y) {
             final int yy = y - y0;
+            final int minY = y - halfWindowSizeY;
+
+            // all columns of the first window but the last one, which is added in the loop
+            window.clear();
+            for (int cx = x0 - halfWindowSizeX; cx < x0 - halfWindowSizeX + windowSizeX - 1; ++cx) {
+                final int n = getColumnValues(cx, minY, intensity, columnValues);
+                for (int i = 0; i < n; ++i) {
+                    window.add(columnValues[i]);
+                }
+            }
+
             for (int x = x0; x < xMax; ++x) {
                 final int xx = x - x0;
+                final int minX = x - halfWindowSizeX;
 
-                final int numSamples = getNeighborValues(
-                        x, y, sourceData1, sourceData2, srcIndex, noDataValue, isComplex,
-                        windowSizeX, windowSizeY, sourceImageWidth, sourceImageHeight, neighborValues);
+                int n = getColumnValues(minX + windowSizeX - 1, minY, intensity, columnValues);
+                for (int i = 0; i < n; ++i) {
+                    window.add(columnValues[i]);
+                }
 
-                if (numSamples > 0) {
-                    filteredTile[yy][xx] = getMedianValue(neighborValues, numSamples, noDataValue);
+                if (window.size() > 0) {
+                    filteredTile[yy][xx] = window.getMedian();
                 } else {
                     filteredTile[yy][xx] = noDataValue;
                 }
+
+                n = getColumnValues(minX, minY, intensity, columnValues);
+                for (int i = 0; i < n; ++i) {
+                    window.remove(columnValues[i]);
+                }
             }
         }
 
@@ -139,25 +159,23 @@ public class Median implements SpeckleFilter {
     }
 
     /**
-     * Get the median value of pixel intensities in a given rectangular region.
+     * Get the valid pixel intensities in one column of the sliding window.
      *
-     * @param neighborValues Array holding pixel values.
-     * @param numSamples     The number of samples.
-     * @param noDataValue    Place holder for no data value.
-     * @return median The median value.
-     * @throws OperatorException If an error occurs in computation of the median value.
+     * @param x            X coordinate of the column.
+     * @param minY         Y coordinate of the top of the window.
+     * @param intensity    The pixel intensities of the source tile.
+     * @param columnValues Returns the valid pixel intensities.
+     * @return The number of valid pixels.
      */
-    private static double getMedianValue(
-            final double[] neighborValues, final int numSamples, final double noDataValue) {
-
-        double[] tmp = new double[numSamples];
-        int k = 0;
-        for (double v : neighborValues) {
-            if (Double.compare(v, noDataValue) != 0) {
-                tmp[k++] = v;
+    private int getColumnValues(final int x, final int minY, final TileIntensity intensity,
+                                final double[] columnValues) {
+
+        int n = 0;
+        for (int y = minY; y < minY + windowSizeY; ++y) {
+            if (intensity.isValid(x, y)) {
+                columnValues[n++] = intensity.getValue(x, y);
             }
         }
-        Arrays.sort(tmp);
-        return tmp[numSamples / 2];
+        return n;
     }
 }
@@ -112,6 +112,9 @@ public class RefinedLee implements SpeckleFilter {
         final Unit.UnitType bandUnit = Unit.getUnitType(sourceBand1);
         final double noDataValue = sourceBand1.getNoDataValue();
         final TileIndex srcIndex = new TileIndex(sourceTile1);
+        final boolean isComplex = bandUnit == Unit.UnitType.REAL || bandUnit == Unit.UnitType.IMAGINARY;
+        final TileIntensity intensity = new TileIntensity(
+                sourceTileRectangle, sourceData1, sourceData2, srcIndex, noDataValue, isComplex);
         final double[][] neighborPixelValues = new double[windowSizeX][windowSizeY];
         final int xMax = x0 + w;
         final int yMax = y0 + h;
@@ -122,8 +125,7 @@ public class RefinedLee implements SpeckleFilter {
                 final int xx = x - x0;
 
                 final int numSamples = getNeighborValuesWithoutBorderExt(
-                        x, y, sourceData1, sourceData2, srcIndex, noDataValue, bandUnit, sourceTileRectangle,
-                        windowSizeX, windowSizeY, neighborPixelValues);
+                        x, y, intensity, windowSizeX, windowSizeY, neighborPixelValues);
 
                 if (numSamples > 0) {
                     filteredTile[yy][xx] = getRefinedLeeValueUsingEdgeThreshold(
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sar.gpf.filtering.SpeckleFilters;
+
+import java.util.Arrays;
+
+/**
+ * Running median of the samples in a window that slides along a row.
+ * <p>
+ * The samples are kept in a sorted array. When the window moves by one pixel only the column that leaves and
+ * the column that enters are removed and inserted, each with a binary search and one array shift, instead of
+ * sorting the whole window again. The order is the one of {@link Arrays#sort(double[])}, so the median is the
+ * same sample as sorting a copy of the window. Nothing is allocated after construction.
+ * <p>
+ * Instances are not thread safe; use one per tile computation.
+ */
+public final class SlidingWindowMedian {
+
+    private final double[] sorted;
+    private int size = 0;
+
+    /**
+     * @param capacity The largest number of samples in the window.
+     */
+    public SlidingWindowMedian(final int capacity) {
+        this.sorted = new double[capacity];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(final double value) {
+        int pos = Arrays.binarySearch(sorted, 0, size, value);
+        if (pos < 0) {
+            pos = -pos - 1;
+        }
+        System.arraycopy(sorted, pos, sorted, pos + 1, size - pos);
+        sorted[pos] = value;
+        size++;
+    }
+
+    public void remove(final double value) {
+        final int pos = Arrays.binarySearch(sorted, 0, size, value);
+        if (pos < 0) {
+            throw new IllegalStateException("value " + value + " is not in the window");
+        }
+        System.arraycopy(sorted, pos + 1, sorted, pos, size - pos - 1);
+        size--;
+    }
+
+    /**
+     * @return The sample at index size / 2 of the sorted window.
+     */
+    public double getMedian() {
+        return sorted[size / 2];
+    }
+
+    /**
+     * Get the k-th smallest of the first n values, the same as a[k] after Arrays.sort(a, 0, n), by partial
+     * sorting in linear expected time. The order of the values in the array is changed.
+     *
+     * @param a The values.
+     * @param n The number of values.
+     * @param k The index in sorted order.
+     * @return The k-th smallest value.
+     */
+    public static double select(final double[] a, final int n, final int k) {
+
+        int lo = 0, hi = n - 1;
+        while (hi > lo) {
+            // median of three pivot, then three way partition so that runs of equal values end the search
+            final int mid = (lo + hi) >>> 1;
+            final double pivot = medianOfThree(a[lo], a[mid], a[hi]);
+
+            int lt = lo, i = lo, gt = hi;
+            while (i <= gt) {
+                final int c = Double.compare(a[i], pivot);
+                if (c < 0) {
+                    swap(a, lt++, i++);
+                } else if (c > 0) {
+                    swap(a, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (k < lt) {
+                hi = lt - 1;
+            } else if (k > gt) {
+                lo = gt + 1;
+            } else {
+                return a[k];
+            }
+        }
+        return a[k];
+    }
+
+    private static double medianOfThree(final double a, final double b, final double c) {
+        if (Double.compare(a, b) > 0) {
+            return Double.compare(b, c) >= 0 ? b : (Double.compare(a, c) > 0 ? c : a);
+        }
+        return Double.compare(a, c) >= 0 ? a : (Double.compare(b, c) > 0 ? c : b);
+    }
+
+    private static void swap(final double[] a, final int i, final int j) {
+        final double t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
@@ -300,87 +300,27 @@ public interface SpeckleFilter {
      *
      * @param x                   X coordinate of the given pixel.
      * @param y                   Y coordinate of the given pixel.
-     * @param srcData1            The data buffer of the first band.
-     * @param srcData2            The data buffer of the second band.
-     * @param srcIndex            The source tile index.
-     * @param noDataValue         The place holder for no data.
-     * @param bandUnit            Unit for the 1st band.
-     * @param sourceTileRectangle The source tile rectangle.
+     * @param intensity           The pixel intensities of the source tile.
      * @param filterSizeX         Sliding window width.
      * @param filterSizeY         Sliding window height.
      * @param neighborPixelValues 2-D array holding the pixel values.
      * @return The number of valid pixels.
-     * @throws OperatorException If an error occurs in obtaining the pixel values.
      */
-    default int getNeighborValuesWithoutBorderExt(final int x, final int y, final ProductData srcData1,
-                                                  final ProductData srcData2, final TileIndex srcIndex,
-                                                  final double noDataValue, final Unit.UnitType bandUnit,
-                                                  final Rectangle sourceTileRectangle,
+    default int getNeighborValuesWithoutBorderExt(final int x, final int y, final TileIntensity intensity,
                                                   final int filterSizeX, final int filterSizeY,
                                                   final double[][] neighborPixelValues) {
 
-        final int sx0 = sourceTileRectangle.x;
-        final int sy0 = sourceTileRectangle.y;
-        final int sw = sourceTileRectangle.width;
-        final int sh = sourceTileRectangle.height;
-        final int maxY = sy0 + sh;
-        final int maxX = sx0 + sw;
+        final double noDataValue = intensity.getNoDataValue();
         final int halfSizeX = filterSizeX / 2;
         final int halfSizeY = filterSizeY / 2;
         int numSamples = 0;
-        if (bandUnit == Unit.UnitType.REAL || bandUnit == Unit.UnitType.IMAGINARY) {
-
-            for (int j = 0; j < filterSizeY; ++j) {
-                final int yj = y - halfSizeY + j;
-                if (yj < sy0 || yj >= maxY) {
-                    for (int i = 0; i < filterSizeX; ++i) {
-                        neighborPixelValues[j][i] = noDataValue;
-                    }
-                    continue;
-                }
-
-                srcIndex.calculateStride(yj);
-                for (int i = 0; i < filterSizeX; ++i) {
-                    final int xi = x - halfSizeX + i;
-                    if (xi < sx0 || xi >= maxX) {
-                        neighborPixelValues[j][i] = noDataValue;
-                    } else {
-                        final int idx = srcIndex.getIndex(xi);
-                        final double I = srcData1.getElemDoubleAt(idx);
-                        final double Q = srcData2.getElemDoubleAt(idx);
-                        if (I != noDataValue && Q != noDataValue) {
-                            neighborPixelValues[j][i] = I * I + Q * Q;
-                            numSamples++;
-                        } else {
-                            neighborPixelValues[j][i] = noDataValue;
-                        }
-                    }
-                }
-            }
-
-        } else {
-
-            for (int j = 0; j < filterSizeY; ++j) {
-                final int yj = y - halfSizeY + j;
-                if (yj < sy0 || yj >= maxY) {
-                    for (int i = 0; i < filterSizeX; ++i) {
-                        neighborPixelValues[j][i] = noDataValue;
-                    }
-                    continue;
-                }
-
-                srcIndex.calculateStride(yj);
-                for (int i = 0; i < filterSizeX; ++i) {
-                    final int xi = x - halfSizeX + i;
-                    if (xi < sx0 || xi >= maxX) {
-                        neighborPixelValues[j][i] = noDataValue;
-                    } else {
-                        final int idx = srcIndex.getIndex(xi);
-                        neighborPixelValues[j][i] = srcData1.getElemDoubleAt(idx);
-                        if (neighborPixelValues[j][i] != noDataValue) {
-                            numSamples++;
-                        }
-                    }
+        for (int j = 0; j < filterSizeY; ++j) {
+            final int yj = y - halfSizeY + j;
+            for (int i = 0; i < filterSizeX; ++i) {
+                final double v = intensity.getValue(x - halfSizeX + i, yj);
+                neighborPixelValues[j][i] = v;
+                if (v != noDataValue) {
+                    numSamples++;
                 }
             }
         }
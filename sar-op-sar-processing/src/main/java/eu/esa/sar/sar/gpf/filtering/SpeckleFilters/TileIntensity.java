@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2025 SkyWatch Space Applications Inc. https://www.skywatch.com
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License as published by the Free
+ * Software Foundation; either version 3 of the License, or (at your option)
+ * any later version.
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, see http://www.gnu.org/licenses/
+ */
+package eu.esa.sar.sar.gpf.filtering.SpeckleFilters;
+
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.engine_utilities.gpf.TileIndex;
+
+import java.awt.*;
+
+/**
+ * Pixel intensities of a source tile in one contiguous row-major array with a validity bitmap.
+ * <p>
+ * The tile is converted once: rows are read straight from the typed data buffer for float, double, short and int
+ * data, and I*I + Q*Q is computed once per pixel for complex data. Filters then read the plane instead of calling
+ * ProductData.getElemDoubleAt for every sample of every overlapping window. A pixel is valid if its intensity is
+ * not the no data value, as in {@link SpeckleFilter#getNeighborValues}; invalid pixels hold the no data value.
+ */
+public final class TileIntensity {
+
+    private final int x0, y0, width, height;
+    private final double noDataValue;
+    private final double[] values;
+    private final long[] validMask;
+    private final int numValid;
+
+    /**
+     * @param sourceTileRectangle The source tile rectangle.
+     * @param srcData1            The source ProductData for 1st band.
+     * @param srcData2            The source ProductData for 2nd band.
+     * @param srcIndex            The source tile index.
+     * @param noDataValue         Place holder for no data value.
+     * @param isComplex           True if it has i and q, otherwise false.
+     */
+    public TileIntensity(final Rectangle sourceTileRectangle, final ProductData srcData1,
+                         final ProductData srcData2, final TileIndex srcIndex, final double noDataValue,
+                         final boolean isComplex) {
+
+        this.x0 = sourceTileRectangle.x;
+        this.y0 = sourceTileRectangle.y;
+        this.width = sourceTileRectangle.width;
+        this.height = sourceTileRectangle.height;
+        this.noDataValue = noDataValue;
+        this.values = new double[width * height];
+        this.validMask = new long[(width * height + 63) >>> 6];
+
+        final double[] qRow = isComplex ? new double[width] : null;
+        final double[] iRow = isComplex ? new double[width] : null;
+
+        int count = 0;
+        for (int y = y0; y < y0 + height; ++y) {
+            srcIndex.calculateStride(y);
+            final int srcOffset = srcIndex.getIndex(x0);
+            final int rowOffset = (y - y0) * width;
+
+            if (isComplex) {
+                readRow(srcData1, srcOffset, iRow, 0);
+                readRow(srcData2, srcOffset, qRow, 0);
+                for (int i = 0; i < width; ++i) {
+                    final double I = iRow[i];
+                    final double Q = qRow[i];
+                    if (Double.compare(I, noDataValue) != 0 && Double.compare(Q, noDataValue) != 0) {
+                        values[rowOffset + i] = I * I + Q * Q;
+                    } else {
+                        values[rowOffset + i] = noDataValue;
+                    }
+                }
+            } else {
+                readRow(srcData1, srcOffset, values, rowOffset);
+            }
+
+            for (int i = rowOffset; i < rowOffset + width; ++i) {
+                if (Double.compare(values[i], noDataValue) != 0) {
+                    validMask[i >>> 6] |= 1L << i;
+                    count++;
+                }
+            }
+        }
+        this.numValid = count;
+    }
+
+    // a tile row is contiguous in the data buffer
+    private void readRow(final ProductData data, final int srcOffset, final double[] row, final int rowOffset) {
+        switch (data.getType()) {
+            case ProductData.TYPE_FLOAT32: {
+                final float[] elems = (float[]) data.getElems();
+                for (int i = 0; i < width; ++i) {
+                    row[rowOffset + i] = elems[srcOffset + i];
+                }
+                break;
+            }
+            case ProductData.TYPE_FLOAT64:
+                System.arraycopy((double[]) data.getElems(), srcOffset, row, rowOffset, width);
+                break;
+            case ProductData.TYPE_INT16: {
+                final short[] elems = (short[]) data.getElems();
+                for (int i = 0; i < width; ++i) {
+                    row[rowOffset + i] = elems[srcOffset + i];
+                }
+                break;
+            }
+            case ProductData.TYPE_INT32: {
+                final int[] elems = (int[]) data.getElems();
+                for (int i = 0; i < width; ++i) {
+                    row[rowOffset + i] = elems[srcOffset + i];
+                }
+                break;
+            }
+            default:
+                for (int i = 0; i < width; ++i) {
+                    row[rowOffset + i] = data.getElemDoubleAt(srcOffset + i);
+                }
+        }
+    }
+
+    public int getMinX() {
+        return x0;
+    }
+
+    public int getMinY() {
+        return y0;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public double getNoDataValue() {
+        return noDataValue;
+    }
+
+    /**
+     * @return The number of valid pixels in the tile.
+     */
+    public int getNumValid() {
+        return numValid;
+    }
+
+    /**
+     * @return The intensities in row-major order, index (y - minY) * width + x - minX.
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * @param index Index in the array returned by {@link #getValues()}.
+     * @return True if the intensity at the index is not the no data value.
+     */
+    public boolean isValid(final int index) {
+        return (validMask[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * @return True if the pixel is inside the tile and its intensity is not the no data value.
+     */
+    public boolean isValid(final int x, final int y) {
+        if (x < x0 || y < y0 || x >= x0 + width || y >= y0 + height) {
+            return false;
+        }
+        return isValid((y - y0) * width + x - x0);
+    }
+
+    /**
+     * Get the intensity of a pixel.
+     *
+     * @param x X coordinate of the pixel.
+     * @param y Y coordinate of the pixel.
+     * @return The intensity or the no data value if the pixel is invalid or outside of the tile.
+     */
+    public double getValue(final int x, final int y) {
+        if (x < x0 || y < y0 || x >= x0 + width || y >= y0 + height) {
+            return noDataValue;
+        }
+        return values[(y - y0) * width + x - x0];
+    }
+}
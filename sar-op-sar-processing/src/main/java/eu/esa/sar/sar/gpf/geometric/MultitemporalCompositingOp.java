@@ -16,6 +16,7 @@
 package eu.esa.sar.sar.gpf.geometric;
 
 import com.bc.ceres.core.ProgressMonitor;
+import eu.esa.sar.commons.StackReducer;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.gpf.Operator;
 import org.esa.snap.core.gpf.OperatorException;
@@ -154,55 +155,31 @@ public class MultitemporalCompositingOp extends Operator {
             final double srcNoDataValue = sourceBands[0].getNoDataValue();
             final double simNoDataValue = simImgBands[0].getNoDataValue();
 
-            final Tile[] sourceTile = new Tile[numSourceBands];
-            final Tile[] simImgTile = new Tile[numSourceBands];
-            final ProductData[] sourceData = new ProductData[numSourceBands];
-            final ProductData[] simImgData = new ProductData[numSourceBands];
+            // weighted mean with the inverse illuminated area as weight, accumulated one date at a time
+            final StackReducer reducer = new StackReducer(w * h, StackReducer.Statistic.MEAN);
             for (int i = 0; i < numSourceBands; ++i) {
-                sourceTile[i] = getSourceTile(sourceBands[i], targetTileRectangle);
-                sourceData[i] = sourceTile[i].getDataBuffer();
-
-                simImgTile[i] = getSourceTile(simImgBands[i], targetTileRectangle);
-                simImgData[i] = simImgTile[i].getDataBuffer();
+                checkForCancellation();
+                final ProductData sourceData = getSourceTile(sourceBands[i], targetTileRectangle).getRawSamples();
+                final ProductData simImgData = getSourceTile(simImgBands[i], targetTileRectangle).getRawSamples();
+
+                for (int k = 0; k < w * h; ++k) {
+                    final double area = simImgData.getElemDoubleAt(k);
+                    final double gamma0 = sourceData.getElemDoubleAt(k);
+                    if (area != simNoDataValue && area > 0.0 && gamma0 != srcNoDataValue) {
+                        reducer.add(k, gamma0, 1.0 / area);
+                    }
+                }
             }
-            final TileIndex sourceIndex = new TileIndex(sourceTile[0]);
-            final TileIndex simImgIndex = new TileIndex(simImgTile[0]);
 
             final ProductData targetData = targetTile.getDataBuffer();
             final TileIndex targetIndex = new TileIndex(targetTile);
 
+            int k = 0;
             for (int y = y0; y < yMax; ++y) {
                 targetIndex.calculateStride(y);
-                sourceIndex.calculateStride(y);
-                simImgIndex.calculateStride(y);
-
                 for (int x = x0; x < xMax; ++x) {
-                    final int tgtIdx = targetIndex.getIndex(x);
-                    final int srcIdx = sourceIndex.getIndex(x);
-                    final int simIdx = simImgIndex.getIndex(x);
-
-                    final double[] area = new double[numSourceBands];
-                    final double[] gamma0 = new double[numSourceBands];
-                    double totalWeight = 0.0;
-                    for (int i = 0; i < numSourceBands; ++i) {
-                        area[i] = simImgData[i].getElemDoubleAt(simIdx);
-                        gamma0[i] = sourceData[i].getElemDoubleAt(srcIdx);
-                        if (area[i] != simNoDataValue && area[i] > 0.0 && gamma0[i] != srcNoDataValue) {
-                            totalWeight += 1.0 / area[i];
-                        }
-                    }
-
-                    if (totalWeight > 0.0) {
-                        double sum = 0.0;
-                        for (int i = 0; i < numSourceBands; ++i) {
-                            if (area[i] != simNoDataValue && area[i] > 0.0) {
-                                sum += gamma0[i] / (area[i] * totalWeight);
-                            }
-                        }
-                        targetData.setElemDoubleAt(tgtIdx, sum);
-                    } else {
-                        targetData.setElemDoubleAt(tgtIdx, srcNoDataValue);
-                    }
+                    targetData.setElemDoubleAt(targetIndex.getIndex(x),
+                                               reducer.getValue(StackReducer.Statistic.MEAN, k++, srcNoDataValue));
                 }
             }
 
@@ -22,13 +22,14 @@ import eu.esa.sar.calibration.gpf.calibrators.Sentinel1Calibrator;
 import eu.esa.sar.calibration.gpf.support.CalibrationFactory;
 import eu.esa.sar.calibration.gpf.support.Calibrator;
 import eu.esa.sar.commons.CRSGeoCodingHandler;
+import eu.esa.sar.commons.ElevationModelCache;
 import eu.esa.sar.commons.OrbitStateVectors;
 import eu.esa.sar.commons.SARGeocoding;
 import eu.esa.sar.commons.SARUtils;
+import eu.esa.sar.commons.ZeroDopplerSolver;
 import eu.esa.sar.insar.gpf.support.SARPosition;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.dataop.dem.ElevationModel;
-import org.esa.snap.core.dataop.downloadable.StatusProgressMonitor;
 import org.esa.snap.core.dataop.resamp.Resampling;
 import org.esa.snap.core.dataop.resamp.ResamplingFactory;
 import org.esa.snap.core.gpf.Operator;
@@ -41,8 +42,6 @@ import org.esa.snap.core.gpf.annotations.SourceProduct;
 import org.esa.snap.core.gpf.annotations.TargetProduct;
 import org.esa.snap.core.util.ProductUtils;
 import org.esa.snap.core.util.SystemUtils;
-import org.esa.snap.core.util.ThreadExecutor;
-import org.esa.snap.core.util.ThreadRunnable;
 import org.esa.snap.dem.dataio.DEMFactory;
 import org.esa.snap.dem.dataio.EarthGravitationalModel96;
 import org.esa.snap.dem.dataio.FileElevationModel;
@@ -60,6 +59,7 @@ import java.awt.*;
 import java.io.File;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Logger;
 
 /**
@@ -220,6 +220,7 @@ public class RangeDopplerGeocodingOp extends Operator {
 
     private MetadataElement absRoot = null;
     private ElevationModel dem = null;
+    private ElevationModelCache.Handle demHandle = null;
     private Band elevationBand = null;
     private double demNoDataValue = 0.0f; // no data value for DEM
     private GeoCoding targetGeoCoding = null;
@@ -246,6 +247,7 @@ public class RangeDopplerGeocodingOp extends Operator {
     private double delLat = 0.0;
     private double delLon = 0.0;
     private OrbitStateVectors orbit = null;
+    private ZeroDopplerSolver zeroDopplerSolver = null;
 
     private AbstractMetadata.SRGRCoefficientList[] srgrConvParams = null;
     private OrbitStateVector[] orbitStateVectors = null;
@@ -267,8 +269,11 @@ public class RangeDopplerGeocodingOp extends Operator {
     private String mission = null;
     private boolean skipBistaticCorrection = false;
 
-    private boolean isLayoverShadowMaskAvailable = false;
-    private byte[][] layoverShadowMask = null;
+    // layover/shadow mask in source geometry, computed on demand per block of source lines
+    private static final int LAYOVER_SHADOW_BLOCK_LINES = 100;
+    private static final int LAYOVER_SHADOW_MARGIN_LINES = 20;
+    private AtomicReferenceArray<byte[]> layoverShadowBlocks = null;
+    private Object[] layoverShadowBlockLocks = null;
 
     public static final String externalDEMStr = "External DEM";
     private static final String PRODUCT_SUFFIX = "_TC";
@@ -318,6 +323,10 @@ public class RangeDopplerGeocodingOp extends Operator {
 
             computeSensorPositionsAndVelocities();
 
+            if (saveLayoverShadowMask) {
+                initLayoverShadowMask();
+            }
+
             if (saveSigmaNought) {
                 calibrator = CalibrationFactory.createCalibrator(sourceProduct);
 
@@ -363,8 +372,8 @@ public class RangeDopplerGeocodingOp extends Operator {
 
     @Override
     public void dispose() throws OperatorException {
-        if (dem != null) {
-            dem.dispose();
+        if (demHandle != null) {
+            demHandle.release();
         }
 
         if (!orthoDataProduced && processingStarted) {
@@ -491,14 +500,22 @@ public class RangeDopplerGeocodingOp extends Operator {
         if (isElevationModelAvailable) return;
         if (demName.contains(externalDEMStr) && externalDEMFile != null) { // if external DEM file is specified by user
 
-            dem = new FileElevationModel(externalDEMFile, demResamplingMethod, externalDEMNoDataValue);
-            ((FileElevationModel) dem).applyEarthGravitionalModel(externalDEMApplyEGM);
+            final String demKey = externalDEMFile.getPath() + '|' + externalDEMNoDataValue + '|' + externalDEMApplyEGM;
+            demHandle = ElevationModelCache.acquire(demKey, demResamplingMethod, () -> {
+                final FileElevationModel fileDEM = new FileElevationModel(externalDEMFile, demResamplingMethod,
+                        externalDEMNoDataValue);
+                fileDEM.applyEarthGravitionalModel(externalDEMApplyEGM);
+                return fileDEM;
+            });
+            dem = demHandle.getElevationModel();
             demNoDataValue = externalDEMNoDataValue;
             demName = externalDEMFile.getName();
 
         } else {
 
-            dem = DEMFactory.createElevationModel(demName, demResamplingMethod);
+            demHandle = ElevationModelCache.acquire(demName, demResamplingMethod,
+                    () -> DEMFactory.createElevationModel(demName, demResamplingMethod));
+            dem = demHandle.getElevationModel();
             demNoDataValue = dem.getDescriptor().getNoDataValue();
         }
 
@@ -582,6 +599,9 @@ public class RangeDopplerGeocodingOp extends Operator {
     private void computeSensorPositionsAndVelocities() {
 
         orbit = new OrbitStateVectors(orbitStateVectors, firstLineUTC, lineTimeInterval, sourceImageHeight);
+        if (orbit.sensorPosition != null) {
+            zeroDopplerSolver = new ZeroDopplerSolver(firstLineUTC, lineTimeInterval, wavelength, orbit);
+        }
     }
 
     /**
@@ -868,10 +888,6 @@ public class RangeDopplerGeocodingOp extends Operator {
                 throw new OperatorException(e);
             }
 
-            if (saveLayoverShadowMask && !isLayoverShadowMaskAvailable) {
-                createLayoverShadowMask();
-            }
-
             final int x0 = targetRectangle.x;
             final int y0 = targetRectangle.y;
             final int w = targetRectangle.width;
@@ -904,6 +920,7 @@ public class RangeDopplerGeocodingOp extends Operator {
 
             final GeoPos geoPos = new GeoPos();
             final PositionData posData = new PositionData();
+            final ZeroDopplerSolver.Cursor zeroDopplerCursor = zeroDopplerSolver.newCursor();
             final int srcMaxRange = sourceImageWidth - 1;
             final int srcMaxAzimuth = sourceImageHeight - 1;
             ProductData demBuffer = null, latBuffer = null, lonBuffer = null, localIncidenceAngleBuffer = null,
@@ -1013,7 +1030,7 @@ public class RangeDopplerGeocodingOp extends Operator {
                         alt = (double) egm.getEGM(lat, lon);
                     }
 
-                    if (!getPosition(lat, lon, alt, posData)) {
+                    if (!getPosition(lat, lon, alt, posData, zeroDopplerCursor)) {
                         saveNoDataValueToTarget(index, tgtTiles, demBuffer);
                         continue;
                     }
@@ -1059,8 +1076,8 @@ public class RangeDopplerGeocodingOp extends Operator {
                         }
 
                         if (saveLayoverShadowMask) {
-                            layoverShadowMaskBuffer.setElemIntAt(index,
-                                    layoverShadowMask[(int)(posData.azimuthIndex + 0.5)][(int)(posData.rangeIndex + 0.5)]);
+                            layoverShadowMaskBuffer.setElemIntAt(index, getLayoverShadowMask(
+                                    (int)(posData.rangeIndex + 0.5), (int)(posData.azimuthIndex + 0.5)));
                         }
 
                         double satelliteHeight = 0;
@@ -1105,124 +1122,138 @@ public class RangeDopplerGeocodingOp extends Operator {
         }
     }
 
-    private synchronized void createLayoverShadowMask() {
-
-        if (isLayoverShadowMaskAvailable) return;
-
-        final Dimension tileSize = new Dimension(sourceImageWidth, 10);
-        final Rectangle[] tileRectangles = OperatorUtils.getAllTileRectangles(sourceProduct, tileSize, 0);
-        final StatusProgressMonitor status = new StatusProgressMonitor(StatusProgressMonitor.TYPE.SUBTASK);
-        status.beginTask("Creating Layover/Shadow Mask... ", tileRectangles.length);
-        final ThreadExecutor executor = new ThreadExecutor();
+    private void initLayoverShadowMask() {
+        final int numBlocks = (sourceImageHeight + LAYOVER_SHADOW_BLOCK_LINES - 1) / LAYOVER_SHADOW_BLOCK_LINES;
+        layoverShadowBlockLocks = new Object[numBlocks];
+        for (int i = 0; i < numBlocks; ++i) {
+            layoverShadowBlockLocks[i] = new Object();
+        }
+        layoverShadowBlocks = new AtomicReferenceArray<>(numBlocks);
+    }
 
-        layoverShadowMask = new byte[sourceImageHeight][sourceImageWidth];
+    /**
+     * Get the layover/shadow mask value of a source pixel. The block of source lines holding the pixel is
+     * computed by the first tile that needs it.
+     */
+    private byte getLayoverShadowMask(final int x, final int y) {
+        final int b = y / LAYOVER_SHADOW_BLOCK_LINES;
+        byte[] block = layoverShadowBlocks.get(b);
+        if (block == null) {
+            synchronized (layoverShadowBlockLocks[b]) {
+                block = layoverShadowBlocks.get(b);
+                if (block == null) {
+                    block = computeLayoverShadowBlock(b * LAYOVER_SHADOW_BLOCK_LINES);
+                    layoverShadowBlocks.set(b, block);
+                }
+            }
+        }
+        return block[(y - b * LAYOVER_SHADOW_BLOCK_LINES) * sourceImageWidth + x];
+    }
 
-        try {
-            for (final Rectangle rectangle : tileRectangles) {
-                final ThreadRunnable worker = new ThreadRunnable() {
-
-                    @Override
-                    public void process() {
-                        final int x0 = rectangle.x;
-                        final int y0 = rectangle.y;
-                        final int w = rectangle.width;
-                        final int h = rectangle.height;
-                        final int xMax = x0 + w;
-                        final int yMax = y0 + h;
-
-                        final double[][] localDEM = new double[h + 2][w + 2];
-                        final TileGeoreferencing tileGeoRef = new TileGeoreferencing(sourceProduct, x0, y0, w, h);
-                        try {
-                            final boolean valid = DEMFactory.getLocalDEM(dem, demNoDataValue, demResamplingMethod,
-                                    tileGeoRef, x0, y0, w, h, sourceProduct, true, localDEM);
-
-                            if (!valid) {
-                                return;
-                            }
-                        } catch (Throwable e) {
-                            OperatorUtils.catchOperatorException(getId(), e);
-                        }
+    /**
+     * Compute the mask for one block of source lines. The DEM points of the lines around the block are
+     * projected too since terrain may move them into the block. Only values falling in the block are kept.
+     */
+    private byte[] computeLayoverShadowBlock(final int blockY0) {
 
-                        final SARPosition sarPosition = new SARPosition(
-                                firstLineUTC,
-                                lastLineUTC,
-                                lineTimeInterval,
-                                wavelength,
-                                rangeSpacing,
-                                sourceImageWidth,
-                                srgrFlag,
-                                nearEdgeSlantRange,
-                                nearRangeOnLeft,
-                                orbit,
-                                srgrConvParams
-                        );
-                        sarPosition.setTileConstraints(x0, y0, w, h);
-
-                        final SARPosition.PositionData posData = new SARPosition.PositionData();
-                        final GeoPos geoPos = new GeoPos();
-                        float[] slrs = new float[w];
-                        float[] elev = new float[w];
-                        float[] azIndex = new float[w];
-                        float[] rgIndex = new float[w];
-                        boolean[] savePixel = new boolean[w];
-
-                        for (int y = y0; y < yMax; ++y) {
-                            final int yy = y - y0;
-                            Arrays.fill(slrs, 0.0f);
-                            Arrays.fill(elev, 0.0f);
-                            Arrays.fill(azIndex, 0.0f);
-                            Arrays.fill(rgIndex, 0.0f);
-                            Arrays.fill(savePixel, Boolean.FALSE);
-
-                            for (int x = x0; x < xMax; ++x) {
-                                final int xx = x - x0;
-                                Double alt = localDEM[yy + 1][xx + 1];
-                                if (alt.equals(demNoDataValue))
-                                    continue;
+        final int blockH = Math.min(LAYOVER_SHADOW_BLOCK_LINES, sourceImageHeight - blockY0);
+        final LayoverShadowBlock block = new LayoverShadowBlock(blockY0, blockH, sourceImageWidth);
 
-                                tileGeoRef.getGeoPos(x, y, geoPos);
-                                if (!geoPos.isValid())
-                                    continue;
+        // same 10 line rectangles as a whole scene pass
+        final int rowsPerRect = 10;
+        final int yStart = Math.max(0, blockY0 - LAYOVER_SHADOW_MARGIN_LINES) / rowsPerRect * rowsPerRect;
+        final int yEnd = Math.min(sourceImageHeight, blockY0 + blockH + LAYOVER_SHADOW_MARGIN_LINES);
 
-                                double lat = geoPos.lat;
-                                double lon = geoPos.lon;
-                                if (lon >= 180.0) {
-                                    lon -= 360.0;
-                                }
+        for (int y0 = yStart; y0 < yEnd; y0 += rowsPerRect) {
+            computeLayoverShadowRect(0, y0, sourceImageWidth, Math.min(rowsPerRect, sourceImageHeight - y0), block);
+        }
+        return block.mask;
+    }
 
-                                GeoUtils.geo2xyzWGS84(lat, lon, alt, posData.earthPoint);
-                                if (!sarPosition.getPosition(posData))
-                                    continue;
+    private void computeLayoverShadowRect(final int x0, final int y0, final int w, final int h,
+                                          final LayoverShadowBlock block) {
+        final int xMax = x0 + w;
+        final int yMax = y0 + h;
 
-                                int rIndex = (int) posData.rangeIndex;
-                                int aIndex = (int) posData.azimuthIndex;
-                                if (rIndex >= 0 && rIndex < sourceImageWidth && aIndex >= 0 && aIndex < sourceImageHeight) {
-                                    azIndex[xx] = (float)posData.azimuthIndex;
-                                    rgIndex[xx] = (float)posData.rangeIndex;
-                                    slrs[xx] = (float)posData.slantRange;
-                                    elev[xx] = computeElevationAngle(posData.slantRange, posData.earthPoint, posData.sensorPos);
-                                    savePixel[xx] = true;
-                                } else {
-                                    savePixel[xx] = false;
-                                }
-                            }
-                            computeLayoverShadow(x0, y0, w, h, savePixel, slrs, elev, azIndex, rgIndex);
-                        }
-                    }
-                };
-                executor.execute(worker);
-                status.worked(1);
+        final double[][] localDEM = new double[h + 2][w + 2];
+        final TileGeoreferencing tileGeoRef = new TileGeoreferencing(sourceProduct, x0, y0, w, h);
+        try {
+            final boolean valid = DEMFactory.getLocalDEM(dem, demNoDataValue, demResamplingMethod,
+                    tileGeoRef, x0, y0, w, h, sourceProduct, true, localDEM);
 
+            if (!valid) {
+                return;
             }
-            executor.complete();
-
         } catch (Throwable e) {
             OperatorUtils.catchOperatorException(getId(), e);
-        } finally {
-            status.done();
         }
 
-        isLayoverShadowMaskAvailable = true;
+        final SARPosition sarPosition = new SARPosition(
+                firstLineUTC,
+                lastLineUTC,
+                lineTimeInterval,
+                wavelength,
+                rangeSpacing,
+                sourceImageWidth,
+                srgrFlag,
+                nearEdgeSlantRange,
+                nearRangeOnLeft,
+                orbit,
+                srgrConvParams
+        );
+        sarPosition.setTileConstraints(x0, y0, w, h);
+        sarPosition.setZeroDopplerSolver(zeroDopplerSolver);
+
+        final SARPosition.PositionData posData = new SARPosition.PositionData();
+        final GeoPos geoPos = new GeoPos();
+        float[] slrs = new float[w];
+        float[] elev = new float[w];
+        float[] azIndex = new float[w];
+        float[] rgIndex = new float[w];
+        boolean[] savePixel = new boolean[w];
+
+        for (int y = y0; y < yMax; ++y) {
+            final int yy = y - y0;
+            Arrays.fill(slrs, 0.0f);
+            Arrays.fill(elev, 0.0f);
+            Arrays.fill(azIndex, 0.0f);
+            Arrays.fill(rgIndex, 0.0f);
+            Arrays.fill(savePixel, Boolean.FALSE);
+
+            for (int x = x0; x < xMax; ++x) {
+                final int xx = x - x0;
+                Double alt = localDEM[yy + 1][xx + 1];
+                if (alt.equals(demNoDataValue))
+                    continue;
+
+                tileGeoRef.getGeoPos(x, y, geoPos);
+                if (!geoPos.isValid())
+                    continue;
+
+                double lat = geoPos.lat;
+                double lon = geoPos.lon;
+                if (lon >= 180.0) {
+                    lon -= 360.0;
+                }
+
+                GeoUtils.geo2xyzWGS84(lat, lon, alt, posData.earthPoint);
+                if (!sarPosition.getPosition(posData))
+                    continue;
+
+                int rIndex = (int) posData.rangeIndex;
+                int aIndex = (int) posData.azimuthIndex;
+                if (rIndex >= 0 && rIndex < sourceImageWidth && aIndex >= 0 && aIndex < sourceImageHeight) {
+                    azIndex[xx] = (float)posData.azimuthIndex;
+                    rgIndex[xx] = (float)posData.rangeIndex;
+                    slrs[xx] = (float)posData.slantRange;
+                    elev[xx] = computeElevationAngle(posData.slantRange, posData.earthPoint, posData.sensorPos);
+                    savePixel[xx] = true;
+                } else {
+                    savePixel[xx] = false;
+                }
+            }
+            computeLayoverShadow(x0, y0, w, h, savePixel, slrs, elev, azIndex, rgIndex, block);
+        }
     }
 
     private static float computeElevationAngle(
@@ -1237,7 +1268,8 @@ public class RangeDopplerGeocodingOp extends Operator {
 
     private void computeLayoverShadow(final int x0, final int y0, final int w, final int h,
                                       final boolean[] savePixel, final float[] slrs, final float[] elev,
-                                      final float[] azIndex, final float[] rgIndex) {
+                                      final float[] azIndex, final float[] rgIndex,
+                                      final LayoverShadowBlock block) {
 
         final byte byte1 = 1;
         final byte byte2 = 2;
@@ -1252,7 +1284,7 @@ public class RangeDopplerGeocodingOp extends Operator {
                         if (slrs[i] > maxSlantRange) {
                             maxSlantRange = slrs[i];
                         } else {
-                            saveLayoverShadow(x0, y0, w, h, rgIndex[i], azIndex[i], byte1);
+                            saveLayoverShadow(x0, y0, w, h, rgIndex[i], azIndex[i], byte1, block);
                         }
                     }
                 }
@@ -1264,7 +1296,7 @@ public class RangeDopplerGeocodingOp extends Operator {
                         if (slrs[i] <= minSlantRange) {
                             minSlantRange = slrs[i];
                         } else {
-                            saveLayoverShadow(x0, y0, w, h, rgIndex[i], azIndex[i], byte1);
+                            saveLayoverShadow(x0, y0, w, h, rgIndex[i], azIndex[i], byte1, block);
                         }
                     }
                 }
@@ -1276,7 +1308,7 @@ public class RangeDopplerGeocodingOp extends Operator {
                         if (elev[i] > maxElevAngle) {
                             maxElevAngle = elev[i];
                         } else {
-                            saveLayoverShadow(x0, y0, w, h, rgIndex[i], azIndex[i], byte2);
+                            saveLayoverShadow(x0, y0, w, h, rgIndex[i], azIndex[i], byte2, block);
                         }
                     }
                 }
@@ -1290,7 +1322,7 @@ public class RangeDopplerGeocodingOp extends Operator {
                         if (slrs[i] > maxSlantRange) {
                             maxSlantRange = slrs[i];
                         } else {
-                            saveLayoverShadow(x0, y0, w, h, rgIndex[i], azIndex[i], byte1);
+                            saveLayoverShadow(x0, y0, w, h, rgIndex[i], azIndex[i], byte1, block);
                         }
                     }
                 }
@@ -1302,7 +1334,7 @@ public class RangeDopplerGeocodingOp extends Operator {
                         if (slrs[i] < minSlantRange) {
                             minSlantRange = slrs[i];
                         } else {
-                            saveLayoverShadow(x0, y0, w, h, rgIndex[i], azIndex[i], byte1);
+                            saveLayoverShadow(x0, y0, w, h, rgIndex[i], azIndex[i], byte1, block);
                         }
                     }
                 }
@@ -1314,7 +1346,7 @@ public class RangeDopplerGeocodingOp extends Operator {
                         if (elev[i] > maxElevAngle) {
                             maxElevAngle = elev[i];
                         } else {
-                            saveLayoverShadow(x0, y0, w, h, rgIndex[i], azIndex[i], byte2);
+                            saveLayoverShadow(x0, y0, w, h, rgIndex[i], azIndex[i], byte2, block);
                         }
                     }
                 }
@@ -1325,26 +1357,43 @@ public class RangeDopplerGeocodingOp extends Operator {
     }
 
     private void saveLayoverShadow(final int x0, final int y0, final int w, final int h,
-                                   final float rgIndex, final float azIndex, final byte value) {
+                                   final float rgIndex, final float azIndex, final byte value,
+                                   final LayoverShadowBlock block) {
 
         final int xMin = (int)rgIndex;
         final int xMax = Math.min(xMin + 1, x0 + w - 1);
-        final int yMin = (int)azIndex;
-        final int yMax = Math.min(yMin + 1, y0 + h - 1);
+        final int yMin = Math.max((int)azIndex, block.y0);
+        final int yMax = Math.min(Math.min((int)azIndex + 1, y0 + h - 1), block.y0 + block.height - 1);
         for (int y = yMin; y <= yMax; ++y) {
+            final int offset = (y - block.y0) * block.width;
             for (int x = xMin; x <= xMax; ++x) {
-
-                synchronized (layoverShadowMask) {
-                    if (layoverShadowMask[y][x] == 0) {
-                        layoverShadowMask[y][x] = value;
-                    } else if (layoverShadowMask[y][x] == 1 && value == 2){
-                        layoverShadowMask[y][x] += value;
-                    }
+                final int i = offset + x;
+                if (block.mask[i] == 0) {
+                    block.mask[i] = value;
+                } else if (block.mask[i] == 1 && value == 2){
+                    block.mask[i] += value;
                 }
             }
         }
     }
 
+    /**
+     * Mask values of a block of source lines. Only written by the thread computing the block.
+     */
+    private static final class LayoverShadowBlock {
+        final int y0;
+        final int height;
+        final int width;
+        final byte[] mask;
+
+        LayoverShadowBlock(final int y0, final int height, final int width) {
+            this.y0 = y0;
+            this.height = height;
+            this.width = width;
+            this.mask = new byte[height * width];
+        }
+    }
+
     private void saveNoDataValueToTarget(final int index, final TileData[] tgtTiles, final ProductData demBuffer) {
         if (saveDEM) {
             demBuffer.setElemDoubleAt(index, demNoDataValue);
@@ -1416,6 +1465,7 @@ public class RangeDopplerGeocodingOp extends Operator {
 
         PositionData posData = new PositionData();
         GeoPos geoPos = new GeoPos();
+        final ZeroDopplerSolver.Cursor zeroDopplerCursor = zeroDopplerSolver.newCursor();
         for (int i = 0; i < numPointsPerCol; i++) {
             final int y = (i == numPointsPerCol - 1? y0 + h - 1 : y0 + i*yOffset);
 
@@ -1429,7 +1479,7 @@ public class RangeDopplerGeocodingOp extends Operator {
                     continue;
                 }
 
-                if (!getPosition(geoPos.lat, geoPos.lon, alt, posData)) {
+                if (!getPosition(geoPos.lat, geoPos.lon, alt, posData, zeroDopplerCursor)) {
                     continue;
                 }
 
@@ -1484,12 +1534,12 @@ public class RangeDopplerGeocodingOp extends Operator {
         }
     }
 
-    private boolean getPosition(final double lat, final double lon, final double alt, final PositionData data) {
+    private boolean getPosition(final double lat, final double lon, final double alt, final PositionData data,
+                                final ZeroDopplerSolver.Cursor zeroDopplerCursor) {
 
         GeoUtils.geo2xyzWGS84(lat, lon, alt, data.earthPoint);
 
-        double zeroDopplerTime = SARGeocoding.getEarthPointZeroDopplerTime(firstLineUTC,
-                                                                           lineTimeInterval, wavelength, data.earthPoint, orbit.sensorPosition, orbit.sensorVelocity);
+        double zeroDopplerTime = zeroDopplerCursor.getZeroDopplerTime(data.earthPoint);
 
         if (Double.compare(zeroDopplerTime, SARGeocoding.NonValidZeroDopplerTime) == 0) {
             return false;
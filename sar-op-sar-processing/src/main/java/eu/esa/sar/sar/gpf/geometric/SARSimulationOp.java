@@ -21,6 +21,7 @@ import eu.esa.sar.commons.OrbitStateVectors;
 import eu.esa.sar.commons.SARGeocoding;
 import eu.esa.sar.insar.gpf.support.SARPosition;
 import eu.esa.sar.commons.SARUtils;
+import eu.esa.sar.commons.ZeroDopplerSolver;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.dataop.dem.ElevationModel;
 import org.esa.snap.core.dataop.resamp.ResamplingFactory;
@@ -169,6 +170,7 @@ public final class SARSimulationOp extends Operator {
     private double wavelength = 0.0; // in m
     private double demNoDataValue = 0; // no data value for DEM
     private OrbitStateVectors orbit = null;
+    private ZeroDopplerSolver zeroDopplerSolver = null;
 
     private OrbitStateVector[] orbitStateVectors = null;
     private AbstractMetadata.SRGRCoefficientList[] srgrConvParams = null;
@@ -335,6 +337,9 @@ public final class SARSimulationOp extends Operator {
     private void computeSensorPositionsAndVelocities() {
 
         orbit = new OrbitStateVectors(orbitStateVectors, firstLineUTC, lineTimeInterval, sourceImageHeight);
+        if (orbit.sensorPosition != null) {
+            zeroDopplerSolver = new ZeroDopplerSolver(firstLineUTC, lineTimeInterval, wavelength, orbit);
+        }
     }
 
     /**
@@ -481,6 +486,7 @@ public final class SARSimulationOp extends Operator {
         final GeoPos geoPos = new GeoPos();
         final PosVector earthPoint = new PosVector();
         final PosVector sensorPos = new PosVector();
+        final ZeroDopplerSolver.Cursor zeroDopplerCursor = zeroDopplerSolver.newCursor();
 
         final int xMin = Math.max(x0 - w/2, 0);
         final int xMax = Math.min(x0 + w + w/2, sourceImageWidth);
@@ -495,8 +501,7 @@ public final class SARSimulationOp extends Operator {
                 final double alt = dem.getElevation(geoPos);
                 GeoUtils.geo2xyzWGS84(geoPos.getLat(), geoPos.getLon(), alt, earthPoint);
 
-                final double zeroDopplerTime = SARGeocoding.getEarthPointZeroDopplerTime(
-                        firstLineUTC, lineTimeInterval, wavelength, earthPoint, orbit.sensorPosition, orbit.sensorVelocity);
+                final double zeroDopplerTime = zeroDopplerCursor.getZeroDopplerTime(earthPoint);
 
                 if (zeroDopplerTime == SARGeocoding.NonValidZeroDopplerTime) {
                     continue;
@@ -613,6 +618,7 @@ public final class SARSimulationOp extends Operator {
                 srgrConvParams
         );
         sarPosition.setTileConstraints(x0, y0, w, h);
+        sarPosition.setZeroDopplerSolver(zeroDopplerSolver);
         final SARPosition.PositionData posData = new SARPosition.PositionData();
         final GeoPos geoPos = new GeoPos();
 
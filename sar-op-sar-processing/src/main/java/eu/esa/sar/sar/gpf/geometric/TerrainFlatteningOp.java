@@ -18,9 +18,11 @@ package eu.esa.sar.sar.gpf.geometric;
 import com.bc.ceres.core.ProgressMonitor;
 import org.apache.commons.math3.util.FastMath;
 import eu.esa.sar.calibration.gpf.CalibrationOp;
+import eu.esa.sar.commons.ElevationModelCache;
 import eu.esa.sar.commons.OrbitStateVectors;
 import eu.esa.sar.commons.SARGeocoding;
 import eu.esa.sar.commons.SARUtils;
+import eu.esa.sar.commons.ZeroDopplerSolver;
 import eu.esa.sar.commons.polsar.PolBandUtils;
 import org.esa.snap.core.datamodel.*;
 import org.esa.snap.core.dataop.dem.ElevationModel;
@@ -122,6 +124,7 @@ public final class TerrainFlatteningOp extends Operator {
 
     private Product newSourceProduct = null;
     private ElevationModel dem = null;
+    private ElevationModelCache.Handle demHandle = null;
     private FileElevationModel fileElevationModel = null;
     private TiePointGrid incidenceAngleTPG = null;
 
@@ -142,6 +145,7 @@ public final class TerrainFlatteningOp extends Operator {
     private double demNoDataValue = 0; // no data value for DEM
     private double overSamplingFactor = 1.0;
     private OrbitStateVectors orbit = null;
+    private ZeroDopplerSolver zeroDopplerSolver = null;
     private Resampling selectedResampling = null;
     private Double noDataValue = 0.0;
     private double aBeta = 0.0;
@@ -229,6 +233,9 @@ public final class TerrainFlatteningOp extends Operator {
             getSourceImageDimension();
 
             orbit = new OrbitStateVectors(orbitStateVectors, firstLineUTC, lineTimeInterval, sourceImageHeight);
+            if (orbit.sensorPosition != null) {
+                zeroDopplerSolver = new ZeroDopplerSolver(firstLineUTC, lineTimeInterval, wavelength, orbit);
+            }
 
             createTargetProduct();
 
@@ -249,8 +256,9 @@ public final class TerrainFlatteningOp extends Operator {
 
     @Override
     public synchronized void dispose() {
-        if (dem != null) {
-            dem.dispose();
+        if (demHandle != null) {
+            demHandle.release();
+            demHandle = null;
             dem = null;
         }
         if (fileElevationModel != null) {
@@ -598,6 +606,7 @@ public final class TerrainFlatteningOp extends Operator {
             final int nLon = (int) (overSamplingFactor * cols);
 
             final PositionData posData = new PositionData();
+            final ZeroDopplerSolver.Cursor zeroDopplerCursor = zeroDopplerSolver.newCursor();
             for (int i = 1; i < nLat; i++) {
                 if (pm.isCanceled()) {
                     return false;
@@ -625,7 +634,7 @@ public final class TerrainFlatteningOp extends Operator {
                         continue;
 
                     posData.earthPoint = geo2xyzWGS84.getXYZ(lon, alt00);
-                    if (!getPosition(x0, y0, w, h, posData))
+                    if (!getPosition(x0, y0, w, h, posData, zeroDopplerCursor))
                         continue;
 
                     selectedResampling.computeCornerBasedIndex(jRatio, iRatio - ratio, cols, rows, resamplingIndex);
@@ -736,11 +745,10 @@ public final class TerrainFlatteningOp extends Operator {
 
     //======================================
     private boolean getPosition(final int x0, final int y0, final int w, final int h,
-                                final PositionData data) {
+                                final PositionData data, final ZeroDopplerSolver.Cursor zeroDopplerCursor) {
 
-        // Optimized: Use array-based interpolation instead of Lagrange interpolation on sparse vectors
-        final double zeroDopplerTime = SARGeocoding.getEarthPointZeroDopplerTime(
-                firstLineUTC, lineTimeInterval, wavelength, data.earthPoint, orbit.sensorPosition, orbit.sensorVelocity);
+        // Optimized: warm started search over the per line sensor positions, seeded by the previous DEM point
+        final double zeroDopplerTime = zeroDopplerCursor.getZeroDopplerTime(data.earthPoint);
 
         if (zeroDopplerTime == SARGeocoding.NonValidZeroDopplerTime) {
             return false;
@@ -777,8 +785,7 @@ public final class TerrainFlatteningOp extends Operator {
         GeoUtils.geo2xyzWGS84(lat, lon, alt, earthPoint);
 
         // Optimized: Use array-based interpolation
-        final double zeroDopplerTime = SARGeocoding.getEarthPointZeroDopplerTime(
-                firstLineUTC, lineTimeInterval, wavelength, earthPoint, orbit.sensorPosition, orbit.sensorVelocity);
+        final double zeroDopplerTime = zeroDopplerSolver.getZeroDopplerTime(earthPoint);
 
         if (zeroDopplerTime == SARGeocoding.NonValidZeroDopplerTime) {
             return false;
@@ -981,13 +988,21 @@ public final class TerrainFlatteningOp extends Operator {
         try {
             if (externalDEMFile != null) { // if external DEM file is specified by user
 
-                dem = new FileElevationModel(externalDEMFile, demResamplingMethod, externalDEMNoDataValue);
-                ((FileElevationModel) dem).applyEarthGravitionalModel(externalDEMApplyEGM);
+                final String demKey = externalDEMFile.getPath() + '|' + externalDEMNoDataValue + '|' + externalDEMApplyEGM;
+                demHandle = ElevationModelCache.acquire(demKey, demResamplingMethod, () -> {
+                    final FileElevationModel fileDEM = new FileElevationModel(externalDEMFile, demResamplingMethod,
+                            externalDEMNoDataValue);
+                    fileDEM.applyEarthGravitionalModel(externalDEMApplyEGM);
+                    return fileDEM;
+                });
+                dem = demHandle.getElevationModel();
                 demNoDataValue = externalDEMNoDataValue;
                 demName = externalDEMFile.getPath();
 
             } else {
-                dem = DEMFactory.createElevationModel(demName, demResamplingMethod);
+                demHandle = ElevationModelCache.acquire(demName, demResamplingMethod,
+                        () -> DEMFactory.createElevationModel(demName, demResamplingMethod));
+                dem = demHandle.getElevationModel();
                 demNoDataValue = dem.getDescriptor().getNoDataValue();
             }
         } catch (Throwable t) {
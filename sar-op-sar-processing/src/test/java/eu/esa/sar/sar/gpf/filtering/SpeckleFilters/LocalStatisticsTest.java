@@ -0,0 +1,123 @@
+package eu.esa.sar.sar.gpf.filtering.SpeckleFilters;
+
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.gpf.Tile;
+import org.esa.snap.engine_utilities.gpf.TileIndex;
+import org.junit.Test;
+
+import java.awt.*;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class LocalStatisticsTest {
+
+    private static final double noDataValue = 0.0;
+
+    private static Tile createTile(final Rectangle rect) {
+        return (Tile) Proxy.newProxyInstance(Tile.class.getClassLoader(), new Class<?>[]{Tile.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getMinX":
+                            return rect.x;
+                        case "getMinY":
+                            return rect.y;
+                        case "getWidth":
+                        case "getScanlineStride":
+                            return rect.width;
+                        case "getHeight":
+                            return rect.height;
+                        case "getScanlineOffset":
+                            return 0;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    // intensities with a bright area and a few no data pixels
+    private static double[] createData(final Rectangle rect, final long seed) {
+        final Random random = new Random(seed);
+        final double[] data = new double[rect.width * rect.height];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = random.nextInt(20) == 0 ? noDataValue : 1000.0 + random.nextDouble() * (i % 7 == 0 ? 50.0 : 5.0);
+        }
+        return data;
+    }
+
+    @Test
+    public void testSameAsNeighborValues() {
+        checkWindows(false);
+    }
+
+    @Test
+    public void testComplex() {
+        checkWindows(true);
+    }
+
+    private static void checkWindows(final boolean isComplex) {
+        final Rectangle rect = new Rectangle(30, 50, 23, 17);
+        final double[] data1 = createData(rect, 1);
+        final double[] data2 = createData(rect, 2);
+        final ProductData srcData1 = ProductData.createInstance(data1);
+        final ProductData srcData2 = isComplex ? ProductData.createInstance(data2) : null;
+        final TileIndex srcIndex = new TileIndex(createTile(rect));
+
+        final LocalStatistics stats = new LocalStatistics(
+                new TileIntensity(rect, srcData1, srcData2, srcIndex, noDataValue, isComplex));
+        final double[] meanVar = new double[2];
+
+        final int[][] windowSizes = {{3, 3}, {5, 5}, {7, 3}, {4, 6}, {1, 1}};
+        for (int[] windowSize : windowSizes) {
+            final int wx = windowSize[0];
+            final int wy = windowSize[1];
+            for (int y = rect.y; y < rect.y + rect.height; ++y) {
+                for (int x = rect.x; x < rect.x + rect.width; ++x) {
+
+                    // reference: collect the window as SpeckleFilter.getNeighborValues does
+                    final double[] neighborValues = new double[wx * wy];
+                    int k = 0, n = 0;
+                    double mean = 0.0;
+                    for (int yy = y - wy / 2; yy < y - wy / 2 + wy; ++yy) {
+                        for (int xx = x - wx / 2; xx < x - wx / 2 + wx; ++xx) {
+                            double v = noDataValue;
+                            if (rect.contains(xx, yy)) {
+                                final int idx = (yy - rect.y) * rect.width + xx - rect.x;
+                                if (!isComplex) {
+                                    v = data1[idx];
+                                } else if (data1[idx] != noDataValue && data2[idx] != noDataValue) {
+                                    v = data1[idx] * data1[idx] + data2[idx] * data2[idx];
+                                }
+                            }
+                            neighborValues[k++] = v;
+                            if (v != noDataValue) {
+                                mean += v;
+                                n++;
+                            }
+                        }
+                    }
+
+                    assertEquals(neighborValues[neighborValues.length / 2], stats.getCentreValue(x, y, wx, wy), 0.0);
+                    assertEquals(n, stats.getStatistics(x, y, wx, wy, meanVar));
+                    if (n == 0) {
+                        continue;
+                    }
+
+                    mean /= n;
+                    double var = 0.0;
+                    if (n > 1) {
+                        for (double v : neighborValues) {
+                            if (v != noDataValue) {
+                                var += (v - mean) * (v - mean);
+                            }
+                        }
+                        var /= n - 1;
+                    }
+                    assertEquals(mean, meanVar[0], 1e-9 * mean);
+                    assertEquals(var, meanVar[1], 1e-6 * var + 1e-9 * mean);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package eu.esa.sar.sar.gpf.filtering.SpeckleFilters;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class SlidingWindowMedianTest {
+
+    @Test
+    public void testSlidingAlongRow() {
+        final Random random = new Random(3);
+        final int width = 200, windowSize = 7;
+        final double[][] columns = new double[width][windowSize];
+        for (double[] column : columns) {
+            for (int i = 0; i < windowSize; ++i) {
+                // few distinct values so that duplicates are frequent
+                column[i] = random.nextInt(10) == 0 ? 0.0 : random.nextInt(30);
+            }
+        }
+
+        final SlidingWindowMedian window = new SlidingWindowMedian(windowSize * windowSize);
+        for (int x = 0; x < width; ++x) {
+            if (x >= windowSize) {
+                for (double v : columns[x - windowSize]) {
+                    if (v != 0.0) {
+                        window.remove(v);
+                    }
+                }
+            }
+            for (double v : columns[x]) {
+                if (v != 0.0) {
+                    window.add(v);
+                }
+            }
+
+            final double[] tmp = new double[windowSize * windowSize];
+            int n = 0;
+            for (int c = Math.max(0, x - windowSize + 1); c <= x; ++c) {
+                for (double v : columns[c]) {
+                    if (v != 0.0) {
+                        tmp[n++] = v;
+                    }
+                }
+            }
+            Arrays.sort(tmp, 0, n);
+            assertEquals(n, window.size());
+            assertEquals(tmp[n / 2], window.getMedian(), 0.0);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRemoveMissingValue() {
+        final SlidingWindowMedian window = new SlidingWindowMedian(4);
+        window.add(1.0);
+        window.remove(2.0);
+    }
+
+    @Test
+    public void testSelect() {
+        final Random random = new Random(5);
+        for (int trial = 0; trial < 200; ++trial) {
+            final int n = 1 + random.nextInt(300);
+            final double[] values = new double[n];
+            for (int i = 0; i < n; ++i) {
+                values[i] = trial % 2 == 0 ? random.nextGaussian() : random.nextInt(5);
+            }
+            if (trial % 5 == 0) {
+                values[random.nextInt(n)] = Double.NaN;
+                values[random.nextInt(n)] = -0.0;
+            }
+            final double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            final int k = random.nextInt(n);
+            assertEquals(sorted[k], SlidingWindowMedian.select(values, n, k), 0.0);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package eu.esa.sar.sar.gpf.filtering.SpeckleFilters;
+
+import org.esa.snap.core.datamodel.ProductData;
+import org.esa.snap.core.gpf.Tile;
+import org.esa.snap.engine_utilities.gpf.TileIndex;
+import org.junit.Test;
+
+import java.awt.*;
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.*;
+
+public class TileIntensityTest {
+
+    private static final double noDataValue = 0.0;
+
+    // the tile is a sub area of a larger data buffer
+    private static final Rectangle rect = new Rectangle(10, 20, 6, 4);
+    private static final int stride = 9;
+    private static final int offset = 5;
+
+    private static TileIndex createTileIndex() {
+        final Tile tile = (Tile) Proxy.newProxyInstance(Tile.class.getClassLoader(), new Class<?>[]{Tile.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getMinX":
+                            return rect.x;
+                        case "getMinY":
+                            return rect.y;
+                        case "getWidth":
+                            return rect.width;
+                        case "getHeight":
+                            return rect.height;
+                        case "getScanlineStride":
+                            return stride;
+                        case "getScanlineOffset":
+                            return offset;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        return new TileIndex(tile);
+    }
+
+    private static int bufferIndex(final int x, final int y) {
+        return offset + (y - rect.y) * stride + x - rect.x;
+    }
+
+    // every 5th buffer element is no data
+    private static double sample(final int i) {
+        return i % 5 == 0 ? noDataValue : i;
+    }
+
+    private static void checkIntensity(final TileIntensity intensity, final boolean isComplex) {
+        int numValid = 0;
+        for (int y = rect.y; y < rect.y + rect.height; ++y) {
+            for (int x = rect.x; x < rect.x + rect.width; ++x) {
+                final double v = sample(bufferIndex(x, y));
+                final double expected = v == noDataValue ? noDataValue : (isComplex ? 2 * v * v : v);
+                assertEquals(expected, intensity.getValue(x, y), 0.0);
+                assertEquals(expected != noDataValue, intensity.isValid(x, y));
+                if (expected != noDataValue) {
+                    numValid++;
+                }
+            }
+        }
+        assertEquals(numValid, intensity.getNumValid());
+        assertEquals(noDataValue, intensity.getValue(rect.x - 1, rect.y), 0.0);
+        assertFalse(intensity.isValid(rect.x, rect.y + rect.height));
+    }
+
+    @Test
+    public void testTypedBuffers() {
+        final int size = offset + rect.height * stride;
+        final float[] floats = new float[size];
+        final double[] doubles = new double[size];
+        final short[] shorts = new short[size];
+        final byte[] bytes = new byte[size];
+        for (int i = 0; i < size; ++i) {
+            floats[i] = (float) sample(i);
+            doubles[i] = sample(i);
+            shorts[i] = (short) sample(i);
+            bytes[i] = (byte) sample(i);
+        }
+
+        final ProductData[] buffers = {ProductData.createInstance(floats), ProductData.createInstance(doubles),
+                ProductData.createInstance(shorts), ProductData.createInstance(bytes)};
+        for (ProductData data : buffers) {
+            checkIntensity(new TileIntensity(rect, data, null, createTileIndex(), noDataValue, false), false);
+        }
+    }
+
+    @Test
+    public void testComplex() {
+        final int size = offset + rect.height * stride;
+        final float[] i = new float[size];
+        final float[] q = new float[size];
+        for (int k = 0; k < size; ++k) {
+            i[k] = (float) sample(k);
+            q[k] = (float) sample(k);
+        }
+        final TileIntensity intensity = new TileIntensity(rect, ProductData.createInstance(i),
+                ProductData.createInstance(q), createTileIndex(), noDataValue, true);
+        checkIntensity(intensity, true);
+    }
+}
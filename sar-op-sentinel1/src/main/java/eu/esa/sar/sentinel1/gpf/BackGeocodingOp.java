@@ -20,6 +20,7 @@ import eu.esa.sar.sentinel1.gpf.etadcorrectors.ETADUtils;
 import org.apache.commons.math3.util.FastMath;
 import eu.esa.sar.insar.gpf.coregistration.CreateStackOp;
 import eu.esa.sar.insar.gpf.coregistration.DEMAssistedCoregistrationOp;
+import eu.esa.sar.commons.ElevationModelCache;
 import eu.esa.sar.commons.SARGeocoding;
 import eu.esa.sar.commons.Sentinel1Utils;
 import org.esa.snap.core.dataio.persistence.Attribute;
@@ -118,6 +119,7 @@ public final class BackGeocodingOp extends Operator {
     private String mstSuffix = null;
 
     private ElevationModel dem = null;
+    private ElevationModelCache.Handle demHandle = null;
     private boolean isElevationModelAvailable = false;
     private double demNoDataValue = 0; // no data value for DEM
     private double demSamplingLat = 0.0;
@@ -1037,6 +1039,15 @@ public final class BackGeocodingOp extends Operator {
         CreateStackOp.getBaselines(sourceProduct, targetProduct);
     }
 
+    @Override
+    public void dispose() throws OperatorException {
+        if (demHandle != null) {
+            demHandle.release();
+            demHandle = null;
+        }
+        super.dispose();
+    }
+
     /**
      * Called by the framework in order to compute a tile for the given target band.
      * <p>The default implementation throws a runtime exception with the message "not implemented".</p>
@@ -1110,7 +1121,10 @@ public final class BackGeocodingOp extends Operator {
         if (isElevationModelAvailable) return;
         try {
             if (externalDEMFile != null) { // if external DEM file is specified by user
-                dem = new FileElevationModel(externalDEMFile, demResamplingMethod, externalDEMNoDataValue);
+                demHandle = ElevationModelCache.acquire(externalDEMFile.getPath() + '|' + externalDEMNoDataValue,
+                        demResamplingMethod,
+                        () -> new FileElevationModel(externalDEMFile, demResamplingMethod, externalDEMNoDataValue));
+                dem = demHandle.getElevationModel();
                 demNoDataValue = externalDEMNoDataValue;
                 demName = externalDEMFile.getPath();
                 try {
@@ -1124,7 +1138,9 @@ public final class BackGeocodingOp extends Operator {
                 }
 
             } else {
-                dem = DEMFactory.createElevationModel(demName, demResamplingMethod);
+                demHandle = ElevationModelCache.acquire(demName, demResamplingMethod,
+                        () -> DEMFactory.createElevationModel(demName, demResamplingMethod));
+                dem = demHandle.getElevationModel();
                 demNoDataValue = dem.getDescriptor().getNoDataValue();
                 demSamplingLat = (double)dem.getDescriptor().getTileWidthInDegrees() /
                         (double)dem.getDescriptor().getTileWidth();
@@ -1492,7 +1508,7 @@ public final class BackGeocodingOp extends Operator {
                     lat[l][p] = gp.lat;
                     lon[l][p] = gp.lon;
 
-                    Double alt = dem.getElevation(gp);
+                    Double alt = demHandle.getElevation(lonMinIdx + p, latMaxIdx + l);
                     if (alt.equals(demNoDataValue) && !maskOutAreaWithoutElevation) { // get corrected elevation for 0
                         alt = (double)egm.getEGM(gp.lat, gp.lon);
                     }
@@ -39,6 +39,7 @@ import org.esa.snap.engine_utilities.util.Maths;
 import java.awt.*;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
@@ -796,6 +797,8 @@ public final class TOPSARDeburstOp extends Operator {
             final BurstInfo burstInfo = new BurstInfo();
             final int txMax = tx0 + tw;
             final int tyMax = ty0 + th;
+            final TileRowPlan rowPlan = tileInOneSubSwath ? null :
+                    new TileRowPlan(tx0, ty0, txMax, tyMax, firstSubSwathIndex, lastSubSwathIndex, burstInfo);
 
             final Band[] tgtBands = targetProduct.getBands();
             for (Band tgtBand:tgtBands) {
@@ -817,11 +820,11 @@ public final class TOPSARDeburstOp extends Operator {
 
                 } else {
                     if (dataType == ProductData.TYPE_INT16) {
-                        computeMultipleSubSwathsShort(tx0, ty0, txMax, tyMax, firstSubSwathIndex, lastSubSwathIndex,
-                                sourceRectangle, tgtBandName, tgtTile, burstInfo);
+                        computeMultipleSubSwathsShort(ty0, tyMax, firstSubSwathIndex, lastSubSwathIndex,
+                                sourceRectangle, tgtBandName, tgtTile, rowPlan, burstInfo);
                     } else {
-                        computeMultipleSubSwathsFloat(tx0, ty0, txMax, tyMax, firstSubSwathIndex, lastSubSwathIndex,
-                                sourceRectangle, tgtBandName, tgtTile, burstInfo);
+                        computeMultipleSubSwathsFloat(ty0, tyMax, firstSubSwathIndex, lastSubSwathIndex,
+                                sourceRectangle, tgtBandName, tgtTile, rowPlan, burstInfo);
                     }
                 }
             }
@@ -932,10 +935,11 @@ public final class TOPSARDeburstOp extends Operator {
         }
     }
 
-    private void computeMultipleSubSwathsShort(final int tx0, final int ty0, final int txMax, final int tyMax,
+    private void computeMultipleSubSwathsShort(final int ty0, final int tyMax,
                                                final int firstSubSwathIndex, final int lastSubSwathIndex,
                                                final Rectangle[] sourceRectangle, final String tgtBandName,
-                                               final Tile tgtTile, final BurstInfo burstInfo) {
+                                               final Tile tgtTile, final TileRowPlan rowPlan,
+                                               final BurstInfo burstInfo) {
 
         final int numOfSourceTiles = lastSubSwathIndex - firstSubSwathIndex + 1;
         final TileIndex tgtIndex = new TileIndex(tgtTile);
@@ -958,65 +962,79 @@ public final class TOPSARDeburstOp extends Operator {
         int sy;
         for (int y = ty0; y < tyMax; y++) {
             final int tgtOffset = tgtIndex.calculateStride(y);
-
-            for (int x = tx0; x < txMax; x++) {
-
-                int subswathIndex = getSubSwathIndex(x, y, firstSubSwathIndex, lastSubSwathIndex, burstInfo);
-                if (subswathIndex == -1) {
-                    continue;
-                }
-                if (!getLineIndicesInSourceProduct(y, subSwath[subswathIndex - 1], burstInfo)) {
-                    continue;
-                }
-
-                short val = 0;
-                k = subswathIndex - firstSubSwathIndex;
-
-                int sx = getSampleIndexInSourceProduct(x, subSwath[subswathIndex - 1]);
-                if (burstInfo.sy1 != -1 && burstInfo.targetTime > burstInfo.midTime) {
-                    sy = burstInfo.sy1;
-                } else {
-                    sy = burstInfo.sy0;
+            final int[] segments = rowPlan.segments[y - ty0];
+
+            for (int s = 0; s < segments.length; s += 4) {
+                final int segX0 = segments[s], segX1 = segments[s + 1], segSwath = segments[s + 2];
+                if (segSwath != -1) {
+                    k = segSwath - firstSubSwathIndex;
+                    final int idx = srcTiles[k].getDataBufferIndex(segments[s + 3], rowPlan.sy[y - ty0][k]);
+                    if (idx >= 0) {
+                        System.arraycopy(srcArray[k], idx, tgtArray, segX0 - tgtOffset, segX1 - segX0);
+                        continue;
+                    }
                 }
-                int idx = srcTiles[k].getDataBufferIndex(sx, sy);
 
-                if (idx >= 0) {
-                    val = srcArray[k][idx];
-                }
+                for (int x = segX0; x < segX1; x++) {
 
-                if(burstInfo.swath1 != -1 && val == 0) {
-                    // edge of swaths found therefore use other swath
-                    if (subswathIndex == burstInfo.swath0) {
-                        subswathIndex = burstInfo.swath1;
-                    } else {
-                        subswathIndex = burstInfo.swath0;
+                    int subswathIndex = getSubSwathIndex(x, y, firstSubSwathIndex, lastSubSwathIndex, burstInfo);
+                    if (subswathIndex == -1) {
+                        continue;
+                    }
+                    if (!getLineIndicesInSourceProduct(y, subSwath[subswathIndex - 1], burstInfo)) {
+                        continue;
                     }
 
-                    getLineIndicesInSourceProduct(y, subSwath[subswathIndex - 1], burstInfo);
-
+                    short val = 0;
                     k = subswathIndex - firstSubSwathIndex;
 
-                    sx = getSampleIndexInSourceProduct(x, subSwath[subswathIndex - 1]);
+                    int sx = getSampleIndexInSourceProduct(x, subSwath[subswathIndex - 1]);
                     if (burstInfo.sy1 != -1 && burstInfo.targetTime > burstInfo.midTime) {
                         sy = burstInfo.sy1;
                     } else {
                         sy = burstInfo.sy0;
                     }
-                    idx = srcTiles[k].getDataBufferIndex(sx, sy);
+                    int idx = srcTiles[k].getDataBufferIndex(sx, sy);
 
-                    if (idx >= 0 && !(srcArray[k][idx] == 0)) {
+                    if (idx >= 0) {
                         val = srcArray[k][idx];
                     }
+
+                    if(burstInfo.swath1 != -1 && val == 0) {
+                        // edge of swaths found therefore use other swath
+                        if (subswathIndex == burstInfo.swath0) {
+                            subswathIndex = burstInfo.swath1;
+                        } else {
+                            subswathIndex = burstInfo.swath0;
+                        }
+
+                        getLineIndicesInSourceProduct(y, subSwath[subswathIndex - 1], burstInfo);
+
+                        k = subswathIndex - firstSubSwathIndex;
+
+                        sx = getSampleIndexInSourceProduct(x, subSwath[subswathIndex - 1]);
+                        if (burstInfo.sy1 != -1 && burstInfo.targetTime > burstInfo.midTime) {
+                            sy = burstInfo.sy1;
+                        } else {
+                            sy = burstInfo.sy0;
+                        }
+                        idx = srcTiles[k].getDataBufferIndex(sx, sy);
+
+                        if (idx >= 0 && !(srcArray[k][idx] == 0)) {
+                            val = srcArray[k][idx];
+                        }
+                    }
+                    tgtArray[x - tgtOffset] = val;
                 }
-                tgtArray[x - tgtOffset] = val;
             }
         }
     }
 
-    private void computeMultipleSubSwathsFloat(final int tx0, final int ty0, final int txMax, final int tyMax,
+    private void computeMultipleSubSwathsFloat(final int ty0, final int tyMax,
                                                final int firstSubSwathIndex, final int lastSubSwathIndex,
                                                final Rectangle[] sourceRectangle, final String tgtBandName,
-                                               final Tile tgtTile, final BurstInfo burstInfo) {
+                                               final Tile tgtTile, final TileRowPlan rowPlan,
+                                               final BurstInfo burstInfo) {
 
         final int numOfSourceTiles = lastSubSwathIndex - firstSubSwathIndex + 1;
         final TileIndex tgtIndex = new TileIndex(tgtTile);
@@ -1039,57 +1057,70 @@ public final class TOPSARDeburstOp extends Operator {
         int sy;
         for (int y = ty0; y < tyMax; y++) {
             final int tgtOffset = tgtIndex.calculateStride(y);
-
-            for (int x = tx0; x < txMax; x++) {
-
-                int subswathIndex = getSubSwathIndex(x, y, firstSubSwathIndex, lastSubSwathIndex, burstInfo);
-                if (subswathIndex == -1) {
-                    continue;
-                }
-                if (!getLineIndicesInSourceProduct(y, subSwath[subswathIndex - 1], burstInfo)) {
-                    continue;
-                }
-
-                float val = 0;
-                k = subswathIndex - firstSubSwathIndex;
-
-                int sx = getSampleIndexInSourceProduct(x, subSwath[subswathIndex - 1]);
-                if (burstInfo.sy1 != -1 && burstInfo.targetTime > burstInfo.midTime) {
-                    sy = burstInfo.sy1;
-                } else {
-                    sy = burstInfo.sy0;
+            final int[] segments = rowPlan.segments[y - ty0];
+
+            for (int s = 0; s < segments.length; s += 4) {
+                final int segX0 = segments[s], segX1 = segments[s + 1], segSwath = segments[s + 2];
+                if (segSwath != -1) {
+                    k = segSwath - firstSubSwathIndex;
+                    final int idx = srcTiles[k].getDataBufferIndex(segments[s + 3], rowPlan.sy[y - ty0][k]);
+                    if (idx >= 0) {
+                        System.arraycopy(srcArray[k], idx, tgtArray, segX0 - tgtOffset, segX1 - segX0);
+                        continue;
+                    }
                 }
-                int idx = srcTiles[k].getDataBufferIndex(sx, sy);
 
-                if (idx >= 0) {
-                    val = srcArray[k][idx];
-                }
+                for (int x = segX0; x < segX1; x++) {
 
-                if(burstInfo.swath1 != -1 && val == 0) {
-                    // edge of swaths found therefore use other swath
-                    if (subswathIndex == burstInfo.swath0) {
-                        subswathIndex = burstInfo.swath1;
-                    } else {
-                        subswathIndex = burstInfo.swath0;
+                    int subswathIndex = getSubSwathIndex(x, y, firstSubSwathIndex, lastSubSwathIndex, burstInfo);
+                    if (subswathIndex == -1) {
+                        continue;
+                    }
+                    if (!getLineIndicesInSourceProduct(y, subSwath[subswathIndex - 1], burstInfo)) {
+                        continue;
                     }
 
-                    getLineIndicesInSourceProduct(y, subSwath[subswathIndex - 1], burstInfo);
-
+                    float val = 0;
                     k = subswathIndex - firstSubSwathIndex;
 
-                    sx = getSampleIndexInSourceProduct(x, subSwath[subswathIndex - 1]);
+                    int sx = getSampleIndexInSourceProduct(x, subSwath[subswathIndex - 1]);
                     if (burstInfo.sy1 != -1 && burstInfo.targetTime > burstInfo.midTime) {
                         sy = burstInfo.sy1;
                     } else {
                         sy = burstInfo.sy0;
                     }
-                    idx = srcTiles[k].getDataBufferIndex(sx, sy);
+                    int idx = srcTiles[k].getDataBufferIndex(sx, sy);
 
-                    if (idx >= 0 && !(srcArray[k][idx] == 0)) {
+                    if (idx >= 0) {
                         val = srcArray[k][idx];
                     }
+
+                    if(burstInfo.swath1 != -1 && val == 0) {
+                        // edge of swaths found therefore use other swath
+                        if (subswathIndex == burstInfo.swath0) {
+                            subswathIndex = burstInfo.swath1;
+                        } else {
+                            subswathIndex = burstInfo.swath0;
+                        }
+
+                        getLineIndicesInSourceProduct(y, subSwath[subswathIndex - 1], burstInfo);
+
+                        k = subswathIndex - firstSubSwathIndex;
+
+                        sx = getSampleIndexInSourceProduct(x, subSwath[subswathIndex - 1]);
+                        if (burstInfo.sy1 != -1 && burstInfo.targetTime > burstInfo.midTime) {
+                            sy = burstInfo.sy1;
+                        } else {
+                            sy = burstInfo.sy0;
+                        }
+                        idx = srcTiles[k].getDataBufferIndex(sx, sy);
+
+                        if (idx >= 0 && !(srcArray[k][idx] == 0)) {
+                            val = srcArray[k][idx];
+                        }
+                    }
+                    tgtArray[x - tgtOffset] = val;
                 }
-                tgtArray[x - tgtOffset] = val;
             }
         }
     }
@@ -1318,6 +1349,104 @@ public final class TOPSARDeburstOp extends Operator {
                 dx, dy);
     }
 
+    /**
+     * Layout of the target rows of a tile covering several subswaths. The burst lines are resolved once per row
+     * and subswath. Runs of columns read from consecutive samples of one subswath are stored as segments that are
+     * copied with System.arraycopy. Columns where subswaths overlap are stored as segments with subswath -1 and
+     * go through the per pixel path. Columns outside of all subswaths are left out.
+     */
+    private final class TileRowPlan {
+        // per row, groups of {first column, end column, subswath index or -1, first source sample}
+        final int[][] segments;
+        // per row and subswath relative to the first subswath, the source line or -1
+        final int[][] sy;
+
+        TileRowPlan(final int tx0, final int ty0, final int txMax, final int tyMax,
+                    final int firstSubSwathIndex, final int lastSubSwathIndex, final BurstInfo burstInfo) {
+
+            final int numSwaths = lastSubSwathIndex - firstSubSwathIndex + 1;
+            final int tw = txMax - tx0;
+            final int th = tyMax - ty0;
+
+            // columns do not depend on the row
+            final int[][] sx = new int[numSwaths][tw];
+            final boolean[][] validSample = new boolean[numSwaths][tw];
+            for (int k = 0; k < numSwaths; k++) {
+                final Sentinel1Utils.SubSwathInfo info = subSwath[firstSubSwathIndex + k - 1];
+                for (int x = tx0; x < txMax; x++) {
+                    final double targetSampleSlrTime = targetSlantRangeTimeToFirstPixel + x * targetDeltaSlantRangeTime;
+                    validSample[k][x - tx0] = targetSampleSlrTime >= info.slrTimeToFirstValidPixel &&
+                            targetSampleSlrTime <= info.slrTimeToLastValidPixel;
+                    sx[k][x - tx0] = getSampleIndexInSourceProduct(x, info);
+                }
+            }
+
+            segments = new int[th][];
+            sy = new int[th][numSwaths];
+            final boolean[] validLine = new boolean[numSwaths];
+            final int[] rowSegments = new int[4 * tw];
+            for (int y = ty0; y < tyMax; y++) {
+                final int r = y - ty0;
+                final double targetLineTime = targetFirstLineTime + y * targetLineTimeInterval;
+                for (int k = 0; k < numSwaths; k++) {
+                    final Sentinel1Utils.SubSwathInfo info = subSwath[firstSubSwathIndex + k - 1];
+                    validLine[k] = targetLineTime >= info.firstValidLineTime &&
+                            targetLineTime <= info.lastValidLineTime;
+                    if (getLineIndicesInSourceProduct(y, info, burstInfo)) {
+                        sy[r][k] = burstInfo.sy1 != -1 && burstInfo.targetTime > burstInfo.midTime ?
+                                burstInfo.sy1 : burstInfo.sy0;
+                    } else {
+                        sy[r][k] = -1;
+                    }
+                }
+
+                int n = 0;
+                int runSwath = -2;
+                for (int xx = 0; xx < tw; xx++) {
+                    int swath0 = -1, swath1 = -1;
+                    for (int k = 0; k < numSwaths; k++) {
+                        if (validLine[k] && validSample[k][xx]) {
+                            if (swath0 == -1) {
+                                swath0 = k;
+                            } else {
+                                swath1 = k;
+                                break;
+                            }
+                        }
+                    }
+
+                    // -2 nothing to write, -1 overlap, otherwise the relative subswath to copy from
+                    final int swath;
+                    if (swath0 == -1) {
+                        swath = -2;
+                    } else if (swath1 != -1) {
+                        swath = -1;
+                    } else {
+                        swath = sy[r][swath0] == -1 ? -2 : swath0;
+                    }
+
+                    final boolean extendsRun = swath == runSwath &&
+                            (swath < 0 || sx[swath][xx] == sx[swath][xx - 1] + 1);
+                    if (extendsRun) {
+                        if (swath != -2) {
+                            rowSegments[n - 3] = tx0 + xx + 1;
+                        }
+                        continue;
+                    }
+                    runSwath = swath;
+                    if (swath == -2) {
+                        continue;
+                    }
+                    rowSegments[n++] = tx0 + xx;
+                    rowSegments[n++] = tx0 + xx + 1;
+                    rowSegments[n++] = swath < 0 ? -1 : firstSubSwathIndex + swath;
+                    rowSegments[n++] = swath < 0 ? 0 : sx[swath][xx];
+                }
+                segments[r] = Arrays.copyOf(rowSegments, n);
+            }
+        }
+    }
+
     private static class BurstInfo {
         public int sy0 = -1;
         public int sy1 = -1;
@@ -17,6 +17,7 @@ package eu.esa.sar.utilities.gpf;
 
 import com.bc.ceres.core.ProgressMonitor;
 import com.bc.ceres.multilevel.MultiLevelImage;
+import eu.esa.sar.commons.io.TileWriteQueue;
 import org.esa.snap.core.dataio.ProductIO;
 import org.esa.snap.core.dataio.ProductSubsetBuilder;
 import org.esa.snap.core.dataio.ProductSubsetDef;
@@ -34,6 +35,7 @@ import org.esa.snap.core.gpf.annotations.Parameter;
 import org.esa.snap.core.gpf.annotations.SourceProduct;
 import org.esa.snap.core.gpf.annotations.TargetProduct;
 import org.esa.snap.core.subset.PixelSubsetRegion;
+import org.esa.snap.core.util.SystemUtils;
 import org.esa.snap.core.util.io.FileUtils;
 
 import java.awt.*;
@@ -92,6 +94,8 @@ public class TileWriterOp extends Operator {
 
     private SubsetInfo[] subsetInfo = null;
 
+    private TileWriteQueue writeQueue = null;
+
     public TileWriterOp() {
         setRequiresAllBands(true);
     }
@@ -150,6 +154,9 @@ public class TileWriterOp extends Operator {
                 }
             }
 
+            final int numThreads = Math.max(1, Math.min(numFiles, Runtime.getRuntime().availableProcessors() / 2));
+            writeQueue = new TileWriteQueue("TileWriter " + file.getName(), 64, numThreads);
+
         } catch (Throwable t) {
             throw new OperatorException(t);
         }
@@ -174,8 +181,9 @@ public class TileWriterOp extends Operator {
 
             for (SubsetInfo info : subsetInfo) {
                 final Rectangle trgRect = info.subsetBuilder.getSubsetDef().getRegion();
-                if (rect.intersects(trgRect)) {
-                    writeTile(info, targetBand.getName(), trgRect);
+                final Rectangle region = rect.intersection(trgRect);
+                if (!region.isEmpty()) {
+                    writeTile(info, targetBand.getName(), trgRect, region);
                 }
             }
             markTileDone(targetBand, targetTile);
@@ -188,15 +196,21 @@ public class TileWriterOp extends Operator {
         }
     }
 
-    private synchronized void writeTile(final SubsetInfo info, final String bandName, final Rectangle trgRect)
-            throws IOException {
+    /**
+     * Hand the part of a tile that falls into an output subset to the write queue.
+     *
+     * @param trgRect the subset region in source coordinates
+     * @param region  the part of the tile inside the subset region
+     */
+    private void writeTile(final SubsetInfo info, final String bandName, final Rectangle trgRect,
+                           final Rectangle region) throws IOException {
 
-        final Tile sourceTile = getSourceTile(sourceProduct.getBand(bandName), trgRect);
+        final Tile sourceTile = getSourceTile(sourceProduct.getBand(bandName), region);
         final ProductData rawSamples = sourceTile.getRawSamples();
 
         final Band trgBand = info.product.getBand(bandName);
-        info.productWriter.writeBandRasterData(trgBand,
-                0, 0, trgBand.getRasterWidth(), trgBand.getRasterHeight(), rawSamples, ProgressMonitor.NULL);
+        writeQueue.write(info.productWriter, trgBand, region.x - trgRect.x, region.y - trgRect.y,
+                region.width, region.height, rawSamples);
     }
 
     private void markTileDone(Band targetBand, Tile targetTile) throws IOException {
@@ -211,7 +225,8 @@ public class TileWriterOp extends Operator {
             done = isDone();
         }
         if (done) {
-            // If we get here all tiles are written
+            // If we get here all tiles are queued
+            writeQueue.flush();
             for (SubsetInfo info : subsetInfo) {
                 if (info.productWriter instanceof DimapProductWriter) {
                     // if we can update the header (only DIMAP) rewrite it!
@@ -250,6 +265,13 @@ public class TileWriterOp extends Operator {
 
     @Override
     public void dispose() {
+        try {
+            if (writeQueue != null) {
+                writeQueue.close();
+            }
+        } catch (IOException e) {
+            SystemUtils.LOG.warning(e.getMessage());
+        }
         try {
             for (SubsetInfo info : subsetInfo) {
                 info.productWriter.close();